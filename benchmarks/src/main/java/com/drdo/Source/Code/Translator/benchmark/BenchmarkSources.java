@@ -0,0 +1,62 @@
+package com.drdo.Source.Code.Translator.benchmark;
+
+/**
+ * Generated benchmark inputs of a given line count. Sources are built from
+ * repeated small methods/functions so every size has the same shape and the
+ * results scale with length alone.
+ */
+public final class BenchmarkSources {
+
+    private BenchmarkSources() {
+    }
+
+    public static String javaSource(int lines) {
+        StringBuilder code = new StringBuilder("public class Generated {\n");
+        int written = 1;
+        for (int i = 0; written + 8 < lines || i == 0; i++) {
+            code.append("    public static int method").append(i).append("(int value) {\n")
+                    .append("        int total = value;\n")
+                    .append("        for (int i = 0; i < ").append(i + 1).append("; i++) {\n")
+                    .append("            total += i * 2;\n")
+                    .append("        }\n")
+                    .append("        return total;\n")
+                    .append("    }\n")
+                    .append("\n");
+            written += 8;
+        }
+        return code.append("}\n").toString();
+    }
+
+    public static String cSource(int lines) {
+        StringBuilder code = new StringBuilder("#include <stdio.h>\n\n");
+        int written = 2;
+        for (int i = 0; written + 8 <= lines || i == 0; i++) {
+            code.append("int function").append(i).append("(int value) {\n")
+                    .append("    int total = value;\n")
+                    .append("    for (int i = 0; i < ").append(i + 1).append("; i++) {\n")
+                    .append("        total += i * 2;\n")
+                    .append("    }\n")
+                    .append("    return total;\n")
+                    .append("}\n")
+                    .append("\n");
+            written += 8;
+        }
+        return code.toString();
+    }
+
+    public static String source(String language, int lines) {
+        return "c".equals(language) ? cSource(lines) : javaSource(lines);
+    }
+
+    /** Model output: the code wrapped in a markdown fence, as the model often returns it. */
+    public static String fenced(String language, String code) {
+        return "```" + language + "\n" + code + "```\n";
+    }
+
+    /** OCR-like text: CRLF line endings, tabs mixed into indentation and runs of spaces. */
+    public static String ocrText(String code) {
+        return code.replace("    ", "  \t  ")
+                .replace(" = ", "   =   ")
+                .replace("\n", "\r\n");
+    }
+}
@@ -0,0 +1,75 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.benchmark.BenchmarkSources;
+import com.drdo.Source.Code.Translator.dto.AnthropicMessageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post-processing of a model response: decoding the body bytes into the typed
+ * message plus fence stripping ({@code extractTranslatedCode}, what the WebClient
+ * decoder and the service do per response) and fence stripping alone
+ * ({@code cleanTranslatedCode}). Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnthropicServiceBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int lines;
+
+    @Param({"java", "c"})
+    private String language;
+
+    private AnthropicService anthropicService;
+    private ObjectReader responseReader;
+    private String fencedCode;
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        // Only the response parsing path is exercised, so no transport is needed
+        anthropicService = new AnthropicService(null, objectMapper, null, null, null, new SimpleMeterRegistry());
+        responseReader = objectMapper.readerFor(AnthropicMessageResponse.class);
+
+        fencedCode = BenchmarkSources.fenced(language, BenchmarkSources.source(language, lines));
+        responseBody = objectMapper.writeValueAsBytes(Map.of(
+                "id", "msg_benchmark",
+                "type", "message",
+                "role", "assistant",
+                "content", List.of(Map.of("type", "text", "text", fencedCode)),
+                "stop_reason", "end_turn",
+                "usage", Map.of("input_tokens", lines * 8, "output_tokens", lines * 8)));
+    }
+
+    @Benchmark
+    public String extractTranslatedCode() throws Exception {
+        return anthropicService.extractTranslatedCode(responseReader.readValue(responseBody));
+    }
+
+    @Benchmark
+    public String cleanTranslatedCode() {
+        return anthropicService.cleanTranslatedCode(fencedCode);
+    }
+}
@@ -0,0 +1,52 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.benchmark.BenchmarkSources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text post-processing after Tesseract: whitespace normalization and the
+ * confidence heuristic. Tesseract itself is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OCRServiceBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int lines;
+
+    private final OCRService ocrService = new OCRService();
+    private String rawText;
+    private String cleanedText;
+
+    @Setup
+    public void setUp() {
+        rawText = BenchmarkSources.ocrText(BenchmarkSources.javaSource(lines));
+        cleanedText = ocrService.cleanExtractedText(rawText);
+    }
+
+    @Benchmark
+    public String cleanExtractedText() {
+        return ocrService.cleanExtractedText(rawText);
+    }
+
+    @Benchmark
+    public double calculateConfidence() {
+        return ocrService.calculateConfidence(cleanedText);
+    }
+}
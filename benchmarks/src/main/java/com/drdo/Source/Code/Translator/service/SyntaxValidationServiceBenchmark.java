@@ -0,0 +1,83 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.benchmark.BenchmarkSources;
+import com.drdo.Source.Code.Translator.cache.ValidationCache;
+import com.drdo.Source.Code.Translator.dto.SyntaxValidationResult;
+import com.drdo.Source.Code.Translator.validation.CParserValidator;
+import com.drdo.Source.Code.Translator.validation.CSyntaxValidator;
+import com.drdo.Source.Code.Translator.validation.JavaSyntaxValidator;
+import com.drdo.Source.Code.Translator.validation.ValidationLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syntax validation of translated code: in-process javac (full attribution and
+ * parse only), gcc -fsyntax-only (falls back to the parser when gcc is missing)
+ * and the in-process C parser. javac reuses pooled file managers; gcc runs as a
+ * new process per call (with precompiled libc headers), so iterations are longer.
+ * validateCached repeats a validation through the result cache, which leaves only
+ * hashing the code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyntaxValidationServiceBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int lines;
+
+    private final SyntaxValidationService syntaxValidationService =
+            new SyntaxValidationService(new JavaSyntaxValidator(4),
+                    new CSyntaxValidator(4, 10000, true, System.getProperty("java.io.tmpdir") + "/translator-pch", 2, 32),
+                    new CParserValidator(),
+                    new ValidationCache(true, 0, 100, false, null, null, new SimpleMeterRegistry()), "gcc");
+    private final CParserValidator cParserValidator = new CParserValidator();
+    private String javaCode;
+    private String cCode;
+
+    @Setup
+    public void setUp() {
+        javaCode = BenchmarkSources.javaSource(lines);
+        cCode = BenchmarkSources.cSource(lines);
+    }
+
+    @Benchmark
+    public SyntaxValidationResult validateJavaCode() {
+        return syntaxValidationService.validateJavaCode(javaCode);
+    }
+
+    @Benchmark
+    public SyntaxValidationResult validateJavaCodeParseOnly() {
+        return syntaxValidationService.validateJavaCode(javaCode, ValidationLevel.PARSE);
+    }
+
+    @Benchmark
+    public SyntaxValidationResult validateCCode() {
+        return syntaxValidationService.validateCCode(cCode);
+    }
+
+    @Benchmark
+    public SyntaxValidationResult validateCCodeInProcess() {
+        return cParserValidator.validate(cCode);
+    }
+
+    @Benchmark
+    public SyntaxValidationResult validateCached() {
+        return syntaxValidationService.validate(javaCode, "java", ValidationLevel.ATTRIBUTE);
+    }
+}
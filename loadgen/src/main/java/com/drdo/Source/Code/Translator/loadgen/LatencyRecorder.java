@@ -0,0 +1,47 @@
+package com.drdo.Source.Code.Translator.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * Records latencies in nanoseconds and reports exact percentiles. Samples are
+ * kept in a growable primitive array; a run of a few hundred thousand requests
+ * only needs a few megabytes.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private boolean sorted;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        sorted = false;
+    }
+
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        sort();
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return samples[Math.max(0, Math.min(count - 1, index))] / 1e6;
+    }
+
+    synchronized double maxMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        sort();
+        return samples[count - 1] / 1e6;
+    }
+
+    private void sort() {
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.drdo.Source.Code.Translator.loadgen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load generator for /translate/text and /translate/image.
+ *
+ * <p>Requests are started on a fixed schedule at the target rate whether or not
+ * earlier ones have finished, and latency is measured from the scheduled start,
+ * so a slow server shows up as queueing delay instead of a lower offered rate.
+ *
+ * <pre>
+ * java -jar loadgen.jar --url http://localhost:8080/api --rps 5 --duration 60
+ * java -jar loadgen.jar --mode image --image sample.png --source c --target java
+ * </pre>
+ */
+public class LoadGenerator {
+
+    private static final String DEFAULT_JAVA_SOURCE = """
+            public class Example {
+                public static int sum(int[] values) {
+                    int total = 0;
+                    for (int value : values) {
+                        total += value;
+                    }
+                    return total;
+                }
+
+                public static void main(String[] args) {
+                    System.out.println(sum(new int[] {1, 2, 3}));
+                }
+            }
+            """;
+
+    private static final String DEFAULT_C_SOURCE = """
+            #include <stdio.h>
+
+            int sum(int *values, int count) {
+                int total = 0;
+                for (int i = 0; i < count; i++) {
+                    total += values[i];
+                }
+                return total;
+            }
+
+            int main(void) {
+                int values[] = {1, 2, 3};
+                printf("%d\\n", sum(values, 3));
+                return 0;
+            }
+            """;
+
+    private final Options options;
+    private final HttpClient client;
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private long dropped;
+
+    public LoadGenerator(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        if (options == null) {
+            System.out.println(Options.USAGE);
+            return;
+        }
+        new LoadGenerator(options).run();
+    }
+
+    public void run() throws IOException, InterruptedException {
+        RequestFactory factory = requestFactory();
+
+        long intervalNanos = (long) (1_000_000_000L / options.rps);
+        long total = (long) (options.rps * options.durationSeconds);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long nextProgress = start + TimeUnit.SECONDS.toNanos(5);
+
+        System.out.printf("Offering %.2f req/s to %s (%s) for %ds%n",
+                options.rps, factory.target(), options.mode, options.durationSeconds);
+
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (inFlight.get() >= options.maxInFlight) {
+                // Client-side protection only; reported so the run is not mistaken for a clean one
+                dropped++;
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(factory.create(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> record(scheduled, response, error));
+
+            if (System.nanoTime() >= nextProgress) {
+                printProgress(start);
+                nextProgress += TimeUnit.SECONDS.toNanos(5);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.timeoutSeconds);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        report(total, System.nanoTime() - start);
+    }
+
+    private void record(long scheduled, HttpResponse<String> response, Throwable error) {
+        long latency = System.nanoTime() - scheduled;
+        String outcome;
+        if (error != null) {
+            outcome = "error:" + rootCause(error).getClass().getSimpleName();
+        } else if (response.statusCode() != 200) {
+            outcome = "http:" + response.statusCode();
+        } else if (response.body().contains("\"success\":false")) {
+            outcome = "failed";
+        } else {
+            outcome = "ok";
+            latencies.record(latency);
+        }
+        outcomes.computeIfAbsent(outcome, key -> new AtomicInteger()).incrementAndGet();
+        completed.incrementAndGet();
+        inFlight.decrementAndGet();
+    }
+
+    private void printProgress(long start) {
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %5.0fs  completed=%d  in-flight=%d  throughput=%.2f req/s%n",
+                elapsed, completed.get(), inFlight.get(), completed.get() / elapsed);
+    }
+
+    private void report(long sent, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        int ok = outcomes.getOrDefault("ok", new AtomicInteger()).get();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sent", sent - dropped);
+        report.put("dropped", dropped);
+        report.put("completed", completed.get());
+        report.put("unfinished", inFlight.get());
+        report.put("ok", ok);
+        report.put("throughput", ok / seconds);
+        report.put("outcomes", outcomes);
+
+        if (options.json) {
+            System.out.println(toJson(report, latencies));
+            return;
+        }
+
+        System.out.println();
+        System.out.printf("Sent %d (dropped %d), completed %d, unfinished %d in %.1fs%n",
+                sent - dropped, dropped, completed.get(), inFlight.get(), seconds);
+        System.out.printf("Outcomes: %s%n", outcomes);
+        System.out.printf("Throughput: %.2f successful req/s%n", ok / seconds);
+        System.out.printf("Latency (ms, successful requests, from scheduled start): " +
+                        "p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                latencies.percentileMillis(50), latencies.percentileMillis(90),
+                latencies.percentileMillis(99), latencies.percentileMillis(99.9), latencies.maxMillis());
+    }
+
+    private RequestFactory requestFactory() throws IOException {
+        String base = options.url.endsWith("/") ? options.url.substring(0, options.url.length() - 1) : options.url;
+
+        if ("image".equals(options.mode)) {
+            if (options.image == null) {
+                throw new IllegalArgumentException("--image is required in image mode");
+            }
+            URI uri = URI.create(base + "/translate/image");
+            byte[] image = Files.readAllBytes(options.image);
+            String boundary = "loadgen-" + UUID.randomUUID();
+            byte[] body = multipart(boundary, image, options.image.getFileName().toString());
+            return new RequestFactory(uri, () -> HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build());
+        }
+
+        URI uri = URI.create(base + "/translate/text");
+        String code = options.source != null
+                ? Files.readString(options.source)
+                : "c".equals(options.sourceLanguage) ? DEFAULT_C_SOURCE : DEFAULT_JAVA_SOURCE;
+        AtomicLong sequence = new AtomicLong();
+        return new RequestFactory(uri, () -> {
+            // Optionally vary the source per request so the translation cache does not absorb the load
+            String requestCode = options.unique ? code + "\n// request " + sequence.incrementAndGet() + "\n" : code;
+            String json = "{\"sourceCode\":" + quote(requestCode) +
+                    ",\"sourceLanguage\":" + quote(options.sourceLanguage) +
+                    ",\"targetLanguage\":" + quote(options.targetLanguage) +
+                    ",\"validateSyntax\":" + options.validateSyntax + "}";
+            return HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        });
+    }
+
+    private byte[] multipart(String boundary, byte[] image, String filename) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writePart(body, boundary, "sourceLanguage", options.sourceLanguage);
+        writePart(body, boundary, "targetLanguage", options.targetLanguage);
+        writePart(body, boundary, "validateSyntax", String.valueOf(options.validateSyntax));
+        body.write(("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"image\"; filename=\"" + filename + "\"\r\n" +
+                "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static void writePart(ByteArrayOutputStream body, String boundary, String name, String value)
+            throws IOException {
+        body.write(("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" +
+                value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toJson(Map<String, Object> report, LatencyRecorder latencies) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, Object> entry : report.entrySet()) {
+            json.append(quote(entry.getKey())).append(':');
+            Object value = entry.getValue();
+            if (value instanceof Map<?, ?> map) {
+                json.append('{');
+                map.forEach((key, count) -> json.append(quote(key.toString())).append(':').append(count).append(','));
+                if (!map.isEmpty()) {
+                    json.setLength(json.length() - 1);
+                }
+                json.append('}');
+            } else if (value instanceof Double number) {
+                json.append(String.format("%.3f", number));
+            } else {
+                json.append(value);
+            }
+            json.append(',');
+        }
+        json.append("\"latencyMs\":{")
+                .append(String.format("\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f",
+                        latencies.percentileMillis(50), latencies.percentileMillis(90),
+                        latencies.percentileMillis(99), latencies.percentileMillis(99.9), latencies.maxMillis()))
+                .append("}}");
+        return json.toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private record RequestFactory(URI target, Supplier<HttpRequest> supplier) {
+        HttpRequest create() {
+            return supplier.get();
+        }
+    }
+
+    static final class Options {
+
+        static final String USAGE = """
+                Usage: java -jar loadgen.jar [options]
+                  --url <base>           API base URL (default http://localhost:8080/api)
+                  --mode text|image      endpoint to drive (default text)
+                  --rps <n>              target requests per second (default 2)
+                  --duration <s>         seconds to offer load (default 30)
+                  --source-file <path>   source code to translate (text mode; default built-in sample)
+                  --image <path>         image to upload (image mode)
+                  --source <lang>        source language (default java)
+                  --target <lang>        target language (default c)
+                  --validate             request syntax validation
+                  --unique               make every request's source distinct (bypasses the cache)
+                  --max-in-flight <n>    drop scheduled requests beyond this many outstanding (default 10000)
+                  --timeout <s>          per-request timeout (default 120)
+                  --json                 print the report as JSON
+                """;
+
+        String url = "http://localhost:8080/api";
+        String mode = "text";
+        double rps = 2;
+        int durationSeconds = 30;
+        Path source;
+        Path image;
+        String sourceLanguage = "java";
+        String targetLanguage = "c";
+        boolean validateSyntax;
+        boolean unique;
+        int maxInFlight = 10_000;
+        int timeoutSeconds = 120;
+        boolean json;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--url" -> options.url = args[++i];
+                    case "--mode" -> options.mode = args[++i];
+                    case "--rps" -> options.rps = Double.parseDouble(args[++i]);
+                    case "--duration" -> options.durationSeconds = Integer.parseInt(args[++i]);
+                    case "--source-file" -> options.source = Path.of(args[++i]);
+                    case "--image" -> options.image = Path.of(args[++i]);
+                    case "--source" -> options.sourceLanguage = args[++i];
+                    case "--target" -> options.targetLanguage = args[++i];
+                    case "--validate" -> options.validateSyntax = true;
+                    case "--unique" -> options.unique = true;
+                    case "--max-in-flight" -> options.maxInFlight = Integer.parseInt(args[++i]);
+                    case "--timeout" -> options.timeoutSeconds = Integer.parseInt(args[++i]);
+                    case "--json" -> options.json = true;
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+            return options.rps > 0 && options.durationSeconds > 0 ? options : null;
+        }
+    }
+}
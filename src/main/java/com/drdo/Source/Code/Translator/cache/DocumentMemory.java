@@ -0,0 +1,41 @@
+package com.drdo.Source.Code.Translator.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-document memory for incremental translation: the latest translated header
+ * and units of each document id and language pair. Bounded by document count
+ * and expiry; only the units of the latest version are kept.
+ */
+@Component
+public class DocumentMemory {
+
+    private final ExpiringLruCache<String, DocumentTranslation> documents;
+
+    public DocumentMemory(@Value("${translation.incremental.max-documents:1000}") int maxDocuments,
+                          @Value("${translation.incremental.ttl:86400}") long ttlSeconds,
+                          MeterRegistry meterRegistry) {
+        this.documents = new ExpiringLruCache<>(maxDocuments, Duration.ofSeconds(ttlSeconds));
+
+        Gauge.builder("translation.incremental.documents", documents, ExpiringLruCache::size)
+                .description("Documents remembered for incremental translation")
+                .register(meterRegistry);
+    }
+
+    public DocumentTranslation get(String documentId, String sourceLanguage, String targetLanguage) {
+        return documents.get(key(documentId, sourceLanguage, targetLanguage));
+    }
+
+    public void put(String documentId, String sourceLanguage, String targetLanguage, DocumentTranslation translation) {
+        documents.put(key(documentId, sourceLanguage, targetLanguage), translation);
+    }
+
+    private static String key(String documentId, String sourceLanguage, String targetLanguage) {
+        return sourceLanguage.toLowerCase() + "->" + targetLanguage.toLowerCase() + ":" + documentId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.drdo.Source.Code.Translator.cache;
+
+import java.util.Map;
+
+// Translated pieces of the last submitted version of a document, keyed by unit fingerprint
+public class DocumentTranslation {
+    private final String headerFingerprint;
+    private final String translatedHeader;
+    private final Map<String, String> translatedUnits;
+
+    public DocumentTranslation(String headerFingerprint, String translatedHeader, Map<String, String> translatedUnits) {
+        this.headerFingerprint = headerFingerprint;
+        this.translatedHeader = translatedHeader;
+        this.translatedUnits = Map.copyOf(translatedUnits);
+    }
+
+    public String getHeaderFingerprint() { return headerFingerprint; }
+
+    public String getTranslatedHeader() { return translatedHeader; }
+
+    public Map<String, String> getTranslatedUnits() { return translatedUnits; }
+}
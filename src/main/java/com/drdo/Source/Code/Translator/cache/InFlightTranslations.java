@@ -0,0 +1,58 @@
+package com.drdo.Source.Code.Translator.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical translations: concurrent callers with
+ * the same TranslationKey share one outstanding upstream call and all receive
+ * its result (or error). The entry is removed as soon as the call terminates,
+ * so later requests go through the cache instead.
+ */
+@Component
+public class InFlightTranslations {
+
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    private final Counter deduplicated;
+
+    public InFlightTranslations(MeterRegistry meterRegistry) {
+        this.deduplicated = Counter.builder("translation.singleflight.deduplicated")
+                .description("Requests that attached to an identical in-flight translation")
+                .register(meterRegistry);
+        Gauge.builder("translation.singleflight.in-flight", inFlight, Map::size)
+                .description("Distinct translations currently awaiting an upstream response")
+                .register(meterRegistry);
+    }
+
+    public Mono<String> execute(String key, Supplier<Mono<String>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<String>> created = new AtomicReference<>();
+            Mono<String> shared = inFlight.computeIfAbsent(key, k -> {
+                AtomicReference<Mono<String>> self = new AtomicReference<>();
+                Mono<String> flight = call.get()
+                        .doFinally(signal -> inFlight.remove(k, self.get()))
+                        .share();
+                self.set(flight);
+                created.set(flight);
+                return flight;
+            });
+
+            if (created.get() == null) {
+                deduplicated.increment();
+            }
+            return shared;
+        });
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,51 @@
+package com.drdo.Source.Code.Translator.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// In-process cache of completed translations, keyed by TranslationKey
+@Component
+public class TranslationCache {
+
+    private final boolean enabled;
+    private final ExpiringLruCache<String, String> cache;
+
+    public TranslationCache(@Value("${translation.cache.enabled:true}") boolean enabled,
+                            @Value("${translation.cache.ttl:3600}") long ttlSeconds,
+                            @Value("${translation.cache.max-entries:10000}") int maxEntries,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = new ExpiringLruCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+
+        FunctionCounter.builder("translation.cache.hits", cache, ExpiringLruCache::hitCount)
+                .description("Translations served from the in-process cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("translation.cache.misses", cache, ExpiringLruCache::missCount)
+                .description("Translation cache lookups that required an upstream call")
+                .register(meterRegistry);
+        FunctionCounter.builder("translation.cache.evictions", cache, ExpiringLruCache::evictionCount)
+                .description("Entries removed from the translation cache by size or TTL")
+                .register(meterRegistry);
+        Gauge.builder("translation.cache.size", cache, ExpiringLruCache::size)
+                .register(meterRegistry);
+    }
+
+    public String get(String key) {
+        return enabled ? cache.get(key) : null;
+    }
+
+    public void put(String key, String translatedCode) {
+        if (enabled && translatedCode != null && !translatedCode.isEmpty()) {
+            cache.put(key, translatedCode);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
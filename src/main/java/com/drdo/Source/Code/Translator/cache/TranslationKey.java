@@ -0,0 +1,87 @@
+package com.drdo.Source.Code.Translator.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed identity of a translation: a SHA-256 over the canonicalized
+ * source code, the language pair, the model and the prompt template version.
+ */
+public final class TranslationKey {
+
+    private TranslationKey() {
+    }
+
+    public static String of(String sourceCode, String sourceLanguage, String targetLanguage,
+                            String model, String promptVersion) {
+        return hash(canonicalize(sourceCode), sourceLanguage.toLowerCase(), targetLanguage.toLowerCase(),
+                model, promptVersion);
+    }
+
+    // Hex SHA-256 over the components exactly as given, in the same key space as the translation store
+    public static String hash(String... components) {
+        MessageDigest digest = sha256();
+        for (String component : components) {
+            update(digest, component);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Normalize line endings to \n, strip trailing whitespace from every line and
+     * drop trailing blank lines, so cosmetic differences map to the same key.
+     */
+    public static String canonicalize(String code) {
+        if (code == null) {
+            return "";
+        }
+
+        StringBuilder canonical = new StringBuilder(code.length());
+        int lineStart = 0;
+        int length = code.length();
+        while (lineStart <= length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && code.charAt(lineEnd) != '\n' && code.charAt(lineEnd) != '\r') {
+                lineEnd++;
+            }
+
+            int trimmedEnd = lineEnd;
+            while (trimmedEnd > lineStart && Character.isWhitespace(code.charAt(trimmedEnd - 1))) {
+                trimmedEnd--;
+            }
+            canonical.append(code, lineStart, trimmedEnd).append('\n');
+
+            if (lineEnd < length && code.charAt(lineEnd) == '\r' && lineEnd + 1 < length && code.charAt(lineEnd + 1) == '\n') {
+                lineEnd++;
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        int end = canonical.length();
+        while (end > 0 && canonical.charAt(end - 1) == '\n') {
+            end--;
+        }
+        canonical.setLength(end);
+        return canonical.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        // Length-prefix each component so that field boundaries cannot be shifted
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
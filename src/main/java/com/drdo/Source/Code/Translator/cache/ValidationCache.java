@@ -0,0 +1,134 @@
+package com.drdo.Source.Code.Translator.cache;
+
+import com.drdo.Source.Code.Translator.dto.SyntaxDiagnostic;
+import com.drdo.Source.Code.Translator.dto.SyntaxValidationResult;
+import com.drdo.Source.Code.Translator.store.TranslationStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Syntax validation verdicts, keyed by a SHA-256 over the exact code, the
+ * language and the validator that checked it (javac version and level, gcc
+ * version, or parser version). Entries live in a bounded LRU and, with persist
+ * on, in the translation store as JSON, so code validated before a restart is
+ * not compiled again either.
+ */
+@Component
+public class ValidationCache {
+
+    private final boolean enabled;
+    private final boolean persist;
+    private final ExpiringLruCache<String, SyntaxValidationResult> cache;
+    private final TranslationStore translationStore;
+    private final ObjectMapper objectMapper;
+    private final Counter storeHits;
+
+    public ValidationCache(@Value("${translation.validation.cache.enabled:true}") boolean enabled,
+                           @Value("${translation.validation.cache.ttl:0}") long ttlSeconds,
+                           @Value("${translation.validation.cache.max-entries:10000}") int maxEntries,
+                           @Value("${translation.validation.cache.persist:false}") boolean persist,
+                           TranslationStore translationStore,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.persist = persist;
+        this.cache = new ExpiringLruCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+        this.translationStore = translationStore;
+        this.objectMapper = objectMapper;
+
+        FunctionCounter.builder("translation.validation.cache.hits", cache, ExpiringLruCache::hitCount)
+                .description("Validations answered from memory without running a compiler")
+                .register(meterRegistry);
+        FunctionCounter.builder("translation.validation.cache.misses", cache, ExpiringLruCache::missCount)
+                .description("Validation cache lookups not found in memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("translation.validation.cache.evictions", cache, ExpiringLruCache::evictionCount)
+                .description("Entries removed from the validation cache by size or TTL")
+                .register(meterRegistry);
+        this.storeHits = Counter.builder("translation.validation.cache.store-hits")
+                .description("Memory misses answered from the translation store")
+                .register(meterRegistry);
+        Gauge.builder("translation.validation.cache.hit-rate", cache, ExpiringLruCache::hitRate)
+                .description("Fraction of validation lookups answered from memory")
+                .register(meterRegistry);
+        Gauge.builder("translation.validation.cache.size", cache, ExpiringLruCache::size)
+                .register(meterRegistry);
+    }
+
+    public static String key(String code, String language, String validator) {
+        // Not canonicalized: trailing whitespace and line endings can change diagnostics
+        return TranslationKey.hash("validation", code, language.toLowerCase(), validator);
+    }
+
+    public SyntaxValidationResult get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        SyntaxValidationResult result = cache.get(key);
+        if (result == null && persist) {
+            result = load(key);
+            if (result != null) {
+                storeHits.increment();
+                cache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    public void put(String key, SyntaxValidationResult result) {
+        if (!enabled || !isVerdict(result)) {
+            return;
+        }
+
+        cache.put(key, result);
+        if (persist) {
+            try {
+                translationStore.put(key, objectMapper.writeValueAsString(result));
+            } catch (JsonProcessingException e) {
+                System.err.println("Failed to persist validation result: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Only results the checker reached about the code itself are reused; timeouts,
+     * interruptions and driver failures carry no level or no diagnostic and are
+     * worth retrying.
+     */
+    private static boolean isVerdict(SyntaxValidationResult result) {
+        if (result == null || result.getLevel() == null) {
+            return false;
+        }
+        if (result.isValid()) {
+            return true;
+        }
+        for (SyntaxDiagnostic diagnostic : result.getDiagnostics()) {
+            if ("error".equals(diagnostic.getSeverity())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SyntaxValidationResult load(String key) {
+        String json = translationStore.get(key);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, SyntaxValidationResult.class);
+        } catch (JsonProcessingException e) {
+            System.err.println("Ignoring unreadable validation result in the translation store: " + e.getMessage());
+            return null;
+        }
+    }
+}
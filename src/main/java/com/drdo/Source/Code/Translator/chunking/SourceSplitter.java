@@ -0,0 +1,273 @@
+package com.drdo.Source.Code.Translator.chunking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Lexical splitter that cuts Java and C sources into translatable units without
+ * a full parse. Strings, character literals, comments and (for C) preprocessor
+ * lines are skipped so braces inside them do not affect nesting. Between
+ * members, braces inside parentheses (annotation arrays such as
+ * {@code @SuppressWarnings({"a", "b"})}) are not taken for bodies either.
+ *
+ * <p>Java: members of top-level classes that have a body (methods, constructors,
+ * nested types, initializers) become units; package/import lines, class headers
+ * and fields form the header. Non-class top-level types (interfaces, enums,
+ * records) are kept whole as a single unit.
+ *
+ * <p>C: function definitions become units; includes, macros, typedefs, struct
+ * definitions, globals and prototypes form the header.
+ */
+public final class SourceSplitter {
+
+    private static final Pattern CLASS_KEYWORD = Pattern.compile("\\bclass\\b");
+    private static final Pattern OTHER_TYPE_KEYWORD = Pattern.compile("\\b(interface|enum|record)\\b|@interface");
+
+    private SourceSplitter() {
+    }
+
+    public static SplitSource split(String code, String language) {
+        return "c".equalsIgnoreCase(language) ? splitC(code) : splitJava(code);
+    }
+
+    private static SplitSource splitJava(String code) {
+        StringBuilder header = new StringBuilder();
+        List<SourceUnit> units = new ArrayList<>();
+
+        int depth = 0;
+        int chunkStart = 0;
+        // Depth at which the current unit ends, or -1 when not inside a unit
+        int unitEndDepth = -1;
+        boolean inFieldInitializer = false;
+        int parens = 0;
+
+        int i = 0;
+        while (i < code.length()) {
+            int skipped = skipLiteralOrComment(code, i, false);
+            if (skipped > i) {
+                i = skipped;
+                continue;
+            }
+
+            char c = code.charAt(i);
+            boolean betweenMembers = depth <= 1 && unitEndDepth < 0 && !inFieldInitializer;
+            if (c == '(') {
+                parens++;
+            } else if (c == ')') {
+                parens = Math.max(0, parens - 1);
+            } else if ((c == '{' || c == '}') && parens > 0 && betweenMembers) {
+                // Annotation array value; balanced within the parentheses
+            } else if (c == '{') {
+                if (depth == 0) {
+                    String prefix = code.substring(chunkStart, i);
+                    if (!CLASS_KEYWORD.matcher(prefix).find() || OTHER_TYPE_KEYWORD.matcher(prefix).find()) {
+                        // Interface/enum/record: keep the whole declaration as one unit
+                        unitEndDepth = 0;
+                    } else {
+                        header.append(code, chunkStart, i + 1);
+                        chunkStart = i + 1;
+                    }
+                } else if (depth == 1 && unitEndDepth < 0 && !inFieldInitializer) {
+                    if (hasTopLevelAssignment(code.substring(chunkStart, i))) {
+                        // Array initializer or anonymous class in a field declaration
+                        inFieldInitializer = true;
+                    } else {
+                        unitEndDepth = 1;
+                    }
+                }
+                depth++;
+            } else if (c == '}') {
+                depth = Math.max(0, depth - 1);
+                if (depth == unitEndDepth) {
+                    addUnit(units, code, chunkStart, i + 1);
+                    chunkStart = i + 1;
+                    unitEndDepth = -1;
+                } else if (depth == 0 && unitEndDepth < 0) {
+                    // End of a top-level class
+                    header.append(code, chunkStart, i + 1);
+                    chunkStart = i + 1;
+                }
+            } else if (c == ';' && depth == 1 && unitEndDepth < 0) {
+                // Field or abstract method declaration
+                header.append(code, chunkStart, i + 1);
+                chunkStart = i + 1;
+                inFieldInitializer = false;
+            } else if (c == ';' && depth == 0 && unitEndDepth < 0) {
+                // package/import statements
+                header.append(code, chunkStart, i + 1);
+                chunkStart = i + 1;
+            }
+            i++;
+        }
+
+        header.append(code.substring(chunkStart));
+        return new SplitSource(header.toString(), units);
+    }
+
+    private static SplitSource splitC(String code) {
+        StringBuilder header = new StringBuilder();
+        List<SourceUnit> units = new ArrayList<>();
+
+        int depth = 0;
+        int chunkStart = 0;
+        boolean inFunctionBody = false;
+
+        int i = 0;
+        while (i < code.length()) {
+            if (depth == 0 && isPreprocessorStart(code, i)) {
+                int end = endOfPreprocessorLine(code, i);
+                header.append(code, chunkStart, end);
+                chunkStart = end;
+                i = end;
+                continue;
+            }
+
+            int skipped = skipLiteralOrComment(code, i, true);
+            if (skipped > i) {
+                i = skipped;
+                continue;
+            }
+
+            char c = code.charAt(i);
+            if (c == '{') {
+                if (depth == 0 && code.substring(chunkStart, i).stripTrailing().endsWith(")")) {
+                    inFunctionBody = true;
+                }
+                depth++;
+            } else if (c == '}') {
+                depth = Math.max(0, depth - 1);
+                if (depth == 0 && inFunctionBody) {
+                    addUnit(units, code, chunkStart, i + 1);
+                    chunkStart = i + 1;
+                    inFunctionBody = false;
+                }
+            } else if (c == ';' && depth == 0) {
+                header.append(code, chunkStart, i + 1);
+                chunkStart = i + 1;
+            }
+            i++;
+        }
+
+        header.append(code.substring(chunkStart));
+        return new SplitSource(header.toString(), units);
+    }
+
+    private static void addUnit(List<SourceUnit> units, String code, int start, int end) {
+        // Keep leading comments/annotations with the unit but drop blank lines before it
+        String raw = code.substring(start, end);
+        int leadingBlank = 0;
+        while (leadingBlank < raw.length() && Character.isWhitespace(raw.charAt(leadingBlank))) {
+            leadingBlank++;
+        }
+        int unitStart = start + leadingBlank;
+        String text = code.substring(unitStart, end);
+
+        String withoutComments = text.replaceAll("(?s)/\\*.*?\\*/|//[^\\n]*", "");
+        int brace = withoutComments.indexOf('{');
+        String signature = (brace >= 0 ? withoutComments.substring(0, brace) : withoutComments)
+                .replaceAll("\\s+", " ")
+                .trim();
+        units.add(new SourceUnit(text, signature, lineOf(code, unitStart)));
+    }
+
+    /**
+     * If a string, character literal or comment starts at {@code i}, return the
+     * index just past it; otherwise return {@code i}.
+     */
+    static int skipLiteralOrComment(String code, int i, boolean cLanguage) {
+        char c = code.charAt(i);
+        char next = i + 1 < code.length() ? code.charAt(i + 1) : '\0';
+
+        if (c == '/' && next == '/') {
+            int end = code.indexOf('\n', i);
+            return end < 0 ? code.length() : end;
+        }
+        if (c == '/' && next == '*') {
+            int end = code.indexOf("*/", i + 2);
+            return end < 0 ? code.length() : end + 2;
+        }
+        if (!cLanguage && code.startsWith("\"\"\"", i)) {
+            int end = code.indexOf("\"\"\"", i + 3);
+            return end < 0 ? code.length() : end + 3;
+        }
+        if (c == '"' || c == '\'') {
+            int j = i + 1;
+            while (j < code.length()) {
+                char ch = code.charAt(j);
+                if (ch == '\\') {
+                    j += 2;
+                    continue;
+                }
+                if (ch == c || ch == '\n') {
+                    return j + 1;
+                }
+                j++;
+            }
+            return code.length();
+        }
+        return i;
+    }
+
+    private static boolean hasTopLevelAssignment(String prefix) {
+        int parens = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            int skipped = skipLiteralOrComment(prefix, i, false);
+            if (skipped > i) {
+                i = skipped - 1;
+                continue;
+            }
+            char c = prefix.charAt(i);
+            if (c == '(') {
+                parens++;
+            } else if (c == ')') {
+                parens--;
+            } else if (c == '=' && parens == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPreprocessorStart(String code, int i) {
+        if (code.charAt(i) != '#') {
+            return false;
+        }
+        for (int j = i - 1; j >= 0; j--) {
+            char c = code.charAt(j);
+            if (c == '\n') {
+                return true;
+            }
+            if (c != ' ' && c != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int endOfPreprocessorLine(String code, int i) {
+        int j = i;
+        while (j < code.length()) {
+            char c = code.charAt(j);
+            if (c == '\\' && j + 1 < code.length() && code.charAt(j + 1) == '\n') {
+                j += 2;
+                continue;
+            }
+            if (c == '\n') {
+                return j + 1;
+            }
+            j++;
+        }
+        return code.length();
+    }
+
+    private static int lineOf(String code, int index) {
+        int line = 1;
+        for (int i = 0; i < index; i++) {
+            if (code.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+}
@@ -0,0 +1,24 @@
+package com.drdo.Source.Code.Translator.chunking;
+
+// An independently translatable piece of a source file (a Java member or a C function)
+public class SourceUnit {
+    private final String text;
+    private final String signature;
+    private final int startLine;
+
+    public SourceUnit(String text, String signature, int startLine) {
+        this.text = text;
+        this.signature = signature;
+        this.startLine = startLine;
+    }
+
+    public String getText() { return text; }
+
+    public String getSignature() { return signature; }
+
+    public int getStartLine() { return startLine; }
+
+    public int getLineCount() {
+        return (int) text.chars().filter(c -> c == '\n').count() + 1;
+    }
+}
@@ -0,0 +1,21 @@
+package com.drdo.Source.Code.Translator.chunking;
+
+import java.util.List;
+
+/**
+ * A source file split into shared header context (imports, includes, type
+ * shells, fields, globals, prototypes) and translatable units in source order.
+ */
+public class SplitSource {
+    private final String header;
+    private final List<SourceUnit> units;
+
+    public SplitSource(String header, List<SourceUnit> units) {
+        this.header = header;
+        this.units = List.copyOf(units);
+    }
+
+    public String getHeader() { return header; }
+
+    public List<SourceUnit> getUnits() { return units; }
+}
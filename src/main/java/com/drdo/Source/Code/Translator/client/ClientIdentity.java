@@ -0,0 +1,50 @@
+package com.drdo.Source.Code.Translator.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * The caller a translation is done for and its scheduling class. Resolved per
+ * HTTP request by {@link ClientInterceptor} and carried down to the upstream
+ * call in the Reactor context, so the rate limiter and quota accounting see it
+ * without every service method taking an extra parameter.
+ */
+public final class ClientIdentity {
+
+    public enum Priority {
+        // Someone is waiting on the response
+        INTERACTIVE,
+        // Batch requests and archive jobs
+        BULK
+    }
+
+    public static final String REQUEST_ATTRIBUTE = "translator.client";
+    public static final ClientIdentity ANONYMOUS = new ClientIdentity("anonymous", Priority.INTERACTIVE);
+
+    private static final Object CONTEXT_KEY = ClientIdentity.class;
+
+    private final String clientId;
+    private final Priority priority;
+
+    public ClientIdentity(String clientId, Priority priority) {
+        this.clientId = clientId;
+        this.priority = priority;
+    }
+
+    public static ClientIdentity from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, ANONYMOUS);
+    }
+
+    public Context toContext() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public String getClientId() { return clientId; }
+
+    public Priority getPriority() { return priority; }
+
+    // Fair-queueing flow: each client is scheduled separately within each class
+    public String getFlow() {
+        return priority.name() + ":" + clientId;
+    }
+}
@@ -0,0 +1,112 @@
+package com.drdo.Source.Code.Translator.client;
+
+import com.drdo.Source.Code.Translator.ratelimit.AnthropicRateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies the caller of a translation endpoint, admits it against its token
+ * quota and reports where it would join the upstream queue.
+ *
+ * <p>Callers are identified by the X-API-Key header (stored only as a hash),
+ * then X-Client-Id, then the remote address. Batch and archive job endpoints are
+ * bulk; other translations are interactive unless the caller sends
+ * {@code X-Priority: bulk}. Clients over quota get 429 with Retry-After; admitted
+ * requests get X-Queue-Position and X-Estimated-Wait-Ms headers.
+ */
+@Component
+public class ClientInterceptor implements HandlerInterceptor {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final String PRIORITY_HEADER = "X-Priority";
+    public static final String QUEUE_POSITION_HEADER = "X-Queue-Position";
+    public static final String ESTIMATED_WAIT_HEADER = "X-Estimated-Wait-Ms";
+
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private final AnthropicRateLimiter rateLimiter;
+    private final ClientQuotas clientQuotas;
+
+    public ClientInterceptor(AnthropicRateLimiter rateLimiter, ClientQuotas clientQuotas) {
+        this.rateLimiter = rateLimiter;
+        this.clientQuotas = clientQuotas;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        // Async results are dispatched through the interceptor a second time; the request was admitted already
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        ClientIdentity client = new ClientIdentity(resolveClientId(request), resolvePriority(request));
+        request.setAttribute(ClientIdentity.REQUEST_ATTRIBUTE, client);
+
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+
+        long retryAfter = clientQuotas.retryAfterSeconds(client.getClientId());
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(("{\"error\":\"Token quota exceeded\",\"client\":\"" +
+                    client.getClientId() + "\",\"retryAfterSeconds\":" + retryAfter + "}")
+                    .getBytes(StandardCharsets.UTF_8));
+            return false;
+        }
+
+        // The body is not read here; its length stands in for the source size
+        int estimatedTokens = (int) Math.min(Integer.MAX_VALUE, Math.max(0, request.getContentLengthLong()) / 3 + 1);
+        AnthropicRateLimiter.QueueEstimate estimate = rateLimiter.estimate(estimatedTokens, client);
+        response.setHeader(QUEUE_POSITION_HEADER, String.valueOf(estimate.getPosition()));
+        response.setHeader(ESTIMATED_WAIT_HEADER, String.valueOf(estimate.getWaitMillis()));
+        return true;
+    }
+
+    private static String resolveClientId(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + sha256(apiKey.trim()).substring(0, 16);
+        }
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isBlank()) {
+            String trimmed = clientId.trim();
+            return "id:" + (trimmed.length() > MAX_CLIENT_ID_LENGTH ? trimmed.substring(0, MAX_CLIENT_ID_LENGTH) : trimmed)
+                    .replaceAll("[^A-Za-z0-9._@-]", "_");
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static ClientIdentity.Priority resolvePriority(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.contains("/translate/batch") || path.contains("/translate/jobs")
+                || "bulk".equalsIgnoreCase(request.getHeader(PRIORITY_HEADER))) {
+            return ClientIdentity.Priority.BULK;
+        }
+        return ClientIdentity.Priority.INTERACTIVE;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
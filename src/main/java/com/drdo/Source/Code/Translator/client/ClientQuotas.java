@@ -0,0 +1,149 @@
+package com.drdo.Source.Code.Translator.client;
+
+import com.drdo.Source.Code.Translator.dto.AnthropicMessageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token accounting from the usage block of Anthropic responses, with
+ * optional per-minute and per-day (UTC) quotas. Input, cache-write and output
+ * tokens are charged; cache reads are not, matching how Anthropic counts
+ * input-token rate limits. A limit of 0 disables that quota.
+ */
+@Component
+public class ClientQuotas {
+
+    private static final long MILLIS_PER_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final Map<String, Usage> usage = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+
+    @Value("${translation.clients.quota.tokens-per-minute:0}")
+    private long tokensPerMinute;
+
+    @Value("${translation.clients.quota.tokens-per-day:0}")
+    private long tokensPerDay;
+
+    @Value("${translation.clients.max-tracked:10000}")
+    private int maxTracked;
+
+    public ClientQuotas(MeterRegistry meterRegistry) {
+        this.rejectedCounter = Counter.builder("translation.client.quota.rejected")
+                .description("Requests rejected or delayed because the client's token quota was used up")
+                .register(meterRegistry);
+        Gauge.builder("translation.client.tracked", usage, Map::size)
+                .description("Clients with token usage recorded today")
+                .register(meterRegistry);
+    }
+
+    public void record(ClientIdentity client, AnthropicMessageResponse.Usage tokens) {
+        record(client, tokens, true, true);
+    }
+
+    /**
+     * Charge only the input side (input and cache creation tokens) or only the
+     * output side of a usage block, for streams that report them in separate events.
+     */
+    public void record(ClientIdentity client, AnthropicMessageResponse.Usage tokens, boolean input, boolean output) {
+        if (tokens == null) {
+            return;
+        }
+        long charged = (input ? tokens.getInputTokens() + tokens.getCacheCreationInputTokens() : 0)
+                + (output ? tokens.getOutputTokens() : 0);
+        if (charged <= 0) {
+            return;
+        }
+        if (usage.size() >= maxTracked) {
+            evictStale(System.currentTimeMillis());
+        }
+        usage.computeIfAbsent(client.getClientId(), id -> new Usage()).add(charged, System.currentTimeMillis());
+    }
+
+    /**
+     * Seconds until the client may use the upstream again, or 0 if it is within
+     * its quotas.
+     */
+    public long retryAfterSeconds(String clientId) {
+        Usage clientUsage = usage.get(clientId);
+        if (clientUsage == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long waitMillis = clientUsage.millisUntilAllowed(tokensPerMinute, tokensPerDay, now);
+        if (waitMillis > 0) {
+            rejectedCounter.increment();
+        }
+        return (waitMillis + 999) / 1000;
+    }
+
+    /**
+     * Complete once the client is within its quotas. Used for bulk work, which
+     * pauses instead of failing when its client runs out.
+     */
+    public Mono<Void> awaitAvailable(String clientId) {
+        return Mono.defer(() -> {
+            long seconds = retryAfterSeconds(clientId);
+            return seconds == 0
+                    ? Mono.<Void>empty()
+                    : Mono.delay(Duration.ofSeconds(seconds)).then(awaitAvailable(clientId));
+        });
+    }
+
+    // Drop clients with no usage so far today; their counters would be reset anyway
+    private void evictStale(long now) {
+        usage.values().removeIf(clientUsage -> clientUsage.isIdle(now));
+    }
+
+    private static final class Usage {
+        private long minute;
+        private long minuteTokens;
+        private long day;
+        private long dayTokens;
+
+        synchronized void add(long tokens, long now) {
+            roll(now);
+            minuteTokens += tokens;
+            dayTokens += tokens;
+        }
+
+        synchronized long millisUntilAllowed(long perMinute, long perDay, long now) {
+            roll(now);
+            long wait = 0;
+            if (perMinute > 0 && minuteTokens >= perMinute) {
+                wait = (minute + 1) * MILLIS_PER_MINUTE - now;
+            }
+            if (perDay > 0 && dayTokens >= perDay) {
+                wait = Math.max(wait, (day + 1) * MILLIS_PER_DAY - now);
+            }
+            return wait;
+        }
+
+        synchronized boolean isIdle(long now) {
+            roll(now);
+            return dayTokens == 0;
+        }
+
+        private void roll(long now) {
+            long currentMinute = now / MILLIS_PER_MINUTE;
+            if (currentMinute != minute) {
+                minute = currentMinute;
+                minuteTokens = 0;
+            }
+            long currentDay = now / MILLIS_PER_DAY;
+            if (currentDay != day) {
+                day = currentDay;
+                dayTokens = 0;
+            }
+        }
+    }
+}
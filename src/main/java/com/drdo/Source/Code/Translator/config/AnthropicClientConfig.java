@@ -0,0 +1,90 @@
+package com.drdo.Source.Code.Translator.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+// HTTP transport used by AnthropicService: sized connection pool, timeouts, compression and pool metrics
+@Configuration
+public class AnthropicClientConfig {
+
+    @Value("${anthropic.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${anthropic.http.pending-acquire-max-count:1000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${anthropic.http.pending-acquire-timeout-ms:45000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${anthropic.http.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${anthropic.http.max-life-time-ms:300000}")
+    private long maxLifeTimeMs;
+
+    @Value("${anthropic.http.evict-in-background-ms:30000}")
+    private long evictInBackgroundMs;
+
+    @Value("${anthropic.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    // Only a backstop: the adaptive per-call timeout (at most timeout.max-ms) is the real limit
+    @Value("${anthropic.http.response-timeout-ms:${translation.resilience.timeout.max-ms:90000}}")
+    private long responseTimeoutMs;
+
+    @Value("${anthropic.http.keep-alive:true}")
+    private boolean keepAlive;
+
+    @Value("${anthropic.http.compression:true}")
+    private boolean compression;
+
+    @Value("${anthropic.http.max-in-memory-size-mb:16}")
+    private int maxInMemorySizeMb;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider anthropicConnectionProvider() {
+        // metrics(true) publishes reactor.netty.connection.provider.* gauges (active, idle,
+        // pending) and the pending-acquire timer, tagged with the pool name
+        return ConnectionProvider.builder("anthropic")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictInBackgroundMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient webClient(ConnectionProvider anthropicConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(anthropicConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, keepAlive)
+                .compress(compression)
+                // A single URI template keeps the per-request latency metrics low-cardinality
+                .metrics(true, uri -> "/v1/messages");
+        if (responseTimeoutMs > 0) {
+            // Maximum gap between reads; a non-streaming response sends nothing until generation ends
+            httpClient = httpClient.responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        }
+
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySizeMb * 1024 * 1024))
+                .build();
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .exchangeStrategies(strategies)
+                .build();
+    }
+}
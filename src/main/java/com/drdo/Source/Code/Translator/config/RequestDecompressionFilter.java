@@ -0,0 +1,208 @@
+package com.drdo.Source.Code.Translator.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Accepts request bodies sent with {@code Content-Encoding: gzip} or
+ * {@code deflate}: the body is inflated as it is read, and the encoding and
+ * length headers are hidden from the handlers. Inflated bodies are capped so a
+ * small upload cannot expand without bound. Multipart uploads are parsed by the
+ * container from the raw connection and cannot be decoded here, so compressed
+ * multipart bodies and unknown encodings are refused with 415.
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    static final String SUPPORTED_ENCODINGS = "gzip, deflate";
+
+    private final long maxInflatedBytes;
+
+    public RequestDecompressionFilter(long maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.isBlank() || "identity".equalsIgnoreCase(encoding.trim())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String coding = encoding.trim().toLowerCase();
+        boolean supported = coding.equals("gzip") || coding.equals("x-gzip") || coding.equals("deflate");
+        String contentType = request.getContentType();
+        boolean multipart = contentType != null && contentType.toLowerCase().startsWith("multipart/");
+        if (!supported || multipart) {
+            // RFC 7694: tell the client which encodings it may use instead
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, multipart ? "identity" : SUPPORTED_ENCODINGS);
+            response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            String message = multipart
+                    ? "Compressed multipart uploads are not supported; send the form uncompressed"
+                    : "Unsupported Content-Encoding '" + coding.replaceAll("[^a-z0-9._-]", "")
+                    + "'. Supported: " + SUPPORTED_ENCODINGS;
+            response.getWriter().write("{\"error\":\"Unsupported Media Type\",\"message\":\"" + message + "\"}");
+            return;
+        }
+
+        chain.doFilter(new InflatingRequest(request, coding), response);
+    }
+
+    private final class InflatingRequest extends HttpServletRequestWrapper {
+
+        private final String coding;
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+
+        InflatingRequest(HttpServletRequest request, String coding) {
+            super(request);
+            this.coding = coding;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (reader != null) {
+                throw new IllegalStateException("getReader() has already been called for this request");
+            }
+            if (inputStream == null) {
+                InputStream raw = super.getInputStream();
+                InputStream inflated = coding.equals("deflate") ? new InflaterInputStream(raw) : new GZIPInputStream(raw);
+                inputStream = new BoundedServletInputStream(inflated, maxInflatedBytes);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return hidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (String name : Collections.list(super.getHeaderNames())) {
+                if (!hidden(name)) {
+                    names.add(name);
+                }
+            }
+            return Collections.enumeration(names);
+        }
+
+        // The handlers see the decoded body, whose length is unknown up front
+        private boolean hidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private static final class BoundedServletInputStream extends ServletInputStream {
+
+        private final InputStream in;
+        private final long limit;
+        private long count;
+        private boolean finished;
+
+        BoundedServletInputStream(InputStream in, long limit) {
+            this.in = in;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = in.read(buffer, offset, length);
+            if (n < 0) {
+                finished = true;
+            } else {
+                checkLimit(n);
+            }
+            return n;
+        }
+
+        private void checkLimit(int n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("Decompressed request body exceeds " + limit + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Non-blocking reads are not supported for compressed bodies");
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.drdo.Source.Code.Translator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Bounded schedulers for the blocking parts of the translation pipeline (OCR, javac, gcc, store writes)
+@Configuration
+public class SchedulerConfig {
+
+    @Value("${translation.scheduler.validation.thread-cap:8}")
+    private int validationThreadCap;
+
+    @Value("${translation.scheduler.validation.queue-capacity:1000}")
+    private int validationQueueCapacity;
+
+    @Value("${translation.scheduler.ocr.thread-cap:4}")
+    private int ocrThreadCap;
+
+    @Value("${translation.scheduler.ocr.queue-capacity:100}")
+    private int ocrQueueCapacity;
+
+    @Value("${translation.scheduler.store.queue-capacity:1000}")
+    private int storeQueueCapacity;
+
+    @Bean(name = "validationScheduler", destroyMethod = "dispose")
+    public Scheduler validationScheduler() {
+        return Schedulers.newBoundedElastic(validationThreadCap, validationQueueCapacity, "syntax-validation");
+    }
+
+    @Bean(name = "ocrScheduler", destroyMethod = "dispose")
+    public Scheduler ocrScheduler() {
+        return Schedulers.newBoundedElastic(ocrThreadCap, ocrQueueCapacity, "ocr");
+    }
+
+    // One writer thread: store appends serialize on its write lock anyway, and may remap the index
+    @Bean(name = "storeScheduler", destroyMethod = "dispose")
+    public Scheduler storeScheduler() {
+        return Schedulers.newBoundedElastic(1, storeQueueCapacity, "translation-store");
+    }
+}
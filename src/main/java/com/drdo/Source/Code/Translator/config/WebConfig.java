@@ -1,11 +1,15 @@
 package com.drdo.Source.Code.Translator.config;
 
+import com.drdo.Source.Code.Translator.client.ClientInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -14,6 +18,18 @@ import java.util.Arrays;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ClientInterceptor clientInterceptor;
+
+    public WebConfig(ClientInterceptor clientInterceptor) {
+        this.clientInterceptor = clientInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Client identity, quota admission and queue estimates for the translation endpoints
+        registry.addInterceptor(clientInterceptor).addPathPatterns("/translate/**");
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -33,12 +49,24 @@ public class WebConfig implements WebMvcConfigurer {
                 .resourceChain(true);
     }
 
+    // Compressed request bodies on the translation endpoints
+    @Bean
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(
+            @Value("${translation.compression.max-inflated-mb:64}") long maxInflatedMb) {
+        FilterRegistrationBean<RequestDecompressionFilter> registration =
+                new FilterRegistrationBean<>(new RequestDecompressionFilter(maxInflatedMb * 1024 * 1024));
+        registration.addUrlPatterns("/translate/*");
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(ClientInterceptor.QUEUE_POSITION_HEADER,
+                ClientInterceptor.ESTIMATED_WAIT_HEADER, "Retry-After"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,70 @@
+package com.drdo.Source.Code.Translator.controller;
+
+import com.drdo.Source.Code.Translator.dto.TranslationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Which parts of a {@link TranslationResponse} the caller wants back, from the
+ * {@code echo} and {@code fields} query parameters. Callers that already hold
+ * the source can skip the originalCode echo, and callers that only need the
+ * code can ask for e.g. {@code fields=translatedCode,success}.
+ */
+final class ResponseShape {
+
+    static final List<String> FIELDS = List.of("originalCode", "translatedCode", "sourceLanguage",
+            "targetLanguage", "success", "message", "syntaxValidation", "cached", "engine");
+
+    static final ResponseShape FULL = new ResponseShape(true, Collections.emptySet());
+
+    private final boolean echo;
+    // Empty = every field
+    private final Set<String> fields;
+
+    private ResponseShape(boolean echo, Set<String> fields) {
+        this.echo = echo;
+        this.fields = fields;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code fields} names a field the response does not have
+     */
+    static ResponseShape of(boolean echo, String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!FIELDS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown response field '" + name
+                            + "'. Supported fields: " + String.join(", ", FIELDS));
+                }
+                selected.add(name);
+            }
+        }
+        return echo && selected.isEmpty() ? FULL : new ResponseShape(echo, selected);
+    }
+
+    // The response itself when nothing is left out, so the default path costs nothing extra
+    Object apply(TranslationResponse response, ObjectMapper objectMapper) {
+        if (this == FULL) {
+            return response;
+        }
+        // The tree shares the code strings with the response; nothing is copied
+        ObjectNode node = objectMapper.valueToTree(response);
+        if (!echo) {
+            node.remove("originalCode");
+        }
+        if (!fields.isEmpty()) {
+            node.retain(fields);
+        }
+        return node;
+    }
+}
@@ -1,17 +1,25 @@
 package com.drdo.Source.Code.Translator.controller;
 
+import com.drdo.Source.Code.Translator.client.ClientIdentity;
+import com.drdo.Source.Code.Translator.dto.BatchTranslationResult;
 import com.drdo.Source.Code.Translator.dto.TranslationRequest;
 import com.drdo.Source.Code.Translator.dto.TranslationResponse;
+import com.drdo.Source.Code.Translator.service.BatchTranslationService;
 import com.drdo.Source.Code.Translator.service.TranslationService;
 import com.drdo.Source.Code.Translator.service.OCRService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,129 +30,215 @@ public class TranslationController {
 
     private final TranslationService translationService;
     private final OCRService ocrService;
+    private final BatchTranslationService batchTranslationService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public TranslationController(TranslationService translationService, OCRService ocrService) {
+    public TranslationController(TranslationService translationService, OCRService ocrService,
+                                 BatchTranslationService batchTranslationService, ObjectMapper objectMapper) {
         this.translationService = translationService;
         this.ocrService = ocrService;
+        this.batchTranslationService = batchTranslationService;
+        this.objectMapper = objectMapper;
     }
 
+    // echo=false leaves out originalCode; fields=translatedCode,success returns only the listed fields
     @PostMapping("/text")
-    public ResponseEntity<TranslationResponse> translateText(@Valid @RequestBody TranslationRequest request) {
+    public Mono<ResponseEntity<Object>> translateText(
+            @Valid @RequestBody TranslationRequest request,
+            @RequestParam(value = "echo", defaultValue = "true") boolean echo,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestAttribute(ClientIdentity.REQUEST_ATTRIBUTE) ClientIdentity client) {
+        ResponseShape shape;
         try {
-            // Validate languages
-            if (!translationService.isValidLanguage(request.getSourceLanguage()) ||
-                    !translationService.isValidLanguage(request.getTargetLanguage())) {
-
-                TranslationResponse errorResponse = new TranslationResponse(
-                        request.getSourceCode(),
-                        "",
-                        request.getSourceLanguage(),
-                        request.getTargetLanguage(),
-                        false,
-                        "Invalid language. Supported languages: java, c"
-                );
-                return ResponseEntity.badRequest().body(errorResponse);
-            }
-
-            TranslationResponse response = translationService.translateCode(request);
-
-            HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
-            return ResponseEntity.status(status).body(response);
-
-        } catch (Exception e) {
+            shape = ResponseShape.of(echo, fields);
+        } catch (IllegalArgumentException e) {
             TranslationResponse errorResponse = new TranslationResponse(
                     request.getSourceCode(),
                     "",
                     request.getSourceLanguage(),
                     request.getTargetLanguage(),
                     false,
-                    "Internal server error: " + e.getMessage()
+                    e.getMessage()
             );
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return Mono.just(shaped(HttpStatus.BAD_REQUEST, errorResponse, ResponseShape.of(echo, null)));
         }
+
+        // Validate languages
+        if (!translationService.isValidLanguage(request.getSourceLanguage()) ||
+                !translationService.isValidLanguage(request.getTargetLanguage())) {
+
+            TranslationResponse errorResponse = new TranslationResponse(
+                    request.getSourceCode(),
+                    "",
+                    request.getSourceLanguage(),
+                    request.getTargetLanguage(),
+                    false,
+                    "Invalid language. Supported languages: java, c"
+            );
+            return Mono.just(shaped(HttpStatus.BAD_REQUEST, errorResponse, shape));
+        }
+
+        return translationService.translateCode(request)
+                .map(response -> {
+                    HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+                    return shaped(status, response, shape);
+                })
+                .onErrorResume(e -> {
+                    TranslationResponse errorResponse = new TranslationResponse(
+                            request.getSourceCode(),
+                            "",
+                            request.getSourceLanguage(),
+                            request.getTargetLanguage(),
+                            false,
+                            "Internal server error: " + e.getMessage()
+                    );
+                    return Mono.just(shaped(HttpStatus.INTERNAL_SERVER_ERROR, errorResponse, shape));
+                })
+                .contextWrite(client.toContext());
+    }
+
+    @PostMapping(value = "/text/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamText(
+            @Valid @RequestBody TranslationRequest request,
+            @RequestAttribute(ClientIdentity.REQUEST_ATTRIBUTE) ClientIdentity client) {
+        // Validate languages
+        if (!translationService.isValidLanguage(request.getSourceLanguage()) ||
+                !translationService.isValidLanguage(request.getTargetLanguage())) {
+
+            TranslationResponse errorResponse = new TranslationResponse(
+                    request.getSourceCode(),
+                    "",
+                    request.getSourceLanguage(),
+                    request.getTargetLanguage(),
+                    false,
+                    "Invalid language. Supported languages: java, c"
+            );
+            return Flux.just(ServerSentEvent.<Object>builder(errorResponse).event("result").build());
+        }
+
+        return translationService.streamTranslation(request).contextWrite(client.toContext());
+    }
+
+    // Accepts a JSON array or NDJSON of requests with optional "id"; one NDJSON result line per item as it completes
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchTranslationResult> translateBatch(
+            InputStream body, @RequestAttribute(ClientIdentity.REQUEST_ATTRIBUTE) ClientIdentity client) {
+        return batchTranslationService.translate(body).contextWrite(client.toContext());
     }
 
     @PostMapping(value = "/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<TranslationResponse> translateImage(
+    public Mono<ResponseEntity<Object>> translateImage(
             @RequestParam("image") MultipartFile imageFile,
             @RequestParam("sourceLanguage") String sourceLanguage,
             @RequestParam("targetLanguage") String targetLanguage,
-            @RequestParam(value = "validateSyntax", defaultValue = "true") boolean validateSyntax) {
-
+            @RequestParam(value = "validateSyntax", defaultValue = "true") boolean validateSyntax,
+            @RequestParam(value = "validationLevel", defaultValue = "parse") String validationLevel,
+            @RequestParam(value = "echo", defaultValue = "true") boolean echo,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestAttribute(ClientIdentity.REQUEST_ATTRIBUTE) ClientIdentity client) {
+        ResponseShape shape;
         try {
-            // Check if OCR service is available first
-            if (!ocrService.isTesseractAvailable()) {
-                TranslationResponse errorResponse = new TranslationResponse(
-                        "",
-                        "",
-                        sourceLanguage,
-                        targetLanguage,
-                        false,
-                        "OCR service is not available. " + ocrService.getTesseractStatus()
-                );
-                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
-            }
-
-            // Validate file
-            if (imageFile.isEmpty()) {
-                TranslationResponse errorResponse = new TranslationResponse(
-                        "",
-                        "",
-                        sourceLanguage,
-                        targetLanguage,
-                        false,
-                        "No image file provided"
-                );
-                return ResponseEntity.badRequest().body(errorResponse);
-            }
-
-            // Validate languages
-            if (!translationService.isValidLanguage(sourceLanguage) ||
-                    !translationService.isValidLanguage(targetLanguage)) {
-
-                TranslationResponse errorResponse = new TranslationResponse(
-                        "",
-                        "",
-                        sourceLanguage,
-                        targetLanguage,
-                        false,
-                        "Invalid language. Supported languages: java, c"
-                );
-                return ResponseEntity.badRequest().body(errorResponse);
-            }
-
-            // Check file type
-            String contentType = imageFile.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                TranslationResponse errorResponse = new TranslationResponse(
-                        "",
-                        "",
-                        sourceLanguage,
-                        targetLanguage,
-                        false,
-                        "File must be an image"
-                );
-                return ResponseEntity.badRequest().body(errorResponse);
-            }
-
-            TranslationResponse response = translationService.translateFromImage(
-                    imageFile, sourceLanguage, targetLanguage, validateSyntax);
-
-            HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
-            return ResponseEntity.status(status).body(response);
-
-        } catch (Exception e) {
+            shape = ResponseShape.of(echo, fields);
+        } catch (IllegalArgumentException e) {
             TranslationResponse errorResponse = new TranslationResponse(
                     "",
                     "",
                     sourceLanguage,
                     targetLanguage,
                     false,
-                    "Internal server error: " + e.getMessage()
+                    e.getMessage()
             );
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return Mono.just(shaped(HttpStatus.BAD_REQUEST, errorResponse, ResponseShape.of(echo, null)));
         }
+
+        // Check if OCR service is available first
+        if (!ocrService.isTesseractAvailable()) {
+            TranslationResponse errorResponse = new TranslationResponse(
+                    "",
+                    "",
+                    sourceLanguage,
+                    targetLanguage,
+                    false,
+                    "OCR service is not available. " + ocrService.getTesseractStatus()
+            );
+            return Mono.just(shaped(HttpStatus.SERVICE_UNAVAILABLE, errorResponse, shape));
+        }
+
+        // Validate file
+        if (imageFile.isEmpty()) {
+            TranslationResponse errorResponse = new TranslationResponse(
+                    "",
+                    "",
+                    sourceLanguage,
+                    targetLanguage,
+                    false,
+                    "No image file provided"
+            );
+            return Mono.just(shaped(HttpStatus.BAD_REQUEST, errorResponse, shape));
+        }
+
+        // Validate languages
+        if (!translationService.isValidLanguage(sourceLanguage) ||
+                !translationService.isValidLanguage(targetLanguage)) {
+
+            TranslationResponse errorResponse = new TranslationResponse(
+                    "",
+                    "",
+                    sourceLanguage,
+                    targetLanguage,
+                    false,
+                    "Invalid language. Supported languages: java, c"
+            );
+            return Mono.just(shaped(HttpStatus.BAD_REQUEST, errorResponse, shape));
+        }
+
+        if (!"parse".equals(validationLevel) && !"attribute".equals(validationLevel)) {
+            TranslationResponse errorResponse = new TranslationResponse(
+                    "",
+                    "",
+                    sourceLanguage,
+                    targetLanguage,
+                    false,
+                    "Validation level must be 'parse' or 'attribute'"
+            );
+            return Mono.just(shaped(HttpStatus.BAD_REQUEST, errorResponse, shape));
+        }
+
+        // Check file type
+        String contentType = imageFile.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            TranslationResponse errorResponse = new TranslationResponse(
+                    "",
+                    "",
+                    sourceLanguage,
+                    targetLanguage,
+                    false,
+                    "File must be an image"
+            );
+            return Mono.just(shaped(HttpStatus.BAD_REQUEST, errorResponse, shape));
+        }
+
+        return translationService.translateFromImage(imageFile, sourceLanguage, targetLanguage, validateSyntax,
+                        validationLevel)
+                .map(response -> {
+                    HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+                    return shaped(status, response, shape);
+                })
+                .onErrorResume(e -> {
+                    TranslationResponse errorResponse = new TranslationResponse(
+                            "",
+                            "",
+                            sourceLanguage,
+                            targetLanguage,
+                            false,
+                            "Internal server error: " + e.getMessage()
+                    );
+                    return Mono.just(shaped(HttpStatus.INTERNAL_SERVER_ERROR, errorResponse, shape));
+                })
+                .contextWrite(client.toContext());
     }
 
     @GetMapping("/health")
@@ -209,6 +303,10 @@ public class TranslationController {
         return ResponseEntity.ok(languages);
     }
 
+    private ResponseEntity<Object> shaped(HttpStatus status, TranslationResponse response, ResponseShape shape) {
+        return ResponseEntity.status(status).body(shape.apply(response, objectMapper));
+    }
+
     // Error handling
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleException(Exception e) {
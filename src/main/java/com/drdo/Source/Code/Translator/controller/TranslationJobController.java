@@ -0,0 +1,88 @@
+package com.drdo.Source.Code.Translator.controller;
+
+import com.drdo.Source.Code.Translator.client.ClientIdentity;
+import com.drdo.Source.Code.Translator.job.TranslationJob;
+import com.drdo.Source.Code.Translator.job.TranslationJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Background translation of zip archives; the archive is the raw request body, so the multipart limit does not apply
+@RestController
+@RequestMapping("/translate/jobs")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TranslationJobController {
+
+    private static final String APPLICATION_ZIP_VALUE = "application/zip";
+
+    private final TranslationJobService jobService;
+
+    @Autowired
+    public TranslationJobController(TranslationJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping(consumes = {APPLICATION_ZIP_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> submit(
+            InputStream archive,
+            @RequestParam("sourceLanguage") String sourceLanguage,
+            @RequestParam("targetLanguage") String targetLanguage,
+            @RequestParam(value = "validateSyntax", defaultValue = "true") boolean validateSyntax,
+            @RequestAttribute(ClientIdentity.REQUEST_ATTRIBUTE) ClientIdentity client) throws Exception {
+
+        TranslationJob job = jobService.submit(archive, sourceLanguage, targetLanguage, validateSyntax,
+                client.getClientId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/translate/jobs/" + job.getId()))
+                .body(jobService.getStatus(job, false));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> list(
+            @RequestAttribute(ClientIdentity.REQUEST_ATTRIBUTE) ClientIdentity client) {
+        return ResponseEntity.ok(jobService.listJobs(client.getClientId()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String id) {
+        TranslationJob job = jobService.getJob(id);
+        if (job == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(jobService.getStatus(job, true));
+    }
+
+    @GetMapping(value = "/{id}/download", produces = APPLICATION_ZIP_VALUE)
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String id) {
+        TranslationJob job = jobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getState() != TranslationJob.State.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        StreamingResponseBody body = out -> jobService.writeResult(job, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"translation-" + id + ".zip\"")
+                .contentType(MediaType.parseMediaType(APPLICATION_ZIP_VALUE))
+                .body(body);
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(String id) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Job not found");
+        error.put("id", id);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+}
@@ -0,0 +1,99 @@
+package com.drdo.Source.Code.Translator.controller;
+
+import com.drdo.Source.Code.Translator.store.TranslationStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Export/import of the persistent translation store, used to warm up new instances.
+ * A snapshot holds every client's translations and an import overrides what all
+ * callers are served, so both are off unless translation.store.snapshot.admin-token
+ * is set, and then require it in the X-Admin-Token header.
+ */
+@RestController
+@RequestMapping("/translate/store")
+public class TranslationStoreController {
+
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final TranslationStore translationStore;
+    private final byte[] adminToken;
+
+    @Autowired
+    public TranslationStoreController(TranslationStore translationStore,
+                                      @Value("${translation.store.snapshot.admin-token:}") String adminToken) {
+        this.translationStore = translationStore;
+        this.adminToken = adminToken.isBlank() ? null : adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(translationStore.getStats());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSnapshot(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        HttpStatus denied = checkAdmin(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        if (!translationStore.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        StreamingResponseBody body = translationStore::exportTo;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"translation-store.snapshot\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> importSnapshot(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+            InputStream snapshot) throws Exception {
+        Map<String, Object> result = new HashMap<>();
+        HttpStatus denied = checkAdmin(token);
+        if (denied != null) {
+            result.put("imported", 0);
+            result.put("message", denied == HttpStatus.NOT_FOUND
+                    ? "Snapshots are disabled" : "Missing or wrong " + ADMIN_TOKEN_HEADER);
+            return ResponseEntity.status(denied).body(result);
+        }
+        if (!translationStore.isAvailable()) {
+            result.put("imported", 0);
+            result.put("message", "Translation store is not available");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        }
+
+        long imported = translationStore.importFrom(snapshot);
+        result.put("imported", imported);
+        result.put("store", translationStore.getStats());
+        result.put("timestamp", java.time.Instant.now().toString());
+        return ResponseEntity.ok(result);
+    }
+
+    // Null when the caller may use snapshots; 404 while they are disabled, 403 for a wrong token
+    private HttpStatus checkAdmin(String token) {
+        if (adminToken == null) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (token == null || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+            return HttpStatus.FORBIDDEN;
+        }
+        return null;
+    }
+}
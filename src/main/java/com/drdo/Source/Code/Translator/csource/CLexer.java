@@ -0,0 +1,264 @@
+package com.drdo.Source.Code.Translator.csource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tokenizer for C99/C11 source. Comments are dropped and each preprocessor line
+ * becomes a single {@link CToken.Kind#DIRECTIVE} token, so callers decide how
+ * much of the preprocessor they support. The token list always ends with EOF.
+ */
+public final class CLexer {
+
+    public static final Set<String> KEYWORDS = Set.of(
+            "auto", "break", "case", "char", "const", "continue", "default", "do", "double", "else", "enum",
+            "extern", "float", "for", "goto", "if", "inline", "int", "long", "register", "restrict", "return",
+            "short", "signed", "sizeof", "static", "struct", "switch", "typedef", "union", "unsigned", "void",
+            "volatile", "while", "_Alignas", "_Alignof", "_Atomic", "_Bool", "_Complex", "_Generic",
+            "_Imaginary", "_Noreturn", "_Static_assert", "_Thread_local");
+
+    // Longest first so that e.g. "<<=" wins over "<<" and "<"
+    private static final String[] PUNCTUATORS = {
+            "...", "<<=", ">>=",
+            "->", "++", "--", "<<", ">>", "<=", ">=", "==", "!=", "&&", "||", "*=", "/=", "%=", "+=", "-=",
+            "&=", "^=", "|=", "##",
+            "[", "]", "(", ")", "{", "}", ".", "&", "*", "+", "-", "~", "!", "/", "%", "<", ">", "^", "|",
+            "?", ":", ";", "=", ",", "#"
+    };
+
+    // The punctuators above grouped by first character, in the same order
+    private static final String[][] PUNCTUATORS_BY_FIRST = new String[128][];
+
+    static {
+        for (String punctuator : PUNCTUATORS) {
+            char first = punctuator.charAt(0);
+            String[] group = PUNCTUATORS_BY_FIRST[first];
+            String[] grown = group == null ? new String[1] : Arrays.copyOf(group, group.length + 1);
+            grown[grown.length - 1] = punctuator;
+            PUNCTUATORS_BY_FIRST[first] = grown;
+        }
+    }
+
+    private final String source;
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+
+    private CLexer(String source) {
+        this.source = source;
+    }
+
+    public static List<CToken> tokenize(String source) {
+        return new CLexer(source).run();
+    }
+
+    private List<CToken> run() {
+        List<CToken> tokens = new ArrayList<>();
+        boolean lineHasTokens = false;
+        while (true) {
+            int lineBefore = line;
+            skipWhitespaceAndComments();
+            if (line != lineBefore) {
+                lineHasTokens = false;
+            }
+            if (pos >= source.length()) {
+                tokens.add(new CToken(CToken.Kind.EOF, "", line, column()));
+                return tokens;
+            }
+            if (source.charAt(pos) == '#' && !lineHasTokens) {
+                tokens.add(readDirective());
+                lineHasTokens = false;
+                continue;
+            }
+            tokens.add(readToken());
+            lineHasTokens = true;
+        }
+    }
+
+    private CToken readToken() {
+        int startLine = line;
+        int startColumn = column();
+        int start = pos;
+        char c = source.charAt(pos);
+
+        if (isIdentifierStart(c)) {
+            // Prefixed character and string literals: L'x', u8"x", ...
+            int end = pos;
+            while (end < source.length() && isIdentifierPart(source.charAt(end))) {
+                end++;
+            }
+            String word = source.substring(pos, end);
+            if (end < source.length() && (source.charAt(end) == '\'' || source.charAt(end) == '"')
+                    && (word.equals("L") || word.equals("u") || word.equals("U") || word.equals("u8"))) {
+                pos = end;
+                char quote = source.charAt(pos);
+                readQuoted(quote, startLine, startColumn);
+                return new CToken(quote == '\'' ? CToken.Kind.CHARACTER : CToken.Kind.STRING,
+                        source.substring(start, pos), startLine, startColumn);
+            }
+            pos = end;
+            return new CToken(KEYWORDS.contains(word) ? CToken.Kind.KEYWORD : CToken.Kind.IDENTIFIER,
+                    word, startLine, startColumn);
+        }
+
+        if (isDigit(c) || (c == '.' && pos + 1 < source.length() && isDigit(source.charAt(pos + 1)))) {
+            return readNumber(startLine, startColumn);
+        }
+
+        if (c == '\'' || c == '"') {
+            readQuoted(c, startLine, startColumn);
+            return new CToken(c == '\'' ? CToken.Kind.CHARACTER : CToken.Kind.STRING,
+                    source.substring(start, pos), startLine, startColumn);
+        }
+
+        String[] candidates = c < PUNCTUATORS_BY_FIRST.length ? PUNCTUATORS_BY_FIRST[c] : null;
+        if (candidates != null) {
+            for (String punctuator : candidates) {
+                if (source.startsWith(punctuator, pos)) {
+                    pos += punctuator.length();
+                    return new CToken(CToken.Kind.PUNCTUATOR, punctuator, startLine, startColumn);
+                }
+            }
+        }
+        throw new CSyntaxException("stray '" + c + "' in program", startLine, startColumn);
+    }
+
+    private CToken readNumber(int startLine, int startColumn) {
+        int start = pos;
+        boolean hex = source.startsWith("0x", pos) || source.startsWith("0X", pos);
+        boolean floating = false;
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '.') {
+                floating = true;
+                pos++;
+            } else if ((c == 'e' || c == 'E') && !hex || (c == 'p' || c == 'P') && hex) {
+                floating = true;
+                pos++;
+                if (pos < source.length() && (source.charAt(pos) == '+' || source.charAt(pos) == '-')) {
+                    pos++;
+                }
+            } else if (isIdentifierPart(c)) {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        return new CToken(floating ? CToken.Kind.FLOATING : CToken.Kind.INTEGER,
+                source.substring(start, pos), startLine, startColumn);
+    }
+
+    private void readQuoted(char quote, int startLine, int startColumn) {
+        pos++;
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '\\' && pos + 1 < source.length()) {
+                if (source.charAt(pos + 1) == '\n') {
+                    newLineAt(pos + 1);
+                }
+                pos += 2;
+                continue;
+            }
+            if (c == '\n') {
+                break;
+            }
+            pos++;
+            if (c == quote) {
+                return;
+            }
+        }
+        throw new CSyntaxException("missing terminating " + quote + " character", startLine, startColumn);
+    }
+
+    private CToken readDirective() {
+        int startLine = line;
+        int startColumn = column();
+        StringBuilder text = new StringBuilder();
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '\\' && pos + 1 < source.length() && source.charAt(pos + 1) == '\n') {
+                newLineAt(pos + 1);
+                pos += 2;
+                text.append(' ');
+            } else if (c == '\n') {
+                break;
+            } else if (source.startsWith("//", pos)) {
+                while (pos < source.length() && source.charAt(pos) != '\n') {
+                    pos++;
+                }
+            } else if (source.startsWith("/*", pos)) {
+                skipBlockComment();
+                text.append(' ');
+            } else if (c == '"' || c == '\'') {
+                int start = pos;
+                readQuoted(c, line, column());
+                text.append(source, start, pos);
+            } else {
+                text.append(c);
+                pos++;
+            }
+        }
+        return new CToken(CToken.Kind.DIRECTIVE, text.toString().trim(), startLine, startColumn);
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '\n') {
+                newLineAt(pos);
+                pos++;
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\f' || c == 0x0B) {
+                pos++;
+            } else if (c == '\\' && pos + 1 < source.length() && source.charAt(pos + 1) == '\n') {
+                newLineAt(pos + 1);
+                pos += 2;
+            } else if (source.startsWith("//", pos)) {
+                while (pos < source.length() && source.charAt(pos) != '\n') {
+                    pos++;
+                }
+            } else if (source.startsWith("/*", pos)) {
+                skipBlockComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipBlockComment() {
+        int startLine = line;
+        int startColumn = column();
+        int end = source.indexOf("*/", pos + 2);
+        if (end < 0) {
+            throw new CSyntaxException("unterminated comment", startLine, startColumn);
+        }
+        for (int i = pos; i < end; i++) {
+            if (source.charAt(i) == '\n') {
+                newLineAt(i);
+            }
+        }
+        pos = end + 2;
+    }
+
+    private void newLineAt(int index) {
+        line++;
+        lineStart = index + 1;
+    }
+
+    private int column() {
+        return pos - lineStart + 1;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || isDigit(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
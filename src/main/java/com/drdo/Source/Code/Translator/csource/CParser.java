@@ -0,0 +1,1405 @@
+package com.drdo.Source.Code.Translator.csource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Recursive-descent syntax checker for C11 with the common GNU extensions
+ * (attributes, statement expressions, asm, typeof, case ranges). It builds no
+ * tree: a translation unit is only parsed, typedef names are tracked by scope to
+ * tell declarations from expressions, and every error is collected, parsing
+ * resuming at the next statement or declaration. Messages follow gcc's wording.
+ *
+ * <p>Typedef names come from the source and from what {@link StandardHeaders}
+ * knows about its includes. Once a source includes a header that table does
+ * not know, an unknown identifier in a position only a type name fits (such as
+ * {@code T x;} or {@code (T *) p}) is taken to be a type instead.
+ */
+public final class CParser {
+
+    public static final int MAX_ERRORS = 100;
+    // As clang's bracket depth; each level of an expression is about ten frames
+    static final int MAX_NESTING = 256;
+
+    private static final Set<String> TYPE_SPECIFIERS = Set.of(
+            "void", "char", "short", "int", "long", "float", "double", "signed", "unsigned", "_Bool", "_Complex",
+            "_Imaginary", "struct", "union", "enum", "typeof", "__typeof__", "__typeof", "__int128", "__signed__",
+            "__signed", "__complex__", "_Float128", "__float128");
+    private static final Set<String> QUALIFIERS = Set.of(
+            "const", "volatile", "restrict", "_Atomic", "__const", "__const__", "__volatile", "__volatile__",
+            "__restrict", "__restrict__");
+    private static final Set<String> STORAGE_CLASSES = Set.of(
+            "typedef", "extern", "static", "auto", "register", "_Thread_local", "__thread");
+    private static final Set<String> FUNCTION_SPECIFIERS = Set.of(
+            "inline", "_Noreturn", "__inline", "__inline__");
+    private static final Set<String> ATTRIBUTES = Set.of("__attribute__", "__attribute", "__declspec");
+    private static final Set<String> ASM = Set.of("asm", "__asm__", "__asm");
+    // Builtins and standard macros whose arguments include a type name
+    private static final Set<String> TYPE_ARGUMENT_CALLS = Set.of(
+            "va_arg", "offsetof", "__builtin_va_arg", "__builtin_offsetof", "__builtin_types_compatible_p");
+
+    private static final Set<String> ASSIGNMENT_OPERATORS = Set.of(
+            "=", "+=", "-=", "*=", "/=", "%=", "<<=", ">>=", "&=", "^=", "|=");
+    // Binary operator precedence, lowest first
+    private static final Map<String, Integer> BINARY_PRECEDENCE = Map.ofEntries(
+            Map.entry("||", 1), Map.entry("&&", 2), Map.entry("|", 3), Map.entry("^", 4), Map.entry("&", 5),
+            Map.entry("==", 6), Map.entry("!=", 6), Map.entry("<", 7), Map.entry(">", 7), Map.entry("<=", 7),
+            Map.entry(">=", 7), Map.entry("<<", 8), Map.entry(">>", 8), Map.entry("+", 9), Map.entry("-", 9),
+            Map.entry("*", 10), Map.entry("/", 10), Map.entry("%", 10));
+
+    private static final Pattern INTEGER = Pattern.compile(
+            "(0[xX][0-9a-fA-F]+|0[bB][01]+|[0-9]+)([uU]?(ll|LL|[lL])?|(ll|LL|[lL])[uU])");
+    private static final Pattern FLOATING = Pattern.compile(
+            "((\\d+\\.\\d*|\\.\\d+)([eE][+-]?\\d+)?|\\d+[eE][+-]?\\d+"
+                    + "|0[xX]([0-9a-fA-F]+\\.?[0-9a-fA-F]*|\\.[0-9a-fA-F]+)[pP][+-]?\\d+)[fFlL]?");
+
+    // How much of a declarator must be there: a name, no name, or either
+    private enum DeclaratorKind { NAMED, ABSTRACT, EITHER }
+
+    private static final class Specifiers {
+        boolean typedef;
+        boolean hasType;
+        boolean any;
+    }
+
+    private static final class Declarator {
+        CToken name;
+        boolean pointer;
+        // Set when the declarator declares a function: the parameter names
+        List<String> params;
+        // Old-style definition, f(a, b) int a, b; { ... }
+        boolean identifierList;
+    }
+
+    private final List<CToken> tokens;
+    private final Set<String> headerTypedefs;
+    // The source was cut short at a lexical error; running out of input is expected then
+    private final boolean truncated;
+    // Unknown identifiers already read as types, so later uses agree
+    private final Set<String> assumedTypes = new HashSet<>();
+    private final boolean lenient;
+    private final List<CSyntaxException> errors;
+    // Innermost first: true for a typedef name, false for anything else declared
+    private final Deque<Map<String, Boolean>> scopes = new ArrayDeque<>();
+    private int pos;
+    private int loops;
+    private int switches;
+    private int depth;
+    private boolean reportedEnd;
+
+    private CParser(List<CToken> tokens, Set<String> headerTypedefs, boolean lenient, boolean truncated,
+                    List<CSyntaxException> errors) {
+        this.tokens = tokens;
+        this.headerTypedefs = headerTypedefs;
+        this.truncated = truncated;
+        this.lenient = lenient;
+        this.errors = errors;
+    }
+
+    /**
+     * Check one C source file and return its errors in source order, at most
+     * {@link #MAX_ERRORS}. An empty list means it parses.
+     */
+    public static List<CSyntaxException> check(String source) {
+        List<CSyntaxException> errors = new ArrayList<>();
+        List<CToken> tokens;
+        boolean truncated = false;
+        try {
+            tokens = CLexer.tokenize(source);
+        } catch (CSyntaxException e) {
+            // The lexer stops at its first error; the source before it is still checked
+            errors.add(e);
+            truncated = true;
+            try {
+                tokens = CLexer.tokenize(source.substring(0, offset(source, e.getLine(), e.getColumn())));
+            } catch (CSyntaxException again) {
+                return errors;
+            }
+        }
+        CPreprocessor preprocessor = new CPreprocessor(errors);
+        List<CToken> expanded = preprocessor.run(tokens);
+        new CParser(expanded, preprocessor.typedefs(), !preprocessor.isComplete(), truncated, errors)
+                .translationUnit();
+
+        errors.sort((a, b) -> a.getLine() != b.getLine() ? Integer.compare(a.getLine(), b.getLine())
+                : Integer.compare(a.getColumn(), b.getColumn()));
+        return errors.size() > MAX_ERRORS ? new ArrayList<>(errors.subList(0, MAX_ERRORS)) : errors;
+    }
+
+    private static int offset(String source, int line, int column) {
+        int offset = 0;
+        for (int i = 1; i < line && offset >= 0; i++) {
+            offset = source.indexOf('\n', offset) + 1;
+        }
+        return Math.max(0, Math.min(source.length(), offset + column - 1));
+    }
+
+    // ----- file scope -----
+
+    private void translationUnit() {
+        scopes.push(new HashMap<>());
+        while (peek().getKind() != CToken.Kind.EOF && errors.size() < MAX_ERRORS) {
+            int start = pos;
+            try {
+                if (!accept(";")) {
+                    externalDeclaration();
+                }
+            } catch (CSyntaxException e) {
+                report(e);
+                synchronize();
+                if (pos == start) {
+                    next();
+                }
+            }
+        }
+    }
+
+    private void externalDeclaration() {
+        if (peek().is("_Static_assert")) {
+            staticAssert();
+            return;
+        }
+        if (peek().getKind() == CToken.Kind.IDENTIFIER && !isTypedefName(peek()) && peekAt(1).is("(")) {
+            // With unknown headers, NAME(...); is most likely a macro from one of them
+            if (lenient) {
+                int start = pos;
+                next();
+                skipBalanced();
+                if (accept(";")) {
+                    return;
+                }
+                pos = start;
+            }
+            // Old-style implicit int: main() { ... }
+            initDeclarators(new Specifiers());
+            return;
+        }
+        Specifiers specifiers = declarationSpecifiers();
+        if (!specifiers.any) {
+            throw error("expected identifier or '(' " + before(peek()));
+        }
+        if (accept(";")) {
+            return;
+        }
+        initDeclarators(specifiers);
+    }
+
+    // ----- declarations -----
+
+    private boolean startsDeclaration() {
+        CToken token = peek();
+        if (token.is("_Static_assert") || isWord(token, STORAGE_CLASSES) || isWord(token, FUNCTION_SPECIFIERS)
+                || isWord(token, ATTRIBUTES) || token.getText().equals("__extension__") && startsDeclarationAt(1)) {
+            return true;
+        }
+        return startsTypeNameAt(0) && !peekAt(1).is(":") || startsUnknownType(0);
+    }
+
+    private boolean startsDeclarationAt(int offset) {
+        CToken token = peekAt(offset);
+        return isWord(token, STORAGE_CLASSES) || isWord(token, FUNCTION_SPECIFIERS) || startsTypeNameAt(offset);
+    }
+
+    private void declaration() {
+        if (peek().is("_Static_assert")) {
+            staticAssert();
+            return;
+        }
+        Specifiers specifiers = declarationSpecifiers();
+        if (accept(";")) {
+            return;
+        }
+        initDeclarators(specifiers);
+    }
+
+    private void initDeclarators(Specifiers specifiers) {
+        boolean first = true;
+        while (true) {
+            Declarator declarator = declarator(DeclaratorKind.NAMED);
+            skipAttributesAndAsm();
+            // With unknown headers, f OF((int x)) is taken to be a macro producing the parameters
+            if (lenient && peek().getKind() == CToken.Kind.IDENTIFIER && !isDeclared(peek()) && peekAt(1).is("(")
+                    && peekAt(2).is("(")) {
+                next();
+                skipBalanced();
+                if (declarator.params == null && peek().is("{")) {
+                    declarator.params = new ArrayList<>();
+                }
+            }
+            declare(declarator.name, specifiers.typedef);
+            if (first && declarator.params != null && !specifiers.typedef
+                    && (peek().is("{") || declarator.identifierList && startsDeclaration())) {
+                functionBody(declarator);
+                return;
+            }
+            boolean initialized = accept("=");
+            if (initialized) {
+                initializer();
+            }
+            first = false;
+            if (accept(",")) {
+                continue;
+            }
+            if (!accept(";")) {
+                throw error((initialized ? "expected ',' or ';' " : "expected '=', ',', ';', 'asm' or '__attribute__' ")
+                        + before(peek()));
+            }
+            return;
+        }
+    }
+
+    private void functionBody(Declarator declarator) {
+        // Old-style parameter declarations go between the declarator and the body
+        scopes.push(new HashMap<>());
+        for (String param : declarator.params) {
+            scopes.peek().put(param, false);
+        }
+        while (!peek().is("{")) {
+            if (peek().getKind() == CToken.Kind.EOF) {
+                throw error("expected '{' at end of input");
+            }
+            declaration();
+        }
+        int savedLoops = loops;
+        int savedSwitches = switches;
+        loops = 0;
+        switches = 0;
+        try {
+            compoundStatement();
+        } finally {
+            loops = savedLoops;
+            switches = savedSwitches;
+            scopes.pop();
+        }
+    }
+
+    private Specifiers declarationSpecifiers() {
+        return declarationSpecifiers(false);
+    }
+
+    // typeRequired: where only a type fits (casts, parameters), an unknown identifier is read as one
+    private Specifiers declarationSpecifiers(boolean typeRequired) {
+        Specifiers specifiers = new Specifiers();
+        while (true) {
+            CToken token = peek();
+            if (isWord(token, STORAGE_CLASSES)) {
+                specifiers.typedef |= token.is("typedef");
+                next();
+            } else if (token.is("_Atomic") && peekAt(1).is("(")) {
+                next();
+                next();
+                typeName();
+                expect(")");
+                specifiers.hasType = true;
+            } else if (isWord(token, QUALIFIERS) || isWord(token, FUNCTION_SPECIFIERS)
+                    || token.getText().equals("__extension__")) {
+                next();
+            } else if (token.is("_Alignas")) {
+                next();
+                expect("(");
+                if (startsTypeNameAt(0)) {
+                    typeName();
+                } else {
+                    conditional();
+                }
+                expect(")");
+            } else if (isWord(token, ATTRIBUTES) || token.is("[") && peekAt(1).is("[")) {
+                skipAttributesAndAsm();
+            } else if (isWord(token, TYPE_SPECIFIERS)) {
+                typeSpecifier();
+                specifiers.hasType = true;
+            } else if (lenient && isUnknownMacro(0, specifiers.hasType)) {
+                next();
+            } else if (!specifiers.hasType && token.getKind() == CToken.Kind.IDENTIFIER
+                    && (isTypedefName(token) || startsUnknownType(0)
+                    || lenient && (typeRequired || specifiers.any) && !isDeclared(token))) {
+                if (!isTypedefName(token)) {
+                    if (lenient) {
+                        assumedTypes.add(token.getText());
+                    } else {
+                        errors.add(at(token, "unknown type name '" + token.getText() + "'"));
+                    }
+                }
+                next();
+                specifiers.hasType = true;
+            } else {
+                return specifiers;
+            }
+            specifiers.any = true;
+        }
+    }
+
+    private void typeSpecifier() {
+        CToken token = next();
+        switch (token.getText()) {
+            case "struct":
+            case "union":
+                structOrUnion();
+                break;
+            case "enum":
+                enumSpecifier();
+                break;
+            case "typeof":
+            case "__typeof__":
+            case "__typeof":
+                expect("(");
+                if (startsTypeNameAt(0)) {
+                    typeName();
+                } else {
+                    expression();
+                }
+                expect(")");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void structOrUnion() {
+        skipAttributesAndAsm();
+        boolean tagged = peek().getKind() == CToken.Kind.IDENTIFIER;
+        if (tagged) {
+            next();
+        }
+        if (!accept("{")) {
+            if (!tagged) {
+                throw error("expected '{' " + before(peek()));
+            }
+            return;
+        }
+        while (!accept("}")) {
+            if (peek().getKind() == CToken.Kind.EOF) {
+                throw error("expected specifier-qualifier-list at end of input");
+            }
+            int start = pos;
+            try {
+                structDeclaration();
+            } catch (CSyntaxException e) {
+                report(e);
+                synchronize();
+                if (pos == start) {
+                    next();
+                }
+            }
+        }
+        skipAttributesAndAsm();
+    }
+
+    private void structDeclaration() {
+        if (peek().is("_Static_assert")) {
+            staticAssert();
+            return;
+        }
+        if (accept(";")) {
+            return;
+        }
+        Specifiers specifiers = declarationSpecifiers();
+        if (!specifiers.any) {
+            throw error("expected specifier-qualifier-list " + before(peek()));
+        }
+        // Anonymous struct or union member
+        if (accept(";")) {
+            return;
+        }
+        do {
+            if (!peek().is(":")) {
+                declarator(DeclaratorKind.NAMED);
+            }
+            if (accept(":")) {
+                conditional();
+            }
+            skipAttributesAndAsm();
+        } while (accept(","));
+        // gcc only warns about a missing ';' before the closing brace
+        if (!accept(";") && !peek().is("}")) {
+            throw error("expected ':', ',', ';', '}' or '__attribute__' " + before(peek()));
+        }
+    }
+
+    private void enumSpecifier() {
+        skipAttributesAndAsm();
+        boolean tagged = peek().getKind() == CToken.Kind.IDENTIFIER;
+        if (tagged) {
+            next();
+        }
+        if (!accept("{")) {
+            if (!tagged) {
+                throw error("expected '{' " + before(peek()));
+            }
+            return;
+        }
+        if (peek().is("}")) {
+            throw error("expected identifier " + before(peek()));
+        }
+        while (!peek().is("}")) {
+            CToken name = expectIdentifier();
+            declare(name, false);
+            skipAttributesAndAsm();
+            if (accept("=")) {
+                conditional();
+            }
+            if (!accept(",")) {
+                break;
+            }
+        }
+        if (!accept("}")) {
+            throw error("expected ',' or '}' " + before(peek()));
+        }
+        skipAttributesAndAsm();
+    }
+
+    private Declarator declarator(DeclaratorKind kind) {
+        skipAttributesAndAsm();
+        boolean pointer = false;
+        while (accept("*") || accept("^")) {
+            pointer = true;
+            while (isWord(peek(), QUALIFIERS) || isWord(peek(), ATTRIBUTES)) {
+                if (isWord(peek(), ATTRIBUTES)) {
+                    skipAttributesAndAsm();
+                } else {
+                    next();
+                }
+            }
+        }
+        Declarator declarator = directDeclarator(kind);
+        declarator.pointer = pointer;
+        return declarator;
+    }
+
+    private Declarator directDeclarator(DeclaratorKind kind) {
+        enter();
+        try {
+            return parseDirectDeclarator(kind);
+        } finally {
+            depth--;
+        }
+    }
+
+    private Declarator parseDirectDeclarator(DeclaratorKind kind) {
+        Declarator declarator = new Declarator();
+        boolean named = false;
+        if (peek().getKind() == CToken.Kind.IDENTIFIER && kind != DeclaratorKind.ABSTRACT) {
+            declarator.name = next();
+            named = true;
+        } else if (peek().is("(") && startsNestedDeclarator(kind)) {
+            next();
+            Declarator inner = declarator(kind);
+            expect(")");
+            declarator.name = inner.name;
+            // (*f)(void) is a pointer to a function, (f)(void) or (*f(void)) a function
+            declarator.params = inner.params;
+            declarator.identifierList = inner.identifierList;
+            named = inner.params == null && inner.name != null && !inner.pointer;
+        } else if (kind == DeclaratorKind.NAMED) {
+            throw error("expected identifier or '(' " + before(peek()));
+        }
+
+        boolean first = true;
+        while (true) {
+            if (accept("[")) {
+                while (isWord(peek(), QUALIFIERS) || peek().is("static")) {
+                    next();
+                }
+                if (peek().is("*") && peekAt(1).is("]")) {
+                    next();
+                } else if (!peek().is("]")) {
+                    assignment();
+                }
+                expect("]");
+            } else if (accept("(")) {
+                List<String> params = new ArrayList<>();
+                boolean identifierList = parameterList(params);
+                if (first && named && declarator.params == null) {
+                    declarator.params = params;
+                    declarator.identifierList = identifierList;
+                }
+            } else {
+                return declarator;
+            }
+            first = false;
+        }
+    }
+
+    private boolean startsNestedDeclarator(DeclaratorKind kind) {
+        CToken after = peekAt(1);
+        if (kind == DeclaratorKind.NAMED) {
+            return true;
+        }
+        if (after.is("*") || after.is("^") || after.is("[") || isWord(after, ATTRIBUTES)) {
+            return true;
+        }
+        // In a parameter, (x) names the parameter unless x is a type
+        return kind == DeclaratorKind.EITHER && after.getKind() == CToken.Kind.IDENTIFIER && !isTypedefName(after);
+    }
+
+    /**
+     * Parse parameters up to and including ')' into {@code names}. Returns true
+     * for an old-style identifier list.
+     */
+    private boolean parameterList(List<String> names) {
+        if (accept(")")) {
+            return false;
+        }
+        if (peek().getKind() == CToken.Kind.IDENTIFIER && !isTypedefName(peek()) && !startsUnknownType(0)
+                && (peekAt(1).is(",") || peekAt(1).is(")"))) {
+            do {
+                names.add(expectIdentifier().getText());
+            } while (accept(","));
+            expect(")");
+            return true;
+        }
+        while (true) {
+            if (accept("...")) {
+                break;
+            }
+            Specifiers specifiers = declarationSpecifiers(true);
+            if (!specifiers.any) {
+                throw error("expected declaration specifiers or '...' " + before(peek()));
+            }
+            Declarator declarator = declarator(DeclaratorKind.EITHER);
+            skipAttributesAndAsm();
+            if (declarator.name != null) {
+                names.add(declarator.name.getText());
+            }
+            if (!accept(",")) {
+                break;
+            }
+        }
+        if (!accept(")")) {
+            throw error("expected ';', ',' or ')' " + before(peek()));
+        }
+        return false;
+    }
+
+    private void typeName() {
+        Specifiers specifiers = declarationSpecifiers(true);
+        if (!specifiers.any) {
+            throw error("expected specifier-qualifier-list " + before(peek()));
+        }
+        declarator(DeclaratorKind.ABSTRACT);
+    }
+
+    private void initializer() {
+        enter();
+        try {
+            parseInitializer();
+        } finally {
+            depth--;
+        }
+    }
+
+    private void parseInitializer() {
+        if (!accept("{")) {
+            assignment();
+            return;
+        }
+        while (!accept("}")) {
+            boolean designated = false;
+            if (peek().getKind() == CToken.Kind.IDENTIFIER && peekAt(1).is(":")) {
+                // Old GNU designator, name: value
+                next();
+                next();
+            }
+            while (peek().is("[") || peek().is(".")) {
+                designated = true;
+                if (accept(".")) {
+                    expectIdentifier();
+                } else {
+                    next();
+                    conditional();
+                    if (accept("...")) {
+                        conditional();
+                    }
+                    expect("]");
+                }
+            }
+            if (designated && !accept("=") && !peek().is("{")) {
+                throw error("expected '=' " + before(peek()));
+            }
+            initializer();
+            if (!accept(",")) {
+                if (!accept("}")) {
+                    throw error("expected '}' " + before(peek()));
+                }
+                return;
+            }
+        }
+    }
+
+    private void staticAssert() {
+        next();
+        expect("(");
+        conditional();
+        if (accept(",")) {
+            if (peek().getKind() != CToken.Kind.STRING) {
+                throw error("expected string literal " + before(peek()));
+            }
+            while (peek().getKind() == CToken.Kind.STRING) {
+                next();
+            }
+        }
+        expect(")");
+        expectSemicolon();
+    }
+
+    // ----- statements -----
+
+    private void compoundStatement() {
+        expect("{");
+        scopes.push(new HashMap<>());
+        try {
+            while (!accept("}")) {
+                if (peek().getKind() == CToken.Kind.EOF) {
+                    if (!reportedEnd) {
+                        reportedEnd = true;
+                        report(error("expected declaration or statement at end of input"));
+                    }
+                    return;
+                }
+                if (errors.size() >= MAX_ERRORS) {
+                    pos = tokens.size() - 1;
+                    return;
+                }
+                int start = pos;
+                try {
+                    blockItem();
+                } catch (CSyntaxException e) {
+                    report(e);
+                    synchronize();
+                    if (pos == start && !peek().is("}")) {
+                        next();
+                    }
+                }
+            }
+        } finally {
+            scopes.pop();
+        }
+    }
+
+    private void blockItem() {
+        if (startsDeclaration()) {
+            declaration();
+        } else {
+            statement();
+        }
+    }
+
+    private void statement() {
+        enter();
+        try {
+            parseStatement();
+        } finally {
+            depth--;
+        }
+    }
+
+    private void parseStatement() {
+        CToken token = peek();
+        if (token.getKind() == CToken.Kind.IDENTIFIER && peekAt(1).is(":")) {
+            next();
+            next();
+            skipAttributesAndAsm();
+            labeled();
+            return;
+        }
+        if (token.getKind() != CToken.Kind.KEYWORD && !isWord(token, ASM)) {
+            if (token.is("{")) {
+                compoundStatement();
+            } else if (!accept(";")) {
+                expression();
+                expectSemicolon();
+            }
+            return;
+        }
+
+        switch (token.getText()) {
+            case "case":
+                next();
+                if (switches == 0) {
+                    errors.add(at(token, "case label not within a switch statement"));
+                }
+                conditional();
+                if (accept("...")) {
+                    conditional();
+                }
+                expect(":");
+                labeled();
+                return;
+            case "default":
+                next();
+                if (switches == 0) {
+                    errors.add(at(token, "'default' label not within a switch statement"));
+                }
+                expect(":");
+                labeled();
+                return;
+            case "if":
+                next();
+                parenthesizedExpression();
+                statement();
+                // An else-if chain loops rather than nesting one statement per branch
+                while (accept("else")) {
+                    if (!peek().is("if")) {
+                        statement();
+                        break;
+                    }
+                    next();
+                    parenthesizedExpression();
+                    statement();
+                }
+                return;
+            case "else":
+                throw error("'else' without a previous 'if'");
+            case "switch":
+                next();
+                parenthesizedExpression();
+                switches++;
+                try {
+                    statement();
+                } finally {
+                    switches--;
+                }
+                return;
+            case "while":
+                next();
+                parenthesizedExpression();
+                loopBody();
+                return;
+            case "do":
+                next();
+                loopBody();
+                if (!accept("while")) {
+                    throw error("expected 'while' " + before(peek()));
+                }
+                parenthesizedExpression();
+                expectSemicolon();
+                return;
+            case "for":
+                forStatement();
+                return;
+            case "goto":
+                next();
+                if (accept("*")) {
+                    expression();
+                } else {
+                    expectIdentifier();
+                }
+                expectSemicolon();
+                return;
+            case "continue":
+                next();
+                if (loops == 0) {
+                    errors.add(at(token, "continue statement not within a loop"));
+                }
+                expectSemicolon();
+                return;
+            case "break":
+                next();
+                if (loops == 0 && switches == 0) {
+                    errors.add(at(token, "break statement not within loop or switch"));
+                }
+                expectSemicolon();
+                return;
+            case "return":
+                next();
+                if (!peek().is(";")) {
+                    expression();
+                }
+                expectSemicolon();
+                return;
+            case "asm":
+            case "__asm__":
+            case "__asm":
+                next();
+                while (isWord(peek(), QUALIFIERS) || peek().is("goto") || peek().is("inline")) {
+                    next();
+                }
+                skipBalanced();
+                expectSemicolon();
+                return;
+            default:
+                expression();
+                expectSemicolon();
+        }
+    }
+
+    // What follows a label: a statement, or since C23 (and gcc 11) a declaration or nothing
+    private void labeled() {
+        if (peek().is("}")) {
+            return;
+        }
+        blockItem();
+    }
+
+    private void loopBody() {
+        loops++;
+        try {
+            statement();
+        } finally {
+            loops--;
+        }
+    }
+
+    private void forStatement() {
+        next();
+        expect("(");
+        scopes.push(new HashMap<>());
+        try {
+            if (startsDeclaration()) {
+                declaration();
+            } else {
+                if (!peek().is(";")) {
+                    expression();
+                }
+                expectSemicolon();
+            }
+            if (!peek().is(";")) {
+                expression();
+            }
+            expectSemicolon();
+            if (!peek().is(")")) {
+                expression();
+            }
+            expect(")");
+            loopBody();
+        } finally {
+            scopes.pop();
+        }
+    }
+
+    private void parenthesizedExpression() {
+        if (!accept("(")) {
+            throw error("expected '(' " + before(peek()));
+        }
+        expression();
+        expect(")");
+    }
+
+    // ----- expressions -----
+
+    private void expression() {
+        assignment();
+        while (accept(",")) {
+            assignment();
+        }
+    }
+
+    // Right-associative chains (a = b = c, a ? b : c ? d : e) loop rather than recurse
+    private void assignment() {
+        conditional();
+        while (peek().getKind() == CToken.Kind.PUNCTUATOR && ASSIGNMENT_OPERATORS.contains(peek().getText())) {
+            next();
+            conditional();
+        }
+    }
+
+    private void conditional() {
+        binary(1);
+        while (accept("?")) {
+            // GNU: a ?: b
+            if (!peek().is(":")) {
+                expression();
+            }
+            expect(":");
+            binary(1);
+        }
+    }
+
+    // Precedence climbing over operators of at least minPrecedence
+    private void binary(int minPrecedence) {
+        cast();
+        while (peek().getKind() == CToken.Kind.PUNCTUATOR) {
+            Integer precedence = BINARY_PRECEDENCE.get(peek().getText());
+            if (precedence == null || precedence < minPrecedence) {
+                return;
+            }
+            next();
+            binary(precedence + 1);
+        }
+    }
+
+    private void cast() {
+        enter();
+        try {
+            parseCast();
+        } finally {
+            depth--;
+        }
+    }
+
+    private void parseCast() {
+        if (peek().is("(") && startsCast()) {
+            next();
+            typeName();
+            expect(")");
+            if (peek().is("{")) {
+                // Compound literal
+                initializer();
+                postfixOperators();
+            } else {
+                cast();
+            }
+            return;
+        }
+        unary();
+    }
+
+    // At '(': whether a type name follows rather than an expression
+    private boolean startsCast() {
+        if (startsTypeNameAt(1)) {
+            return true;
+        }
+        if (!lenient || peekAt(1).getKind() != CToken.Kind.IDENTIFIER || isDeclared(peekAt(1))) {
+            return false;
+        }
+        if (isUnknownMacro(1, false)) {
+            return true;
+        }
+        // (T *) and (T) x can only be casts
+        int i = 2;
+        while (peekAt(i).is("*")) {
+            i++;
+        }
+        if (!peekAt(i).is(")")) {
+            return false;
+        }
+        if (i > 2) {
+            return true;
+        }
+        CToken after = peekAt(i + 1);
+        return after.getKind() == CToken.Kind.IDENTIFIER || after.getKind() == CToken.Kind.INTEGER
+                || after.getKind() == CToken.Kind.FLOATING || after.getKind() == CToken.Kind.CHARACTER
+                || after.getKind() == CToken.Kind.STRING || after.is("~") || after.is("!") || after.is("{");
+    }
+
+    private void unary() {
+        CToken token = peek();
+        // Prefix ++, -- and sizeof take a unary operand; loop over them rather than recurse
+        while (token.is("++") || token.is("--") || isSizeof(token)) {
+            next();
+            if (isSizeof(token) && peek().is("(") && startsCast()) {
+                next();
+                typeName();
+                expect(")");
+                if (peek().is("{")) {
+                    initializer();
+                    postfixOperators();
+                }
+                return;
+            }
+            token = peek();
+        }
+        if (token.is("&") || token.is("*") || token.is("+") || token.is("-") || token.is("~")
+                || token.is("!")) {
+            next();
+            cast();
+        } else if (token.is("&&")) {
+            // GNU label address
+            next();
+            expectIdentifier();
+        } else if (token.getText().equals("__extension__") || token.getText().equals("__real__")
+                || token.getText().equals("__imag__")) {
+            next();
+            cast();
+        } else {
+            postfix();
+        }
+    }
+
+    private static boolean isSizeof(CToken token) {
+        return token.is("sizeof") || token.is("_Alignof") || token.getText().equals("__alignof__");
+    }
+
+    private void postfix() {
+        primary();
+        postfixOperators();
+    }
+
+    private void postfixOperators() {
+        while (true) {
+            CToken callee = tokens.get(pos - 1);
+            if (accept("[")) {
+                expression();
+                expect("]");
+            } else if (accept("(")) {
+                arguments(callee);
+            } else if (accept(".") || accept("->")) {
+                expectIdentifier();
+            } else if (!accept("++") && !accept("--")) {
+                return;
+            }
+        }
+    }
+
+    private void arguments(CToken callee) {
+        boolean typeArguments = TYPE_ARGUMENT_CALLS.contains(callee.getText());
+        if (accept(")")) {
+            return;
+        }
+        do {
+            if (typeArguments && (startsTypeNameAt(0) || startsUnknownType(0))) {
+                typeName();
+            } else {
+                assignment();
+            }
+        } while (accept(","));
+        if (!accept(")")) {
+            throw error("expected ')' " + before(peek()));
+        }
+    }
+
+    private void primary() {
+        CToken token = peek();
+        switch (token.getKind()) {
+            case IDENTIFIER:
+                if (isTypedefName(token)) {
+                    throw error("expected expression " + before(token));
+                }
+                next();
+                return;
+            case INTEGER:
+                next();
+                checkInteger(token);
+                return;
+            case FLOATING:
+                next();
+                checkFloating(token);
+                return;
+            case CHARACTER:
+                next();
+                if (token.getText().endsWith("''")) {
+                    errors.add(at(token, "empty character constant"));
+                }
+                return;
+            case STRING:
+                while (peek().getKind() == CToken.Kind.STRING) {
+                    next();
+                }
+                return;
+            default:
+                break;
+        }
+        if (accept("(")) {
+            if (peek().is("{")) {
+                // GNU statement expression, ({ ... })
+                compoundStatement();
+            } else {
+                expression();
+            }
+            expect(")");
+            return;
+        }
+        if (token.is("_Generic")) {
+            next();
+            expect("(");
+            assignment();
+            while (accept(",")) {
+                if (!accept("default")) {
+                    typeName();
+                }
+                expect(":");
+                assignment();
+            }
+            expect(")");
+            return;
+        }
+        throw error("expected expression " + before(token));
+    }
+
+    private void checkInteger(CToken token) {
+        String text = token.getText();
+        if (INTEGER.matcher(text).matches()) {
+            if (text.length() > 1 && text.charAt(0) == '0' && Character.isDigit(text.charAt(1))) {
+                for (int i = 1; i < text.length() && Character.isDigit(text.charAt(i)); i++) {
+                    if (text.charAt(i) > '7') {
+                        errors.add(at(token, "invalid digit \"" + text.charAt(i) + "\" in octal constant"));
+                        return;
+                    }
+                }
+            }
+            return;
+        }
+        boolean hex = text.startsWith("0x") || text.startsWith("0X");
+        int end = hex ? 2 : 0;
+        while (end < text.length() && Character.digit(text.charAt(end), hex ? 16 : 10) >= 0) {
+            end++;
+        }
+        // "0x" alone reads as 0 with suffix "x"
+        errors.add(at(token, "invalid suffix \"" + text.substring(hex && end == 2 ? 1 : end)
+                + "\" on integer constant"));
+    }
+
+    private void checkFloating(CToken token) {
+        String text = token.getText();
+        if (FLOATING.matcher(text).matches()) {
+            return;
+        }
+        if (text.matches(".*[eEpP][+-]?([^0-9].*)?")) {
+            errors.add(at(token, "exponent has no digits"));
+        } else {
+            errors.add(at(token, "invalid suffix on floating constant"));
+        }
+    }
+
+    // ----- names and scopes -----
+
+    private void declare(CToken name, boolean typedef) {
+        if (name != null) {
+            scopes.peek().put(name.getText(), typedef);
+        }
+    }
+
+    private boolean isTypedefName(CToken token) {
+        if (token.getKind() != CToken.Kind.IDENTIFIER) {
+            return false;
+        }
+        for (Map<String, Boolean> scope : scopes) {
+            Boolean typedef = scope.get(token.getText());
+            if (typedef != null) {
+                return typedef;
+            }
+        }
+        return headerTypedefs.contains(token.getText()) || assumedTypes.contains(token.getText());
+    }
+
+    private boolean isDeclared(CToken token) {
+        for (Map<String, Boolean> scope : scopes) {
+            if (scope.containsKey(token.getText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean startsTypeNameAt(int offset) {
+        CToken token = peekAt(offset);
+        return isWord(token, TYPE_SPECIFIERS) || isWord(token, QUALIFIERS) || token.is("_Alignas")
+                || isTypedefName(token);
+    }
+
+    /**
+     * Whether the identifier at {@code offset} can only be an undeclared type
+     * name: {@code X y} is never an expression, and with unknown headers
+     * {@code X *y;} (or with '=', ',', '[' or ')' after y) is read as a
+     * declaration too.
+     */
+    private boolean startsUnknownType(int offset) {
+        CToken token = peekAt(offset);
+        if (token.getKind() != CToken.Kind.IDENTIFIER || isTypedefName(token) || isDeclared(token)) {
+            return false;
+        }
+        CToken after = peekAt(offset + 1);
+        if (after.getKind() == CToken.Kind.IDENTIFIER) {
+            return true;
+        }
+        if (lenient && isUnknownMacro(offset, false)) {
+            return true;
+        }
+        if (!lenient || !after.is("*")) {
+            return false;
+        }
+        int i = offset + 1;
+        while (peekAt(i).is("*") || isWord(peekAt(i), QUALIFIERS)) {
+            i++;
+        }
+        CToken end = peekAt(i + 1);
+        return peekAt(i).getKind() == CToken.Kind.IDENTIFIER && (end.is(";") || end.is("=") || end.is(",")
+                || end.is("[") || end.is(")") || end.is("("));
+    }
+
+    /**
+     * Whether an unknown identifier among declaration specifiers reads as a
+     * macro that expands to nothing or to a qualifier, as in
+     * {@code static z_const char} or {@code void XMLCALL handler(...)}. Only
+     * asked once the source includes headers we know nothing about.
+     */
+    private boolean isUnknownMacro(int offset, boolean hasType) {
+        CToken token = peekAt(offset);
+        if (token.getKind() != CToken.Kind.IDENTIFIER || isTypedefName(token) || isDeclared(token)) {
+            return false;
+        }
+        CToken after = peekAt(offset + 1);
+        if (!hasType) {
+            return isWord(after, TYPE_SPECIFIERS) || isWord(after, QUALIFIERS) || isWord(after, STORAGE_CLASSES)
+                    || isWord(after, FUNCTION_SPECIFIERS);
+        }
+        if (after.getKind() != CToken.Kind.IDENTIFIER) {
+            return false;
+        }
+        // Not when the identifier is the declarator: int x y; or int f OF((...));
+        CToken end = peekAt(offset + 2);
+        return !end.is(";") && !end.is(",") && !(end.is("(") && peekAt(offset + 3).is("("));
+    }
+
+    private static boolean isWord(CToken token, Set<String> words) {
+        return (token.getKind() == CToken.Kind.KEYWORD || token.getKind() == CToken.Kind.IDENTIFIER)
+                && words.contains(token.getText());
+    }
+
+    // ----- tokens -----
+
+    private void skipAttributesAndAsm() {
+        while (true) {
+            if (isWord(peek(), ATTRIBUTES) || isWord(peek(), ASM)) {
+                next();
+                skipBalanced();
+            } else if (peek().is("[") && peekAt(1).is("[")) {
+                // C23 attribute, [[...]]
+                skipBalanced();
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Skip one parenthesized or bracketed group
+    private void skipBalanced() {
+        CToken open = peek();
+        if (!open.is("(") && !open.is("[")) {
+            throw error("expected '(' " + before(open));
+        }
+        int depth = 0;
+        do {
+            CToken token = next();
+            if (token.getKind() == CToken.Kind.EOF) {
+                throw error("expected ')' at end of input");
+            }
+            if (token.is("(") || token.is("[")) {
+                depth++;
+            } else if (token.is(")") || token.is("]")) {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Skip past the statement or declaration that failed: to just after a ';'
+     * or a closing '}' at the level where it started, or to just before a '}'
+     * that closes the enclosing block.
+     */
+    private void synchronize() {
+        int depth = 0;
+        while (true) {
+            CToken token = peek();
+            if (token.getKind() == CToken.Kind.EOF) {
+                return;
+            }
+            if (token.is("}") && depth == 0) {
+                return;
+            }
+            next();
+            if (token.is("{")) {
+                depth++;
+            } else if (token.is("}") && --depth == 0) {
+                return;
+            } else if (token.is(";") && depth == 0) {
+                return;
+            }
+        }
+    }
+
+    private CToken peek() {
+        return tokens.get(pos);
+    }
+
+    private CToken peekAt(int offset) {
+        return tokens.get(Math.min(pos + offset, tokens.size() - 1));
+    }
+
+    private CToken next() {
+        CToken token = tokens.get(pos);
+        if (token.getKind() != CToken.Kind.EOF) {
+            pos++;
+        }
+        return token;
+    }
+
+    private boolean accept(String text) {
+        if (peek().is(text)) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String text) {
+        if (!accept(text)) {
+            throw error("expected '" + text + "' " + before(peek()));
+        }
+    }
+
+    private void expectSemicolon() {
+        if (!accept(";")) {
+            throw errorAfterPrevious("expected ';' " + before(peek()));
+        }
+    }
+
+    private CToken expectIdentifier() {
+        if (peek().getKind() != CToken.Kind.IDENTIFIER) {
+            throw error("expected identifier " + before(peek()));
+        }
+        return next();
+    }
+
+    // gcc's "before 'x' token" / "at end of input"
+    private static String before(CToken token) {
+        switch (token.getKind()) {
+            case EOF:
+                return "at end of input";
+            case IDENTIFIER:
+            case KEYWORD:
+                return "before '" + token.getText() + "'";
+            case INTEGER:
+            case FLOATING:
+                return "before numeric constant";
+            case STRING:
+                return "before string constant";
+            case CHARACTER:
+                return "before character constant";
+            default:
+                return "before '" + token.getText() + "' token";
+        }
+    }
+
+    private CSyntaxException error(String message) {
+        // Like gcc, place errors at the end of input on the last token
+        if (peek().getKind() == CToken.Kind.EOF && pos > 0) {
+            return at(tokens.get(pos - 1), message);
+        }
+        return at(peek(), message);
+    }
+
+    // A missing terminator is reported just past the token it should follow, as gcc does
+    private CSyntaxException errorAfterPrevious(String message) {
+        if (pos == 0 || peek().getKind() == CToken.Kind.EOF) {
+            return error(message);
+        }
+        CToken previous = tokens.get(pos - 1);
+        return new CSyntaxException(message, previous.getLine(), previous.getColumn() + previous.getText().length());
+    }
+
+    // Statements, expressions, declarators and initializers recurse; stop before the stack does
+    private void enter() {
+        if (++depth > MAX_NESTING) {
+            depth--;
+            throw error("nesting level exceeded maximum of " + MAX_NESTING);
+        }
+    }
+
+    private void report(CSyntaxException error) {
+        if (!truncated || peek().getKind() != CToken.Kind.EOF) {
+            errors.add(error);
+        }
+    }
+
+    private static CSyntaxException at(CToken token, String message) {
+        return new CSyntaxException(message, token.getLine(), token.getColumn());
+    }
+}
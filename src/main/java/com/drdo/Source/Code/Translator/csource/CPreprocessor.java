@@ -0,0 +1,657 @@
+package com.drdo.Source.Code.Translator.csource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Just enough of the preprocessor to parse a single C file: conditional groups
+ * are evaluated, macros defined in the file are expanded (including #, ## and
+ * variadic arguments), and an include contributes what {@link StandardHeaders}
+ * knows about it instead of being read. Expanded tokens keep the position of
+ * the macro use, so diagnostics point into the original source.
+ */
+final class CPreprocessor {
+
+    private static final Pattern DEFINE = Pattern.compile("([A-Za-z_]\\w*)(\\(([^)]*)\\))?(.*)", Pattern.DOTALL);
+    private static final Pattern INCLUDE = Pattern.compile("(<([^>]+)>|\"([^\"]+)\")\\s*");
+
+    // Macros a hosted gcc on Linux predefines that sources commonly test
+    private static final Map<String, String> PREDEFINED = Map.of(
+            "__STDC__", "1", "__STDC_VERSION__", "201112L", "__STDC_HOSTED__", "1",
+            "__linux__", "1", "__unix__", "1");
+
+    private static final int MAX_EXPANSIONS = 100_000;
+
+    private static final class Macro {
+        final String name;
+        // Null for an object-like macro
+        final List<String> params;
+        final boolean variadic;
+        final List<CToken> body;
+
+        Macro(String name, List<String> params, boolean variadic, List<CToken> body) {
+            this.name = name;
+            this.params = params;
+            this.variadic = variadic;
+            this.body = body;
+        }
+    }
+
+    private static final class Group {
+        final CToken start;
+        final boolean parentActive;
+        boolean active;
+        boolean taken;
+        boolean sawElse;
+
+        Group(CToken start, boolean parentActive) {
+            this.start = start;
+            this.parentActive = parentActive;
+        }
+    }
+
+    private final List<CSyntaxException> errors;
+    private final Map<String, Macro> macros = new HashMap<>();
+    private final Set<String> typedefs = new HashSet<>(StandardHeaders.BUILTIN_TYPEDEFS);
+    private final Deque<Group> groups = new ArrayDeque<>();
+    private boolean complete = true;
+    private int expansions;
+
+    CPreprocessor(List<CSyntaxException> errors) {
+        this.errors = errors;
+        PREDEFINED.forEach(this::defineObject);
+    }
+
+    // Typedef names declared by the included headers
+    Set<String> typedefs() {
+        return typedefs;
+    }
+
+    // False once the source includes a header whose declarations are unknown
+    boolean isComplete() {
+        return complete;
+    }
+
+    List<CToken> run(List<CToken> tokens) {
+        List<CToken> out = new ArrayList<>(tokens.size());
+        int i = 0;
+        while (i < tokens.size()) {
+            CToken token = tokens.get(i);
+            if (token.getKind() == CToken.Kind.DIRECTIVE) {
+                directive(token);
+                i++;
+            } else if (token.getKind() == CToken.Kind.EOF) {
+                for (Group group : groups) {
+                    errors.add(new CSyntaxException("unterminated #" + directiveName(group.start.getText()),
+                            group.start.getLine(), group.start.getColumn()));
+                }
+                out.add(token);
+                return out;
+            } else if (!active()) {
+                i++;
+            } else {
+                i = expandAt(tokens, i, out, Set.of(), true);
+            }
+        }
+        return out;
+    }
+
+    private boolean active() {
+        return groups.isEmpty() || groups.peek().active;
+    }
+
+    // ----- directives -----
+
+    private void directive(CToken token) {
+        String text = token.getText().substring(1).trim();
+        String name = directiveName(token.getText());
+        String rest = text.substring(name.length()).trim();
+
+        switch (name) {
+            case "if":
+            case "ifdef":
+            case "ifndef": {
+                Group group = new Group(token, active());
+                groups.push(group);
+                if (group.parentActive) {
+                    group.active = name.equals("if") ? evaluate(rest, token)
+                            : macros.containsKey(identifier(rest, token)) == name.equals("ifdef");
+                    group.taken = group.active;
+                }
+                return;
+            }
+            case "elif": {
+                Group group = groups.peek();
+                if (group == null || group.sawElse) {
+                    error(group == null ? "#elif without #if" : "#elif after #else", token);
+                    return;
+                }
+                group.active = group.parentActive && !group.taken && evaluate(rest, token);
+                group.taken |= group.active;
+                return;
+            }
+            case "else": {
+                Group group = groups.peek();
+                if (group == null || group.sawElse) {
+                    error(group == null ? "#else without #if" : "#else after #else", token);
+                    return;
+                }
+                group.sawElse = true;
+                group.active = group.parentActive && !group.taken;
+                group.taken = true;
+                return;
+            }
+            case "endif":
+                if (groups.poll() == null) {
+                    error("#endif without #if", token);
+                }
+                return;
+            default:
+                break;
+        }
+        if (!active()) {
+            return;
+        }
+
+        switch (name) {
+            case "":
+            case "pragma":
+            case "line":
+            case "ident":
+            case "warning":
+                return;
+            case "include":
+            case "include_next":
+                include(rest, token);
+                return;
+            case "define":
+                define(rest, token);
+                return;
+            case "undef":
+                macros.remove(identifier(rest, token));
+                return;
+            case "error":
+                error("#error " + rest, token);
+                return;
+            default:
+                if (Character.isDigit(name.isEmpty() ? ' ' : name.charAt(0))) {
+                    return; // GNU line marker, "# 12 file"
+                }
+                error("invalid preprocessing directive #" + name, token);
+        }
+    }
+
+    private static String directiveName(String directive) {
+        String text = directive.substring(1).trim();
+        int end = 0;
+        while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+            end++;
+        }
+        return text.substring(0, end);
+    }
+
+    private String identifier(String text, CToken token) {
+        String name = text.split("\\s+", 2)[0];
+        if (!name.matches("[A-Za-z_]\\w*")) {
+            error("macro names must be identifiers", token);
+        }
+        return name;
+    }
+
+    private void include(String rest, CToken token) {
+        Matcher matcher = INCLUDE.matcher(rest);
+        if (!matcher.matches()) {
+            if (rest.isEmpty()) {
+                error("#include expects \"FILENAME\" or <FILENAME>", token);
+            }
+            // Computed include; nothing is known about it
+            complete = false;
+            return;
+        }
+        StandardHeaders.Header header = matcher.group(2) != null ? StandardHeaders.get(matcher.group(2).trim()) : null;
+        if (header == null) {
+            complete = false;
+            return;
+        }
+        typedefs.addAll(header.typedefs);
+        header.macros.forEach(this::defineObject);
+    }
+
+    private void define(String rest, CToken token) {
+        Matcher matcher = DEFINE.matcher(rest);
+        if (!matcher.matches()) {
+            error(rest.isEmpty() ? "no macro name given in #define directive" : "macro names must be identifiers",
+                    token);
+            return;
+        }
+        String name = matcher.group(1);
+        if (name.equals("defined")) {
+            error("\"defined\" cannot be used as a macro name", token);
+            return;
+        }
+        List<CToken> body;
+        try {
+            body = lex(matcher.group(4));
+        } catch (CSyntaxException e) {
+            error(e.getMessage(), token);
+            return;
+        }
+        if (matcher.group(2) == null) {
+            macros.put(name, new Macro(name, null, false, body));
+            return;
+        }
+
+        List<String> params = new ArrayList<>();
+        boolean variadic = false;
+        String list = matcher.group(3).trim();
+        if (!list.isEmpty()) {
+            for (String param : list.split(",", -1)) {
+                param = param.trim();
+                if (variadic) {
+                    error("missing ')' in macro parameter list", token);
+                    return;
+                }
+                if (param.endsWith("...")) {
+                    variadic = true;
+                    param = param.equals("...") ? "__VA_ARGS__" : param.substring(0, param.length() - 3).trim();
+                }
+                if (!param.matches("[A-Za-z_]\\w*") || params.contains(param)) {
+                    error(params.contains(param) ? "duplicate macro parameter \"" + param + "\""
+                            : "expected parameter name, found \"" + param + "\"", token);
+                    return;
+                }
+                params.add(param);
+            }
+        }
+        for (int i = 0; i < body.size(); i++) {
+            if (body.get(i).is("#") && (i + 1 >= body.size() || !params.contains(body.get(i + 1).getText()))) {
+                error("'#' is not followed by a macro parameter", token);
+                return;
+            }
+        }
+        macros.put(name, new Macro(name, params, variadic, body));
+    }
+
+    private void defineObject(String name, String replacement) {
+        macros.put(name, new Macro(name, null, false, lex(replacement)));
+    }
+
+    // Tokens of a directive fragment, without the EOF
+    private static List<CToken> lex(String text) {
+        // A leading '#' would read as a new directive; a dummy first token prevents that
+        List<CToken> tokens = CLexer.tokenize("_ " + text);
+        return new ArrayList<>(tokens.subList(1, tokens.size() - 1));
+    }
+
+    private void error(String message, CToken token) {
+        errors.add(new CSyntaxException(message, token.getLine(), token.getColumn()));
+    }
+
+    // ----- macro expansion -----
+
+    /**
+     * Copy the token at {@code i} to {@code out}, expanding it if it names a
+     * macro that is not being expanded already, and return the index of the
+     * next unread token. Directives between a function-like macro's name and
+     * its arguments are only allowed in the top-level source.
+     */
+    private int expandAt(List<CToken> tokens, int i, List<CToken> out, Set<String> disabled, boolean topLevel) {
+        CToken token = tokens.get(i);
+        Macro macro = token.getKind() == CToken.Kind.IDENTIFIER ? macros.get(token.getText()) : null;
+        if (macro == null || disabled.contains(macro.name) || ++expansions > MAX_EXPANSIONS) {
+            out.add(token);
+            return i + 1;
+        }
+
+        Set<String> inner = new HashSet<>(disabled);
+        inner.add(macro.name);
+        if (macro.params == null) {
+            out.addAll(rescan(at(macro.body, token), inner));
+            return i + 1;
+        }
+
+        int open = i + 1;
+        if (open >= tokens.size() || !tokens.get(open).is("(")) {
+            // A function-like macro name without arguments is left alone
+            out.add(token);
+            return i + 1;
+        }
+        List<List<CToken>> args = new ArrayList<>();
+        List<CToken> arg = new ArrayList<>();
+        int depth = 0;
+        int j = open + 1;
+        while (true) {
+            if (j >= tokens.size() || tokens.get(j).getKind() == CToken.Kind.EOF
+                    || tokens.get(j).getKind() == CToken.Kind.DIRECTIVE && !topLevel) {
+                error("unterminated argument list invoking macro \"" + macro.name + "\"", token);
+                out.add(token);
+                return i + 1;
+            }
+            CToken t = tokens.get(j++);
+            if (t.getKind() == CToken.Kind.DIRECTIVE) {
+                continue;
+            }
+            if (t.is("(")) {
+                depth++;
+            } else if (t.is(")") && depth-- == 0) {
+                break;
+            } else if (t.is(",") && depth == 0 && !(macro.variadic && args.size() == macro.params.size() - 1)) {
+                args.add(arg);
+                arg = new ArrayList<>();
+                continue;
+            }
+            arg.add(t);
+        }
+        args.add(arg);
+        if (macro.params.isEmpty() && args.size() == 1 && args.get(0).isEmpty()) {
+            args.clear();
+        }
+        if (macro.variadic && args.size() == macro.params.size() - 1) {
+            args.add(new ArrayList<>());
+        }
+        if (args.size() != macro.params.size()) {
+            error("macro \"" + macro.name + "\" " + (args.size() < macro.params.size() ? "requires " : "passed ")
+                    + (args.size() < macro.params.size() ? macro.params.size() + " arguments, but only "
+                    + args.size() + " given" : args.size() + " arguments, but takes just " + macro.params.size()),
+                    token);
+            return j;
+        }
+        out.addAll(rescan(at(substitute(macro, args, disabled, token), token), inner));
+        return j;
+    }
+
+    private List<CToken> rescan(List<CToken> tokens, Set<String> disabled) {
+        List<CToken> out = new ArrayList<>(tokens.size());
+        int i = 0;
+        while (i < tokens.size()) {
+            i = expandAt(tokens, i, out, disabled, false);
+        }
+        return out;
+    }
+
+    private List<CToken> substitute(Macro macro, List<List<CToken>> args, Set<String> disabled, CToken site) {
+        List<CToken> body = macro.body;
+        List<CToken> out = new ArrayList<>();
+        for (int i = 0; i < body.size(); i++) {
+            CToken token = body.get(i);
+            int param = macro.params.indexOf(token.getText());
+            if (token.is("#") && i + 1 < body.size()) {
+                out.add(stringify(args.get(macro.params.indexOf(body.get(++i).getText())), site));
+            } else if (token.is("##") && i + 1 < body.size() && !out.isEmpty()) {
+                CToken right = body.get(++i);
+                int rightParam = macro.params.indexOf(right.getText());
+                List<CToken> rightTokens = rightParam >= 0 && right.getKind() == CToken.Kind.IDENTIFIER
+                        ? args.get(rightParam) : List.of(right);
+                // GNU: ", ## __VA_ARGS__" keeps the comma only when there are variadic arguments
+                if (out.get(out.size() - 1).is(",") && right.getText().equals("__VA_ARGS__")) {
+                    if (rightTokens.isEmpty()) {
+                        out.remove(out.size() - 1);
+                    }
+                    out.addAll(rightTokens);
+                    continue;
+                }
+                if (rightTokens.isEmpty()) {
+                    continue;
+                }
+                CToken left = out.remove(out.size() - 1);
+                out.add(paste(left, rightTokens.get(0), site));
+                out.addAll(rightTokens.subList(1, rightTokens.size()));
+            } else if (param >= 0 && token.getKind() == CToken.Kind.IDENTIFIER) {
+                boolean pasted = i + 1 < body.size() && body.get(i + 1).is("##");
+                // Operands of ## are used as written, everything else fully expanded first
+                out.addAll(pasted ? args.get(param) : rescan(args.get(param), disabled));
+            } else {
+                out.add(token);
+            }
+        }
+        return out;
+    }
+
+    private CToken stringify(List<CToken> arg, CToken site) {
+        StringBuilder text = new StringBuilder("\"");
+        for (int i = 0; i < arg.size(); i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            String spelling = arg.get(i).getText();
+            if (arg.get(i).getKind() == CToken.Kind.STRING || arg.get(i).getKind() == CToken.Kind.CHARACTER) {
+                spelling = spelling.replace("\\", "\\\\").replace("\"", "\\\"");
+            }
+            text.append(spelling);
+        }
+        return new CToken(CToken.Kind.STRING, text.append('"').toString(), site.getLine(), site.getColumn());
+    }
+
+    private CToken paste(CToken left, CToken right, CToken site) {
+        String text = left.getText() + right.getText();
+        try {
+            List<CToken> tokens = lex(text);
+            if (tokens.size() == 1) {
+                return at(tokens, site).get(0);
+            }
+        } catch (CSyntaxException e) {
+            // Reported below
+        }
+        error("pasting \"" + left.getText() + "\" and \"" + right.getText()
+                + "\" does not give a valid preprocessing token", site);
+        return left;
+    }
+
+    // Tokens moved to where the macro was used
+    private static List<CToken> at(List<CToken> tokens, CToken site) {
+        List<CToken> moved = new ArrayList<>(tokens.size());
+        for (CToken token : tokens) {
+            moved.add(new CToken(token.getKind(), token.getText(), site.getLine(), site.getColumn()));
+        }
+        return moved;
+    }
+
+    // ----- #if expressions -----
+
+    private boolean evaluate(String text, CToken token) {
+        if (text.isEmpty()) {
+            error("#" + directiveName(token.getText()) + " with no expression", token);
+            return false;
+        }
+        List<CToken> tokens;
+        try {
+            tokens = lex(text);
+        } catch (CSyntaxException e) {
+            error(e.getMessage(), token);
+            return false;
+        }
+
+        // "defined" is resolved before anything is expanded
+        List<CToken> resolved = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            CToken t = tokens.get(i);
+            if (!t.getText().equals("defined") || t.getKind() != CToken.Kind.IDENTIFIER) {
+                resolved.add(t);
+                continue;
+            }
+            boolean parenthesized = i + 1 < tokens.size() && tokens.get(i + 1).is("(");
+            int nameAt = parenthesized ? i + 2 : i + 1;
+            if (nameAt >= tokens.size() || tokens.get(nameAt).getKind() != CToken.Kind.IDENTIFIER
+                    && tokens.get(nameAt).getKind() != CToken.Kind.KEYWORD
+                    || parenthesized && (nameAt + 1 >= tokens.size() || !tokens.get(nameAt + 1).is(")"))) {
+                error("operator \"defined\" requires an identifier", token);
+                return false;
+            }
+            boolean defined = macros.containsKey(tokens.get(nameAt).getText());
+            resolved.add(new CToken(CToken.Kind.INTEGER, defined ? "1" : "0", t.getLine(), t.getColumn()));
+            i = parenthesized ? nameAt + 1 : nameAt;
+        }
+
+        List<CToken> expanded = rescan(resolved, Set.of());
+        try {
+            ConstantExpression expression = new ConstantExpression(expanded);
+            long value = expression.conditional();
+            if (expression.pos < expanded.size()) {
+                throw expression.unexpected();
+            }
+            return value != 0;
+        } catch (CSyntaxException e) {
+            error(e.getMessage(), token);
+            return false;
+        }
+    }
+
+    // Integer arithmetic over a #if line; identifiers left after expansion are 0
+    private static final class ConstantExpression {
+
+        private static final List<List<String>> LEVELS = List.of(
+                List.of("||"), List.of("&&"), List.of("|"), List.of("^"), List.of("&"), List.of("==", "!="),
+                List.of("<", ">", "<=", ">="), List.of("<<", ">>"), List.of("+", "-"), List.of("*", "/", "%"));
+
+        private final List<CToken> tokens;
+        private int pos;
+
+        ConstantExpression(List<CToken> tokens) {
+            this.tokens = tokens;
+        }
+
+        long conditional() {
+            long condition = binary(0);
+            if (!accept("?")) {
+                return condition;
+            }
+            long whenTrue = conditional();
+            if (!accept(":")) {
+                throw unexpected();
+            }
+            long whenFalse = conditional();
+            return condition != 0 ? whenTrue : whenFalse;
+        }
+
+        private long binary(int level) {
+            if (level == LEVELS.size()) {
+                return unary();
+            }
+            long left = binary(level + 1);
+            while (pos < tokens.size() && tokens.get(pos).getKind() == CToken.Kind.PUNCTUATOR
+                    && LEVELS.get(level).contains(tokens.get(pos).getText())) {
+                CToken operator = tokens.get(pos++);
+                long right = binary(level + 1);
+                left = apply(operator, left, right);
+            }
+            return left;
+        }
+
+        private static long apply(CToken operator, long left, long right) {
+            switch (operator.getText()) {
+                case "||": return left != 0 || right != 0 ? 1 : 0;
+                case "&&": return left != 0 && right != 0 ? 1 : 0;
+                case "|": return left | right;
+                case "^": return left ^ right;
+                case "&": return left & right;
+                case "==": return left == right ? 1 : 0;
+                case "!=": return left != right ? 1 : 0;
+                case "<": return left < right ? 1 : 0;
+                case ">": return left > right ? 1 : 0;
+                case "<=": return left <= right ? 1 : 0;
+                case ">=": return left >= right ? 1 : 0;
+                case "<<": return left << right;
+                case ">>": return left >> right;
+                case "+": return left + right;
+                case "-": return left - right;
+                case "*": return left * right;
+                default:
+                    if (right == 0) {
+                        throw new CSyntaxException("division by zero in #if", operator.getLine(),
+                                operator.getColumn());
+                    }
+                    return operator.is("/") ? left / right : left % right;
+            }
+        }
+
+        private long unary() {
+            if (accept("!")) {
+                return unary() == 0 ? 1 : 0;
+            }
+            if (accept("~")) {
+                return ~unary();
+            }
+            if (accept("-")) {
+                return -unary();
+            }
+            if (accept("+")) {
+                return unary();
+            }
+            if (accept("(")) {
+                long value = conditional();
+                if (!accept(")")) {
+                    throw new CSyntaxException("missing ')' in expression", line(), column());
+                }
+                return value;
+            }
+            if (pos >= tokens.size()) {
+                throw new CSyntaxException("#if with no expression", line(), column());
+            }
+            CToken token = tokens.get(pos++);
+            switch (token.getKind()) {
+                case IDENTIFIER:
+                case KEYWORD:
+                    return 0;
+                case INTEGER:
+                    return integer(token);
+                case CHARACTER:
+                    String text = token.getText();
+                    return text.length() > 2 && text.charAt(1) != '\\' ? text.charAt(1) : 0;
+                default:
+                    pos--;
+                    throw new CSyntaxException("token \"" + token.getText()
+                            + "\" is not valid in preprocessor expressions", token.getLine(), token.getColumn());
+            }
+        }
+
+        private static long integer(CToken token) {
+            String text = token.getText().replaceAll("[uUlL]+$", "");
+            try {
+                if (text.startsWith("0x") || text.startsWith("0X")) {
+                    return Long.parseUnsignedLong(text.substring(2), 16);
+                }
+                if (text.startsWith("0b") || text.startsWith("0B")) {
+                    return Long.parseUnsignedLong(text.substring(2), 2);
+                }
+                return text.length() > 1 && text.startsWith("0") ? Long.parseUnsignedLong(text.substring(1), 8)
+                        : Long.parseUnsignedLong(text);
+            } catch (NumberFormatException e) {
+                throw new CSyntaxException("invalid integer constant \"" + token.getText() + "\" in #if",
+                        token.getLine(), token.getColumn());
+            }
+        }
+
+        private boolean accept(String punctuator) {
+            if (pos < tokens.size() && tokens.get(pos).is(punctuator)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        CSyntaxException unexpected() {
+            if (pos >= tokens.size()) {
+                return new CSyntaxException("expected ':' in #if expression", line(), column());
+            }
+            CToken token = tokens.get(pos);
+            return new CSyntaxException("missing binary operator before token \"" + token.getText() + "\"",
+                    token.getLine(), token.getColumn());
+        }
+
+        private int line() {
+            return tokens.isEmpty() ? 0 : tokens.get(Math.min(pos, tokens.size() - 1)).getLine();
+        }
+
+        private int column() {
+            return tokens.isEmpty() ? 0 : tokens.get(Math.min(pos, tokens.size() - 1)).getColumn();
+        }
+    }
+}
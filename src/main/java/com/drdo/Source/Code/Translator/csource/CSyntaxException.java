@@ -0,0 +1,18 @@
+package com.drdo.Source.Code.Translator.csource;
+
+// Malformed C source, reported at a 1-based line and column
+public class CSyntaxException extends RuntimeException {
+
+    private final int line;
+    private final int column;
+
+    public CSyntaxException(String message, int line, int column) {
+        super(message);
+        this.line = line;
+        this.column = column;
+    }
+
+    public int getLine() { return line; }
+
+    public int getColumn() { return column; }
+}
@@ -0,0 +1,47 @@
+package com.drdo.Source.Code.Translator.csource;
+
+// A C token with its 1-based position in the source
+public class CToken {
+
+    public enum Kind {
+        IDENTIFIER,
+        KEYWORD,
+        INTEGER,
+        FLOATING,
+        CHARACTER,
+        STRING,
+        PUNCTUATOR,
+        // A whole preprocessor line, continuations joined and comments removed
+        DIRECTIVE,
+        EOF
+    }
+
+    private final Kind kind;
+    private final String text;
+    private final int line;
+    private final int column;
+
+    public CToken(Kind kind, String text, int line, int column) {
+        this.kind = kind;
+        this.text = text;
+        this.line = line;
+        this.column = column;
+    }
+
+    public Kind getKind() { return kind; }
+
+    public String getText() { return text; }
+
+    public int getLine() { return line; }
+
+    public int getColumn() { return column; }
+
+    public boolean is(String value) {
+        return (kind == Kind.PUNCTUATOR || kind == Kind.KEYWORD) && text.equals(value);
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.EOF ? "end of input" : "'" + text + "'";
+    }
+}
@@ -0,0 +1,110 @@
+package com.drdo.Source.Code.Translator.csource;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the C standard library and common POSIX headers contribute to parsing:
+ * their typedef names and the few macros that change the syntax (bool,
+ * static_assert, the iso646 operator spellings, ...). Other macros such as NULL
+ * or EOF read as plain identifiers, which parse the same way.
+ */
+final class StandardHeaders {
+
+    static final class Header {
+        final Set<String> typedefs;
+        // Object-like macros, name to replacement text
+        final Map<String, String> macros;
+
+        Header(Set<String> typedefs, Map<String, String> macros) {
+            this.typedefs = typedefs;
+            this.macros = macros;
+        }
+    }
+
+    // Always available: the compiler defines these without any include
+    static final Set<String> BUILTIN_TYPEDEFS = Set.of("__builtin_va_list", "__int128_t", "__uint128_t");
+
+    private static final Map<String, Header> HEADERS = new HashMap<>();
+
+    static {
+        Set<String> sizeTypes = Set.of("size_t", "ptrdiff_t", "wchar_t", "max_align_t");
+        Set<String> fixedWidth = Set.of("int8_t", "int16_t", "int32_t", "int64_t", "uint8_t", "uint16_t",
+                "uint32_t", "uint64_t", "int_least8_t", "int_least16_t", "int_least32_t", "int_least64_t",
+                "uint_least8_t", "uint_least16_t", "uint_least32_t", "uint_least64_t", "int_fast8_t",
+                "int_fast16_t", "int_fast32_t", "int_fast64_t", "uint_fast8_t", "uint_fast16_t", "uint_fast32_t",
+                "uint_fast64_t", "intptr_t", "uintptr_t", "intmax_t", "uintmax_t");
+        Set<String> posixTypes = Set.of("ssize_t", "off_t", "pid_t", "uid_t", "gid_t", "mode_t", "dev_t", "ino_t",
+                "nlink_t", "blksize_t", "blkcnt_t", "useconds_t", "suseconds_t", "id_t", "key_t", "clockid_t",
+                "timer_t", "socklen_t");
+        Set<String> timeTypes = Set.of("time_t", "clock_t");
+
+        add("assert.h", Set.of(), Map.of("static_assert", "_Static_assert"));
+        add("complex.h", Set.of(), Map.of("complex", "_Complex", "imaginary", "_Imaginary"));
+        add("ctype.h", Set.of(), Map.of());
+        add("errno.h", Set.of("errno_t"), Map.of());
+        add("fenv.h", Set.of("fenv_t", "fexcept_t"), Map.of());
+        add("float.h", Set.of(), Map.of());
+        add("inttypes.h", union(fixedWidth, Set.of("imaxdiv_t")), Map.of());
+        add("iso646.h", Set.of(), Map.ofEntries(Map.entry("and", "&&"), Map.entry("and_eq", "&="),
+                Map.entry("bitand", "&"), Map.entry("bitor", "|"), Map.entry("compl", "~"), Map.entry("not", "!"),
+                Map.entry("not_eq", "!="), Map.entry("or", "||"), Map.entry("or_eq", "|="), Map.entry("xor", "^"),
+                Map.entry("xor_eq", "^=")));
+        add("limits.h", Set.of(), Map.of());
+        add("locale.h", Set.of("locale_t"), Map.of());
+        add("math.h", Set.of("float_t", "double_t"), Map.of());
+        add("setjmp.h", Set.of("jmp_buf", "sigjmp_buf"), Map.of());
+        add("signal.h", union(Set.of("sig_atomic_t", "sigset_t", "sighandler_t"), posixTypes), Map.of());
+        add("stdalign.h", Set.of(), Map.of("alignas", "_Alignas", "alignof", "_Alignof"));
+        add("stdarg.h", Set.of("va_list"), Map.of());
+        add("stdatomic.h", Set.of("atomic_bool", "atomic_char", "atomic_schar", "atomic_uchar", "atomic_short",
+                "atomic_ushort", "atomic_int", "atomic_uint", "atomic_long", "atomic_ulong", "atomic_llong",
+                "atomic_ullong", "atomic_size_t", "atomic_ptrdiff_t", "atomic_intptr_t", "atomic_uintptr_t",
+                "atomic_flag", "memory_order"), Map.of());
+        add("stdbool.h", Set.of(), Map.of("bool", "_Bool", "true", "1", "false", "0"));
+        add("stddef.h", sizeTypes, Map.of());
+        add("stdint.h", fixedWidth, Map.of());
+        add("stdio.h", union(sizeTypes, Set.of("FILE", "fpos_t", "ssize_t", "off_t", "va_list")), Map.of());
+        add("stdlib.h", union(sizeTypes, Set.of("div_t", "ldiv_t", "lldiv_t")), Map.of());
+        add("stdnoreturn.h", Set.of(), Map.of("noreturn", "_Noreturn"));
+        add("string.h", union(sizeTypes, Set.of("locale_t")), Map.of());
+        add("strings.h", sizeTypes, Map.of());
+        add("threads.h", Set.of("thrd_t", "thrd_start_t", "mtx_t", "cnd_t", "tss_t", "tss_dtor_t", "once_flag"),
+                Map.of("thread_local", "_Thread_local"));
+        add("time.h", union(timeTypes, Set.of("size_t", "clockid_t", "timer_t", "locale_t")), Map.of());
+        add("uchar.h", Set.of("char16_t", "char32_t", "mbstate_t", "size_t"), Map.of());
+        add("wchar.h", union(sizeTypes, Set.of("wint_t", "mbstate_t", "FILE", "va_list")), Map.of());
+        add("wctype.h", Set.of("wint_t", "wctype_t", "wctrans_t"), Map.of());
+
+        add("fcntl.h", posixTypes, Map.of());
+        add("pthread.h", union(timeTypes, Set.of("pthread_t", "pthread_attr_t", "pthread_mutex_t",
+                "pthread_mutexattr_t", "pthread_cond_t", "pthread_condattr_t", "pthread_once_t", "pthread_key_t",
+                "pthread_rwlock_t", "pthread_rwlockattr_t", "pthread_barrier_t", "pthread_barrierattr_t",
+                "pthread_spinlock_t", "size_t", "clockid_t")), Map.of());
+        add("semaphore.h", Set.of("sem_t"), Map.of());
+        add("sys/stat.h", union(posixTypes, timeTypes), Map.of());
+        add("sys/time.h", union(posixTypes, timeTypes), Map.of());
+        add("sys/types.h", union(union(posixTypes, timeTypes), Set.of("size_t")), Map.of());
+        add("unistd.h", union(posixTypes, Set.of("size_t", "intptr_t")), Map.of());
+    }
+
+    private StandardHeaders() {
+    }
+
+    // Null for a header this table does not know
+    static Header get(String name) {
+        return HEADERS.get(name);
+    }
+
+    private static void add(String name, Set<String> typedefs, Map<String, String> macros) {
+        HEADERS.put(name, new Header(typedefs, macros));
+    }
+
+    private static Set<String> union(Set<String> a, Set<String> b) {
+        Set<String> all = new HashSet<>(a);
+        all.addAll(b);
+        return Set.copyOf(all);
+    }
+}
@@ -0,0 +1,65 @@
+package com.drdo.Source.Code.Translator.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// Anthropic Messages API response; only the fields the translator reads are bound
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AnthropicMessageResponse {
+    private List<ContentBlock> content;
+
+    @JsonProperty("stop_reason")
+    private String stopReason;
+
+    private Usage usage;
+
+    public List<ContentBlock> getContent() { return content; }
+    public void setContent(List<ContentBlock> content) { this.content = content; }
+
+    public String getStopReason() { return stopReason; }
+    public void setStopReason(String stopReason) { this.stopReason = stopReason; }
+
+    public Usage getUsage() { return usage; }
+    public void setUsage(Usage usage) { this.usage = usage; }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ContentBlock {
+        private String type;
+        private String text;
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public String getText() { return text; }
+        public void setText(String text) { this.text = text; }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Usage {
+        @JsonProperty("input_tokens")
+        private long inputTokens;
+
+        @JsonProperty("output_tokens")
+        private long outputTokens;
+
+        @JsonProperty("cache_creation_input_tokens")
+        private long cacheCreationInputTokens;
+
+        @JsonProperty("cache_read_input_tokens")
+        private long cacheReadInputTokens;
+
+        public long getInputTokens() { return inputTokens; }
+        public void setInputTokens(long inputTokens) { this.inputTokens = inputTokens; }
+
+        public long getOutputTokens() { return outputTokens; }
+        public void setOutputTokens(long outputTokens) { this.outputTokens = outputTokens; }
+
+        public long getCacheCreationInputTokens() { return cacheCreationInputTokens; }
+        public void setCacheCreationInputTokens(long cacheCreationInputTokens) { this.cacheCreationInputTokens = cacheCreationInputTokens; }
+
+        public long getCacheReadInputTokens() { return cacheReadInputTokens; }
+        public void setCacheReadInputTokens(long cacheReadInputTokens) { this.cacheReadInputTokens = cacheReadInputTokens; }
+    }
+}
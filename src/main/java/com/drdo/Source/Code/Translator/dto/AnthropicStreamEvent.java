@@ -0,0 +1,59 @@
+package com.drdo.Source.Code.Translator.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Data of one Messages API streaming event (message_start, content_block_delta, message_delta, error, ...)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AnthropicStreamEvent {
+    private String type;
+    private AnthropicMessageResponse message;
+    private Delta delta;
+    private AnthropicMessageResponse.Usage usage;
+    private Error error;
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public AnthropicMessageResponse getMessage() { return message; }
+    public void setMessage(AnthropicMessageResponse message) { this.message = message; }
+
+    public Delta getDelta() { return delta; }
+    public void setDelta(Delta delta) { this.delta = delta; }
+
+    public AnthropicMessageResponse.Usage getUsage() { return usage; }
+    public void setUsage(AnthropicMessageResponse.Usage usage) { this.usage = usage; }
+
+    public Error getError() { return error; }
+    public void setError(Error error) { this.error = error; }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Delta {
+        private String type;
+        private String text;
+        // Set on message_delta
+        @JsonProperty("stop_reason")
+        private String stopReason;
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public String getText() { return text; }
+        public void setText(String text) { this.text = text; }
+
+        public String getStopReason() { return stopReason; }
+        public void setStopReason(String stopReason) { this.stopReason = stopReason; }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Error {
+        private String type;
+        private String message;
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
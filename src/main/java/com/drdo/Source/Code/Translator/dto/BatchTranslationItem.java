@@ -0,0 +1,11 @@
+package com.drdo.Source.Code.Translator.dto;
+
+// One entry of a /translate/batch body: a translation request tagged with the caller's id
+public class BatchTranslationItem extends TranslationRequest {
+    private String id;
+
+    public BatchTranslationItem() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+}
@@ -0,0 +1,20 @@
+package com.drdo.Source.Code.Translator.dto;
+
+// One NDJSON line of a /translate/batch response
+public class BatchTranslationResult {
+    private String id;
+    private TranslationResponse response;
+
+    public BatchTranslationResult() {}
+
+    public BatchTranslationResult(String id, TranslationResponse response) {
+        this.id = id;
+        this.response = response;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public TranslationResponse getResponse() { return response; }
+    public void setResponse(TranslationResponse response) { this.response = response; }
+}
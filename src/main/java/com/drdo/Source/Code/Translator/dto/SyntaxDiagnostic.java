@@ -0,0 +1,32 @@
+package com.drdo.Source.Code.Translator.dto;
+
+// One compiler message about validated code
+public class SyntaxDiagnostic {
+    // "error" or "warning"
+    private String severity;
+    private String message;
+    private int line;
+    private int column;
+
+    public SyntaxDiagnostic() {}
+
+    public SyntaxDiagnostic(String severity, String message, int line, int column) {
+        this.severity = severity;
+        this.message = message;
+        this.line = line;
+        this.column = column;
+    }
+
+    // Getters and Setters
+    public String getSeverity() { return severity; }
+    public void setSeverity(String severity) { this.severity = severity; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+
+    public int getColumn() { return column; }
+    public void setColumn(int column) { this.column = column; }
+}
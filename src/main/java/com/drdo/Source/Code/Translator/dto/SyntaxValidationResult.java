@@ -1,11 +1,18 @@
 package com.drdo.Source.Code.Translator.dto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 // Syntax Validation Result DTO
 public class SyntaxValidationResult {
     private boolean valid;
     private String errorMessage;
     private int errorLine;
     private int errorColumn;
+    // "parse" or "attribute"
+    private String level;
+    // Every error and warning; errorMessage / errorLine / errorColumn repeat the first error
+    private List<SyntaxDiagnostic> diagnostics = new ArrayList<>();
 
     public SyntaxValidationResult() {}
 
@@ -26,4 +33,10 @@ public class SyntaxValidationResult {
 
     public int getErrorColumn() { return errorColumn; }
     public void setErrorColumn(int errorColumn) { this.errorColumn = errorColumn; }
+
+    public String getLevel() { return level; }
+    public void setLevel(String level) { this.level = level; }
+
+    public List<SyntaxDiagnostic> getDiagnostics() { return diagnostics; }
+    public void setDiagnostics(List<SyntaxDiagnostic> diagnostics) { this.diagnostics = diagnostics; }
 }
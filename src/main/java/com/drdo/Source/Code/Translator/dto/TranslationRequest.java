@@ -2,6 +2,7 @@ package com.drdo.Source.Code.Translator.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 
 // Translation Request DTO
 public class TranslationRequest {
@@ -16,6 +17,14 @@ public class TranslationRequest {
 
     private boolean validateSyntax = true;
 
+    // "parse" (syntax tree only, the default) or "attribute" (full name resolution and type checking)
+    @Pattern(regexp = "parse|attribute", message = "Validation level must be 'parse' or 'attribute'")
+    private String validationLevel = "parse";
+
+    // Optional; when set, only units changed since the last submission of this document are retranslated
+    @Size(max = 200, message = "Document id must be at most 200 characters")
+    private String documentId;
+
     // Constructors
     public TranslationRequest() {}
 
@@ -37,4 +46,10 @@ public class TranslationRequest {
 
     public boolean isValidateSyntax() { return validateSyntax; }
     public void setValidateSyntax(boolean validateSyntax) { this.validateSyntax = validateSyntax; }
+
+    public String getValidationLevel() { return validationLevel; }
+    public void setValidationLevel(String validationLevel) { this.validationLevel = validationLevel; }
+
+    public String getDocumentId() { return documentId; }
+    public void setDocumentId(String documentId) { this.documentId = documentId; }
 }
\ No newline at end of file
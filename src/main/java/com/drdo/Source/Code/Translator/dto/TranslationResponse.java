@@ -9,6 +9,9 @@ public class TranslationResponse {
     private boolean success;
     private String message;
     private SyntaxValidationResult syntaxValidation;
+    private boolean cached;
+    // "rules" for the rule-based translator, "llm" for the model
+    private String engine;
 
     // Constructors
     public TranslationResponse() {}
@@ -47,4 +50,10 @@ public class TranslationResponse {
     public void setSyntaxValidation(SyntaxValidationResult syntaxValidation) {
         this.syntaxValidation = syntaxValidation;
     }
+
+    public boolean isCached() { return cached; }
+    public void setCached(boolean cached) { this.cached = cached; }
+
+    public String getEngine() { return engine; }
+    public void setEngine(String engine) { this.engine = engine; }
 }
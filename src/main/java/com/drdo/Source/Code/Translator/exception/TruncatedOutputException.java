@@ -0,0 +1,9 @@
+package com.drdo.Source.Code.Translator.exception;
+
+// Raised when the model stopped at max_tokens: the output is an incomplete program and must not be served or cached
+public class TruncatedOutputException extends RuntimeException {
+
+    public TruncatedOutputException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.drdo.Source.Code.Translator.exception;
+
+// Raised without calling Anthropic when the circuit breaker is open or the bulkhead is saturated
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,44 @@
+package com.drdo.Source.Code.Translator.job;
+
+// Progress of one archive entry within a translation job; persisted in the job manifest
+public class JobFile {
+
+    public enum Status { PENDING, DONE, FAILED, COPIED }
+
+    private String path;
+    private String outputPath;
+    private Status status;
+    private String message;
+    private int lines;
+    private long durationMs;
+    private boolean cached;
+
+    public JobFile() {}
+
+    public JobFile(String path, String outputPath, Status status) {
+        this.path = path;
+        this.outputPath = outputPath;
+        this.status = status;
+    }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public String getOutputPath() { return outputPath; }
+    public void setOutputPath(String outputPath) { this.outputPath = outputPath; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public int getLines() { return lines; }
+    public void setLines(int lines) { this.lines = lines; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public boolean isCached() { return cached; }
+    public void setCached(boolean cached) { this.cached = cached; }
+}
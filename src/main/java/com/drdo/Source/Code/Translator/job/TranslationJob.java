@@ -0,0 +1,71 @@
+package com.drdo.Source.Code.Translator.job;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manifest of an archive translation job. It is checkpointed to
+ * {@code manifest.json} in the job directory so an interrupted job resumes with
+ * only its unfinished files after a restart.
+ */
+public class TranslationJob {
+
+    public enum State { RECEIVED, QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String id;
+    private String sourceLanguage;
+    private String targetLanguage;
+    private boolean validateSyntax = true;
+    // Client that submitted the job; its files are translated as that client's bulk traffic
+    private String clientId;
+    private State state;
+    private String message;
+    private long createdAt;
+    private long startedAt;
+    private long finishedAt;
+    private List<JobFile> files = new ArrayList<>();
+
+    public TranslationJob() {}
+
+    public TranslationJob(String id, String sourceLanguage, String targetLanguage, boolean validateSyntax) {
+        this.id = id;
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+        this.validateSyntax = validateSyntax;
+        this.state = State.RECEIVED;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getSourceLanguage() { return sourceLanguage; }
+    public void setSourceLanguage(String sourceLanguage) { this.sourceLanguage = sourceLanguage; }
+
+    public String getTargetLanguage() { return targetLanguage; }
+    public void setTargetLanguage(String targetLanguage) { this.targetLanguage = targetLanguage; }
+
+    public boolean isValidateSyntax() { return validateSyntax; }
+    public void setValidateSyntax(boolean validateSyntax) { this.validateSyntax = validateSyntax; }
+
+    public String getClientId() { return clientId; }
+    public void setClientId(String clientId) { this.clientId = clientId; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getStartedAt() { return startedAt; }
+    public void setStartedAt(long startedAt) { this.startedAt = startedAt; }
+
+    public long getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(long finishedAt) { this.finishedAt = finishedAt; }
+
+    public List<JobFile> getFiles() { return files; }
+    public void setFiles(List<JobFile> files) { this.files = files; }
+}
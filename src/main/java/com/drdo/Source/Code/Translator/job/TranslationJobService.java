@@ -0,0 +1,504 @@
+package com.drdo.Source.Code.Translator.job;
+
+import com.drdo.Source.Code.Translator.client.ClientIdentity;
+import com.drdo.Source.Code.Translator.dto.TranslationRequest;
+import com.drdo.Source.Code.Translator.dto.TranslationResponse;
+import com.drdo.Source.Code.Translator.service.TranslationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Translates whole source archives in the background.
+ *
+ * <p>An uploaded zip is streamed to {@code <jobs path>/<id>/upload.zip}, extracted
+ * into {@code input/}, and its source files are translated through
+ * {@link TranslationService} by a shared worker pipeline (at most
+ * translation.jobs.max-concurrent jobs, translation.jobs.file-concurrency files
+ * per job). Results go to {@code output/}; other entries are extracted straight
+ * there unchanged. Extraction is bounded by entry count, per-file size and total
+ * inflated size, so a zip bomb fails the job instead of filling the disk.
+ * Progress is checkpointed to the job manifest, and unfinished jobs are
+ * re-queued on startup without retranslating completed files. Finished jobs are
+ * deleted after translation.jobs.retention-hours.
+ */
+@Service
+public class TranslationJobService {
+
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final String UPLOAD_FILE = "upload.zip";
+    private static final String INPUT_DIR = "input";
+    private static final String OUTPUT_DIR = "output";
+
+    private final TranslationService translationService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TranslationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastCheckpoint = new ConcurrentHashMap<>();
+    private final Sinks.Many<TranslationJob> queue = Sinks.many().unicast().onBackpressureBuffer();
+
+    @Value("${translation.jobs.path:./data/jobs}")
+    private String jobsPath;
+
+    @Value("${translation.jobs.max-upload-mb:512}")
+    private long maxUploadMb;
+
+    @Value("${translation.jobs.max-concurrent:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${translation.jobs.file-concurrency:4}")
+    private int fileConcurrency;
+
+    @Value("${translation.jobs.checkpoint-interval-ms:1000}")
+    private long checkpointIntervalMs;
+
+    @Value("${translation.jobs.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${translation.jobs.max-file-mb:16}")
+    private long maxFileMb;
+
+    @Value("${translation.jobs.max-extracted-mb:2048}")
+    private long maxExtractedMb;
+
+    @Value("${translation.jobs.retention-hours:168}")
+    private long retentionHours;
+
+    private Path root;
+    private Disposable worker;
+    private Disposable purger;
+
+    public TranslationJobService(TranslationService translationService, ObjectMapper objectMapper) {
+        this.translationService = translationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        root = Paths.get(jobsPath);
+        Files.createDirectories(root);
+
+        worker = queue.asFlux()
+                .flatMap(this::runJob, maxConcurrentJobs)
+                .subscribe();
+
+        // Resume jobs interrupted by a shutdown
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                Path manifest = dir.resolve(MANIFEST_FILE);
+                if (!Files.exists(manifest)) {
+                    continue;
+                }
+                try {
+                    TranslationJob job = objectMapper.readValue(manifest.toFile(), TranslationJob.class);
+                    jobs.put(job.getId(), job);
+                    if (job.getState() != TranslationJob.State.COMPLETED && job.getState() != TranslationJob.State.FAILED) {
+                        System.out.println("Resuming translation job " + job.getId());
+                        enqueue(job);
+                    }
+                } catch (IOException e) {
+                    System.out.println("Skipping unreadable job manifest " + manifest + ": " + e.getMessage());
+                }
+            }
+        }
+
+        if (retentionHours > 0) {
+            purger = Schedulers.boundedElastic().schedulePeriodically(this::purgeExpired, 0, 1, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.dispose();
+        }
+        if (purger != null) {
+            purger.dispose();
+        }
+        for (TranslationJob job : jobs.values()) {
+            if (job.getState() == TranslationJob.State.RUNNING) {
+                checkpoint(job);
+            }
+        }
+    }
+
+    public TranslationJob submit(InputStream archive, String sourceLanguage, String targetLanguage,
+                                 boolean validateSyntax, String clientId) throws IOException {
+        if (!translationService.isValidLanguage(sourceLanguage) || !translationService.isValidLanguage(targetLanguage)) {
+            throw new IllegalArgumentException("Invalid language. Supported languages: java, c");
+        }
+        if (sourceLanguage.equalsIgnoreCase(targetLanguage)) {
+            throw new IllegalArgumentException("Source and target languages cannot be the same");
+        }
+
+        String id = UUID.randomUUID().toString();
+        Path dir = root.resolve(id);
+        Files.createDirectories(dir);
+        try {
+            long size = copyLimited(archive, dir.resolve(UPLOAD_FILE), maxUploadMb * 1024 * 1024,
+                    "Archive exceeds the maximum allowed size of " + maxUploadMb + "MB");
+            if (size == 0) {
+                throw new IllegalArgumentException("No archive provided");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            deleteRecursively(dir);
+            throw e;
+        }
+
+        TranslationJob job = new TranslationJob(id, sourceLanguage.toLowerCase(), targetLanguage.toLowerCase(), validateSyntax);
+        job.setClientId(clientId);
+        checkpoint(job);
+        jobs.put(id, job);
+        enqueue(job);
+        return job;
+    }
+
+    public TranslationJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    // Only the caller's own jobs
+    public List<Map<String, Object>> listJobs(String clientId) {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        jobs.values().stream()
+                .filter(job -> clientId.equals(job.getClientId()))
+                .sorted(Comparator.comparingLong(TranslationJob::getCreatedAt).reversed())
+                .forEach(job -> summaries.add(getStatus(job, false)));
+        return summaries;
+    }
+
+    public Map<String, Object> getStatus(TranslationJob job, boolean includeFiles) {
+        synchronized (job) {
+            int done = 0;
+            int failed = 0;
+            int pending = 0;
+            int copied = 0;
+            long lines = 0;
+            for (JobFile file : job.getFiles()) {
+                switch (file.getStatus()) {
+                    case DONE -> {
+                        done++;
+                        lines += file.getLines();
+                    }
+                    case FAILED -> failed++;
+                    case PENDING -> pending++;
+                    case COPIED -> copied++;
+                }
+            }
+
+            long end = job.getFinishedAt() > 0 ? job.getFinishedAt() : System.currentTimeMillis();
+            long elapsedMs = job.getStartedAt() > 0 ? Math.max(1, end - job.getStartedAt()) : 0;
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("id", job.getId());
+            status.put("state", job.getState());
+            status.put("message", job.getMessage());
+            status.put("sourceLanguage", job.getSourceLanguage());
+            status.put("targetLanguage", job.getTargetLanguage());
+            status.put("createdAt", Instant.ofEpochMilli(job.getCreatedAt()).toString());
+            status.put("total", done + failed + pending);
+            status.put("done", done);
+            status.put("failed", failed);
+            status.put("pending", pending);
+            status.put("copied", copied);
+            status.put("elapsedMs", elapsedMs);
+            status.put("filesPerMinute", elapsedMs > 0 ? (done + failed) * 60000.0 / elapsedMs : 0.0);
+            status.put("linesPerSecond", elapsedMs > 0 ? lines * 1000.0 / elapsedMs : 0.0);
+            if (includeFiles) {
+                status.put("files", new ArrayList<>(job.getFiles()));
+            }
+            return status;
+        }
+    }
+
+    // Stream the output tree of a completed job as a zip
+    public void writeResult(TranslationJob job, OutputStream out) throws IOException {
+        Path output = root.resolve(job.getId()).resolve(OUTPUT_DIR);
+        try (ZipOutputStream zip = new ZipOutputStream(out);
+             Stream<Path> paths = Files.walk(output)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile).sorted()::iterator) {
+                zip.putNextEntry(new ZipEntry(output.relativize(path).toString().replace('\\', '/')));
+                Files.copy(path, zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private synchronized void enqueue(TranslationJob job) {
+        queue.tryEmitNext(job);
+    }
+
+    private Mono<Void> runJob(TranslationJob job) {
+        // Jobs from before client tracking have no client id
+        String clientId = job.getClientId() != null ? job.getClientId() : ClientIdentity.ANONYMOUS.getClientId();
+        ClientIdentity client = new ClientIdentity(clientId, ClientIdentity.Priority.BULK);
+
+        return Mono.fromCallable(() -> prepare(job))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(file -> translateFile(job, file), fileConcurrency)
+                .then(Mono.fromRunnable(() -> finish(job, TranslationJob.State.COMPLETED, null)))
+                .onErrorResume(e -> {
+                    System.out.println("Translation job " + job.getId() + " failed: " + e.getMessage());
+                    finish(job, TranslationJob.State.FAILED, e.getMessage());
+                    return Mono.empty();
+                })
+                .then()
+                .contextWrite(client.toContext());
+    }
+
+    /**
+     * Extract the upload on first run and return the files still to translate.
+     * Files whose output was written before an unclean shutdown count as done.
+     */
+    private List<JobFile> prepare(TranslationJob job) throws IOException {
+        Path dir = root.resolve(job.getId());
+        if (job.getState() == TranslationJob.State.RECEIVED) {
+            List<JobFile> files = extract(job, dir);
+            synchronized (job) {
+                job.setFiles(files);
+                job.setState(TranslationJob.State.QUEUED);
+            }
+            checkpoint(job);
+            Files.deleteIfExists(dir.resolve(UPLOAD_FILE));
+        }
+
+        List<JobFile> pending = new ArrayList<>();
+        synchronized (job) {
+            for (JobFile file : job.getFiles()) {
+                if (file.getStatus() != JobFile.Status.PENDING) {
+                    continue;
+                }
+                if (Files.exists(dir.resolve(OUTPUT_DIR).resolve(file.getOutputPath()))) {
+                    file.setStatus(JobFile.Status.DONE);
+                } else {
+                    pending.add(file);
+                }
+            }
+            job.setState(TranslationJob.State.RUNNING);
+            if (job.getStartedAt() == 0) {
+                job.setStartedAt(System.currentTimeMillis());
+            }
+        }
+        checkpoint(job);
+        return pending;
+    }
+
+    private List<JobFile> extract(TranslationJob job, Path dir) throws IOException {
+        Path input = dir.resolve(INPUT_DIR).normalize();
+        Path output = dir.resolve(OUTPUT_DIR).normalize();
+        String sourceExtension = translationService.getLanguageFileExtension(job.getSourceLanguage());
+        String targetExtension = translationService.getLanguageFileExtension(job.getTargetLanguage());
+        long maxFileBytes = maxFileMb * 1024 * 1024;
+        long remainingBytes = maxExtractedMb * 1024 * 1024;
+
+        List<JobFile> files = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(dir.resolve(UPLOAD_FILE)))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (files.size() >= maxEntries) {
+                    throw new IllegalArgumentException("Archive has more than " + maxEntries + " files");
+                }
+                String name = entry.getName().replace('\\', '/');
+                Path relative = input.relativize(input.resolve(name).normalize());
+                if (relative.startsWith("..") || relative.toString().isEmpty()) {
+                    System.out.println("Skipping unsafe archive entry " + name);
+                    continue;
+                }
+
+                // Sources go to input/ for translation, anything else straight to output/
+                String path = relative.toString().replace('\\', '/');
+                boolean source = path.toLowerCase().endsWith(sourceExtension);
+                Path target = (source ? input : output).resolve(relative);
+                Files.createDirectories(target.getParent());
+                // Sizes in the zip headers can lie; count what is actually inflated
+                long limit = Math.min(maxFileBytes, remainingBytes);
+                remainingBytes -= copyLimited(zip, target, limit, limit == maxFileBytes
+                        ? "Archive entry " + path + " is larger than " + maxFileMb + "MB"
+                        : "Archive inflates to more than " + maxExtractedMb + "MB");
+
+                if (source) {
+                    String outputPath = path.substring(0, path.length() - sourceExtension.length()) + targetExtension;
+                    files.add(new JobFile(path, outputPath, JobFile.Status.PENDING));
+                } else {
+                    files.add(new JobFile(path, path, JobFile.Status.COPIED));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            deleteRecursively(input);
+            deleteRecursively(output);
+            throw e;
+        }
+        return files;
+    }
+
+    // Delete jobs that finished more than retention-hours ago, with their files
+    private void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours);
+        for (TranslationJob job : jobs.values()) {
+            boolean finished = job.getState() == TranslationJob.State.COMPLETED
+                    || job.getState() == TranslationJob.State.FAILED;
+            if (!finished || job.getFinishedAt() == 0 || job.getFinishedAt() > cutoff) {
+                continue;
+            }
+            try {
+                jobs.remove(job.getId());
+                deleteRecursively(root.resolve(job.getId()));
+                System.out.println("Deleted expired translation job " + job.getId());
+            } catch (IOException e) {
+                System.out.println("Failed to delete expired translation job " + job.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Mono<Void> translateFile(TranslationJob job, JobFile file) {
+        Path dir = root.resolve(job.getId());
+        long start = System.currentTimeMillis();
+
+        return Mono.fromCallable(() -> Files.readString(dir.resolve(INPUT_DIR).resolve(file.getPath()), StandardCharsets.UTF_8))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(code -> {
+                    TranslationRequest request = new TranslationRequest(code, job.getSourceLanguage(), job.getTargetLanguage());
+                    request.setValidateSyntax(job.isValidateSyntax());
+                    file.setLines((int) code.lines().count());
+                    return translationService.translateCode(request);
+                })
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(response -> recordResult(job, file, response, System.currentTimeMillis() - start))
+                .onErrorResume(e -> {
+                    recordFailure(job, file, e.getMessage(), System.currentTimeMillis() - start);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void recordResult(TranslationJob job, JobFile file, TranslationResponse response, long durationMs) {
+        if (!response.isSuccess()) {
+            recordFailure(job, file, response.getMessage(), durationMs);
+            return;
+        }
+
+        try {
+            // Written via a temp file so a present output is always complete
+            Path output = root.resolve(job.getId()).resolve(OUTPUT_DIR).resolve(file.getOutputPath());
+            Files.createDirectories(output.getParent());
+            Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+            Files.writeString(temp, response.getTranslatedCode(), StandardCharsets.UTF_8);
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            recordFailure(job, file, "Failed to write output: " + e.getMessage(), durationMs);
+            return;
+        }
+
+        synchronized (job) {
+            file.setStatus(JobFile.Status.DONE);
+            file.setMessage(response.getMessage());
+            file.setCached(response.isCached());
+            file.setDurationMs(durationMs);
+        }
+        maybeCheckpoint(job);
+    }
+
+    private void recordFailure(TranslationJob job, JobFile file, String message, long durationMs) {
+        synchronized (job) {
+            file.setStatus(JobFile.Status.FAILED);
+            file.setMessage(message);
+            file.setDurationMs(durationMs);
+        }
+        maybeCheckpoint(job);
+    }
+
+    private void finish(TranslationJob job, TranslationJob.State state, String message) {
+        synchronized (job) {
+            long failed = job.getFiles().stream().filter(f -> f.getStatus() == JobFile.Status.FAILED).count();
+            job.setState(state);
+            job.setMessage(message != null ? message : failed > 0 ? failed + " file(s) failed to translate" : "Completed");
+            job.setFinishedAt(System.currentTimeMillis());
+        }
+        checkpoint(job);
+        lastCheckpoint.remove(job.getId());
+    }
+
+    // Per-file checkpoints are rate limited; outputs on disk cover anything newer after a crash
+    private void maybeCheckpoint(TranslationJob job) {
+        long now = System.currentTimeMillis();
+        Long last = lastCheckpoint.get(job.getId());
+        if (last == null || now - last >= checkpointIntervalMs) {
+            checkpoint(job);
+        }
+    }
+
+    private void checkpoint(TranslationJob job) {
+        Path manifest = root.resolve(job.getId()).resolve(MANIFEST_FILE);
+        Path temp = manifest.resolveSibling(MANIFEST_FILE + ".tmp");
+        try {
+            synchronized (job) {
+                objectMapper.writeValue(temp.toFile(), job);
+                Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            lastCheckpoint.put(job.getId(), System.currentTimeMillis());
+        } catch (IOException e) {
+            System.out.println("Failed to checkpoint translation job " + job.getId() + ": " + e.getMessage());
+        }
+    }
+
+    // Copy at most maxBytes, failing with tooLarge past that; returns the bytes copied
+    private static long copyLimited(InputStream in, Path target, long maxBytes, String tooLarge) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new IllegalArgumentException(tooLarge);
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
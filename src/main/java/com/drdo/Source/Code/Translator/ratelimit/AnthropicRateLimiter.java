@@ -0,0 +1,395 @@
+package com.drdo.Source.Code.Translator.ratelimit;
+
+import com.drdo.Source.Code.Translator.client.ClientIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side limiter for outbound Anthropic calls. Two token buckets (requests
+ * and input tokens per minute) are seeded from the openai.rate-limit.* settings
+ * and then corrected from the anthropic-ratelimit-* and retry-after headers of
+ * every response. Callers wait in a queue, so a burst is released at the
+ * sustainable rate instead of stampeding into 429s.
+ *
+ * <p>The queue is weighted fair: every client gets its own flow within its
+ * priority class (interactive or bulk), each waiter is tagged with a virtual
+ * finish time of {@code max(virtual now, previous finish of its flow) +
+ * cost / class weight}, and the smallest tag goes next. A client with hundreds of
+ * queued batch items therefore only delays other clients by its fair share,
+ * and interactive traffic gets {@code weight.interactive / weight.bulk} times
+ * the share of bulk traffic when both are queued.
+ */
+@Component
+public class AnthropicRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+    private final long minIntervalNanos;
+    private final long throttleCooldownNanos;
+    private final double interactiveWeight;
+    private final double bulkWeight;
+
+    // Guarded by this
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparingDouble((Waiter waiter) -> waiter.finishTag).thenComparingLong(waiter -> waiter.sequence));
+    private final Map<String, Double> flowFinishTags = new HashMap<>();
+    private double virtualTime;
+    private long sequence;
+    private double requestCapacity;
+    private double availableRequests;
+    private double tokenCapacity;
+    private double availableTokens;
+    private long lastRefillNanos;
+    private long lastGrantNanos;
+    private long pausedUntilNanos;
+    private Disposable scheduledDrain;
+    private long scheduledDrainAt;
+
+    private final Counter throttledCounter;
+    private final Timer waitTimer;
+
+    public AnthropicRateLimiter(@Value("${openai.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${openai.rate-limit.requests-per-minute:50}") int requestsPerMinute,
+                                @Value("${openai.rate-limit.tokens-per-minute:40000}") int tokensPerMinute,
+                                @Value("${openai.rate-limit.min-interval-ms:0}") long minIntervalMs,
+                                @Value("${openai.rate-limit.delay-between-requests:6000}") long throttleCooldownMs,
+                                @Value("${openai.rate-limit.weight.interactive:4}") double interactiveWeight,
+                                @Value("${openai.rate-limit.weight.bulk:1}") double bulkWeight,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMs);
+        this.throttleCooldownNanos = TimeUnit.MILLISECONDS.toNanos(throttleCooldownMs);
+        this.interactiveWeight = Math.max(0.01, interactiveWeight);
+        this.bulkWeight = Math.max(0.01, bulkWeight);
+        this.requestCapacity = Math.max(1, requestsPerMinute);
+        this.availableRequests = requestCapacity;
+        this.tokenCapacity = Math.max(1, tokensPerMinute);
+        this.availableTokens = tokenCapacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastGrantNanos = lastRefillNanos - minIntervalNanos;
+        this.pausedUntilNanos = lastRefillNanos;
+
+        Gauge.builder("anthropic.ratelimit.queue", this, AnthropicRateLimiter::queueLength)
+                .description("Callers waiting for an upstream request slot")
+                .register(meterRegistry);
+        Gauge.builder("anthropic.ratelimit.requests.available", this, limiter -> limiter.snapshot()[0])
+                .register(meterRegistry);
+        Gauge.builder("anthropic.ratelimit.tokens.available", this, limiter -> limiter.snapshot()[1])
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("anthropic.ratelimit.throttled")
+                .description("429 responses received from Anthropic")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("anthropic.ratelimit.wait")
+                .description("Time spent queued before an upstream call was allowed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Complete once it is the client's turn and a request slot and the estimated
+     * number of input tokens are available. Cancelling the returned Mono leaves
+     * the queue.
+     */
+    public Mono<Void> acquire(int estimatedTokens, ClientIdentity client) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, estimatedTokens, System.nanoTime());
+            sink.onCancel(() -> {
+                synchronized (this) {
+                    queue.remove(waiter);
+                }
+                drain();
+            });
+            synchronized (this) {
+                waiter.startTag = Math.max(virtualTime, flowFinishTags.getOrDefault(client.getFlow(), 0.0));
+                waiter.finishTag = waiter.startTag + cost(estimatedTokens, client.getPriority());
+                waiter.sequence = sequence++;
+                flowFinishTags.put(client.getFlow(), waiter.finishTag);
+                queue.add(waiter);
+            }
+            drain();
+        });
+    }
+
+    /**
+     * Where a new request of this client would currently join the queue, and how
+     * long it would wait at the current bucket levels and rates.
+     */
+    public QueueEstimate estimate(int estimatedTokens, ClientIdentity client) {
+        if (!enabled) {
+            return new QueueEstimate(0, 0);
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            double finishTag = Math.max(virtualTime, flowFinishTags.getOrDefault(client.getFlow(), 0.0))
+                    + cost(estimatedTokens, client.getPriority());
+
+            int ahead = 0;
+            double tokensAhead = 0;
+            for (Waiter waiter : queue) {
+                if (waiter.finishTag <= finishTag) {
+                    ahead++;
+                    tokensAhead += Math.min(waiter.tokens, tokenCapacity);
+                }
+            }
+
+            double tokens = tokensAhead + Math.min(estimatedTokens, tokenCapacity);
+            long wait = Math.max(pausedUntilNanos - now, lastGrantNanos + (ahead + 1L) * minIntervalNanos - now);
+            if (availableRequests < ahead + 1) {
+                wait = Math.max(wait, (long) ((ahead + 1 - availableRequests) * NANOS_PER_MINUTE / requestCapacity));
+            }
+            if (availableTokens < tokens) {
+                wait = Math.max(wait, (long) ((tokens - availableTokens) * NANOS_PER_MINUTE / tokenCapacity));
+            }
+            return new QueueEstimate(ahead, TimeUnit.NANOSECONDS.toMillis(Math.max(0, wait)));
+        }
+    }
+
+    /**
+     * Align the local buckets with the limits reported by Anthropic.
+     */
+    public void onResponse(HttpHeaders headers) {
+        if (!enabled || headers == null) {
+            return;
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+
+            long requestLimit = longHeader(headers, "anthropic-ratelimit-requests-limit");
+            if (requestLimit > 0) {
+                requestCapacity = requestLimit;
+            }
+            long requestsRemaining = longHeader(headers, "anthropic-ratelimit-requests-remaining");
+            if (requestsRemaining >= 0) {
+                availableRequests = Math.min(availableRequests, requestsRemaining);
+                if (requestsRemaining == 0) {
+                    pauseUntil(resetHeader(headers, "anthropic-ratelimit-requests-reset", now), now);
+                }
+            }
+
+            // Input-token limits are reported separately on newer API versions
+            String tokenPrefix = headers.containsKey("anthropic-ratelimit-input-tokens-remaining")
+                    ? "anthropic-ratelimit-input-tokens-"
+                    : "anthropic-ratelimit-tokens-";
+            long tokenLimit = longHeader(headers, tokenPrefix + "limit");
+            if (tokenLimit > 0) {
+                tokenCapacity = tokenLimit;
+            }
+            long tokensRemaining = longHeader(headers, tokenPrefix + "remaining");
+            if (tokensRemaining >= 0) {
+                availableTokens = Math.min(availableTokens, tokensRemaining);
+                if (tokensRemaining == 0) {
+                    pauseUntil(resetHeader(headers, tokenPrefix + "reset", now), now);
+                }
+            }
+
+            long retryAfterSeconds = longHeader(headers, HttpHeaders.RETRY_AFTER);
+            if (retryAfterSeconds >= 0) {
+                pauseUntil(now + TimeUnit.SECONDS.toNanos(retryAfterSeconds), now);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Record a 429: apply its headers and, if it carried no retry-after, back off
+     * for openai.rate-limit.delay-between-requests.
+     */
+    public void onThrottled(HttpHeaders headers) {
+        throttledCounter.increment();
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            availableRequests = 0;
+            if (headers == null || headers.getFirst(HttpHeaders.RETRY_AFTER) == null) {
+                pauseUntil(now + throttleCooldownNanos, now);
+            }
+        }
+        onResponse(headers);
+    }
+
+    /**
+     * Rough input-token estimate for a prompt; code averages three to four characters per token.
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : text.length() / 3 + 1;
+    }
+
+    public synchronized int queueLength() {
+        return queue.size();
+    }
+
+    private synchronized double[] snapshot() {
+        refill(System.nanoTime());
+        return new double[]{availableRequests, availableTokens};
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (scheduledDrain != null && scheduledDrainAt <= now) {
+                scheduledDrain = null;
+            }
+            refill(now);
+
+            while (!queue.isEmpty()) {
+                Waiter head = queue.peek();
+                double tokens = Math.min(head.tokens, tokenCapacity);
+                long waitNanos = nanosUntilAvailable(tokens, now);
+                if (waitNanos > 0) {
+                    scheduleDrain(waitNanos, now);
+                    break;
+                }
+                availableRequests -= 1;
+                availableTokens -= tokens;
+                lastGrantNanos = now;
+                virtualTime = Math.max(virtualTime, head.startTag);
+                granted.add(queue.poll());
+            }
+            pruneFlows();
+        }
+
+        // Complete outside the lock: subscribers start their HTTP call synchronously
+        long now = System.nanoTime();
+        for (Waiter waiter : granted) {
+            waitTimer.record(now - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            waiter.sink.success();
+        }
+    }
+
+    private long nanosUntilAvailable(double tokens, long now) {
+        long wait = Math.max(pausedUntilNanos - now, lastGrantNanos + minIntervalNanos - now);
+        if (availableRequests < 1) {
+            wait = Math.max(wait, (long) ((1 - availableRequests) * NANOS_PER_MINUTE / requestCapacity));
+        }
+        if (availableTokens < tokens) {
+            wait = Math.max(wait, (long) ((tokens - availableTokens) * NANOS_PER_MINUTE / tokenCapacity));
+        }
+        return wait;
+    }
+
+    // Cost of a call in virtual time: one request plus its tokens, scaled down by the class weight
+    private double cost(int estimatedTokens, ClientIdentity.Priority priority) {
+        double weight = priority == ClientIdentity.Priority.BULK ? bulkWeight : interactiveWeight;
+        return (1 + estimatedTokens / 1000.0) / weight;
+    }
+
+    // Flows whose last tag is behind virtual time carry no credit or debt; forget them
+    private void pruneFlows() {
+        if (flowFinishTags.size() > 2 * queue.size() + 64) {
+            flowFinishTags.values().removeIf(tag -> tag <= virtualTime);
+        }
+    }
+
+    private void scheduleDrain(long delayNanos, long now) {
+        long at = now + delayNanos;
+        if (scheduledDrain != null && !scheduledDrain.isDisposed() && scheduledDrainAt <= at) {
+            return;
+        }
+        if (scheduledDrain != null) {
+            scheduledDrain.dispose();
+        }
+        scheduledDrainAt = at;
+        scheduledDrain = Schedulers.parallel().schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed <= 0) {
+            return;
+        }
+        availableRequests = Math.min(requestCapacity, availableRequests + elapsed * requestCapacity / NANOS_PER_MINUTE);
+        availableTokens = Math.min(tokenCapacity, availableTokens + elapsed * tokenCapacity / NANOS_PER_MINUTE);
+        lastRefillNanos = now;
+    }
+
+    private void pauseUntil(long untilNanos, long now) {
+        if (untilNanos > now) {
+            pausedUntilNanos = Math.max(pausedUntilNanos, untilNanos);
+        }
+    }
+
+    private static long longHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return (long) Math.ceil(Double.parseDouble(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long resetHeader(HttpHeaders headers, String name, long now) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return now;
+        }
+        try {
+            long millisUntilReset = Instant.parse(value.trim()).toEpochMilli() - System.currentTimeMillis();
+            return now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisUntilReset));
+        } catch (DateTimeParseException e) {
+            return now;
+        }
+    }
+
+    public static final class QueueEstimate {
+        private final int position;
+        private final long waitMillis;
+
+        public QueueEstimate(int position, long waitMillis) {
+            this.position = position;
+            this.waitMillis = waitMillis;
+        }
+
+        public int getPosition() { return position; }
+
+        public long getWaitMillis() { return waitMillis; }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Void> sink;
+        private final int tokens;
+        private final long enqueuedAt;
+        private double startTag;
+        private double finishTag;
+        private long sequence;
+
+        private Waiter(MonoSink<Void> sink, int tokens, long enqueuedAt) {
+            this.sink = sink;
+            this.tokens = tokens;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.drdo.Source.Code.Translator.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Upstream timeout derived from recent latencies instead of a fixed value.
+ * Latencies of successful calls are normalised by input size (per 1k input
+ * tokens plus a fixed base) and kept in a ring; the timeout for a call is the
+ * p99 of that ring scaled back to the call's input size, times a safety
+ * multiplier, clamped to [min, max]. Until enough samples exist the initial
+ * timeout is used.
+ */
+public class AdaptiveTimeout {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long initialMs;
+    private final long minMs;
+    private final long maxMs;
+    private final double multiplier;
+
+    // Guarded by this
+    private final double[] samples;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private double p99PerUnit = -1;
+
+    public AdaptiveTimeout(int windowSize, long initialMs, long minMs, long maxMs, double multiplier) {
+        this.samples = new double[Math.max(MIN_SAMPLES, windowSize)];
+        this.initialMs = initialMs;
+        this.minMs = minMs;
+        this.maxMs = maxMs;
+        this.multiplier = multiplier;
+    }
+
+    public synchronized Duration timeoutFor(long inputTokens) {
+        if (p99PerUnit < 0) {
+            return Duration.ofMillis(initialMs);
+        }
+        long timeout = (long) (p99PerUnit * sizeFactor(inputTokens) * multiplier);
+        return Duration.ofMillis(Math.max(minMs, Math.min(maxMs, timeout)));
+    }
+
+    public synchronized void record(long latencyMs, long inputTokens) {
+        samples[next] = latencyMs / sizeFactor(inputTokens);
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+
+        if (count >= MIN_SAMPLES && (p99PerUnit < 0 || ++sinceRecompute >= RECOMPUTE_EVERY)) {
+            double[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            p99PerUnit = sorted[(int) Math.ceil(count * 0.99) - 1];
+            sinceRecompute = 0;
+        }
+    }
+
+    public synchronized long currentP99Ms() {
+        return p99PerUnit < 0 ? -1 : (long) p99PerUnit;
+    }
+
+    private static double sizeFactor(long inputTokens) {
+        return 1.0 + Math.max(0, inputTokens) / 1000.0;
+    }
+}
@@ -0,0 +1,110 @@
+package com.drdo.Source.Code.Translator.resilience;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Non-blocking semaphore capping concurrent upstream calls. Callers beyond the
+ * limit wait in a FIFO queue of bounded length; a full queue rejects
+ * immediately. Every successful {@link #acquire()} must be paired with one
+ * {@link #release()}.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+
+    // Guarded by this
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int active;
+
+    public Bulkhead(int maxConcurrent, int maxQueued) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+    }
+
+    /**
+     * Complete when a permit is held, or error with {@link BulkheadFullException}
+     * when the queue is full. Cancelling while queued leaves the queue.
+     */
+    public Mono<Void> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(() -> cancel(waiter));
+
+            boolean rejected = false;
+            synchronized (this) {
+                if (waiter.cancelled) {
+                    return;
+                }
+                if (active < maxConcurrent) {
+                    active++;
+                    waiter.granted = true;
+                } else if (waiters.size() >= maxQueued) {
+                    rejected = true;
+                } else {
+                    waiters.addLast(waiter);
+                }
+            }
+
+            if (rejected) {
+                sink.error(new BulkheadFullException());
+            } else if (waiter.granted) {
+                sink.success();
+            }
+        });
+    }
+
+    public void release() {
+        Waiter next;
+        synchronized (this) {
+            next = waiters.pollFirst();
+            if (next == null) {
+                active = Math.max(0, active - 1);
+                return;
+            }
+            // The permit passes directly to the next waiter
+            next.granted = true;
+        }
+        next.sink.success();
+    }
+
+    private void cancel(Waiter waiter) {
+        boolean handBack;
+        synchronized (this) {
+            waiter.cancelled = true;
+            handBack = !waiters.remove(waiter) && waiter.granted;
+        }
+        // Cancelled after the permit was granted but before it was delivered
+        if (handBack) {
+            release();
+        }
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    public synchronized int getQueued() {
+        return waiters.size();
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Void> sink;
+        private boolean granted;
+        private boolean cancelled;
+
+        private Waiter(MonoSink<Void> sink) {
+            this.sink = sink;
+        }
+    }
+
+    public static class BulkheadFullException extends RuntimeException {
+        BulkheadFullException() {
+            super("Too many concurrent Anthropic calls");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.drdo.Source.Code.Translator.resilience;
+
+/**
+ * Count-based circuit breaker. The outcomes of the last {@code windowSize} calls
+ * are kept in a ring; once at least {@code minimumCalls} are recorded and the
+ * failure rate or slow-call rate reaches its threshold, the breaker opens and
+ * rejects calls for {@code openMs}. It then lets {@code halfOpenCalls} trial
+ * calls through: all must succeed quickly to close it again, any failure
+ * reopens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallMs;
+    private final long openMs;
+    private final int halfOpenCalls;
+
+    // Guarded by this
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int next;
+    private int recorded;
+    private int failureCount;
+    private int slowCount;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, long slowCallMs, long openMs, int halfOpenCalls) {
+        this.failures = new boolean[Math.max(1, windowSize)];
+        this.slowCalls = new boolean[failures.length];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, failures.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallMs = slowCallMs;
+        this.openMs = openMs;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    // Read-only check used to fail fast before queueing for the rate limiter
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openMs;
+    }
+
+    // A permitted call ended without an outcome (cancelled)
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized void onSuccess(long durationMs) {
+        record(false, durationMs >= slowCallMs);
+    }
+
+    public synchronized void onFailure(long durationMs) {
+        record(true, durationMs >= slowCallMs);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure, boolean slow) {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            if (failure || slow) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Late result of a call started before the breaker opened
+            return;
+        }
+
+        if (recorded == failures.length) {
+            failureCount -= failures[next] ? 1 : 0;
+            slowCount -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        slowCalls[next] = slow;
+        failureCount += failure ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        next = (next + 1) % failures.length;
+
+        if (recorded >= minimumCalls &&
+                (failureCount * 100.0 / recorded >= failureRateThreshold ||
+                        slowCount * 100.0 / recorded >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        System.out.println("⚠️ Anthropic circuit breaker opened for " + openMs + "ms");
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failureCount = 0;
+        slowCount = 0;
+        System.out.println("✅ Anthropic circuit breaker closed");
+    }
+}
@@ -0,0 +1,38 @@
+package com.drdo.Source.Code.Translator.resilience;
+
+/**
+ * Caps retries to a fraction of original requests so retries cannot multiply
+ * load during an outage. Every original request deposits {@code ratio} tokens
+ * (up to {@code maxTokens}); every retry withdraws one. The budget starts full
+ * so a cold instance can still retry isolated failures.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+
+    // Guarded by this
+    private double tokens;
+
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = Math.max(1, maxTokens);
+        this.tokens = this.maxTokens;
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double getTokens() {
+        return tokens;
+    }
+}
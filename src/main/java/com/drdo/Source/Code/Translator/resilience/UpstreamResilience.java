@@ -0,0 +1,247 @@
+package com.drdo.Source.Code.Translator.resilience;
+
+import com.drdo.Source.Code.Translator.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Guards outbound Anthropic calls with a circuit breaker, a bulkhead, a
+ * latency-adaptive timeout and a retry budget. When the breaker is open or the
+ * bulkhead queue is full, calls fail fast with {@link UpstreamUnavailableException}
+ * carrying translation.fallback.message.
+ */
+@Component
+public class UpstreamResilience {
+
+    @Value("${translation.resilience.circuit-breaker.enabled:true}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${translation.resilience.circuit-breaker.window-size:50}")
+    private int windowSize;
+
+    @Value("${translation.resilience.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${translation.resilience.circuit-breaker.failure-rate-threshold:50}")
+    private double failureRateThreshold;
+
+    @Value("${translation.resilience.circuit-breaker.slow-call-rate-threshold:80}")
+    private double slowCallRateThreshold;
+
+    @Value("${translation.resilience.circuit-breaker.slow-call-ms:20000}")
+    private long slowCallMs;
+
+    @Value("${translation.resilience.circuit-breaker.open-ms:30000}")
+    private long openMs;
+
+    @Value("${translation.resilience.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${translation.resilience.bulkhead.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${translation.resilience.bulkhead.max-queued:200}")
+    private int maxQueued;
+
+    @Value("${translation.resilience.timeout.initial-ms:30000}")
+    private long initialTimeoutMs;
+
+    @Value("${translation.resilience.timeout.min-ms:5000}")
+    private long minTimeoutMs;
+
+    @Value("${translation.resilience.timeout.max-ms:90000}")
+    private long maxTimeoutMs;
+
+    @Value("${translation.resilience.timeout.multiplier:2.0}")
+    private double timeoutMultiplier;
+
+    @Value("${translation.resilience.timeout.window-size:500}")
+    private int timeoutWindowSize;
+
+    @Value("${translation.error.retry.enabled:true}")
+    private boolean retryEnabled;
+
+    @Value("${translation.error.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${translation.error.retry.delay-ms:2000}")
+    private long retryDelayMs;
+
+    @Value("${translation.error.retry.budget-ratio:0.2}")
+    private double retryBudgetRatio;
+
+    @Value("${translation.error.retry.budget-max:20}")
+    private double retryBudgetMax;
+
+    @Value("${translation.fallback.enabled:true}")
+    private boolean fallbackEnabled;
+
+    @Value("${translation.fallback.message:Translation service temporarily unavailable. Please try again later.}")
+    private String fallbackMessage;
+
+    private final MeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private AdaptiveTimeout adaptiveTimeout;
+    private RetryBudget retryBudget;
+    private Counter rejectedCounter;
+    private Counter retryCounter;
+    private Counter retryBudgetExhausted;
+
+    public UpstreamResilience(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                slowCallRateThreshold, slowCallMs, openMs, halfOpenCalls);
+        bulkhead = new Bulkhead(maxConcurrent, maxQueued);
+        adaptiveTimeout = new AdaptiveTimeout(timeoutWindowSize, initialTimeoutMs, minTimeoutMs, maxTimeoutMs,
+                timeoutMultiplier);
+        retryBudget = new RetryBudget(retryBudgetRatio, retryBudgetMax);
+
+        Gauge.builder("anthropic.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("anthropic.bulkhead.active", bulkhead, Bulkhead::getActive)
+                .register(meterRegistry);
+        Gauge.builder("anthropic.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                .register(meterRegistry);
+        Gauge.builder("anthropic.timeout.p99", adaptiveTimeout, AdaptiveTimeout::currentP99Ms)
+                .description("Observed p99 latency per size unit used to derive upstream timeouts (ms)")
+                .register(meterRegistry);
+        Gauge.builder("anthropic.retry.budget", retryBudget, RetryBudget::getTokens)
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("anthropic.rejected")
+                .description("Calls failed fast by the circuit breaker or bulkhead")
+                .register(meterRegistry);
+        retryCounter = Counter.builder("anthropic.retries")
+                .register(meterRegistry);
+        retryBudgetExhausted = Counter.builder("anthropic.retry.budget.exhausted")
+                .description("Retryable failures not retried because the retry budget was empty")
+                .register(meterRegistry);
+    }
+
+    // Fail before waiting on the rate limiter when the breaker is already open
+    public Mono<Void> ensureAvailable() {
+        if (circuitBreakerEnabled && circuitBreaker.isOpen()) {
+            rejectedCounter.increment();
+            return Mono.error(unavailable());
+        }
+        return Mono.empty();
+    }
+
+    // Called once per original (non-retry) request to fund the retry budget
+    public void onRequest() {
+        retryBudget.onRequest();
+    }
+
+    public <T> Mono<T> execute(long inputTokens, Function<Duration, Mono<T>> call) {
+        return executeMany(inputTokens, true, timeout -> call.apply(timeout).flux()).singleOrEmpty();
+    }
+
+    /**
+     * Run a call under the breaker and bulkhead. The call receives the timeout to
+     * apply; when {@code timed}, its latency also feeds the adaptive timeout and
+     * slow-call detection (streams are not timed since their length is output-bound).
+     */
+    public <T> Flux<T> executeMany(long inputTokens, boolean timed, Function<Duration, Flux<T>> call) {
+        return Flux.defer(() -> {
+            if (circuitBreakerEnabled && !circuitBreaker.tryAcquirePermission()) {
+                rejectedCounter.increment();
+                return Flux.error(unavailable());
+            }
+
+            AtomicBoolean recorded = new AtomicBoolean();
+            return bulkhead.acquire()
+                    .onErrorMap(Bulkhead.BulkheadFullException.class, e -> {
+                        rejectedCounter.increment();
+                        return unavailable();
+                    })
+                    .thenMany(Flux.defer(() -> {
+                        long start = System.nanoTime();
+                        return call.apply(adaptiveTimeout.timeoutFor(inputTokens))
+                                .doOnComplete(() -> {
+                                    recorded.set(true);
+                                    long elapsedMs = elapsedMs(start);
+                                    if (timed) {
+                                        adaptiveTimeout.record(elapsedMs, inputTokens);
+                                    }
+                                    circuitBreaker.onSuccess(timed ? elapsedMs : 0);
+                                })
+                                .doOnError(e -> {
+                                    recorded.set(true);
+                                    if (isUpstreamFailure(e)) {
+                                        circuitBreaker.onFailure(timed ? elapsedMs(start) : 0);
+                                    } else {
+                                        circuitBreaker.onSuccess(0);
+                                    }
+                                })
+                                .doFinally(signal -> bulkhead.release());
+                    }))
+                    .doFinally(signal -> {
+                        if (!recorded.get()) {
+                            circuitBreaker.releasePermission();
+                        }
+                    });
+        });
+    }
+
+    public Retry retrySpec() {
+        if (!retryEnabled || maxAttempts <= 1) {
+            return Retry.max(0);
+        }
+        return Retry.backoff(maxAttempts - 1, Duration.ofMillis(retryDelayMs))
+                .filter(e -> isRetryable(e) && withdrawRetry())
+                .doBeforeRetry(signal -> retryCounter.increment());
+    }
+
+    private boolean withdrawRetry() {
+        if (retryBudget.tryRetry()) {
+            return true;
+        }
+        retryBudgetExhausted.increment();
+        return false;
+    }
+
+    private boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) e).getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    // Client errors (4xx) mean the upstream is healthy and answering
+    private boolean isUpstreamFailure(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            return ((WebClientResponseException) e).getStatusCode().is5xxServerError();
+        }
+        return !(e instanceof UpstreamUnavailableException);
+    }
+
+    private UpstreamUnavailableException unavailable() {
+        return new UpstreamUnavailableException(fallbackEnabled
+                ? fallbackMessage
+                : "Anthropic API is unavailable (circuit breaker open or too many concurrent calls)");
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,29 @@
+package com.drdo.Source.Code.Translator.routing;
+
+// Model and output budget chosen for one translation
+public class ModelRoute {
+
+    public enum Tier { FAST, LARGE }
+
+    private final Tier tier;
+    private final String model;
+    private final int maxTokens;
+    private final double score;
+
+    public ModelRoute(Tier tier, String model, int maxTokens, double score) {
+        this.tier = tier;
+        this.model = model;
+        this.maxTokens = maxTokens;
+        this.score = score;
+    }
+
+    public Tier getTier() { return tier; }
+
+    public String getModel() { return model; }
+
+    public int getMaxTokens() { return maxTokens; }
+
+    public double getScore() { return score; }
+
+    public String getTierName() { return tier.name().toLowerCase(); }
+}
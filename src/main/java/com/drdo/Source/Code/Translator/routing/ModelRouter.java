@@ -0,0 +1,211 @@
+package com.drdo.Source.Code.Translator.routing;
+
+import com.drdo.Source.Code.Translator.ratelimit.AnthropicRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Chooses between a fast model and the large model for each source. The
+ * complexity score adds up size (lines / size-lines), the density of hard
+ * constructs (pointers and memory management, generics, threads) and the recent
+ * rate at which fast-model output failed validation for the language pair.
+ * That rate also decays with time, halving every failure-half-life, so a burst
+ * of failures that sends everything to the large model wears off and fast-model
+ * traffic resumes. Sources scoring below the threshold go to the fast model. The output budget
+ * grows with the source so long files are not truncated.
+ */
+@Component
+public class ModelRouter {
+
+    private static final Pattern HARD_CONSTRUCTS = Pattern.compile(
+            // Pointers and manual memory management
+            "->|\\*\\*|\\b(?:malloc|calloc|realloc|free|memcpy|memmove|memset)\\s*\\("
+                    + "|\\b(?:char|short|int|long|float|double|void|unsigned|size_t|struct\\s+\\w+)\\s*\\*"
+                    // Generics
+                    + "|<\\s*(?:[A-Z]\\w*|\\?)[\\w\\s,.?<>\\[\\]]*>"
+                    // Threads and synchronization
+                    + "|\\b(?:Thread|Runnable|synchronized|volatile|ExecutorService|CompletableFuture|AtomicInteger"
+                    + "|AtomicLong|ReentrantLock|_Atomic|pthread_\\w+)\\b");
+
+    private final boolean enabled;
+    private final String largeModel;
+    private final String fastModel;
+    private final double threshold;
+    private final int sizeLines;
+    private final double constructWeight;
+    private final double failureWeight;
+    private final double failureDecay;
+    private final long failureHalfLifeNanos;
+    private final int minOutputTokens;
+    private final int maxOutputTokens;
+    private final MeterRegistry meterRegistry;
+    private final Counter fastRoutes;
+    private final Counter largeRoutes;
+    private final Counter escalations;
+    private final Map<String, FailureRate> fastFailures = new ConcurrentHashMap<>();
+
+    public ModelRouter(@Value("${anthropic.routing.enabled:true}") boolean enabled,
+                       @Value("${anthropic.api.model}") String largeModel,
+                       @Value("${anthropic.routing.fast-model:}") String fastModel,
+                       @Value("${anthropic.routing.threshold:1.0}") double threshold,
+                       @Value("${anthropic.routing.size-lines:300}") int sizeLines,
+                       @Value("${anthropic.routing.construct-weight:5.0}") double constructWeight,
+                       @Value("${anthropic.routing.failure-weight:2.0}") double failureWeight,
+                       @Value("${anthropic.routing.failure-decay:0.1}") double failureDecay,
+                       @Value("${anthropic.routing.failure-half-life-seconds:600}") long failureHalfLifeSeconds,
+                       @Value("${anthropic.api.max-tokens}") int minOutputTokens,
+                       @Value("${anthropic.routing.max-output-tokens:8192}") int maxOutputTokens,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled && !fastModel.isBlank();
+        this.largeModel = largeModel;
+        this.fastModel = fastModel;
+        this.threshold = threshold;
+        this.sizeLines = Math.max(1, sizeLines);
+        this.constructWeight = constructWeight;
+        this.failureWeight = failureWeight;
+        this.failureDecay = failureDecay;
+        this.failureHalfLifeNanos = TimeUnit.SECONDS.toNanos(failureHalfLifeSeconds);
+        this.minOutputTokens = minOutputTokens;
+        this.maxOutputTokens = Math.max(minOutputTokens, maxOutputTokens);
+        this.meterRegistry = meterRegistry;
+        this.fastRoutes = Counter.builder("anthropic.routing.decisions")
+                .description("Translations routed to each model tier")
+                .tag("tier", "fast")
+                .register(meterRegistry);
+        this.largeRoutes = Counter.builder("anthropic.routing.decisions")
+                .description("Translations routed to each model tier")
+                .tag("tier", "large")
+                .register(meterRegistry);
+        this.escalations = Counter.builder("anthropic.routing.escalations")
+                .description("Fast-model translations that failed validation and were retranslated by the large model")
+                .register(meterRegistry);
+    }
+
+    public ModelRoute route(String sourceCode, String sourceLanguage, String targetLanguage) {
+        int maxTokens = outputBudget(sourceCode);
+        if (!enabled) {
+            return new ModelRoute(ModelRoute.Tier.LARGE, largeModel, maxTokens, 0);
+        }
+
+        int lines = 1;
+        for (int i = 0; i < sourceCode.length(); i++) {
+            if (sourceCode.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        int constructs = 0;
+        Matcher matcher = HARD_CONSTRUCTS.matcher(sourceCode);
+        while (matcher.find()) {
+            constructs++;
+        }
+        double score = (double) lines / sizeLines
+                + constructWeight * constructs / lines
+                + failureWeight * failures(sourceLanguage, targetLanguage).get();
+
+        ModelRoute route;
+        if (score < threshold) {
+            route = new ModelRoute(ModelRoute.Tier.FAST, fastModel, maxTokens, score);
+            fastRoutes.increment();
+        } else {
+            route = new ModelRoute(ModelRoute.Tier.LARGE, largeModel, maxTokens, score);
+            largeRoutes.increment();
+        }
+        System.out.println(String.format("Routing %d-line %s source (%d hard constructs, score %.2f) to %s",
+                lines, sourceLanguage, constructs, score, route.getModel()));
+        return route;
+    }
+
+    // The large-model route to retry with after the fast model's output failed validation
+    public ModelRoute escalate(ModelRoute route) {
+        escalations.increment();
+        return new ModelRoute(ModelRoute.Tier.LARGE, largeModel, route.getMaxTokens(), route.getScore());
+    }
+
+    /**
+     * Identifies everything that decides which model translates a source, for
+     * cache keys: the large model alone without routing, otherwise both models
+     * and the static part of the score. A routed result may come from either
+     * model, so changing either one invalidates it.
+     */
+    public String getIdentity() {
+        if (!enabled) {
+            return largeModel;
+        }
+        return "routed:" + largeModel + "," + fastModel + ",threshold=" + threshold + ",size-lines=" + sizeLines
+                + ",construct-weight=" + constructWeight;
+    }
+
+    public void recordFastOutcome(String sourceLanguage, String targetLanguage, boolean valid) {
+        failures(sourceLanguage, targetLanguage).update(valid ? 0 : 1, failureDecay);
+    }
+
+    public void recordLatency(ModelRoute route, long nanos) {
+        Timer.builder("anthropic.model.latency")
+                .description("Time to a complete translation, per model")
+                .tag("model", route.getModel())
+                .tag("tier", route.getTierName())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private int outputBudget(String sourceCode) {
+        // Translations come out at roughly the size of the source; twice that leaves room for verbose targets
+        long budget = 2L * AnthropicRateLimiter.estimateTokens(sourceCode);
+        return (int) Math.max(minOutputTokens, Math.min(maxOutputTokens, budget));
+    }
+
+    private FailureRate failures(String sourceLanguage, String targetLanguage) {
+        String languages = sourceLanguage.toLowerCase() + "-" + targetLanguage.toLowerCase();
+        return fastFailures.computeIfAbsent(languages, key -> {
+            FailureRate rate = new FailureRate(failureHalfLifeNanos);
+            Gauge.builder("anthropic.routing.fast.failure-rate", rate, FailureRate::get)
+                    .description("Recent share of fast-model translations that failed validation")
+                    .tag("languages", key)
+                    .register(meterRegistry);
+            return rate;
+        });
+    }
+
+    // Exponentially weighted moving average of 0/1 failure samples, decaying towards 0 between samples
+    private static final class FailureRate {
+
+        private final long halfLifeNanos;
+
+        // Guarded by this
+        private double value;
+        private long updatedAt = System.nanoTime();
+
+        FailureRate(long halfLifeNanos) {
+            this.halfLifeNanos = halfLifeNanos;
+        }
+
+        synchronized void update(double sample, double weight) {
+            decay();
+            value += weight * (sample - value);
+        }
+
+        synchronized double get() {
+            decay();
+            return value;
+        }
+
+        // Without decay a rate high enough to route everything large would never see another sample
+        private void decay() {
+            long now = System.nanoTime();
+            if (halfLifeNanos > 0) {
+                value *= Math.pow(0.5, (double) (now - updatedAt) / halfLifeNanos);
+            }
+            updatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,2227 @@
+package com.drdo.Source.Code.Translator.rules;
+
+import com.drdo.Source.Code.Translator.csource.CLexer;
+import com.drdo.Source.Code.Translator.csource.CSyntaxException;
+import com.drdo.Source.Code.Translator.csource.CToken;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * C to Java for the subset with a direct mapping: functions over primitives,
+ * string literals, arrays and structs, control flow, enums, constant #defines
+ * and stdio printing. Parsing and translation happen in one recursive-descent
+ * pass with C's implicit int/bool and narrowing conversions made explicit.
+ * C char is signed 8-bit as in gcc and clang, so char variables become byte;
+ * character constants and characters read from strings stay Java char.
+ * Structs become static nested classes; functions that write to a struct
+ * parameter work on a copy so C's pass-by-value is preserved. Statements javac
+ * would reject as unreachable are dropped. Anything else raises
+ * {@link UnsupportedConstructException}.
+ */
+final class CToJavaTranslator {
+
+    static final String CLASS_NAME = "TranslatedCode";
+
+    private static final Set<String> JAVA_RESERVED = Set.of(
+            "abstract", "assert", "boolean", "byte", "catch", "class", "extends", "final", "finally", "implements",
+            "import", "instanceof", "interface", "native", "new", "package", "private", "protected", "public",
+            "super", "synchronized", "this", "throw", "throws", "transient", "try", "strictfp", "null", "var",
+            "record", "yield", "permits", "sealed", "String", "System", "Math", "Integer", "Long", "Character",
+            "Double", "Float", "Object", "args", CLASS_NAME);
+
+    private static final Set<String> HEADERS = Set.of(
+            "stdio.h", "stdlib.h", "math.h", "stdbool.h", "string.h", "limits.h", "stddef.h");
+
+    private static final Set<String> MATH_FUNCTIONS = Set.of(
+            "sqrt", "cbrt", "pow", "sin", "cos", "tan", "asin", "acos", "atan", "atan2", "exp", "log", "log10",
+            "floor", "ceil", "hypot");
+
+    private static final Pattern FORMAT_SPECIFIER =
+            Pattern.compile("%([-+ #0]*)(\\d+|\\*)?(\\.(\\d+|\\*)?)?(hh|h|ll|l|L|z|j|t)?([a-zA-Z%])");
+
+    // Java operator precedence, lowest first
+    private static final int ASSIGN = 1;
+    private static final int COND = 2;
+    private static final int LOR = 3;
+    private static final int LAND = 4;
+    private static final int BOR = 5;
+    private static final int XOR = 6;
+    private static final int BAND = 7;
+    private static final int EQ = 8;
+    private static final int REL = 9;
+    private static final int SHIFT = 10;
+    private static final int ADD = 11;
+    private static final int MUL = 12;
+    private static final int UNARY = 13;
+    private static final int PRIMARY = 15;
+
+    private static final Map<String, Integer> BINARY_LEVELS = Map.ofEntries(
+            Map.entry("||", LOR), Map.entry("&&", LAND), Map.entry("|", BOR), Map.entry("^", XOR),
+            Map.entry("&", BAND), Map.entry("==", EQ), Map.entry("!=", EQ), Map.entry("<", REL),
+            Map.entry(">", REL), Map.entry("<=", REL), Map.entry(">=", REL), Map.entry("<<", SHIFT),
+            Map.entry(">>", SHIFT), Map.entry("+", ADD), Map.entry("-", ADD), Map.entry("*", MUL),
+            Map.entry("/", MUL), Map.entry("%", MUL));
+
+    private static final Set<String> ASSIGNMENT_OPERATORS = Set.of(
+            "=", "+=", "-=", "*=", "/=", "%=", "<<=", ">>=", "&=", "^=", "|=");
+
+    private List<CToken> tokens;
+    private int pos;
+
+    private final List<Member> members = new ArrayList<>();
+    private final Map<String, Var> globals = new HashMap<>();
+    private final Map<String, FunctionInfo> functions = new HashMap<>();
+    private final Map<String, StructInfo> structTags = new HashMap<>();
+    private final Map<String, Type> typedefs = new HashMap<>();
+    private final Map<String, StructInfo> structClasses = new HashMap<>();
+    private final Deque<Map<String, Var>> scopes = new ArrayDeque<>();
+    private final Deque<Breakable> breakables = new ArrayDeque<>();
+
+    private StringBuilder out;
+    private int indent;
+    private FunctionInfo current;
+    private Set<String> mutatedParams;
+    private int discarding;
+
+    private CToJavaTranslator(List<CToken> tokens) {
+        this.tokens = tokens;
+    }
+
+    static String translate(String cCode) {
+        List<CToken> tokens;
+        try {
+            tokens = CLexer.tokenize(cCode);
+        } catch (CSyntaxException e) {
+            throw unsupported("source that does not tokenize: " + e.getMessage());
+        }
+        return new CToJavaTranslator(tokens).run();
+    }
+
+    private String run() {
+        while (peek().getKind() != CToken.Kind.EOF) {
+            if (peek().getKind() == CToken.Kind.DIRECTIVE) {
+                directive(next());
+            } else {
+                externalDeclaration();
+            }
+        }
+        for (FunctionInfo function : functions.values()) {
+            if (!function.defined && function.called) {
+                throw unsupported("calls to functions defined elsewhere");
+            }
+        }
+
+        StringBuilder result = new StringBuilder("public class " + CLASS_NAME + " {\n");
+        Member previous = null;
+        for (Member member : members) {
+            if (member.struct != null && member.struct.fields == null) {
+                throw unsupported("incomplete struct types");
+            }
+            String text = member.struct != null ? renderStruct(member.struct) : member.text;
+            if (previous != null && !(previous.field && member.field)) {
+                result.append('\n');
+            }
+            result.append(text);
+            previous = member;
+        }
+        return result.append("}\n").toString();
+    }
+
+    // ----- preprocessor -----
+
+    private void directive(CToken token) {
+        String text = token.getText().substring(1).trim();
+        if (text.startsWith("include")) {
+            String header = text.substring("include".length()).trim();
+            if (header.startsWith("<") && header.endsWith(">")
+                    && HEADERS.contains(header.substring(1, header.length() - 1).trim())) {
+                return;
+            }
+            throw unsupported("#include " + header);
+        }
+        if (!text.startsWith("define")) {
+            throw unsupported("#" + text.split("\\s+")[0] + " directives");
+        }
+        String definition = text.substring("define".length());
+        Matcher name = Pattern.compile("^\\s+([A-Za-z_][A-Za-z0-9_]*)(\\(?)").matcher(definition);
+        if (!name.find() || !name.group(2).isEmpty()) {
+            throw unsupported("function-like macros");
+        }
+        String constant = name.group(1);
+        String body = definition.substring(name.end()).trim();
+        if (body.isEmpty()) {
+            throw unsupported("empty macros");
+        }
+        checkName(constant);
+
+        List<CToken> savedTokens = tokens;
+        int savedPos = pos;
+        Expr value;
+        try {
+            tokens = CLexer.tokenize(body);
+            pos = 0;
+            value = conditional();
+            if (peek().getKind() != CToken.Kind.EOF) {
+                throw unsupported("macros that are not a single expression");
+            }
+        } catch (CSyntaxException e) {
+            throw unsupported("macro " + constant);
+        } finally {
+            tokens = savedTokens;
+            pos = savedPos;
+        }
+        if (!value.type.isScalar() && !value.type.isString()) {
+            throw unsupported("macro " + constant);
+        }
+        addField("static final " + value.type.javaName() + " " + constant + " = " + value.code + ";");
+        Var var = new Var(constant, value.type, VarKind.CONSTANT);
+        var.value = value.intValue;
+        globals.put(constant, var);
+    }
+
+    // ----- file scope -----
+
+    private void externalDeclaration() {
+        if (accept("typedef")) {
+            Specifiers specifiers = specifiers();
+            do {
+                Declarator declarator = declarator(specifiers.type, false);
+                if (declarator.function || declarator.type.dims > 0) {
+                    throw unsupported("typedefs of arrays or functions");
+                }
+                Type type = declarator.type;
+                if (type.isStruct()) {
+                    StructInfo struct = structClasses.get(type.base);
+                    if (struct.anonymous) {
+                        struct.rename(declarator.name, this);
+                    }
+                    type = Type.struct(struct.javaName);
+                }
+                typedefs.put(declarator.name, type);
+            } while (accept(","));
+            expect(";");
+            return;
+        }
+
+        Specifiers specifiers = specifiers();
+        if (accept(";")) {
+            return;
+        }
+        Declarator first = declarator(specifiers.type, true);
+        if (first.function) {
+            function(specifiers, first);
+            return;
+        }
+        Declarator declarator = first;
+        while (true) {
+            globalVariable(specifiers, declarator);
+            if (!accept(",")) {
+                break;
+            }
+            declarator = declarator(specifiers.type, false);
+        }
+        expect(";");
+    }
+
+    private void globalVariable(Specifiers specifiers, Declarator declarator) {
+        checkName(declarator.name);
+        if (globals.containsKey(declarator.name) || functions.containsKey(declarator.name)) {
+            throw unsupported("redeclared globals");
+        }
+        StringBuilder savedOut = out;
+        out = new StringBuilder();
+        int savedIndent = indent;
+        indent = 1;
+        declaration(specifiers, declarator, "static ");
+        String text = out.toString();
+        out = savedOut;
+        indent = savedIndent;
+        addField(text.strip());
+        globals.put(declarator.name, new Var(declarator.name, declarator.type,
+                specifiers.isConst ? VarKind.CONSTANT : VarKind.GLOBAL));
+    }
+
+    private void addField(String text) {
+        Member member = new Member();
+        member.text = "    " + text + "\n";
+        member.field = true;
+        members.add(member);
+    }
+
+    private Specifiers specifiers() {
+        Specifiers specifiers = new Specifiers();
+        List<String> words = new ArrayList<>();
+        Type named = null;
+        while (true) {
+            CToken token = peek();
+            String text = token.getText();
+            if (token.is("const")) {
+                specifiers.isConst = true;
+            } else if (token.is("static")) {
+                specifiers.isStatic = true;
+            } else if (token.is("inline") || token.is("signed")) {
+                // No effect on the translation
+            } else if (token.getKind() == CToken.Kind.KEYWORD && Set.of("void", "char", "short", "int", "long",
+                    "float", "double", "_Bool").contains(text)) {
+                words.add(text);
+            } else if (token.is("struct")) {
+                next();
+                named = structSpecifier();
+                continue;
+            } else if (token.is("enum")) {
+                next();
+                enumSpecifier();
+                named = Type.INT;
+                continue;
+            } else if (token.getKind() == CToken.Kind.IDENTIFIER && named == null && words.isEmpty()
+                    && (typedefs.containsKey(text) || text.equals("bool"))) {
+                named = text.equals("bool") ? Type.BOOLEAN : typedefs.get(text);
+            } else if (token.getKind() == CToken.Kind.KEYWORD && Set.of("unsigned", "volatile", "extern",
+                    "register", "auto", "union", "_Complex", "_Atomic", "_Thread_local").contains(text)) {
+                throw unsupported("'" + text + "'");
+            } else {
+                break;
+            }
+            next();
+        }
+        if (named != null) {
+            if (!words.isEmpty()) {
+                throw unsupported("combined type specifiers");
+            }
+            specifiers.type = named;
+            return specifiers;
+        }
+        if (words.isEmpty()) {
+            throw syntax("a type");
+        }
+        String combined = String.join(" ", words).replace("short int", "short").replace("long int", "long")
+                .replace("long long", "long");
+        specifiers.type = switch (combined) {
+            case "void" -> Type.VOID;
+            case "char" -> Type.BYTE;
+            case "short" -> Type.SHORT;
+            case "int" -> Type.INT;
+            case "long" -> Type.LONG;
+            case "float" -> Type.FLOAT;
+            case "double" -> Type.DOUBLE;
+            case "_Bool" -> Type.BOOLEAN;
+            default -> throw unsupported("type '" + combined + "'");
+        };
+        return specifiers;
+    }
+
+    private Type structSpecifier() {
+        String tag = peek().getKind() == CToken.Kind.IDENTIFIER ? next().getText() : null;
+        StructInfo struct = tag == null ? null : structTags.get(tag);
+        if (struct == null) {
+            struct = new StructInfo();
+            struct.anonymous = tag == null;
+            struct.javaName = tag == null ? "Struct" + structClasses.size() : className(tag);
+            if (structClasses.containsKey(struct.javaName)) {
+                throw unsupported("struct names that differ only in case");
+            }
+            structClasses.put(struct.javaName, struct);
+            if (tag != null) {
+                structTags.put(tag, struct);
+            }
+            Member member = new Member();
+            member.struct = struct;
+            members.add(member);
+        }
+        if (accept("{")) {
+            if (struct.fields != null) {
+                throw unsupported("redefined structs");
+            }
+            struct.fields = new LinkedHashMap<>();
+            while (!accept("}")) {
+                Specifiers specifiers = specifiers();
+                do {
+                    Declarator field = declarator(specifiers.type, false);
+                    checkName(field.name);
+                    if (field.function || field.type.dims > 1 || field.type.isStruct()
+                            || field.type.dims == 1 && field.sizes.get(0) == null) {
+                        throw unsupported("struct fields that are nested structs, pointers or unsized arrays");
+                    }
+                    struct.fields.put(field.name, field.type);
+                    if (field.type.dims == 1) {
+                        struct.arraySizes.put(field.name, field.sizes.get(0));
+                    }
+                } while (accept(","));
+                expect(";");
+            }
+            if (struct.fields.isEmpty()) {
+                throw unsupported("empty structs");
+            }
+        }
+        return Type.struct(struct.javaName);
+    }
+
+    private void enumSpecifier() {
+        if (peek().getKind() == CToken.Kind.IDENTIFIER) {
+            next();
+        }
+        if (!accept("{")) {
+            return;
+        }
+        String previous = null;
+        while (!accept("}")) {
+            String name = expectIdentifier();
+            checkName(name);
+            String value;
+            if (accept("=")) {
+                value = coerce(conditional(), Type.INT, true).code;
+            } else {
+                value = previous == null ? "0" : previous + " + 1";
+            }
+            addField("static final int " + name + " = " + value + ";");
+            globals.put(name, new Var(name, Type.INT, VarKind.CONSTANT));
+            previous = name;
+            if (!accept(",")) {
+                expect("}");
+                break;
+            }
+        }
+    }
+
+    // A declarator: optional pointer, a name and array or function suffixes
+    private Declarator declarator(Type base, boolean allowFunction) {
+        Declarator declarator = new Declarator();
+        Type type = base;
+        if (accept("*")) {
+            accept("const");
+            if (!base.equals(Type.BYTE)) {
+                throw unsupported("pointers");
+            }
+            type = Type.STRING;
+        }
+        if (peek().is("*")) {
+            throw unsupported("pointers to pointers");
+        }
+        declarator.name = expectIdentifier();
+        if (allowFunction && accept("(")) {
+            declarator.function = true;
+            declarator.type = type;
+            parameters(declarator);
+            return declarator;
+        }
+        while (accept("[")) {
+            if (accept("]")) {
+                declarator.sizes.add(null);
+            } else {
+                Expr size = coerce(conditional(), Type.INT, true);
+                expect("]");
+                declarator.sizes.add(size.code);
+            }
+        }
+        for (int i = 0; i < declarator.sizes.size(); i++) {
+            if (type.isString()) {
+                throw unsupported("arrays of strings");
+            }
+            type = type.arrayOf();
+        }
+        if (type.dims > 2) {
+            throw unsupported("arrays with more than two dimensions");
+        }
+        declarator.type = type;
+        return declarator;
+    }
+
+    private void parameters(Declarator function) {
+        if (accept(")")) {
+            return;
+        }
+        if (peek().is("void") && peekAt(1).is(")")) {
+            next();
+            next();
+            return;
+        }
+        do {
+            if (peek().is("...")) {
+                throw unsupported("variadic functions");
+            }
+            Specifiers specifiers = specifiers();
+            Type type = specifiers.type;
+            String name = null;
+            if (accept("*")) {
+                accept("const");
+                if (peek().is("*") && function.name.equals("main")) {
+                    // char **argv
+                    next();
+                    type = Type.STRING.arrayOf();
+                } else if (type.equals(Type.BYTE)) {
+                    type = Type.STRING;
+                } else {
+                    // Pointer parameters are accepted as arrays; any pointer operation is rejected later
+                    type = type.arrayOf();
+                }
+            }
+            if (peek().getKind() == CToken.Kind.IDENTIFIER) {
+                name = next().getText();
+            }
+            while (accept("[")) {
+                if (!accept("]")) {
+                    conditional();
+                    expect("]");
+                }
+                if (type.isString() && function.name.equals("main")) {
+                    type = Type.STRING.arrayOf();
+                    continue;
+                }
+                type = type.arrayOf();
+            }
+            if (type.dims > 2 || type.isString() && type.dims > 0 && !function.name.equals("main")) {
+                throw unsupported("parameters of this type");
+            }
+            function.paramTypes.add(type);
+            function.paramNames.add(name);
+            function.paramFinal.add(specifiers.isConst && type.dims == 0);
+        } while (accept(","));
+        expect(")");
+    }
+
+    // ----- functions -----
+
+    private void function(Specifiers specifiers, Declarator declarator) {
+        String name = declarator.name;
+        boolean isMain = name.equals("main");
+        if (!isMain) {
+            checkName(name);
+        }
+        if (declarator.type.dims > 0) {
+            throw unsupported("functions returning arrays");
+        }
+        FunctionInfo info = functions.get(name);
+        if (info == null) {
+            info = new FunctionInfo();
+            info.name = name;
+            info.returnType = declarator.type;
+            info.paramTypes = declarator.paramTypes;
+            info.isMain = isMain;
+            functions.put(name, info);
+        } else if (!info.returnType.equals(declarator.type) || !info.paramTypes.equals(declarator.paramTypes)) {
+            throw unsupported("conflicting function declarations");
+        }
+        if (accept(";")) {
+            return;
+        }
+        if (info.defined) {
+            throw unsupported("redefined functions");
+        }
+        info.defined = true;
+        if (isMain && !declarator.paramTypes.isEmpty()
+                && !(declarator.paramTypes.size() == 2 && declarator.paramTypes.get(0).equals(Type.INT)
+                && declarator.paramTypes.get(1).equals(Type.STRING.arrayOf()))) {
+            throw unsupported("this main signature");
+        }
+
+        current = info;
+        mutatedParams = new LinkedHashSet<>();
+        out = new StringBuilder();
+        indent = 2;
+        scopes.push(new HashMap<>());
+        List<String> params = new ArrayList<>();
+        if (!isMain) {
+            for (int i = 0; i < declarator.paramTypes.size(); i++) {
+                String paramName = declarator.paramNames.get(i);
+                if (paramName == null) {
+                    throw unsupported("unnamed parameters");
+                }
+                checkName(paramName);
+                Type type = declarator.paramTypes.get(i);
+                scopes.peek().put(paramName, new Var(paramName, type, VarKind.PARAM));
+                params.add((declarator.paramFinal.get(i) ? "final " : "") + type.javaName() + " " + paramName);
+            }
+        }
+        expect("{");
+        boolean completes = blockBody();
+        for (String param : mutatedParams) {
+            structClasses.get(lookup(param).type.base).needsCopy = true;
+        }
+        scopes.pop();
+        if (completes && !isMain && !info.returnType.isVoid()) {
+            throw unsupported("functions that can end without returning a value");
+        }
+
+        StringBuilder text = new StringBuilder("    ");
+        text.append(isMain ? "public static void main(String[] args)"
+                : "static " + info.returnType.javaName() + " " + name + "(" + String.join(", ", params) + ")");
+        text.append(" {\n");
+        for (String param : mutatedParams) {
+            // C passes structs by value
+            text.append("        ").append(param).append(" = ").append(param).append(".copy();\n");
+        }
+        text.append(out).append("    }\n");
+        Member member = new Member();
+        member.text = text.toString();
+        members.add(member);
+        current = null;
+    }
+
+    // Statements up to the closing brace; returns whether the block can complete normally
+    private boolean blockBody() {
+        boolean reachable = true;
+        while (!accept("}")) {
+            if (peek().getKind() == CToken.Kind.EOF) {
+                throw syntax("'}'");
+            }
+            if (peek().getKind() == CToken.Kind.DIRECTIVE) {
+                throw unsupported("preprocessor directives inside functions");
+            }
+            // Skip a final "return 0;" in main, which Java does not need
+            if (current.isMain && peek().is("return") && peekAt(1).getText().equals("0") && peekAt(2).is(";")
+                    && peekAt(3).is("}") && indent == 2) {
+                next();
+                next();
+                next();
+                continue;
+            }
+            if (reachable) {
+                reachable = statement();
+            } else {
+                // javac rejects unreachable statements; C code often has a break after a return
+                discard();
+            }
+        }
+        return reachable;
+    }
+
+    private void discard() {
+        int length = out.length();
+        discarding++;
+        try {
+            statement();
+        } finally {
+            discarding--;
+            out.setLength(length);
+        }
+    }
+
+    // ----- statements -----
+
+    private boolean statement() {
+        CToken token = peek();
+        if (token.is("{")) {
+            next();
+            line("{");
+            indent++;
+            scopes.push(new HashMap<>());
+            boolean completes = blockBody();
+            scopes.pop();
+            indent--;
+            line("}");
+            return completes;
+        }
+        if (token.is(";")) {
+            next();
+            return true;
+        }
+        if (token.is("if")) {
+            next();
+            return ifStatement("if ");
+        }
+        if (token.is("while")) {
+            next();
+            expect("(");
+            Expr condition = toBoolean(expression());
+            expect(")");
+            checkNotConstantFalse(condition);
+            line("while (" + condition.code + ") {");
+            Breakable loop = loopBody(true);
+            line("}");
+            return !condition.code.equals("true") || loop.broken;
+        }
+        if (token.is("do")) {
+            next();
+            line("do {");
+            Breakable loop = loopBody(true);
+            expect("while");
+            expect("(");
+            Expr condition = toBoolean(expression());
+            expect(")");
+            expect(";");
+            line("} while (" + condition.code + ");");
+            return loop.broken || !condition.code.equals("true") && (loop.bodyCompletes || loop.continued);
+        }
+        if (token.is("for")) {
+            next();
+            return forStatement();
+        }
+        if (token.is("switch")) {
+            next();
+            return switchStatement();
+        }
+        if (token.is("break")) {
+            next();
+            expect(";");
+            if (breakables.isEmpty()) {
+                throw syntax("a loop or switch around break");
+            }
+            if (discarding == 0) {
+                breakables.peek().broken = true;
+            }
+            line("break;");
+            return false;
+        }
+        if (token.is("continue")) {
+            next();
+            expect(";");
+            Breakable loop = breakables.stream().filter(b -> b.loop).findFirst()
+                    .orElseThrow(() -> syntax("a loop around continue"));
+            if (discarding == 0) {
+                loop.continued = true;
+            }
+            line("continue;");
+            return false;
+        }
+        if (token.is("return")) {
+            next();
+            returnStatement();
+            return false;
+        }
+        if (token.is("goto") || token.getKind() == CToken.Kind.IDENTIFIER && peekAt(1).is(":")) {
+            throw unsupported("goto and labels");
+        }
+        if (isTypeStart()) {
+            localDeclaration();
+            return true;
+        }
+        Expr expr = expression();
+        expect(";");
+        if (!expr.statement) {
+            throw unsupported("expression statements without effect");
+        }
+        line(expr.code + ";");
+        return true;
+    }
+
+    private boolean ifStatement(String prefix) {
+        expect("(");
+        Expr condition = toBoolean(expression());
+        expect(")");
+        line(prefix + "(" + condition.code + ") {");
+        boolean thenCompletes = nestedBody();
+        if (!accept("else")) {
+            line("}");
+            return true;
+        }
+        if (accept("if")) {
+            return ifStatement("} else if ") | thenCompletes;
+        }
+        line("} else {");
+        boolean elseCompletes = nestedBody();
+        line("}");
+        return thenCompletes || elseCompletes;
+    }
+
+    // The body of an if or loop, always emitted as a braced block
+    private boolean nestedBody() {
+        indent++;
+        scopes.push(new HashMap<>());
+        boolean completes;
+        if (accept("{")) {
+            completes = blockBody();
+        } else {
+            if (isTypeStart()) {
+                throw syntax("a statement");
+            }
+            completes = statement();
+        }
+        scopes.pop();
+        indent--;
+        return completes;
+    }
+
+    private Breakable loopBody(boolean loop) {
+        Breakable breakable = new Breakable(loop);
+        breakables.push(breakable);
+        try {
+            breakable.bodyCompletes = nestedBody();
+        } finally {
+            breakables.pop();
+        }
+        return breakable;
+    }
+
+    private boolean forStatement() {
+        expect("(");
+        scopes.push(new HashMap<>());
+        List<String> init = new ArrayList<>();
+        if (isTypeStart()) {
+            Specifiers specifiers = specifiers();
+            if (specifiers.isStatic || specifiers.type.isStruct()) {
+                throw unsupported("this for-loop declaration");
+            }
+            StringBuilder declaration = new StringBuilder((specifiers.isConst ? "final " : "")
+                    + specifiers.type.javaName() + " ");
+            do {
+                Declarator declarator = declarator(specifiers.type, false);
+                if (!declarator.type.equals(specifiers.type)) {
+                    throw unsupported("arrays or pointers declared in a for loop");
+                }
+                declareLocal(declarator.name, declarator.type);
+                String value = accept("=") ? coerce(assignment(), declarator.type, true).code : defaultValue(declarator.type);
+                if (!init.isEmpty()) {
+                    declaration.append(", ");
+                }
+                declaration.append(declarator.name).append(" = ").append(value);
+                init.add(declarator.name);
+            } while (accept(","));
+            expect(";");
+            init = List.of(declaration.toString());
+        } else {
+            init = statementExpressions(";");
+        }
+        String condition = "";
+        if (!accept(";")) {
+            Expr check = toBoolean(expression());
+            checkNotConstantFalse(check);
+            condition = check.code;
+            expect(";");
+        }
+        List<String> update = statementExpressions(")");
+        line("for (" + String.join(", ", init) + ";" + (condition.isEmpty() ? "" : " " + condition) + ";"
+                + (update.isEmpty() ? "" : " " + String.join(", ", update)) + ") {");
+        Breakable loop = loopBody(true);
+        line("}");
+        scopes.pop();
+        return !(condition.isEmpty() || condition.equals("true")) || loop.broken;
+    }
+
+    private List<String> statementExpressions(String terminator) {
+        List<String> expressions = new ArrayList<>();
+        if (accept(terminator)) {
+            return expressions;
+        }
+        do {
+            Expr expr = expression();
+            if (!expr.statement) {
+                throw unsupported("for-loop clauses without effect");
+            }
+            expressions.add(expr.code);
+        } while (accept(","));
+        expect(terminator);
+        return expressions;
+    }
+
+    private boolean switchStatement() {
+        expect("(");
+        Expr selector = toNumeric(expression());
+        expect(")");
+        if (!selector.type.isIntegral() || selector.type.equals(Type.LONG)) {
+            throw unsupported("switch over anything but int or char");
+        }
+        expect("{");
+        line("switch (" + selector.code + ") {");
+        Breakable breakable = new Breakable(false);
+        breakables.push(breakable);
+        scopes.push(new HashMap<>());
+        boolean reachable = true;
+        boolean labelled = false;
+        boolean hasDefault = false;
+        try {
+            indent++;
+            while (!accept("}")) {
+                if (accept("case")) {
+                    Expr label = coerce(conditional(), selector.type, true);
+                    expect(":");
+                    line("case " + label.code + ":");
+                    reachable = true;
+                    labelled = true;
+                } else if (accept("default")) {
+                    expect(":");
+                    line("default:");
+                    reachable = true;
+                    labelled = true;
+                    hasDefault = true;
+                } else {
+                    if (!labelled) {
+                        throw unsupported("statements before the first case label");
+                    }
+                    indent++;
+                    if (reachable) {
+                        reachable = statement();
+                    } else {
+                        discard();
+                    }
+                    indent--;
+                }
+            }
+            indent--;
+        } finally {
+            scopes.pop();
+            breakables.pop();
+        }
+        line("}");
+        return breakable.broken || !hasDefault || reachable;
+    }
+
+    private void returnStatement() {
+        if (accept(";")) {
+            if (!current.returnType.isVoid() && !current.isMain) {
+                throw unsupported("return without a value from a non-void function");
+            }
+            line("return;");
+            return;
+        }
+        Expr value = expression();
+        expect(";");
+        if (current.isMain) {
+            if ("0".equals(value.code)) {
+                line("return;");
+            } else {
+                line("System.exit(" + coerce(value, Type.INT, false).code + ");");
+            }
+            return;
+        }
+        if (current.returnType.isVoid()) {
+            throw unsupported("returning a value from a void function");
+        }
+        Expr result = coerce(value, current.returnType, true);
+        String code = result.code;
+        if (result.type.isStruct() && result.root != null && result.root.kind == VarKind.PARAM && result.wholeVariable) {
+            // The caller's object must not escape; the copy made on entry is returned instead
+            if (discarding == 0) {
+                mutatedParams.add(result.root.name);
+            }
+        } else if (result.type.isStruct() && result.root != null && result.root.kind != VarKind.LOCAL) {
+            code = copyOf(result);
+        }
+        line("return " + code + ";");
+    }
+
+    private void localDeclaration() {
+        Specifiers specifiers = specifiers();
+        if (specifiers.isStatic) {
+            throw unsupported("static local variables");
+        }
+        if (accept(";")) {
+            return;
+        }
+        do {
+            Declarator declarator = declarator(specifiers.type, false);
+            declareLocal(declarator.name, declarator.type);
+            declaration(specifiers, declarator, "");
+        } while (accept(","));
+        expect(";");
+    }
+
+    private void declareLocal(String name, Type type) {
+        checkName(name);
+        for (Map<String, Var> scope : scopes) {
+            if (scope.containsKey(name)) {
+                // Java does not allow a local to shadow another local
+                throw unsupported("variables that shadow an enclosing local");
+            }
+        }
+        scopes.peek().put(name, new Var(name, type, VarKind.LOCAL));
+    }
+
+    // One variable with its initializer, as a Java local (prefix "") or static field (prefix "static ")
+    private void declaration(Specifiers specifiers, Declarator declarator, String prefix) {
+        Type type = declarator.type;
+        String modifiers = prefix + (specifiers.isConst ? "final " : "");
+        String name = declarator.name;
+        if (type.isVoid()) {
+            throw syntax("a variable type");
+        }
+        if (type.dims > 0) {
+            if (type.element().isStruct() || type.base.equals("String")) {
+                throw unsupported("arrays of structs or strings");
+            }
+            if (type.base.equals("byte")) {
+                // char arrays are C strings; String semantics differ too much for a direct mapping
+                throw unsupported("char arrays");
+            }
+            line(modifiers + type.javaName() + " " + name + " = " + arrayInitializer(type, declarator.sizes) + ";");
+            return;
+        }
+        String value;
+        if (accept("=")) {
+            if (type.isStruct()) {
+                value = structInitializer(type);
+            } else {
+                value = coerce(assignment(), type, true).code;
+            }
+        } else if (type.isStruct()) {
+            value = "new " + type.base + "()";
+        } else if (type.isString()) {
+            throw unsupported("uninitialized string pointers");
+        } else {
+            // C leaves locals indeterminate; a zero keeps javac's definite assignment check satisfied
+            value = defaultValue(type);
+        }
+        line(modifiers + type.javaName() + " " + name + " = " + value + ";");
+    }
+
+    private String structInitializer(Type type) {
+        StructInfo struct = structClasses.get(type.base);
+        if (!accept("{")) {
+            Expr value = coerce(assignment(), type, true);
+            return value.root != null ? copyOf(value) : value.code;
+        }
+        if (struct.fields == null || !struct.arraySizes.isEmpty()) {
+            throw unsupported("brace initialization of structs with array fields");
+        }
+        if (peek().is(".")) {
+            throw unsupported("designated initializers");
+        }
+        List<String> values = new ArrayList<>();
+        List<Type> fieldTypes = new ArrayList<>(struct.fields.values());
+        while (!accept("}")) {
+            if (values.size() >= fieldTypes.size()) {
+                throw unsupported("excess struct initializers");
+            }
+            values.add(coerce(assignment(), fieldTypes.get(values.size()), false).code);
+            if (!accept(",")) {
+                expect("}");
+                break;
+            }
+        }
+        for (int i = values.size(); i < fieldTypes.size(); i++) {
+            if (fieldTypes.get(i).isString()) {
+                throw unsupported("partially initialized structs with string fields");
+            }
+            values.add(defaultValue(fieldTypes.get(i)));
+        }
+        struct.needsConstructor = true;
+        return "new " + struct.javaName + "(" + String.join(", ", values) + ")";
+    }
+
+    private String arrayInitializer(Type type, List<String> sizes) {
+        Type element = type.element();
+        if (!accept("=")) {
+            if (sizes.contains(null)) {
+                throw syntax("an array size");
+            }
+            StringBuilder creation = new StringBuilder("new " + type.base);
+            for (String size : sizes) {
+                creation.append('[').append(size).append(']');
+            }
+            return creation.toString();
+        }
+        expect("{");
+        List<String> items = new ArrayList<>();
+        if (type.dims == 1) {
+            while (!accept("}")) {
+                items.add(coerce(assignment(), element, true).code);
+                if (!accept(",")) {
+                    expect("}");
+                    break;
+                }
+            }
+        } else {
+            while (!accept("}")) {
+                List<String> row = new ArrayList<>();
+                expect("{");
+                while (!accept("}")) {
+                    row.add(coerce(assignment(), element.element(), true).code);
+                    if (!accept(",")) {
+                        expect("}");
+                        break;
+                    }
+                }
+                items.add(padded(row, sizes.get(1), element.element(), null));
+                if (!accept(",")) {
+                    expect("}");
+                    break;
+                }
+            }
+        }
+        if (items.isEmpty()) {
+            throw unsupported("empty array initializers");
+        }
+        return padded(items, sizes.get(0), element, type.dims > 1 ? sizes.get(1) : null);
+    }
+
+    // C zero-fills the elements an initializer leaves out
+    private String padded(List<String> items, String size, Type element, String rowSize) {
+        if (size != null) {
+            Var constant = globals.get(size);
+            int length;
+            if (constant != null && constant.value != null) {
+                length = constant.value.intValue();
+            } else {
+                try {
+                    length = Integer.parseInt(size);
+                } catch (NumberFormatException e) {
+                    throw unsupported("initialized arrays with a computed size");
+                }
+            }
+            if (items.size() > length) {
+                throw unsupported("excess array initializers");
+            }
+            if (items.size() < length) {
+                items = new ArrayList<>(items);
+                while (items.size() < length) {
+                    items.add(element.dims > 0 ? "new " + element.base + "[" + rowSize + "]" : defaultValue(element));
+                }
+            }
+        }
+        return "{" + String.join(", ", items) + "}";
+    }
+
+    // ----- expressions -----
+
+    private Expr expression() {
+        return assignment();
+    }
+
+    private Expr assignment() {
+        Expr left = conditional();
+        String operator = peek().getText();
+        if (peek().getKind() != CToken.Kind.PUNCTUATOR || !ASSIGNMENT_OPERATORS.contains(operator)) {
+            return left;
+        }
+        next();
+        Expr right = assignment();
+        checkAssignable(left);
+        Expr result;
+        if (operator.equals("=")) {
+            if (left.type.dims > 0) {
+                throw unsupported("assigning arrays");
+            }
+            Expr value = coerce(right, left.type, true);
+            String code = value.type.isStruct() && value.root != null ? copyOf(value) : value.code;
+            result = new Expr(left.code + " = " + code, left.type, ASSIGN);
+        } else {
+            if (!left.type.isNumeric()) {
+                throw unsupported("compound assignment to non-numeric values");
+            }
+            Expr value = toNumeric(right);
+            if (operator.equals("%=") && (left.type.isFloating() || value.type.isFloating())
+                    || Set.of("<<=", ">>=", "&=", "^=", "|=").contains(operator)
+                    && (!left.type.isIntegral() || !value.type.isIntegral())) {
+                throw syntax("integer operands");
+            }
+            result = new Expr(left.code + " " + operator + " " + value.code, left.type, ASSIGN);
+        }
+        result.statement = true;
+        return result;
+    }
+
+    private Expr conditional() {
+        Expr condition = binary(LOR);
+        if (!accept("?")) {
+            return condition;
+        }
+        Expr whenTrue = expression();
+        expect(":");
+        Expr whenFalse = conditional();
+        Expr test = toBoolean(condition);
+        Type type;
+        if (whenTrue.type.equals(Type.BOOLEAN) && whenFalse.type.equals(Type.BOOLEAN)) {
+            type = Type.BOOLEAN;
+        } else if (whenTrue.type.isString() && whenFalse.type.isString()) {
+            type = Type.STRING;
+        } else {
+            whenTrue = toNumeric(whenTrue);
+            whenFalse = toNumeric(whenFalse);
+            type = Type.promote(whenTrue.type, whenFalse.type);
+            whenTrue = coerce(whenTrue, type, false);
+            whenFalse = coerce(whenFalse, type, false);
+        }
+        return new Expr(wrap(test, LOR) + " ? " + wrap(whenTrue, ASSIGN) + " : " + wrap(whenFalse, COND), type, COND);
+    }
+
+    private Expr binary(int level) {
+        if (level > MUL) {
+            return unary();
+        }
+        Expr left = binary(level + 1);
+        while (peek().getKind() == CToken.Kind.PUNCTUATOR && BINARY_LEVELS.getOrDefault(peek().getText(), 0) == level) {
+            String operator = next().getText();
+            Expr right = binary(level + 1);
+            left = combine(operator, left, right, level);
+        }
+        if (left.sizeofOperand != null && level == LOR) {
+            throw unsupported("sizeof other than an array length");
+        }
+        return left;
+    }
+
+    private Expr combine(String operator, Expr left, Expr right, int level) {
+        if (operator.equals("/") && left.sizeofArray != null && right.sizeofOperand != null
+                && right.sizeofArray == null && right.sizeofOperand.equals(left.sizeofOperand.element())) {
+            // sizeof(a) / sizeof(a[0]) on a real array is its length
+            return new Expr(left.sizeofArray + ".length", Type.INT, PRIMARY);
+        }
+        if (left.sizeofOperand != null || right.sizeofOperand != null) {
+            throw unsupported("sizeof other than an array length");
+        }
+        if (left.type.dims > 0 || right.type.dims > 0 || left.type.isString() || right.type.isString()) {
+            throw unsupported("pointer arithmetic and comparison");
+        }
+        Type type;
+        switch (operator) {
+            case "&&", "||" -> {
+                left = toBoolean(left);
+                right = toBoolean(right);
+                type = Type.BOOLEAN;
+            }
+            case "&", "|", "^" -> {
+                if (left.type.equals(Type.BOOLEAN) && right.type.equals(Type.BOOLEAN)) {
+                    type = Type.BOOLEAN;
+                } else {
+                    left = toNumeric(left);
+                    right = toNumeric(right);
+                    if (!left.type.isIntegral() || !right.type.isIntegral()) {
+                        throw syntax("integer operands");
+                    }
+                    type = Type.promote(left.type, right.type);
+                }
+            }
+            case "==", "!=" -> {
+                if (!(left.type.equals(Type.BOOLEAN) && right.type.equals(Type.BOOLEAN))) {
+                    left = toNumeric(left);
+                    right = toNumeric(right);
+                }
+                type = Type.BOOLEAN;
+            }
+            case "<", ">", "<=", ">=" -> {
+                left = toNumeric(left);
+                right = toNumeric(right);
+                type = Type.BOOLEAN;
+            }
+            case "<<", ">>" -> {
+                left = toNumeric(left);
+                right = toNumeric(right);
+                if (!left.type.isIntegral() || !right.type.isIntegral()) {
+                    throw syntax("integer operands");
+                }
+                type = Type.promote(left.type, Type.INT);
+            }
+            default -> {
+                left = toNumeric(left);
+                right = toNumeric(right);
+                if (operator.equals("%") && (!left.type.isIntegral() || !right.type.isIntegral())) {
+                    throw syntax("integer operands");
+                }
+                type = Type.promote(left.type, right.type);
+            }
+        }
+        return new Expr(wrap(left, level) + " " + operator + " " + wrap(right, level + 1), type, level);
+    }
+
+    private Expr unary() {
+        CToken token = peek();
+        if (token.is("++") || token.is("--")) {
+            next();
+            Expr operand = unary();
+            checkAssignable(operand);
+            if (!operand.type.isNumeric()) {
+                throw unsupported("incrementing non-numeric values");
+            }
+            Expr result = new Expr(token.getText() + operand.code, operand.type, UNARY);
+            result.statement = true;
+            return result;
+        }
+        if (token.is("-") || token.is("+")) {
+            next();
+            Expr operand = toNumeric(unary());
+            String code = wrap(operand, UNARY);
+            if (code.startsWith("-") || code.startsWith("+")) {
+                code = " " + code;
+            }
+            Expr result = new Expr(token.getText() + code, Type.promote(operand.type, Type.INT), UNARY);
+            if (token.is("-") && operand.intValue != null) {
+                result.intValue = -operand.intValue;
+            }
+            return result;
+        }
+        if (token.is("!")) {
+            next();
+            Expr operand = unary();
+            if (operand.type.equals(Type.BOOLEAN)) {
+                return new Expr("!" + wrap(operand, UNARY), Type.BOOLEAN, UNARY);
+            }
+            operand = toNumeric(operand);
+            return new Expr(wrap(operand, EQ) + " == 0", Type.BOOLEAN, EQ);
+        }
+        if (token.is("~")) {
+            next();
+            Expr operand = toNumeric(unary());
+            if (!operand.type.isIntegral()) {
+                throw syntax("an integer operand");
+            }
+            return new Expr("~" + wrap(operand, UNARY), Type.promote(operand.type, Type.INT), UNARY);
+        }
+        if (token.is("*") || token.is("&")) {
+            throw unsupported("pointers");
+        }
+        if (token.is("sizeof")) {
+            next();
+            Type operandType;
+            String arrayName = null;
+            if (peek().is("(") && isTypeStartAt(1)) {
+                next();
+                operandType = typeName();
+                expect(")");
+            } else {
+                Expr operand = unary();
+                operandType = operand.type;
+                if (operand.type.dims > 0 && operand.root != null && operand.root.kind != VarKind.PARAM
+                        && operand.wholeVariable) {
+                    arrayName = operand.root.name;
+                }
+            }
+            Expr result = new Expr(null, Type.INT, PRIMARY);
+            result.sizeofOperand = operandType;
+            result.sizeofArray = arrayName;
+            return result;
+        }
+        if (token.is("(") && isTypeStartAt(1)) {
+            next();
+            Type target = typeName();
+            expect(")");
+            if (peek().is("{")) {
+                throw unsupported("compound literals");
+            }
+            Expr operand = unary();
+            if (operand.sizeofOperand != null) {
+                throw unsupported("sizeof other than an array length");
+            }
+            if (target.isVoid() || target.dims > 0 || target.isString() || target.isStruct()) {
+                throw unsupported("casts to void, pointers or structs");
+            }
+            if (target.equals(Type.BOOLEAN)) {
+                return toBoolean(operand);
+            }
+            operand = toNumeric(operand);
+            if (operand.type.equals(target)) {
+                // A cast is never an lvalue, so only the value carries over
+                Expr result = new Expr(operand.code, target, operand.precedence);
+                result.intValue = operand.intValue;
+                return result;
+            }
+            return new Expr("(" + target.javaName() + ") " + wrap(operand, UNARY), target, UNARY);
+        }
+        return postfix();
+    }
+
+    private Type typeName() {
+        Specifiers specifiers = specifiers();
+        Type type = specifiers.type;
+        if (accept("*")) {
+            if (!type.equals(Type.BYTE)) {
+                throw unsupported("pointer casts");
+            }
+            type = Type.STRING;
+        }
+        return type;
+    }
+
+    private Expr postfix() {
+        Expr expr = primary();
+        while (true) {
+            if (accept("[")) {
+                Expr index = toNumeric(expression());
+                expect("]");
+                if (!index.type.isIntegral()) {
+                    throw syntax("an integer index");
+                }
+                String indexCode = index.type.equals(Type.LONG) ? "(int) " + wrap(index, UNARY) : index.code;
+                if (expr.type.isString()) {
+                    expr = new Expr(wrap(expr, PRIMARY) + ".charAt(" + indexCode + ")", Type.CHAR, PRIMARY);
+                    continue;
+                }
+                if (expr.type.dims == 0) {
+                    throw syntax("an array");
+                }
+                Expr element = new Expr(wrap(expr, PRIMARY) + "[" + indexCode + "]", expr.type.element(), PRIMARY);
+                element.root = expr.root;
+                element.lvalue = true;
+                expr = element;
+            } else if (accept(".")) {
+                String field = expectIdentifier();
+                StructInfo struct = expr.type.isStruct() && expr.type.dims == 0 ? structClasses.get(expr.type.base) : null;
+                if (struct == null || struct.fields == null || !struct.fields.containsKey(field)) {
+                    throw syntax("a struct member");
+                }
+                Expr member = new Expr(wrap(expr, PRIMARY) + "." + field, struct.fields.get(field), PRIMARY);
+                member.root = expr.root;
+                member.lvalue = true;
+                member.fieldAccess = true;
+                expr = member;
+            } else if (peek().is("->")) {
+                throw unsupported("pointers");
+            } else if (peek().is("++") || peek().is("--")) {
+                String operator = next().getText();
+                checkAssignable(expr);
+                if (!expr.type.isNumeric()) {
+                    throw unsupported("incrementing non-numeric values");
+                }
+                Expr result = new Expr(expr.code + operator, expr.type, PRIMARY);
+                result.statement = true;
+                expr = result;
+            } else {
+                return expr;
+            }
+        }
+    }
+
+    private Expr primary() {
+        CToken token = next();
+        switch (token.getKind()) {
+            case INTEGER:
+                return integerLiteral(token);
+            case FLOATING: {
+                String text = token.getText();
+                char suffix = Character.toLowerCase(text.charAt(text.length() - 1));
+                if (suffix == 'l') {
+                    throw unsupported("long double");
+                }
+                Expr result = new Expr(text, suffix == 'f' ? Type.FLOAT : Type.DOUBLE, PRIMARY);
+                result.doubleLiteral = suffix != 'f';
+                return result;
+            }
+            case CHARACTER: {
+                String value = unescape(token);
+                if (value.length() != 1 || value.charAt(0) > 127) {
+                    throw unsupported("multi-character or non-ASCII character constants");
+                }
+                Expr result = new Expr("'" + javaEscape(value, '\'') + "'", Type.CHAR, PRIMARY);
+                result.intValue = (long) value.charAt(0);
+                return result;
+            }
+            case STRING: {
+                StringBuilder value = new StringBuilder(unescape(token));
+                while (peek().getKind() == CToken.Kind.STRING) {
+                    value.append(unescape(next()));
+                }
+                Expr result = new Expr("\"" + javaEscape(value.toString(), '"') + "\"", Type.STRING, PRIMARY);
+                result.stringValue = value.toString();
+                return result;
+            }
+            case IDENTIFIER:
+                if (peek().is("(")) {
+                    next();
+                    return call(token.getText());
+                }
+                return identifier(token.getText());
+            case PUNCTUATOR:
+                if (token.is("(")) {
+                    Expr inner = expression();
+                    expect(")");
+                    if (inner.sizeofOperand != null) {
+                        throw unsupported("sizeof other than an array length");
+                    }
+                    if (inner.precedence == PRIMARY) {
+                        return inner;
+                    }
+                    Expr result = new Expr("(" + inner.code + ")", inner.type, PRIMARY);
+                    result.root = inner.root;
+                    result.wholeVariable = inner.wholeVariable;
+                    result.intValue = inner.intValue;
+                    result.stringValue = inner.stringValue;
+                    return result;
+                }
+                break;
+            default:
+                break;
+        }
+        throw syntax("an expression", token);
+    }
+
+    private Expr integerLiteral(CToken token) {
+        String text = token.getText().toLowerCase();
+        String digits = text.replaceAll("[ul]+$", "");
+        String suffix = text.substring(digits.length());
+        if (suffix.contains("u")) {
+            throw unsupported("unsigned constants");
+        }
+        long value;
+        try {
+            if (digits.startsWith("0x")) {
+                value = Long.parseLong(digits.substring(2), 16);
+            } else if (digits.length() > 1 && digits.startsWith("0")) {
+                value = Long.parseLong(digits.substring(1), 8);
+            } else {
+                value = Long.parseLong(digits);
+            }
+        } catch (NumberFormatException e) {
+            throw unsupported("integer constant " + token.getText());
+        }
+        boolean isLong = !suffix.isEmpty() || value > Integer.MAX_VALUE;
+        if (value > Integer.MAX_VALUE && suffix.isEmpty() && !token.getText().matches("[1-9][0-9]*")) {
+            // A hex or octal constant that does not fit int is unsigned in C
+            throw unsupported("unsigned constants");
+        }
+        String source = token.getText().substring(0, digits.length());
+        Expr result = new Expr(source + (isLong ? "L" : ""), isLong ? Type.LONG : Type.INT, PRIMARY);
+        result.intValue = value;
+        return result;
+    }
+
+    private Expr identifier(String name) {
+        Var var = lookup(name);
+        if (var != null) {
+            Expr result = new Expr(name, var.type, PRIMARY);
+            result.root = var;
+            result.lvalue = var.kind != VarKind.CONSTANT;
+            result.wholeVariable = true;
+            return result;
+        }
+        return switch (name) {
+            case "true", "false" -> new Expr(name, Type.BOOLEAN, PRIMARY);
+            case "INT_MAX" -> new Expr("Integer.MAX_VALUE", Type.INT, PRIMARY);
+            case "INT_MIN" -> new Expr("Integer.MIN_VALUE", Type.INT, PRIMARY);
+            case "LONG_MAX", "LLONG_MAX" -> new Expr("Long.MAX_VALUE", Type.LONG, PRIMARY);
+            case "LONG_MIN", "LLONG_MIN" -> new Expr("Long.MIN_VALUE", Type.LONG, PRIMARY);
+            case "M_PI" -> new Expr("Math.PI", Type.DOUBLE, PRIMARY);
+            case "M_E" -> new Expr("Math.E", Type.DOUBLE, PRIMARY);
+            default -> throw unsupported("identifier " + name);
+        };
+    }
+
+    private Var lookup(String name) {
+        for (Map<String, Var> scope : scopes) {
+            Var var = scope.get(name);
+            if (var != null) {
+                return var;
+            }
+        }
+        return globals.get(name);
+    }
+
+    private Expr call(String name) {
+        List<Expr> arguments = new ArrayList<>();
+        if (!accept(")")) {
+            do {
+                arguments.add(assignment());
+            } while (accept(","));
+            expect(")");
+        }
+        FunctionInfo function = functions.get(name);
+        if (function != null && lookup(name) == null) {
+            if (arguments.size() != function.paramTypes.size()) {
+                throw syntax(function.paramTypes.size() + " arguments to " + name);
+            }
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < arguments.size(); i++) {
+                Type paramType = function.paramTypes.get(i);
+                Expr argument = arguments.get(i);
+                if (paramType.dims > 0 && (argument.type.dims != paramType.dims
+                        || !argument.type.base.equals(paramType.base))) {
+                    throw unsupported("array arguments of a different type");
+                }
+                values.add(coerce(argument, paramType, false).code);
+            }
+            function.called = true;
+            Expr result = new Expr(name + "(" + String.join(", ", values) + ")", function.returnType, PRIMARY);
+            result.statement = true;
+            return result;
+        }
+        return libraryCall(name, arguments);
+    }
+
+    private Expr libraryCall(String name, List<Expr> arguments) {
+        switch (name) {
+            case "printf":
+                return printf("System.out", arguments);
+            case "fprintf": {
+                if (arguments.isEmpty() || !Set.of("stdout", "stderr").contains(arguments.get(0).code)) {
+                    throw unsupported("fprintf to anything but stdout or stderr");
+                }
+                String stream = arguments.get(0).code.equals("stdout") ? "System.out" : "System.err";
+                return printf(stream, arguments.subList(1, arguments.size()));
+            }
+            case "puts": {
+                checkArity(name, arguments, 1);
+                return statementCall("System.out.println(" + coerce(arguments.get(0), Type.STRING, false).code + ")");
+            }
+            case "putchar": {
+                checkArity(name, arguments, 1);
+                Expr value = toNumeric(arguments.get(0));
+                String code = value.type.equals(Type.CHAR) ? value.code : "(char) " + wrap(value, UNARY);
+                if (value.type.equals(Type.BYTE)) {
+                    // putchar writes the char as unsigned
+                    code = "(char) (" + wrap(value, EQ) + " & 0xFF)";
+                }
+                return statementCall("System.out.print(" + code + ")");
+            }
+            case "exit": {
+                checkArity(name, arguments, 1);
+                return statementCall("System.exit(" + coerce(arguments.get(0), Type.INT, false).code + ")");
+            }
+            case "abs", "labs", "llabs", "fabs": {
+                checkArity(name, arguments, 1);
+                Type type = name.equals("abs") ? Type.INT : name.equals("fabs") ? Type.DOUBLE : Type.LONG;
+                return new Expr("Math.abs(" + coerce(arguments.get(0), type, false).code + ")", type, PRIMARY);
+            }
+            case "fmax", "fmin": {
+                checkArity(name, arguments, 2);
+                return new Expr("Math." + name.substring(1) + "(" + coerce(arguments.get(0), Type.DOUBLE, false).code
+                        + ", " + coerce(arguments.get(1), Type.DOUBLE, false).code + ")", Type.DOUBLE, PRIMARY);
+            }
+            case "fmod": {
+                checkArity(name, arguments, 2);
+                Expr left = coerce(arguments.get(0), Type.DOUBLE, false);
+                Expr right = coerce(arguments.get(1), Type.DOUBLE, false);
+                return new Expr(wrap(left, MUL) + " % " + wrap(right, MUL + 1), Type.DOUBLE, MUL);
+            }
+            case "strlen": {
+                checkArity(name, arguments, 1);
+                return new Expr(wrap(coerce(arguments.get(0), Type.STRING, false), PRIMARY) + ".length()",
+                        Type.INT, PRIMARY);
+            }
+            default:
+                break;
+        }
+        if (MATH_FUNCTIONS.contains(name)) {
+            int arity = Set.of("pow", "atan2", "hypot").contains(name) ? 2 : 1;
+            checkArity(name, arguments, arity);
+            List<String> values = new ArrayList<>();
+            for (Expr argument : arguments) {
+                values.add(coerce(argument, Type.DOUBLE, false).code);
+            }
+            return new Expr("Math." + name + "(" + String.join(", ", values) + ")", Type.DOUBLE, PRIMARY);
+        }
+        throw unsupported("calls to " + name);
+    }
+
+    private Expr statementCall(String code) {
+        Expr result = new Expr(code, Type.VOID, PRIMARY);
+        result.statement = true;
+        return result;
+    }
+
+    private void checkArity(String name, List<Expr> arguments, int arity) {
+        if (arguments.size() != arity) {
+            throw syntax(arity + " arguments to " + name);
+        }
+    }
+
+    private Expr printf(String stream, List<Expr> arguments) {
+        if (arguments.isEmpty() || arguments.get(0).stringValue == null) {
+            throw unsupported("printf without a literal format string");
+        }
+        String format = arguments.get(0).stringValue;
+        List<Expr> values = arguments.subList(1, arguments.size());
+        StringBuilder javaFormat = new StringBuilder();
+        List<String> javaValues = new ArrayList<>();
+        Matcher matcher = FORMAT_SPECIFIER.matcher(format);
+        int last = 0;
+        int next = 0;
+        while (matcher.find()) {
+            String text = format.substring(last, matcher.start());
+            if (text.indexOf('%') >= 0) {
+                throw unsupported("malformed printf formats");
+            }
+            javaFormat.append(text);
+            last = matcher.end();
+
+            String flags = matcher.group(1);
+            String width = matcher.group(2) == null ? "" : matcher.group(2);
+            String precision = matcher.group(3) == null ? "" : matcher.group(3);
+            String length = matcher.group(5) == null ? "" : matcher.group(5);
+            char conversion = matcher.group(6).charAt(0);
+            if (conversion == '%') {
+                javaFormat.append("%%");
+                continue;
+            }
+            if (width.equals("*") || precision.contains("*") || Set.of("L", "z", "j", "t").contains(length)) {
+                throw unsupported("printf with * widths or size_t lengths");
+            }
+            if (precision.equals(".")) {
+                precision = ".0";
+            }
+            // Java rejects flag combinations C silently ignores
+            if (flags.contains("-") || width.isEmpty()) {
+                flags = flags.replace("0", "");
+            }
+            if (width.isEmpty()) {
+                flags = flags.replace("-", "");
+            }
+            if (flags.contains("+")) {
+                flags = flags.replace(" ", "");
+            }
+            if (next >= values.size()) {
+                throw unsupported("printf with missing arguments");
+            }
+            Expr value = values.get(next++);
+            switch (conversion) {
+                case 'd', 'i', 'x', 'X', 'o' -> {
+                    value = toNumeric(value);
+                    if (!value.type.isIntegral() || !precision.isEmpty()
+                            || flags.contains("#") && (conversion == 'd' || conversion == 'i')) {
+                        throw unsupported("this integer conversion");
+                    }
+                    if (value.type.equals(Type.CHAR) || conversion != 'd' && conversion != 'i'
+                            && (value.type.equals(Type.BYTE) || value.type.equals(Type.SHORT))) {
+                        // C promotes to int first; Java would format a negative byte or short as %x in 8 or 16 bits
+                        value = new Expr("(int) " + wrap(value, UNARY), Type.INT, UNARY);
+                    }
+                    javaFormat.append('%').append(flags).append(width).append(conversion == 'i' ? 'd' : conversion);
+                }
+                case 'f', 'F', 'e', 'E' -> {
+                    if (!value.type.isFloating()) {
+                        throw unsupported("floating conversion of a non-floating argument");
+                    }
+                    javaFormat.append('%').append(flags).append(width).append(precision)
+                            .append(conversion == 'F' ? 'f' : conversion);
+                }
+                case 'c' -> {
+                    value = toNumeric(value);
+                    if (!value.type.isIntegral() || value.type.equals(Type.LONG)) {
+                        throw unsupported("%c of a non-character argument");
+                    }
+                    if (value.type.equals(Type.BYTE)) {
+                        // Java rejects negative code points
+                        value = new Expr("(char) (" + wrap(value, EQ) + " & 0xFF)", Type.CHAR, UNARY);
+                    }
+                    javaFormat.append('%').append(flags.replace("0", "")).append(width).append('c');
+                }
+                case 's' -> {
+                    if (!value.type.isString()) {
+                        throw unsupported("%s of a non-string argument");
+                    }
+                    javaFormat.append('%').append(flags.replace("0", "")).append(width).append(precision).append('s');
+                }
+                default -> throw unsupported("printf conversion %" + conversion);
+            }
+            javaValues.add(value.code);
+        }
+        String rest = format.substring(last);
+        if (rest.indexOf('%') >= 0 || next != values.size()) {
+            throw unsupported("malformed printf formats");
+        }
+        javaFormat.append(rest);
+
+        String text = javaFormat.toString();
+        if (javaValues.isEmpty()) {
+            String plain = text.replace("%%", "%");
+            if (plain.endsWith("\n") && plain.indexOf('\n') == plain.length() - 1) {
+                return statementCall(stream + ".println(" + (plain.length() == 1 ? ""
+                        : "\"" + javaEscape(plain.substring(0, plain.length() - 1), '"') + "\"") + ")");
+            }
+            return statementCall(stream + ".print(\"" + javaEscape(plain, '"') + "\")");
+        }
+        return statementCall(stream + ".printf(\"" + javaEscape(text, '"') + "\", " + String.join(", ", javaValues) + ")");
+    }
+
+    // ----- conversions -----
+
+    private Expr toBoolean(Expr expr) {
+        if (expr.type.equals(Type.BOOLEAN)) {
+            return expr;
+        }
+        if (!expr.type.isNumeric()) {
+            throw unsupported("pointers or structs used as conditions");
+        }
+        if (expr.intValue != null && expr.code.matches("\\(*[0-9]+L?\\)*")) {
+            return new Expr(expr.intValue != 0 ? "true" : "false", Type.BOOLEAN, PRIMARY);
+        }
+        return new Expr(wrap(expr, EQ) + " != 0", Type.BOOLEAN, EQ);
+    }
+
+    private Expr toNumeric(Expr expr) {
+        if (expr.type.equals(Type.BOOLEAN)) {
+            return new Expr("(" + wrap(expr, LOR) + " ? 1 : 0)", Type.INT, PRIMARY);
+        }
+        if (!expr.type.isNumeric()) {
+            if (expr.sizeofOperand != null) {
+                throw unsupported("sizeof other than an array length");
+            }
+            throw unsupported("pointers, strings or structs used as numbers");
+        }
+        return expr;
+    }
+
+    /**
+     * Convert to the target type the way C does implicitly. Assignment contexts
+     * may narrow int constants that fit without a cast, as Java allows there.
+     */
+    private Expr coerce(Expr expr, Type target, boolean assignmentContext) {
+        if (expr.sizeofOperand != null) {
+            throw unsupported("sizeof other than an array length");
+        }
+        if (target.equals(Type.BOOLEAN)) {
+            return toBoolean(expr);
+        }
+        if (target.isNumeric()) {
+            Expr value = toNumeric(expr);
+            if (!needsCast(value.type, target)) {
+                return value;
+            }
+            if (target.equals(Type.FLOAT) && value.doubleLiteral) {
+                return new Expr(value.code + "f", Type.FLOAT, PRIMARY);
+            }
+            if (assignmentContext && value.intValue != null && (value.type.equals(Type.INT) || value.type.equals(Type.CHAR))
+                    && fits(value.intValue, target)) {
+                return value;
+            }
+            return new Expr("(" + target.javaName() + ") " + wrap(value, UNARY), target, UNARY);
+        }
+        if (!expr.type.equals(target)) {
+            throw unsupported("conversion from " + expr.type.javaName() + " to " + target.javaName());
+        }
+        return expr;
+    }
+
+    private static boolean needsCast(Type source, Type target) {
+        if (source.equals(target)) {
+            return false;
+        }
+        if (target.equals(Type.CHAR) || source.equals(Type.CHAR) && target.equals(Type.SHORT)) {
+            return true;
+        }
+        return rank(source) > rank(target);
+    }
+
+    private static boolean fits(long value, Type target) {
+        return switch (target.base) {
+            case "char" -> value >= 0 && value <= Character.MAX_VALUE;
+            case "byte" -> value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE;
+            case "short" -> value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+            default -> true;
+        };
+    }
+
+    private static int rank(Type type) {
+        return switch (type.base) {
+            case "byte" -> 1;
+            case "short", "char" -> 2;
+            case "int" -> 3;
+            case "long" -> 4;
+            case "float" -> 5;
+            default -> 6;
+        };
+    }
+
+    private String copyOf(Expr value) {
+        structClasses.get(value.type.base).needsCopy = true;
+        return wrap(value, PRIMARY) + ".copy()";
+    }
+
+    private void checkAssignable(Expr target) {
+        if (!target.lvalue) {
+            throw syntax("an assignable expression");
+        }
+        if (target.root != null && target.root.kind == VarKind.CONSTANT) {
+            throw syntax("a non-constant variable");
+        }
+        if (target.root != null && target.root.kind == VarKind.PARAM && target.root.type.isStruct()
+                && target.fieldAccess && discarding == 0) {
+            mutatedParams.add(target.root.name);
+        }
+    }
+
+    private void checkNotConstantFalse(Expr condition) {
+        if (condition.code.equals("false")) {
+            throw unsupported("loops that never run");
+        }
+    }
+
+    private static String defaultValue(Type type) {
+        return switch (type.base) {
+            case "boolean" -> "false";
+            case "char" -> "'\\0'";
+            case "float" -> "0.0f";
+            case "double" -> "0.0";
+            case "long" -> "0L";
+            default -> "0";
+        };
+    }
+
+    private static String wrap(Expr expr, int minimum) {
+        return expr.precedence >= minimum ? expr.code : "(" + expr.code + ")";
+    }
+
+    // ----- rendering -----
+
+    private String renderStruct(StructInfo struct) {
+        StringBuilder text = new StringBuilder("    static class " + struct.javaName + " {\n");
+        for (Map.Entry<String, Type> field : struct.fields.entrySet()) {
+            String name = field.getKey();
+            Type type = field.getValue();
+            text.append("        ").append(type.javaName()).append(' ').append(name);
+            if (type.dims > 0) {
+                text.append(" = new ").append(type.base).append('[').append(struct.arraySizes.get(name)).append(']');
+            }
+            text.append(";\n");
+        }
+        if (struct.needsConstructor) {
+            text.append("\n        ").append(struct.javaName).append("() {\n        }\n\n");
+            List<String> params = new ArrayList<>();
+            for (Map.Entry<String, Type> field : struct.fields.entrySet()) {
+                params.add(field.getValue().javaName() + " " + field.getKey());
+            }
+            text.append("        ").append(struct.javaName).append('(').append(String.join(", ", params)).append(") {\n");
+            for (String name : struct.fields.keySet()) {
+                text.append("            this.").append(name).append(" = ").append(name).append(";\n");
+            }
+            text.append("        }\n");
+        }
+        if (struct.needsCopy) {
+            text.append("\n        ").append(struct.javaName).append(" copy() {\n");
+            text.append("            ").append(struct.javaName).append(" copy = new ").append(struct.javaName).append("();\n");
+            for (Map.Entry<String, Type> field : struct.fields.entrySet()) {
+                String name = field.getKey();
+                text.append("            copy.").append(name).append(" = this.").append(name)
+                        .append(field.getValue().dims > 0 ? ".clone()" : "").append(";\n");
+            }
+            text.append("            return copy;\n        }\n");
+        }
+        return text.append("    }\n").toString();
+    }
+
+    private void line(String text) {
+        out.append("    ".repeat(indent)).append(text).append('\n');
+    }
+
+    // ----- tokens -----
+
+    private boolean isTypeStart() {
+        return isTypeStartAt(0);
+    }
+
+    private boolean isTypeStartAt(int offset) {
+        CToken token = peekAt(offset);
+        if (token.getKind() == CToken.Kind.KEYWORD) {
+            return Set.of("void", "char", "short", "int", "long", "float", "double", "signed", "unsigned", "const",
+                    "volatile", "static", "extern", "register", "auto", "struct", "union", "enum", "_Bool", "inline",
+                    "typedef").contains(token.getText());
+        }
+        return token.getKind() == CToken.Kind.IDENTIFIER && lookup(token.getText()) == null
+                && (typedefs.containsKey(token.getText()) || token.getText().equals("bool"));
+    }
+
+    private CToken peek() {
+        return tokens.get(pos);
+    }
+
+    private CToken peekAt(int offset) {
+        return tokens.get(Math.min(pos + offset, tokens.size() - 1));
+    }
+
+    private CToken next() {
+        CToken token = tokens.get(pos);
+        if (token.getKind() != CToken.Kind.EOF) {
+            pos++;
+        }
+        return token;
+    }
+
+    private boolean accept(String text) {
+        if (peek().is(text)) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String text) {
+        if (!accept(text)) {
+            throw syntax("'" + text + "'");
+        }
+    }
+
+    private String expectIdentifier() {
+        if (peek().getKind() != CToken.Kind.IDENTIFIER) {
+            throw syntax("an identifier");
+        }
+        return next().getText();
+    }
+
+    private void checkName(String name) {
+        if (JAVA_RESERVED.contains(name) || name.equals("main")) {
+            throw unsupported("identifier " + name + ", which is reserved in Java");
+        }
+    }
+
+    private String className(String tag) {
+        String name = Character.toUpperCase(tag.charAt(0)) + tag.substring(1);
+        checkName(name);
+        return name;
+    }
+
+    // Decode a C character or string literal to its value
+    private static String unescape(CToken token) {
+        String text = token.getText();
+        if (text.charAt(0) != '"' && text.charAt(0) != '\'') {
+            throw unsupported("wide and Unicode literals");
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = 1; i < text.length() - 1; i++) {
+            char c = text.charAt(i);
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escape = text.charAt(++i);
+            switch (escape) {
+                case 'n' -> value.append('\n');
+                case 't' -> value.append('\t');
+                case 'r' -> value.append('\r');
+                case 'a' -> value.append('\u0007');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'v' -> value.append('\u000B');
+                case '\\', '\'', '"', '?' -> value.append(escape);
+                case 'x' -> {
+                    int end = i + 1;
+                    while (end < text.length() - 1 && Character.digit(text.charAt(end), 16) >= 0) {
+                        end++;
+                    }
+                    if (end == i + 1) {
+                        throw unsupported("malformed escape sequences");
+                    }
+                    int code = Integer.parseInt(text.substring(i + 1, end), 16);
+                    if (code > 127) {
+                        throw unsupported("non-ASCII escape sequences");
+                    }
+                    value.append((char) code);
+                    i = end - 1;
+                }
+                default -> {
+                    if (escape < '0' || escape > '7') {
+                        throw unsupported("escape sequence \\" + escape);
+                    }
+                    int end = i;
+                    while (end < text.length() - 1 && end < i + 3 && text.charAt(end) >= '0' && text.charAt(end) <= '7') {
+                        end++;
+                    }
+                    int code = Integer.parseInt(text.substring(i, end), 8);
+                    if (code > 127) {
+                        throw unsupported("non-ASCII escape sequences");
+                    }
+                    value.append((char) code);
+                    i = end - 1;
+                }
+            }
+        }
+        return value.toString();
+    }
+
+    private static String javaEscape(String value, char quote) {
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\n' -> escaped.append("\\n");
+                case '\t' -> escaped.append("\\t");
+                case '\r' -> escaped.append("\\r");
+                case '\b' -> escaped.append("\\b");
+                case '\f' -> escaped.append("\\f");
+                case '\\' -> escaped.append("\\\\");
+                default -> {
+                    if (c == quote) {
+                        escaped.append('\\').append(c);
+                    } else if (c < 0x20 || c == 0x7F) {
+                        escaped.append(String.format("\\%03o", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private UnsupportedConstructException syntax(String expected) {
+        return syntax(expected, peek());
+    }
+
+    private static UnsupportedConstructException syntax(String expected, CToken found) {
+        return unsupported("expected " + expected + " but found " + found + " at line " + found.getLine());
+    }
+
+    private static UnsupportedConstructException unsupported(String what) {
+        return new UnsupportedConstructException("C to Java: " + what);
+    }
+
+    // ----- model -----
+
+    private enum VarKind { LOCAL, PARAM, GLOBAL, CONSTANT }
+
+    private static final class Var {
+        final String name;
+        final Type type;
+        final VarKind kind;
+        // Value of an integer constant, when known
+        Long value;
+
+        Var(String name, Type type, VarKind kind) {
+            this.name = name;
+            this.type = type;
+            this.kind = kind;
+        }
+    }
+
+    private static final class Expr {
+        final String code;
+        final Type type;
+        final int precedence;
+        boolean statement;
+        boolean lvalue;
+        boolean fieldAccess;
+        // Variable at the root of a variable, index or member expression
+        Var root;
+        boolean wholeVariable;
+        Long intValue;
+        boolean doubleLiteral;
+        String stringValue;
+        // Set on sizeof expressions, which only the array length idiom consumes
+        Type sizeofOperand;
+        String sizeofArray;
+
+        Expr(String code, Type type, int precedence) {
+            this.code = code;
+            this.type = type;
+            this.precedence = precedence;
+        }
+    }
+
+    private static final class Specifiers {
+        Type type;
+        boolean isConst;
+        boolean isStatic;
+    }
+
+    private static final class Declarator {
+        String name;
+        Type type;
+        boolean function;
+        final List<String> sizes = new ArrayList<>();
+        final List<Type> paramTypes = new ArrayList<>();
+        final List<String> paramNames = new ArrayList<>();
+        final List<Boolean> paramFinal = new ArrayList<>();
+    }
+
+    private static final class FunctionInfo {
+        String name;
+        Type returnType;
+        List<Type> paramTypes;
+        boolean isMain;
+        boolean defined;
+        boolean called;
+    }
+
+    private static final class StructInfo {
+        String javaName;
+        boolean anonymous;
+        Map<String, Type> fields;
+        final Map<String, String> arraySizes = new HashMap<>();
+        boolean needsConstructor;
+        boolean needsCopy;
+
+        void rename(String typedefName, CToJavaTranslator translator) {
+            translator.structClasses.remove(javaName);
+            javaName = translator.className(typedefName);
+            if (translator.structClasses.containsKey(javaName)) {
+                throw unsupported("struct names that differ only in case");
+            }
+            translator.structClasses.put(javaName, this);
+            anonymous = false;
+        }
+    }
+
+    private static final class Member {
+        String text;
+        StructInfo struct;
+        boolean field;
+    }
+
+    private static final class Breakable {
+        final boolean loop;
+        boolean broken;
+        boolean continued;
+        boolean bodyCompletes;
+
+        Breakable(boolean loop) {
+            this.loop = loop;
+        }
+    }
+
+    private static final class Type {
+        static final Type INT = new Type("int", 0);
+        static final Type LONG = new Type("long", 0);
+        static final Type SHORT = new Type("short", 0);
+        static final Type CHAR = new Type("char", 0);
+        static final Type BYTE = new Type("byte", 0);
+        static final Type BOOLEAN = new Type("boolean", 0);
+        static final Type FLOAT = new Type("float", 0);
+        static final Type DOUBLE = new Type("double", 0);
+        static final Type VOID = new Type("void", 0);
+        static final Type STRING = new Type("String", 0);
+
+        private static final List<String> NUMERIC = List.of("byte", "short", "char", "int", "long", "float", "double");
+
+        final String base;
+        final int dims;
+
+        private Type(String base, int dims) {
+            this.base = base;
+            this.dims = dims;
+        }
+
+        static Type struct(String name) {
+            return new Type(name, 0);
+        }
+
+        Type arrayOf() {
+            return new Type(base, dims + 1);
+        }
+
+        Type element() {
+            return new Type(base, dims - 1);
+        }
+
+        boolean isNumeric() {
+            return dims == 0 && NUMERIC.contains(base);
+        }
+
+        boolean isScalar() {
+            return isNumeric() || dims == 0 && base.equals("boolean");
+        }
+
+        boolean isIntegral() {
+            return isNumeric() && !isFloating();
+        }
+
+        boolean isFloating() {
+            return dims == 0 && (base.equals("float") || base.equals("double"));
+        }
+
+        boolean isString() {
+            return dims == 0 && base.equals("String");
+        }
+
+        boolean isVoid() {
+            return base.equals("void");
+        }
+
+        boolean isStruct() {
+            return dims == 0 && !NUMERIC.contains(base) && !base.equals("boolean") && !base.equals("String") && !isVoid();
+        }
+
+        String javaName() {
+            return base + "[]".repeat(dims);
+        }
+
+        static Type promote(Type a, Type b) {
+            if (a.equals(DOUBLE) || b.equals(DOUBLE)) {
+                return DOUBLE;
+            }
+            if (a.equals(FLOAT) || b.equals(FLOAT)) {
+                return FLOAT;
+            }
+            if (a.equals(LONG) || b.equals(LONG)) {
+                return LONG;
+            }
+            return INT;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Type type && type.base.equals(base) && type.dims == dims;
+        }
+
+        @Override
+        public int hashCode() {
+            return base.hashCode() * 31 + dims;
+        }
+    }
+}
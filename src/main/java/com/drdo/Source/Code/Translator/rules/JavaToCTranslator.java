@@ -0,0 +1,2327 @@
+package com.drdo.Source.Code.Translator.rules;
+
+import com.drdo.Source.Code.Translator.csource.CLexer;
+import com.sun.source.tree.*;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreeScanner;
+import com.sun.source.util.Trees;
+
+import javax.lang.model.element.Modifier;
+import javax.tools.*;
+import java.net.URI;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Java to C over the javac syntax tree for the subset that maps one to one:
+ * static methods and fields, primitives, String constants, one- and
+ * two-dimensional primitive arrays, control flow, System.out printing and
+ * field-only classes, which become structs. Array parameters get an explicit
+ * length parameter and object parameters are passed by pointer, so callee
+ * mutations stay visible to the caller as in Java. int and long arithmetic
+ * keeps Java's two's-complement wrapping and masked shift counts, which plain C
+ * leaves undefined. C does not evaluate arguments and operands left to right,
+ * so expressions whose result would depend on that order are rejected. Anything
+ * else raises {@link UnsupportedConstructException}.
+ * Comments are not carried over.
+ */
+final class JavaToCTranslator {
+
+    private static final Set<String> C_RESERVED = new HashSet<>(Arrays.asList(
+            "bool", "NULL", "EOF", "stdin", "stdout", "stderr", "errno", "printf", "fprintf", "putchar", "puts",
+            "exit", "abs", "labs", "llabs", "fabs", "fabsf", "sqrt", "cbrt", "pow", "hypot", "floor", "ceil",
+            "fmax", "fmin", "fmaxf", "fminf", "fmod", "sin", "cos", "tan", "asin", "acos", "atan", "atan2", "exp",
+            "log", "log10", "memset", "malloc", "free", "INT_MAX", "INT_MIN", "LLONG_MAX", "LLONG_MIN",
+            "max_int", "min_int", "max_long", "min_long", "div_int", "div_long", "rem_int", "rem_long", "self",
+            "asm"));
+
+    static {
+        C_RESERVED.addAll(CLexer.KEYWORDS);
+    }
+
+    private static final Set<String> MATH_UNARY = Set.of(
+            "sqrt", "cbrt", "sin", "cos", "tan", "asin", "acos", "atan", "exp", "log", "log10", "floor", "ceil");
+    private static final Set<String> MATH_BINARY = Set.of("pow", "atan2", "hypot");
+
+    private static final Pattern FORMAT_SPECIFIER =
+            Pattern.compile("%(\\d+\\$|<)?([-#+ 0,(]*)(\\d+)?(\\.\\d+)?([a-zA-Z%])");
+
+    private final String source;
+    private CompilationUnitTree unit;
+    private SourcePositions positions;
+
+    private final Set<String> includes = new TreeSet<>();
+    private final Map<String, String> helpers = new LinkedHashMap<>();
+    private final Set<String> usedNames = new HashSet<>();
+    private final Map<String, StructInfo> structs = new LinkedHashMap<>();
+    private final Map<String, MethodInfo> methods = new LinkedHashMap<>();
+    private final Map<String, Var> globals = new LinkedHashMap<>();
+    private final Deque<Map<String, Var>> scopes = new ArrayDeque<>();
+    private final Set<String> prototypes = new LinkedHashSet<>();
+    private String programClass;
+
+    private StringBuilder out = new StringBuilder();
+    private int indent;
+    private MethodInfo currentMethod;
+    private StructInfo currentStruct;
+    private int currentFunctionIndex;
+
+    private JavaToCTranslator(String source) {
+        this.source = source;
+    }
+
+    static String translate(String javaCode) {
+        return new JavaToCTranslator(javaCode).run();
+    }
+
+    private String run() {
+        parse();
+        if (!unit.getImports().isEmpty()) {
+            throw unsupported("import declarations");
+        }
+        collectNames();
+
+        List<ClassTree> programClasses = new ArrayList<>();
+        for (Tree declaration : unit.getTypeDecls()) {
+            if (declaration.getKind() == Tree.Kind.EMPTY_STATEMENT) {
+                continue;
+            }
+            if (declaration.getKind() != Tree.Kind.CLASS) {
+                throw unsupported(declaration.getKind().name().toLowerCase() + " declarations");
+            }
+            ClassTree type = (ClassTree) declaration;
+            checkPlainClass(type);
+            if (isDataClass(type)) {
+                registerStruct(type);
+            } else {
+                programClasses.add(type);
+            }
+        }
+        if (programClasses.size() > 1) {
+            throw unsupported("more than one class with static members");
+        }
+
+        StringBuilder defines = new StringBuilder();
+        StringBuilder globalDeclarations = new StringBuilder();
+        List<MethodTree> methodTrees = new ArrayList<>();
+        if (!programClasses.isEmpty()) {
+            ClassTree program = programClasses.get(0);
+            programClass = program.getSimpleName().toString();
+            for (Tree member : program.getMembers()) {
+                switch (member.getKind()) {
+                    case CLASS -> {
+                        ClassTree nested = (ClassTree) member;
+                        checkPlainClass(nested);
+                        if (!isDataClass(nested)) {
+                            throw unsupported("nested classes with methods");
+                        }
+                        registerStruct(nested);
+                    }
+                    case METHOD -> {
+                        MethodTree method = (MethodTree) member;
+                        if (method.getReturnType() == null) {
+                            // Only an empty constructor (e.g. one hiding the default) is allowed
+                            if (!method.getParameters().isEmpty() || !method.getBody().getStatements().isEmpty()) {
+                                throw unsupported("constructors in a class with static methods");
+                            }
+                            continue;
+                        }
+                        methodTrees.add(method);
+                    }
+                    case VARIABLE -> {
+                    }
+                    default -> throw unsupported(member.getKind().name().toLowerCase() + " members");
+                }
+            }
+            for (StructInfo struct : structs.values()) {
+                registerFactory(struct);
+            }
+            for (MethodTree method : methodTrees) {
+                registerMethod(method);
+            }
+            for (Tree member : program.getMembers()) {
+                if (member.getKind() == Tree.Kind.VARIABLE) {
+                    staticField((VariableTree) member, defines, globalDeclarations);
+                }
+            }
+        } else {
+            for (StructInfo struct : structs.values()) {
+                registerFactory(struct);
+            }
+        }
+
+        StringBuilder structDefinitions = new StringBuilder();
+        for (StructInfo struct : structs.values()) {
+            structDefinitions.append("struct ").append(struct.name).append(" {\n");
+            for (Map.Entry<String, Type> field : struct.fields.entrySet()) {
+                structDefinitions.append("    ").append(declarator(field.getValue(), field.getKey())).append(";\n");
+            }
+            structDefinitions.append("};\n\n");
+        }
+
+        List<String> functions = new ArrayList<>();
+        List<FunctionInfo> order = new ArrayList<>();
+        for (StructInfo struct : structs.values()) {
+            if (struct.factory != null) {
+                order.add(struct.factory);
+            }
+        }
+        order.addAll(methods.values());
+        for (int i = 0; i < order.size(); i++) {
+            order.get(i).index = i;
+        }
+        for (FunctionInfo function : order) {
+            currentFunctionIndex = function.index;
+            out = new StringBuilder();
+            indent = 0;
+            if (function instanceof MethodInfo method) {
+                function(method);
+            } else {
+                factory(function.struct);
+            }
+            functions.add(out.toString());
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (String include : includes) {
+            result.append("#include <").append(include).append(">\n");
+        }
+        if (!includes.isEmpty()) {
+            result.append('\n');
+        }
+        appendSection(result, defines);
+        for (String helper : helpers.values()) {
+            result.append(helper).append('\n');
+        }
+        result.append(structDefinitions);
+        appendSection(result, globalDeclarations);
+        if (!prototypes.isEmpty()) {
+            for (FunctionInfo function : order) {
+                if (prototypes.contains(function.cName)) {
+                    result.append(function.signature).append(";\n");
+                }
+            }
+            result.append('\n');
+        }
+        result.append(String.join("\n", functions));
+        return result.toString().strip() + "\n";
+    }
+
+    // ----- declarations -----
+
+    private void parse() {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw unsupported("no Java compiler in this runtime");
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///Source.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavacTask task = (JavacTask) compiler.getTask(null, null, diagnostics, List.of("-proc:none"), null,
+                List.of(file));
+        try {
+            Iterator<? extends CompilationUnitTree> units = task.parse().iterator();
+            unit = units.next();
+        } catch (Exception e) {
+            throw unsupported("source that does not parse");
+        }
+        for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                throw unsupported("source that does not parse");
+            }
+        }
+        positions = Trees.instance(task).getSourcePositions();
+    }
+
+    private void collectNames() {
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitIdentifier(IdentifierTree node, Void unused) {
+                usedNames.add(node.getName().toString());
+                return null;
+            }
+
+            @Override
+            public Void visitVariable(VariableTree node, Void unused) {
+                usedNames.add(node.getName().toString());
+                return super.visitVariable(node, unused);
+            }
+
+            @Override
+            public Void visitMethod(MethodTree node, Void unused) {
+                usedNames.add(node.getName().toString());
+                return super.visitMethod(node, unused);
+            }
+
+            @Override
+            public Void visitClass(ClassTree node, Void unused) {
+                usedNames.add(node.getSimpleName().toString());
+                return super.visitClass(node, unused);
+            }
+        }.scan(unit, null);
+    }
+
+    private void checkPlainClass(ClassTree type) {
+        if (type.getKind() != Tree.Kind.CLASS) {
+            throw unsupported(type.getKind().name().toLowerCase() + " declarations");
+        }
+        if (!type.getTypeParameters().isEmpty() || type.getExtendsClause() != null
+                || !type.getImplementsClause().isEmpty()) {
+            throw unsupported("generic classes and inheritance");
+        }
+        if (type.getModifiers().getFlags().contains(Modifier.ABSTRACT) || !type.getModifiers().getAnnotations().isEmpty()) {
+            throw unsupported("abstract or annotated classes");
+        }
+    }
+
+    // Field-only classes (plus at most one constructor) become structs
+    private boolean isDataClass(ClassTree type) {
+        boolean hasFields = false;
+        for (Tree member : type.getMembers()) {
+            if (member.getKind() == Tree.Kind.METHOD) {
+                if (((MethodTree) member).getReturnType() != null) {
+                    return false;
+                }
+            } else if (member.getKind() == Tree.Kind.VARIABLE) {
+                if (((VariableTree) member).getModifiers().getFlags().contains(Modifier.STATIC)) {
+                    return false;
+                }
+                hasFields = true;
+            } else if (member.getKind() == Tree.Kind.CLASS) {
+                return false;
+            }
+        }
+        return hasFields;
+    }
+
+    private void registerStruct(ClassTree type) {
+        String name = type.getSimpleName().toString();
+        checkName(name);
+        if (structs.containsKey(name)) {
+            throw unsupported("duplicate class names");
+        }
+        StructInfo struct = new StructInfo(name);
+        for (Tree member : type.getMembers()) {
+            if (member.getKind() == Tree.Kind.VARIABLE) {
+                VariableTree field = (VariableTree) member;
+                Type fieldType = type(field.getType());
+                if (fieldType.dims > 0 || !fieldType.isPrimitive() && !fieldType.isString()) {
+                    throw unsupported("fields that are arrays or objects");
+                }
+                String fieldName = field.getName().toString();
+                checkName(fieldName);
+                struct.fields.put(fieldName, fieldType);
+                if (field.getInitializer() != null) {
+                    struct.initializers.put(fieldName, field.getInitializer());
+                }
+            } else if (member.getKind() == Tree.Kind.METHOD) {
+                if (struct.constructor != null) {
+                    throw unsupported("overloaded constructors");
+                }
+                struct.constructor = (MethodTree) member;
+            } else {
+                throw unsupported(member.getKind().name().toLowerCase() + " members in data classes");
+            }
+        }
+        structs.put(name, struct);
+    }
+
+    private void registerFactory(StructInfo struct) {
+        if (struct.constructor == null && struct.initializers.isEmpty()) {
+            return;
+        }
+        FunctionInfo factory = new FunctionInfo();
+        factory.struct = struct;
+        factory.cName = freshName(struct.name + "_new");
+        factory.returnType = Type.struct(struct.name);
+        List<String> params = new ArrayList<>();
+        if (struct.constructor != null) {
+            for (VariableTree param : struct.constructor.getParameters()) {
+                Type paramType = type(param.getType());
+                if (paramType.dims > 0 || !paramType.isPrimitive() && !paramType.isString()) {
+                    throw unsupported("constructor parameters that are arrays or objects");
+                }
+                checkName(param.getName().toString());
+                factory.paramTypes.add(paramType);
+                factory.paramNames.add(param.getName().toString());
+                params.add(declarator(paramType, param.getName().toString()));
+            }
+        }
+        factory.signature = "struct " + struct.name + " " + factory.cName + "("
+                + (params.isEmpty() ? "void" : String.join(", ", params)) + ")";
+        struct.factory = factory;
+    }
+
+    private void registerMethod(MethodTree method) {
+        String name = method.getName().toString();
+        if (methods.containsKey(name)) {
+            throw unsupported("overloaded methods");
+        }
+        if (!method.getModifiers().getFlags().contains(Modifier.STATIC)) {
+            throw unsupported("instance methods");
+        }
+        if (!method.getTypeParameters().isEmpty() || !method.getThrows().isEmpty()
+                || method.getBody() == null || !method.getModifiers().getAnnotations().isEmpty()) {
+            throw unsupported("generic, throwing, abstract or annotated methods");
+        }
+        MethodInfo info = new MethodInfo();
+        info.tree = method;
+        info.returnType = type(method.getReturnType());
+        if (name.equals("main")) {
+            List<? extends VariableTree> params = method.getParameters();
+            if (!info.returnType.isVoid() || params.size() != 1 || !type(params.get(0).getType()).equals(Type.STRING.arrayOf())) {
+                throw unsupported("a main method other than main(String[])");
+            }
+            info.isMain = true;
+            info.cName = "main";
+            info.signature = "int main(void)";
+            methods.put(name, info);
+            return;
+        }
+        checkName(name);
+        if (info.returnType.dims > 0 || info.returnType.isStruct()) {
+            throw unsupported("methods returning arrays or objects");
+        }
+        info.cName = name;
+        List<String> params = new ArrayList<>();
+        for (VariableTree param : method.getParameters()) {
+            Type paramType = type(param.getType());
+            String paramName = param.getName().toString();
+            checkName(paramName);
+            if (paramType.dims > 1 || paramType.dims == 1 && !paramType.element().isPrimitive()) {
+                throw unsupported("parameters that are multi-dimensional or object arrays");
+            }
+            info.paramTypes.add(paramType);
+            info.paramNames.add(paramName);
+            if (paramType.dims == 1) {
+                String lengthName = freshLocalName(info, paramName + "_length");
+                info.lengthNames.add(lengthName);
+                params.add(cType(paramType.element()) + " " + paramName + "[]");
+                params.add("int " + lengthName);
+            } else if (paramType.isStruct()) {
+                info.lengthNames.add(null);
+                params.add("struct " + paramType.base + " *" + paramName);
+            } else {
+                info.lengthNames.add(null);
+                params.add(declarator(paramType, paramName));
+            }
+        }
+        info.signature = cType(info.returnType) + " " + name + "("
+                + (params.isEmpty() ? "void" : String.join(", ", params)) + ")";
+        methods.put(name, info);
+    }
+
+    private void staticField(VariableTree field, StringBuilder defines, StringBuilder declarations) {
+        Set<Modifier> flags = field.getModifiers().getFlags();
+        if (!flags.contains(Modifier.STATIC)) {
+            throw unsupported("instance fields in a class with static methods");
+        }
+        String name = field.getName().toString();
+        checkName(name);
+        Type fieldType = type(field.getType());
+        ExpressionTree init = field.getInitializer();
+        if (fieldType.isStruct() || fieldType.dims > 0 && !fieldType.element().isPrimitive()) {
+            throw unsupported("static object fields");
+        }
+
+        if (flags.contains(Modifier.FINAL) && fieldType.dims == 0 && init != null && isConstant(init)) {
+            Expr value = value(init);
+            String code = value.code;
+            if (!value.type.equals(fieldType) && !fieldType.isString()) {
+                code = "((" + cType(fieldType) + ") " + parenthesize(code) + ")";
+            } else if (!isSimple(code)) {
+                code = "(" + code + ")";
+            }
+            defines.append("#define ").append(name).append(' ').append(code).append('\n');
+            globals.put(name, new Var(name, fieldType, VarKind.CONSTANT));
+            return;
+        }
+
+        StringBuilder savedOut = out;
+        out = new StringBuilder();
+        int savedIndent = indent;
+        indent = 0;
+        declare(fieldType, name, init, true, false);
+        declarations.append(out);
+        out = savedOut;
+        indent = savedIndent;
+        globals.put(name, new Var(name, fieldType, VarKind.GLOBAL));
+    }
+
+    // ----- functions -----
+
+    private void function(MethodInfo method) {
+        currentMethod = method;
+        scopes.push(new HashMap<>());
+        for (int i = 0; i < method.paramNames.size() && !method.isMain; i++) {
+            Var param = new Var(method.paramNames.get(i), method.paramTypes.get(i), VarKind.PARAM);
+            param.lengthName = method.lengthNames.get(i);
+            scopes.peek().put(param.name, param);
+        }
+        line(method.signature + " {");
+        indent++;
+        List<? extends StatementTree> statements = method.tree.getBody().getStatements();
+        statements(statements);
+        if (method.isMain && (statements.isEmpty()
+                || statements.get(statements.size() - 1).getKind() != Tree.Kind.RETURN)) {
+            line("return 0;");
+        }
+        indent--;
+        line("}");
+        scopes.pop();
+        currentMethod = null;
+    }
+
+    private void factory(StructInfo struct) {
+        FunctionInfo factory = struct.factory;
+        currentStruct = struct;
+        scopes.push(new HashMap<>());
+        for (int i = 0; i < factory.paramNames.size(); i++) {
+            String name = factory.paramNames.get(i);
+            scopes.peek().put(name, new Var(name, factory.paramTypes.get(i), VarKind.PARAM));
+        }
+        line(factory.signature + " {");
+        indent++;
+        line("struct " + struct.name + " self = {0};");
+        for (Map.Entry<String, ExpressionTree> init : struct.initializers.entrySet()) {
+            line("self." + init.getKey() + " = " + value(init.getValue()).code + ";");
+        }
+        if (struct.constructor != null) {
+            List<? extends StatementTree> statements = struct.constructor.getBody().getStatements();
+            if (!statements.isEmpty() && isSuperCall(statements.get(0))) {
+                statements = statements.subList(1, statements.size());
+            }
+            statements(statements);
+        }
+        line("return self;");
+        indent--;
+        line("}");
+        scopes.pop();
+        currentStruct = null;
+    }
+
+    private boolean isSuperCall(StatementTree statement) {
+        if (statement.getKind() != Tree.Kind.EXPRESSION_STATEMENT) {
+            return false;
+        }
+        ExpressionTree expression = ((ExpressionStatementTree) statement).getExpression();
+        return expression instanceof MethodInvocationTree call
+                && call.getArguments().isEmpty()
+                && call.getMethodSelect() instanceof IdentifierTree select
+                && select.getName().contentEquals("super");
+    }
+
+    // ----- statements -----
+
+    private void statements(List<? extends StatementTree> statements) {
+        for (StatementTree statement : statements) {
+            statement(statement);
+        }
+    }
+
+    private void statement(StatementTree statement) {
+        switch (statement.getKind()) {
+            case BLOCK -> {
+                line("{");
+                indent++;
+                scopes.push(new HashMap<>());
+                statements(((BlockTree) statement).getStatements());
+                scopes.pop();
+                indent--;
+                line("}");
+            }
+            case VARIABLE -> localVariable((VariableTree) statement);
+            case EXPRESSION_STATEMENT -> expressionStatement(((ExpressionStatementTree) statement).getExpression());
+            case IF -> ifStatement((IfTree) statement, "if ");
+            case WHILE_LOOP -> {
+                WhileLoopTree loop = (WhileLoopTree) statement;
+                line("while " + condition(loop.getCondition()) + " {");
+                body(loop.getStatement());
+                line("}");
+            }
+            case DO_WHILE_LOOP -> {
+                DoWhileLoopTree loop = (DoWhileLoopTree) statement;
+                line("do {");
+                body(loop.getStatement());
+                line("} while " + condition(loop.getCondition()) + ";");
+            }
+            case FOR_LOOP -> forLoop((ForLoopTree) statement);
+            case ENHANCED_FOR_LOOP -> enhancedForLoop((EnhancedForLoopTree) statement);
+            case SWITCH -> switchStatement((SwitchTree) statement);
+            case BREAK -> {
+                if (((BreakTree) statement).getLabel() != null) {
+                    throw unsupported("labelled break");
+                }
+                line("break;");
+            }
+            case CONTINUE -> {
+                if (((ContinueTree) statement).getLabel() != null) {
+                    throw unsupported("labelled continue");
+                }
+                line("continue;");
+            }
+            case RETURN -> returnStatement((ReturnTree) statement);
+            case EMPTY_STATEMENT -> line(";");
+            default -> throw unsupported(statement.getKind().name().toLowerCase().replace('_', ' ') + " statements");
+        }
+    }
+
+    private void body(StatementTree statement) {
+        indent++;
+        scopes.push(new HashMap<>());
+        if (statement.getKind() == Tree.Kind.BLOCK) {
+            statements(((BlockTree) statement).getStatements());
+        } else {
+            statement(statement);
+        }
+        scopes.pop();
+        indent--;
+    }
+
+    private void ifStatement(IfTree tree, String prefix) {
+        line(prefix + condition(tree.getCondition()) + " {");
+        body(tree.getThenStatement());
+        StatementTree otherwise = tree.getElseStatement();
+        if (otherwise == null) {
+            line("}");
+        } else if (otherwise.getKind() == Tree.Kind.IF) {
+            ifStatement((IfTree) otherwise, "} else if ");
+        } else {
+            line("} else {");
+            body(otherwise);
+            line("}");
+        }
+    }
+
+    private String condition(ExpressionTree condition) {
+        ExpressionTree inner = condition.getKind() == Tree.Kind.PARENTHESIZED
+                ? ((ParenthesizedTree) condition).getExpression()
+                : condition;
+        return "(" + value(inner).code + ")";
+    }
+
+    private void forLoop(ForLoopTree loop) {
+        scopes.push(new HashMap<>());
+        List<String> init = new ArrayList<>();
+        Type declaredType = null;
+        for (StatementTree statement : loop.getInitializer()) {
+            if (statement.getKind() == Tree.Kind.VARIABLE) {
+                VariableTree variable = (VariableTree) statement;
+                Type variableType = type(variable.getType());
+                if (variableType.dims > 0 || variableType.isStruct()
+                        || declaredType != null && !declaredType.equals(variableType)) {
+                    throw unsupported("this for-loop initializer");
+                }
+                String name = declareLocalName(variable.getName().toString(), variableType);
+                String declarator = variable.getInitializer() == null
+                        ? name
+                        : name + " = " + valueOfType(variable.getInitializer(), variableType).code;
+                init.add(declaredType == null ? cType(variableType) + " " + declarator : declarator);
+                declaredType = variableType;
+            } else {
+                init.add(discarded(((ExpressionStatementTree) statement).getExpression()));
+            }
+        }
+        String condition = loop.getCondition() == null ? "" : value(loop.getCondition()).code;
+        List<String> update = new ArrayList<>();
+        for (ExpressionStatementTree statement : loop.getUpdate()) {
+            update.add(discarded(statement.getExpression()));
+        }
+        line("for (" + String.join(", ", init) + "; " + condition + "; " + String.join(", ", update) + ") {");
+        body(loop.getStatement());
+        line("}");
+        scopes.pop();
+    }
+
+    private void enhancedForLoop(EnhancedForLoopTree loop) {
+        Expr array = expr(loop.getExpression());
+        if (array.type.dims != 1 || array.var == null) {
+            throw unsupported("for-each over anything but a one-dimensional array variable");
+        }
+        Type elementType = type(loop.getVariable().getType());
+        if (!elementType.equals(array.type.element())) {
+            throw unsupported("for-each with a converting loop variable");
+        }
+        scopes.push(new HashMap<>());
+        String index = freshLocalName(currentMethod, loop.getVariable().getName() + "_index");
+        line("for (int " + index + " = 0; " + index + " < " + lengthOf(array) + "; " + index + "++) {");
+        indent++;
+        String name = declareLocalName(loop.getVariable().getName().toString(), elementType);
+        line(declarator(elementType, name) + " = " + array.code + "[" + index + "];");
+        indent--;
+        body(loop.getStatement());
+        line("}");
+        scopes.pop();
+    }
+
+    private void switchStatement(SwitchTree tree) {
+        ExpressionTree selectorTree = tree.getExpression();
+        if (selectorTree.getKind() == Tree.Kind.PARENTHESIZED) {
+            selectorTree = ((ParenthesizedTree) selectorTree).getExpression();
+        }
+        Expr selector = value(selectorTree);
+        if (!selector.type.isIntegral() || selector.type.equals(Type.LONG)) {
+            throw unsupported("switch over anything but int or char");
+        }
+        line("switch (" + selector.code + ") {");
+        indent++;
+        scopes.push(new HashMap<>());
+        for (CaseTree caseTree : tree.getCases()) {
+            if (caseTree.getCaseKind() != CaseTree.CaseKind.STATEMENT) {
+                throw unsupported("arrow-form switch cases");
+            }
+            if (caseTree.getExpressions().isEmpty()) {
+                line("default:");
+            }
+            for (ExpressionTree label : caseTree.getExpressions()) {
+                line("case " + value(label).code + ":");
+            }
+            indent++;
+            for (StatementTree statement : caseTree.getStatements()) {
+                // A declaration directly after a case label is not valid C before C23
+                if (statement.getKind() == Tree.Kind.VARIABLE) {
+                    throw unsupported("declarations directly inside switch cases");
+                }
+                statement(statement);
+            }
+            indent--;
+        }
+        scopes.pop();
+        indent--;
+        line("}");
+    }
+
+    private void returnStatement(ReturnTree tree) {
+        if (currentStruct != null) {
+            if (tree.getExpression() != null) {
+                throw unsupported("returning a value from a constructor");
+            }
+            line("return self;");
+        } else if (currentMethod.isMain) {
+            line("return 0;");
+        } else if (tree.getExpression() == null) {
+            line("return;");
+        } else {
+            line("return " + valueOfType(tree.getExpression(), currentMethod.returnType).code + ";");
+        }
+    }
+
+    private void localVariable(VariableTree variable) {
+        if (variable.getType() == null || variable.getType() instanceof IdentifierTree identifier
+                && identifier.getName().contentEquals("var")) {
+            throw unsupported("'var' declarations");
+        }
+        Type variableType = type(variable.getType());
+        String name = declareLocalName(variable.getName().toString(), variableType);
+        boolean isFinal = variable.getModifiers().getFlags().contains(Modifier.FINAL);
+        declare(variableType, name, variable.getInitializer(), false, isFinal);
+    }
+
+    private String declareLocalName(String name, Type variableType) {
+        checkName(name);
+        if (methods.containsKey(name)) {
+            // In C the variable would hide the function for the rest of the block
+            throw unsupported("local variables named like a method");
+        }
+        scopes.peek().put(name, new Var(name, variableType, VarKind.LOCAL));
+        return name;
+    }
+
+    // Emit a local or file-scope declaration with its initializer
+    private void declare(Type variableType, String name, ExpressionTree init, boolean global, boolean isFinal) {
+        String storage = global ? "static " : "";
+        if (variableType.dims > 0) {
+            declareArray(variableType, name, init, storage);
+            return;
+        }
+        if (variableType.isStruct()) {
+            if (global) {
+                throw unsupported("static object fields");
+            }
+            line("struct " + variableType.base + " " + name + " = " + newObject(init, variableType) + ";");
+            return;
+        }
+        String qualifier = isFinal && !variableType.isString() ? "const " : "";
+        if (init == null) {
+            line(storage + qualifier + declarator(variableType, name) + ";");
+            return;
+        }
+        if (global && !isConstant(init)) {
+            throw unsupported("static fields with non-constant initializers");
+        }
+        line(storage + qualifier + declarator(variableType, name) + " = " + valueOfType(init, variableType).code + ";");
+    }
+
+    private void declareArray(Type arrayType, String name, ExpressionTree init, String storage) {
+        if (arrayType.dims > 2 || !arrayType.element().isPrimitive() && !arrayType.element().element().isPrimitive()) {
+            throw unsupported("arrays of objects or with more than two dimensions");
+        }
+        if (!(init instanceof NewArrayTree newArray)) {
+            throw unsupported("array variables not initialized with a new array");
+        }
+        Type element = arrayType.dims == 1 ? arrayType.element() : arrayType.element().element();
+        if (newArray.getInitializers() != null) {
+            List<? extends ExpressionTree> items = newArray.getInitializers();
+            if (items.isEmpty()) {
+                throw unsupported("empty arrays");
+            }
+            checkEvaluationOrder(flatten(items), false);
+            if (arrayType.dims == 1) {
+                List<String> values = new ArrayList<>();
+                for (ExpressionTree item : items) {
+                    values.add(valueOfType(item, element).code);
+                }
+                line(storage + cType(element) + " " + name + "[] = {" + String.join(", ", values) + "};");
+                return;
+            }
+            List<String> rows = new ArrayList<>();
+            int width = -1;
+            for (ExpressionTree item : items) {
+                if (!(item instanceof NewArrayTree row) || row.getInitializers() == null
+                        || row.getInitializers().isEmpty()
+                        || width >= 0 && row.getInitializers().size() != width) {
+                    throw unsupported("ragged two-dimensional arrays");
+                }
+                width = row.getInitializers().size();
+                List<String> values = new ArrayList<>();
+                for (ExpressionTree value : row.getInitializers()) {
+                    values.add(valueOfType(value, element).code);
+                }
+                rows.add("{" + String.join(", ", values) + "}");
+            }
+            line(storage + cType(element) + " " + name + "[][" + width + "] = {" + String.join(", ", rows) + "};");
+            return;
+        }
+
+        List<? extends ExpressionTree> dimensions = newArray.getDimensions();
+        if (dimensions.size() != arrayType.dims) {
+            throw unsupported("partially dimensioned arrays");
+        }
+        StringBuilder declarator = new StringBuilder(cType(element)).append(' ').append(name);
+        boolean fixed = true;
+        for (ExpressionTree dimension : dimensions) {
+            Expr size = value(dimension);
+            if (!size.type.isIntegral()) {
+                throw unsupported("non-integral array sizes");
+            }
+            if (dimension.getKind() == Tree.Kind.INT_LITERAL) {
+                if (((Number) ((LiteralTree) dimension).getValue()).intValue() <= 0) {
+                    throw unsupported("empty arrays");
+                }
+            } else if (globals.containsKey(size.code) && globals.get(size.code).kind == VarKind.CONSTANT) {
+                // #define constant: still a constant expression in C
+            } else {
+                fixed = false;
+            }
+            declarator.append('[').append(size.code).append(']');
+        }
+        if (fixed) {
+            line(storage + declarator + (arrayType.dims == 1 ? " = {0};" : " = {{0}};"));
+            return;
+        }
+        if (!storage.isEmpty()) {
+            throw unsupported("static arrays with a computed size");
+        }
+        // Variable-length array; Java zero-fills new arrays
+        includes.add("string.h");
+        line(declarator + ";");
+        line("memset(" + name + ", 0, sizeof(" + name + "));");
+    }
+
+    private String newObject(ExpressionTree init, Type objectType) {
+        if (!(init instanceof NewClassTree newClass) || newClass.getClassBody() != null
+                || !(newClass.getIdentifier() instanceof IdentifierTree identifier)
+                || !identifier.getName().contentEquals(objectType.base)) {
+            throw unsupported("object variables not initialized with new");
+        }
+        StructInfo struct = structs.get(objectType.base);
+        List<? extends ExpressionTree> arguments = newClass.getArguments();
+        if (struct.factory == null) {
+            if (!arguments.isEmpty()) {
+                throw unsupported("constructor arguments without a constructor");
+            }
+            return "{0}";
+        }
+        if (arguments.size() != struct.factory.paramTypes.size()) {
+            throw unsupported("constructor call with the wrong number of arguments");
+        }
+        checkEvaluationOrder(arguments, false);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < arguments.size(); i++) {
+            values.add(valueOfType(arguments.get(i), struct.factory.paramTypes.get(i)).code);
+        }
+        noteCall(struct.factory);
+        return struct.factory.cName + "(" + String.join(", ", values) + ")";
+    }
+
+    private void expressionStatement(ExpressionTree expression) {
+        if (expression instanceof MethodInvocationTree call && call.getMethodSelect() instanceof MemberSelectTree select) {
+            String target = select.getExpression().toString();
+            String method = select.getIdentifier().toString();
+            if (target.equals("System.out") || target.equals("System.err")) {
+                String stream = target.equals("System.out") ? null : "stderr";
+                switch (method) {
+                    case "println" -> print(call.getArguments(), true, stream);
+                    case "print" -> print(call.getArguments(), false, stream);
+                    case "printf", "format" -> printf(call.getArguments(), stream);
+                    default -> throw unsupported("System.out." + method);
+                }
+                return;
+            }
+            if (target.equals("System") && method.equals("exit") && call.getArguments().size() == 1) {
+                includes.add("stdlib.h");
+                line("exit(" + valueOfType(call.getArguments().get(0), Type.INT).code + ");");
+                return;
+            }
+        }
+        line(discarded(expression) + ";");
+    }
+
+    // Code for an expression whose value is unused, where x++ and ++x are the same
+    private String discarded(ExpressionTree expression) {
+        if (expression instanceof UnaryTree unary && isIncrement(unary.getKind())) {
+            return increment(unary, true).code;
+        }
+        return value(expression).code;
+    }
+
+    private void print(List<? extends ExpressionTree> arguments, boolean newline, String stream) {
+        if (arguments.size() > 1 || !newline && arguments.isEmpty()) {
+            throw unsupported("this print call");
+        }
+        StringBuilder format = new StringBuilder();
+        List<String> values = new ArrayList<>();
+        if (!arguments.isEmpty()) {
+            Expr argument = expr(arguments.get(0));
+            for (Expr part : argument.parts != null ? argument.parts : List.of(argument)) {
+                printPart(part, format, values);
+            }
+        }
+        if (newline) {
+            format.append("\\n");
+        }
+        emitPrintf(stream, format.toString(), values);
+    }
+
+    private void printPart(Expr part, StringBuilder format, List<String> values) {
+        if (part.literal != null) {
+            format.append(escape(part.literal, '"').replace("%", "%%"));
+            return;
+        }
+        Type partType = requireValue(part).type;
+        if (partType.isString()) {
+            format.append("%s");
+            values.add(part.code);
+        } else if (partType.equals(Type.BOOLEAN)) {
+            format.append("%s");
+            values.add(booleanText(part.code));
+        } else if (partType.equals(Type.CHAR)) {
+            format.append("%c");
+            values.add(part.code);
+        } else if (partType.equals(Type.LONG)) {
+            format.append("%lld");
+            values.add(part.code);
+        } else if (partType.isIntegral()) {
+            format.append("%d");
+            values.add(part.code);
+        } else {
+            // Java prints the shortest round-tripping decimal; no printf conversion matches it exactly
+            throw unsupported("printing float or double values without a format");
+        }
+    }
+
+    private void printf(List<? extends ExpressionTree> arguments, String stream) {
+        if (arguments.isEmpty() || arguments.get(0).getKind() != Tree.Kind.STRING_LITERAL) {
+            throw unsupported("printf without a literal format string");
+        }
+        String javaFormat = (String) ((LiteralTree) arguments.get(0)).getValue();
+        checkEvaluationOrder(arguments.subList(1, arguments.size()), false);
+        List<Expr> values = new ArrayList<>();
+        for (ExpressionTree argument : arguments.subList(1, arguments.size())) {
+            values.add(value(argument));
+        }
+
+        StringBuilder format = new StringBuilder();
+        List<String> cValues = new ArrayList<>();
+        Matcher matcher = FORMAT_SPECIFIER.matcher(javaFormat);
+        int next = 0;
+        int last = 0;
+        while (matcher.find()) {
+            String text = javaFormat.substring(last, matcher.start());
+            if (text.indexOf('%') >= 0) {
+                throw unsupported("malformed format strings");
+            }
+            format.append(escape(text, '"'));
+            last = matcher.end();
+
+            String flags = matcher.group(2);
+            String width = matcher.group(3) == null ? "" : matcher.group(3);
+            String precision = matcher.group(4) == null ? "" : matcher.group(4);
+            char conversion = matcher.group(5).charAt(0);
+            if (matcher.group(1) != null || flags.contains(",") || flags.contains("(")) {
+                throw unsupported("indexed or locale-specific format flags");
+            }
+            if (conversion == 'n' || conversion == '%') {
+                if (!flags.isEmpty() || !width.isEmpty() || !precision.isEmpty()) {
+                    throw unsupported("formatted %n or %%");
+                }
+                format.append(conversion == 'n' ? "\\n" : "%%");
+                continue;
+            }
+            if (next >= values.size()) {
+                throw unsupported("printf with missing arguments");
+            }
+            Expr value = values.get(next++);
+            Type valueType = value.type;
+            String spec = "%" + flags + width + precision;
+            String code = value.code;
+            switch (conversion) {
+                case 'd', 'x', 'X', 'o' -> {
+                    if (!valueType.isIntegral() || valueType.equals(Type.CHAR) || !precision.isEmpty()) {
+                        throw unsupported("integer conversion of a non-integer argument");
+                    }
+                    spec += (valueType.equals(Type.LONG) ? "ll" : "") + conversion;
+                }
+                case 'f', 'e', 'E' -> {
+                    if (!valueType.isFloating()) {
+                        throw unsupported("floating conversion of a non-floating argument");
+                    }
+                    spec += conversion;
+                }
+                case 'c' -> {
+                    if (!valueType.isIntegral() || valueType.equals(Type.LONG) || !precision.isEmpty()) {
+                        throw unsupported("%c of a non-character argument");
+                    }
+                    spec += "c";
+                }
+                case 's' -> {
+                    if (valueType.isString()) {
+                        spec += "s";
+                    } else if (valueType.equals(Type.BOOLEAN)) {
+                        spec += "s";
+                        code = booleanText(code);
+                    } else if (valueType.equals(Type.CHAR) && precision.isEmpty()) {
+                        spec += "c";
+                    } else if (valueType.isIntegral() && precision.isEmpty()) {
+                        spec += valueType.equals(Type.LONG) ? "lld" : "d";
+                    } else {
+                        throw unsupported("%s of a floating argument");
+                    }
+                }
+                case 'b' -> {
+                    if (!valueType.equals(Type.BOOLEAN)) {
+                        throw unsupported("%b of a non-boolean argument");
+                    }
+                    spec += "s";
+                    code = booleanText(code);
+                }
+                default -> throw unsupported("format conversion %" + conversion);
+            }
+            format.append(spec);
+            cValues.add(code);
+        }
+        String rest = javaFormat.substring(last);
+        if (rest.indexOf('%') >= 0 || next != values.size()) {
+            throw unsupported("malformed format strings");
+        }
+        format.append(escape(rest, '"'));
+        emitPrintf(stream, format.toString(), cValues);
+    }
+
+    private void emitPrintf(String stream, String format, List<String> values) {
+        includes.add("stdio.h");
+        StringBuilder call = new StringBuilder(stream == null ? "printf(" : "fprintf(" + stream + ", ");
+        call.append('"').append(format).append('"');
+        for (String value : values) {
+            call.append(", ").append(value);
+        }
+        line(call.append(");").toString());
+    }
+
+    private String booleanText(String code) {
+        return parenthesize(code) + " ? \"true\" : \"false\"";
+    }
+
+    // ----- expressions -----
+
+    private Expr value(ExpressionTree tree) {
+        return requireValue(expr(tree));
+    }
+
+    private Expr requireValue(Expr expr) {
+        if (expr.parts != null) {
+            throw unsupported("String concatenation outside printing");
+        }
+        if (expr.type.dims > 0 || expr.type.isStruct()) {
+            throw unsupported("arrays or objects used as values");
+        }
+        return expr;
+    }
+
+    private Expr valueOfType(ExpressionTree tree, Type target) {
+        Expr expr = value(tree);
+        if (target.isString() != expr.type.isString() || target.equals(Type.BOOLEAN) != expr.type.equals(Type.BOOLEAN)) {
+            throw unsupported("mismatched value types");
+        }
+        return expr;
+    }
+
+    private Expr expr(ExpressionTree tree) {
+        switch (tree.getKind()) {
+            case PARENTHESIZED: {
+                Expr inner = expr(((ParenthesizedTree) tree).getExpression());
+                if (inner.parts != null) {
+                    return inner;
+                }
+                return new Expr("(" + inner.code + ")", inner.type);
+            }
+            case INT_LITERAL:
+            case LONG_LITERAL:
+            case FLOAT_LITERAL:
+            case DOUBLE_LITERAL:
+            case CHAR_LITERAL:
+            case STRING_LITERAL:
+            case BOOLEAN_LITERAL:
+                return literal((LiteralTree) tree);
+            case NULL_LITERAL:
+                throw unsupported("null");
+            case IDENTIFIER:
+                return identifier(((IdentifierTree) tree).getName().toString());
+            case MEMBER_SELECT:
+                return memberSelect((MemberSelectTree) tree);
+            case ARRAY_ACCESS: {
+                ArrayAccessTree access = (ArrayAccessTree) tree;
+                Expr array = expr(access.getExpression());
+                if (array.type.dims == 0) {
+                    throw unsupported("indexing a non-array");
+                }
+                checkEvaluationOrder(List.of(access.getExpression(), access.getIndex()), false);
+                Expr index = value(access.getIndex());
+                if (!index.type.isIntegral() || index.type.equals(Type.LONG)) {
+                    throw unsupported("non-int array index");
+                }
+                Expr result = new Expr(array.code + "[" + index.code + "]", array.type.element());
+                result.var = array.var;
+                return result;
+            }
+            case METHOD_INVOCATION:
+                return call((MethodInvocationTree) tree);
+            case ASSIGNMENT:
+                return assignment((AssignmentTree) tree);
+            case PREFIX_INCREMENT:
+            case PREFIX_DECREMENT:
+            case POSTFIX_INCREMENT:
+            case POSTFIX_DECREMENT:
+            case UNARY_PLUS:
+            case UNARY_MINUS:
+            case BITWISE_COMPLEMENT:
+            case LOGICAL_COMPLEMENT:
+                return unary((UnaryTree) tree);
+            case CONDITIONAL_EXPRESSION: {
+                ConditionalExpressionTree conditional = (ConditionalExpressionTree) tree;
+                Expr condition = value(conditional.getCondition());
+                Expr whenTrue = value(conditional.getTrueExpression());
+                Expr whenFalse = value(conditional.getFalseExpression());
+                Type resultType;
+                if (whenTrue.type.isString() || whenFalse.type.isString()) {
+                    if (!whenTrue.type.isString() || !whenFalse.type.isString()) {
+                        throw unsupported("mixed String and non-String conditional");
+                    }
+                    resultType = Type.STRING;
+                } else if (whenTrue.type.equals(Type.BOOLEAN)) {
+                    resultType = Type.BOOLEAN;
+                } else {
+                    resultType = whenTrue.type.equals(whenFalse.type) ? whenTrue.type
+                            : Type.promote(whenTrue.type, whenFalse.type);
+                }
+                return new Expr(condition.code + " ? " + whenTrue.code + " : " + whenFalse.code, resultType);
+            }
+            case TYPE_CAST: {
+                TypeCastTree cast = (TypeCastTree) tree;
+                Type target = type(cast.getType());
+                Expr operand = value(cast.getExpression());
+                if (!target.isPrimitive() || target.equals(Type.BOOLEAN) || operand.type.equals(Type.BOOLEAN)
+                        || operand.type.isString()) {
+                    throw unsupported("casts other than between numeric types");
+                }
+                return new Expr("(" + cType(target) + ") " + operand.code, target);
+            }
+            default:
+                if (tree instanceof CompoundAssignmentTree compound) {
+                    return compoundAssignment(compound);
+                }
+                if (tree instanceof BinaryTree binary) {
+                    return binary(binary);
+                }
+                throw unsupported(tree.getKind().name().toLowerCase().replace('_', ' ') + " expressions");
+        }
+    }
+
+    private Expr literal(LiteralTree tree) {
+        Object value = tree.getValue();
+        String text = sourceText(tree).replace("_", "");
+        switch (tree.getKind()) {
+            case INT_LITERAL, LONG_LITERAL -> {
+                long number = ((Number) value).longValue();
+                boolean isLong = tree.getKind() == Tree.Kind.LONG_LITERAL;
+                if (isLong) {
+                    text = text.substring(0, text.length() - 1);
+                }
+                String code;
+                if (number < 0) {
+                    code = number == (isLong ? Long.MIN_VALUE : Integer.MIN_VALUE)
+                            ? "(" + (number + 1) + (isLong ? "LL" : "") + " - 1)"
+                            : "(" + number + (isLong ? "LL" : "") + ")";
+                    return new Expr(code, isLong ? Type.LONG : Type.INT);
+                }
+                // Hex and octal keep their spelling; binary literals are not C99
+                code = text.startsWith("0b") || text.startsWith("0B") ? Long.toString(number) : text;
+                return new Expr(code + (isLong ? "LL" : ""), isLong ? Type.LONG : Type.INT);
+            }
+            case FLOAT_LITERAL, DOUBLE_LITERAL -> {
+                boolean isFloat = tree.getKind() == Tree.Kind.FLOAT_LITERAL;
+                char suffix = Character.toLowerCase(text.charAt(text.length() - 1));
+                if (suffix == 'f' || suffix == 'd') {
+                    text = text.substring(0, text.length() - 1);
+                }
+                boolean hex = text.startsWith("0x") || text.startsWith("0X");
+                if (!hex && text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                    text += ".0";
+                }
+                if (text.startsWith("-")) {
+                    text = "(" + text + (isFloat ? "f" : "") + ")";
+                    return new Expr(text, isFloat ? Type.FLOAT : Type.DOUBLE);
+                }
+                return new Expr(text + (isFloat ? "f" : ""), isFloat ? Type.FLOAT : Type.DOUBLE);
+            }
+            case CHAR_LITERAL -> {
+                char c = (Character) value;
+                if (c > 127) {
+                    throw unsupported("non-ASCII character literals");
+                }
+                Expr expr = new Expr("'" + escape(String.valueOf(c), '\'') + "'", Type.CHAR);
+                expr.literal = String.valueOf(c);
+                return expr;
+            }
+            case STRING_LITERAL -> {
+                Expr expr = new Expr("\"" + escape((String) value, '"') + "\"", Type.STRING);
+                expr.literal = (String) value;
+                return expr;
+            }
+            default -> {
+                includes.add("stdbool.h");
+                return new Expr(value.toString(), Type.BOOLEAN);
+            }
+        }
+    }
+
+    private Expr identifier(String name) {
+        for (Map<String, Var> scope : scopes) {
+            Var var = scope.get(name);
+            if (var != null) {
+                return varExpr(var);
+            }
+        }
+        if (currentStruct != null && currentStruct.fields.containsKey(name)) {
+            return new Expr("self." + name, currentStruct.fields.get(name));
+        }
+        Var global = globals.get(name);
+        if (global != null) {
+            return varExpr(global);
+        }
+        throw unsupported("unknown identifier " + name);
+    }
+
+    private Expr varExpr(Var var) {
+        Expr expr = new Expr(var.name, var.type);
+        expr.var = var;
+        if (var.type.equals(Type.BOOLEAN)) {
+            includes.add("stdbool.h");
+        }
+        return expr;
+    }
+
+    private Expr memberSelect(MemberSelectTree select) {
+        String member = select.getIdentifier().toString();
+        ExpressionTree target = select.getExpression();
+        if (target instanceof IdentifierTree identifier) {
+            String owner = identifier.getName().toString();
+            switch (owner) {
+                case "Math" -> {
+                    if (member.equals("PI")) {
+                        return new Expr("3.14159265358979323846", Type.DOUBLE);
+                    }
+                    if (member.equals("E")) {
+                        return new Expr("2.71828182845904523536", Type.DOUBLE);
+                    }
+                    throw unsupported("Math." + member);
+                }
+                case "Integer", "Long" -> {
+                    boolean isLong = owner.equals("Long");
+                    if (member.equals("MAX_VALUE") || member.equals("MIN_VALUE")) {
+                        includes.add("limits.h");
+                        return new Expr((isLong ? "LLONG_" : "INT_") + member.substring(0, 3), isLong ? Type.LONG : Type.INT);
+                    }
+                    throw unsupported(owner + "." + member);
+                }
+                case "this" -> {
+                    if (currentStruct == null || !currentStruct.fields.containsKey(member)) {
+                        throw unsupported("this outside a constructor");
+                    }
+                    return new Expr("self." + member, currentStruct.fields.get(member));
+                }
+                default -> {
+                    if (owner.equals(programClass) && lookupLocal(owner) == null) {
+                        Var global = globals.get(member);
+                        if (global == null) {
+                            throw unsupported("unknown field " + member);
+                        }
+                        return varExpr(global);
+                    }
+                }
+            }
+        }
+
+        Expr object = expr(target);
+        if (member.equals("length") && object.type.dims > 0) {
+            return new Expr(lengthOf(object), Type.INT);
+        }
+        if (!object.type.isStruct() || object.type.dims > 0) {
+            throw unsupported("member access on " + target);
+        }
+        Type fieldType = structs.get(object.type.base).fields.get(member);
+        if (fieldType == null) {
+            throw unsupported("unknown field " + member);
+        }
+        boolean pointer = object.var != null && object.var.kind == VarKind.PARAM;
+        return new Expr(object.code + (pointer ? "->" : ".") + member, fieldType);
+    }
+
+    private String lengthOf(Expr array) {
+        if (array.var == null) {
+            throw unsupported("length of an array expression");
+        }
+        if (array.var.kind == VarKind.PARAM) {
+            if (array.type.dims != array.var.type.dims) {
+                throw unsupported("length of an array parameter row");
+            }
+            return array.var.lengthName;
+        }
+        String name = array.var.name;
+        if (array.type.dims == array.var.type.dims) {
+            return "(int) (sizeof(" + name + ") / sizeof(" + name + "[0]))";
+        }
+        return "(int) (sizeof(" + name + "[0]) / sizeof(" + name + "[0][0]))";
+    }
+
+    private Expr call(MethodInvocationTree call) {
+        checkEvaluationOrder(call.getArguments(), false);
+        ExpressionTree select = call.getMethodSelect();
+        String name;
+        if (select instanceof IdentifierTree identifier) {
+            name = identifier.getName().toString();
+        } else if (select instanceof MemberSelectTree member && member.getExpression() instanceof IdentifierTree owner) {
+            name = member.getIdentifier().toString();
+            if (owner.getName().contentEquals("Math")) {
+                return mathCall(name, call.getArguments());
+            }
+            if (!owner.getName().contentEquals(programClass == null ? "" : programClass)) {
+                throw unsupported("calls to " + owner.getName() + "." + name);
+            }
+        } else {
+            throw unsupported("calls to " + select);
+        }
+        MethodInfo method = methods.get(name);
+        if (method == null || method.isMain) {
+            throw unsupported("calls to unknown method " + name);
+        }
+        List<? extends ExpressionTree> arguments = call.getArguments();
+        if (arguments.size() != method.paramTypes.size()) {
+            throw unsupported("calls with the wrong number of arguments");
+        }
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < arguments.size(); i++) {
+            Type paramType = method.paramTypes.get(i);
+            if (paramType.dims > 0 || paramType.isStruct()) {
+                Expr argument = expr(arguments.get(i));
+                if (argument.var == null || !argument.type.equals(paramType) || argument.type.dims != argument.var.type.dims) {
+                    throw unsupported("array or object arguments that are not variables");
+                }
+                if (paramType.dims > 0) {
+                    values.add(argument.code);
+                    values.add(lengthOf(argument));
+                } else {
+                    values.add(argument.var.kind == VarKind.PARAM ? argument.code : "&" + argument.code);
+                }
+            } else {
+                values.add(valueOfType(arguments.get(i), paramType).code);
+            }
+        }
+        noteCall(method);
+        return new Expr(method.cName + "(" + String.join(", ", values) + ")", method.returnType);
+    }
+
+    private void noteCall(FunctionInfo function) {
+        if (function.index > currentFunctionIndex) {
+            prototypes.add(function.cName);
+        }
+    }
+
+    private Expr mathCall(String name, List<? extends ExpressionTree> arguments) {
+        List<Expr> values = new ArrayList<>();
+        for (ExpressionTree argument : arguments) {
+            Expr value = value(argument);
+            if (!value.type.isNumeric()) {
+                throw unsupported("Math." + name + " of a non-numeric argument");
+            }
+            values.add(value);
+        }
+        if (MATH_UNARY.contains(name) && values.size() == 1 || MATH_BINARY.contains(name) && values.size() == 2) {
+            includes.add("math.h");
+            return new Expr(name + "(" + joinCodes(values) + ")", Type.DOUBLE);
+        }
+        if (name.equals("abs") && values.size() == 1) {
+            Type argType = Type.promote(values.get(0).type, Type.INT);
+            String function;
+            if (argType.equals(Type.DOUBLE)) {
+                function = "fabs";
+                includes.add("math.h");
+            } else if (argType.equals(Type.FLOAT)) {
+                function = "fabsf";
+                includes.add("math.h");
+            } else {
+                function = argType.equals(Type.LONG) ? "llabs" : "abs";
+                includes.add("stdlib.h");
+            }
+            return new Expr(function + "(" + values.get(0).code + ")", argType);
+        }
+        if ((name.equals("max") || name.equals("min")) && values.size() == 2) {
+            Type argType = Type.promote(Type.promote(values.get(0).type, values.get(1).type), Type.INT);
+            String function;
+            if (argType.isFloating()) {
+                includes.add("math.h");
+                function = "f" + name + (argType.equals(Type.FLOAT) ? "f" : "");
+            } else {
+                String cTypeName = argType.equals(Type.LONG) ? "long long" : "int";
+                function = name + (argType.equals(Type.LONG) ? "_long" : "_int");
+                helpers.putIfAbsent(function, "static " + cTypeName + " " + function + "(" + cTypeName + " a, "
+                        + cTypeName + " b) {\n    return a " + (name.equals("max") ? ">" : "<")
+                        + " b ? a : b;\n}\n");
+            }
+            return new Expr(function + "(" + joinCodes(values) + ")", argType);
+        }
+        throw unsupported("Math." + name);
+    }
+
+    private Expr assignment(AssignmentTree tree) {
+        checkEvaluationOrder(List.of(tree.getVariable(), tree.getExpression()), true);
+        Expr target = expr(tree.getVariable());
+        checkAssignable(target);
+        if (target.type.dims > 0) {
+            throw unsupported("assigning arrays");
+        }
+        if (target.type.isStruct()) {
+            if (target.var == null || target.var.kind != VarKind.LOCAL) {
+                throw unsupported("assigning objects other than locals");
+            }
+            String value = newObject(tree.getExpression(), target.type);
+            if (value.equals("{0}")) {
+                value = "(struct " + target.type.base + ") {0}";
+            }
+            return new Expr(target.code + " = " + value, target.type);
+        }
+        Expr value = valueOfType(tree.getExpression(), target.type);
+        return new Expr(target.code + " = " + value.code, target.type);
+    }
+
+    private Expr compoundAssignment(CompoundAssignmentTree tree) {
+        // The target is read as well as written
+        checkEvaluationOrder(List.of(tree.getVariable(), tree.getExpression()), false);
+        Expr target = value(tree.getVariable());
+        checkAssignable(target);
+        Expr value = value(tree.getExpression());
+        String operator = switch (tree.getKind()) {
+            case PLUS_ASSIGNMENT -> "+=";
+            case MINUS_ASSIGNMENT -> "-=";
+            case MULTIPLY_ASSIGNMENT -> "*=";
+            case DIVIDE_ASSIGNMENT -> "/=";
+            case REMAINDER_ASSIGNMENT -> "%=";
+            case LEFT_SHIFT_ASSIGNMENT -> "<<=";
+            case RIGHT_SHIFT_ASSIGNMENT -> ">>=";
+            case UNSIGNED_RIGHT_SHIFT_ASSIGNMENT -> ">>>=";
+            case AND_ASSIGNMENT -> "&=";
+            case OR_ASSIGNMENT -> "|=";
+            case XOR_ASSIGNMENT -> "^=";
+            default -> throw unsupported(tree.getKind().name().toLowerCase().replace('_', ' '));
+        };
+        if (target.type.isString() || value.type.isString()) {
+            throw unsupported("String concatenation outside printing");
+        }
+        if (operator.equals("%=") && (target.type.isFloating() || value.type.isFloating())) {
+            throw unsupported("floating-point remainder assignment");
+        }
+        if (target.type.isIntegral() && value.type.isIntegral()) {
+            Tree.Kind kind = switch (tree.getKind()) {
+                case PLUS_ASSIGNMENT -> Tree.Kind.PLUS;
+                case MINUS_ASSIGNMENT -> Tree.Kind.MINUS;
+                case MULTIPLY_ASSIGNMENT -> Tree.Kind.MULTIPLY;
+                case DIVIDE_ASSIGNMENT -> Tree.Kind.DIVIDE;
+                case REMAINDER_ASSIGNMENT -> Tree.Kind.REMAINDER;
+                case LEFT_SHIFT_ASSIGNMENT -> Tree.Kind.LEFT_SHIFT;
+                case RIGHT_SHIFT_ASSIGNMENT -> Tree.Kind.RIGHT_SHIFT;
+                case UNSIGNED_RIGHT_SHIFT_ASSIGNMENT -> Tree.Kind.UNSIGNED_RIGHT_SHIFT;
+                default -> null;
+            };
+            Type type = isShift(kind) ? Type.promote(target.type, Type.INT)
+                    : Type.promote(target.type, value.type);
+            String code = kind == null ? null : arithmetic(kind, type, target, value, tree.getExpression(), false);
+            if (code != null) {
+                // x op= y becomes x = x op y, so x is evaluated twice
+                if (!isPure(tree.getVariable())) {
+                    throw unsupported("compound assignment to an expression with side effects");
+                }
+                return new Expr(target.code + " = " + code, target.type);
+            }
+        }
+        return new Expr(target.code + " " + operator + " " + value.code, target.type);
+    }
+
+    private void checkAssignable(Expr target) {
+        if (target.var != null && target.var.kind == VarKind.CONSTANT) {
+            throw unsupported("assigning constants");
+        }
+        if (target.var != null && target.var.kind == VarKind.PARAM && target.type.equals(target.var.type)
+                && (target.type.dims > 0 || target.type.isStruct())) {
+            throw unsupported("reassigning array or object parameters");
+        }
+    }
+
+    private Expr unary(UnaryTree tree) {
+        if (isIncrement(tree.getKind())) {
+            return increment(tree, false);
+        }
+        Expr operand = value(tree.getExpression());
+        if (operand.type.isString()) {
+            throw unsupported("operators on Strings");
+        }
+        Type promoted = operand.type.isNumeric() ? Type.promote(operand.type, Type.INT) : operand.type;
+        return switch (tree.getKind()) {
+            case UNARY_PLUS -> new Expr(prefix("+", operand.code), promoted);
+            case UNARY_MINUS -> wraps(promoted) && !isLiteral(tree.getExpression())
+                    ? new Expr("(" + cType(promoted) + ") -(" + unsignedType(promoted) + ") " + parenthesize(operand.code), promoted)
+                    : new Expr(prefix("-", operand.code), promoted);
+            case BITWISE_COMPLEMENT -> new Expr("~" + operand.code, promoted);
+            default -> new Expr("!" + operand.code, Type.BOOLEAN);
+        };
+    }
+
+    private static boolean isIncrement(Tree.Kind kind) {
+        return kind == Tree.Kind.PREFIX_INCREMENT || kind == Tree.Kind.PREFIX_DECREMENT
+                || kind == Tree.Kind.POSTFIX_INCREMENT || kind == Tree.Kind.POSTFIX_DECREMENT;
+    }
+
+    private Expr increment(UnaryTree tree, boolean discarded) {
+        Expr operand = value(tree.getExpression());
+        if (operand.type.isString()) {
+            throw unsupported("operators on Strings");
+        }
+        boolean up = tree.getKind() == Tree.Kind.PREFIX_INCREMENT || tree.getKind() == Tree.Kind.POSTFIX_INCREMENT;
+        boolean postfix = tree.getKind() == Tree.Kind.POSTFIX_INCREMENT || tree.getKind() == Tree.Kind.POSTFIX_DECREMENT;
+        if (!wraps(operand.type)) {
+            // Narrower types are promoted to int first and cannot overflow
+            String operator = up ? "++" : "--";
+            return new Expr(postfix ? operand.code + operator : operator + operand.code, operand.type);
+        }
+        if (!isPure(tree.getExpression())) {
+            throw unsupported("++ or -- on an expression with side effects");
+        }
+        String assignment = operand.code + " = " + wrapping(operand.type, operand.code, up ? "+" : "-", "1");
+        if (discarded) {
+            return new Expr(assignment, operand.type);
+        }
+        if (!postfix) {
+            return new Expr("(" + assignment + ")", operand.type);
+        }
+        // The old value, recovered from the new one
+        return new Expr(wrapping(operand.type, "(" + assignment + ")", up ? "-" : "+", "1"), operand.type);
+    }
+
+    private static String prefix(String operator, String operand) {
+        return operand.startsWith("+") || operand.startsWith("-") ? operator + " " + operand : operator + operand;
+    }
+
+    private Expr binary(BinaryTree tree) {
+        if (tree.getKind() != Tree.Kind.CONDITIONAL_AND && tree.getKind() != Tree.Kind.CONDITIONAL_OR) {
+            checkEvaluationOrder(List.of(tree.getLeftOperand(), tree.getRightOperand()), false);
+        }
+        Expr left = expr(tree.getLeftOperand());
+        Expr right = expr(tree.getRightOperand());
+        if (tree.getKind() == Tree.Kind.PLUS && (isText(left) || isText(right))) {
+            Expr concatenation = new Expr(null, Type.STRING);
+            concatenation.parts = new ArrayList<>();
+            concatenation.parts.addAll(left.parts != null ? left.parts : List.of(requireValue(left)));
+            concatenation.parts.addAll(right.parts != null ? right.parts : List.of(requireValue(right)));
+            return concatenation;
+        }
+        requireValue(left);
+        requireValue(right);
+        if (left.type.isString() || right.type.isString()) {
+            throw unsupported("comparing Strings");
+        }
+        String operator;
+        Type resultType;
+        switch (tree.getKind()) {
+            case MULTIPLY -> operator = "*";
+            case DIVIDE -> operator = "/";
+            case REMAINDER -> {
+                if (left.type.isFloating() || right.type.isFloating()) {
+                    includes.add("math.h");
+                    return new Expr("fmod(" + left.code + ", " + right.code + ")", Type.promote(left.type, right.type));
+                }
+                operator = "%";
+            }
+            case PLUS -> operator = "+";
+            case MINUS -> operator = "-";
+            case LEFT_SHIFT -> operator = "<<";
+            case RIGHT_SHIFT -> operator = ">>";
+            case UNSIGNED_RIGHT_SHIFT -> operator = ">>>";
+            case LESS_THAN -> operator = "<";
+            case GREATER_THAN -> operator = ">";
+            case LESS_THAN_EQUAL -> operator = "<=";
+            case GREATER_THAN_EQUAL -> operator = ">=";
+            case EQUAL_TO -> operator = "==";
+            case NOT_EQUAL_TO -> operator = "!=";
+            case AND -> operator = "&";
+            case XOR -> operator = "^";
+            case OR -> operator = "|";
+            case CONDITIONAL_AND -> operator = "&&";
+            case CONDITIONAL_OR -> operator = "||";
+            default -> throw unsupported(tree.getKind().name().toLowerCase().replace('_', ' '));
+        }
+        switch (tree.getKind()) {
+            case LESS_THAN, GREATER_THAN, LESS_THAN_EQUAL, GREATER_THAN_EQUAL, EQUAL_TO, NOT_EQUAL_TO,
+                    CONDITIONAL_AND, CONDITIONAL_OR -> resultType = Type.BOOLEAN;
+            case LEFT_SHIFT, RIGHT_SHIFT, UNSIGNED_RIGHT_SHIFT -> resultType = Type.promote(left.type, Type.INT);
+            default -> resultType = left.type.equals(Type.BOOLEAN) ? Type.BOOLEAN : Type.promote(left.type, right.type);
+        }
+        if (resultType.equals(Type.BOOLEAN)) {
+            includes.add("stdbool.h");
+        }
+        String code = arithmetic(tree.getKind(), resultType, left, right, tree.getRightOperand(), isConstant(tree));
+        return new Expr(code != null ? code : left.code + " " + operator + " " + right.code, resultType);
+    }
+
+    /**
+     * C code for an int or long operation whose plain C form could differ from
+     * Java: overflow in + - * and unary minus is undefined for signed types, so
+     * it is done unsigned and converted back (modulo 2^n, as gcc and clang do);
+     * shift counts are masked to the low 5 or 6 bits; and MIN / -1 is negated
+     * instead, through a helper unless the divisor is a literal or constant.
+     * Null when the plain operator is exact.
+     */
+    private String arithmetic(Tree.Kind kind, Type type, Expr left, Expr right, ExpressionTree rightTree,
+                              boolean constant) {
+        if (!wraps(type)) {
+            return null;
+        }
+        switch (kind) {
+            case PLUS, MINUS, MULTIPLY -> {
+                String operator = kind == Tree.Kind.PLUS ? "+" : kind == Tree.Kind.MINUS ? "-" : "*";
+                return wrapping(type, left.code, operator, right.code);
+            }
+            case LEFT_SHIFT -> {
+                return wrapping(type, left.code, "<<", shiftCount(rightTree, right, type));
+            }
+            case RIGHT_SHIFT -> {
+                // Right shift of a negative value is arithmetic in gcc and clang, as in Java
+                return left.code + " >> " + shiftCount(rightTree, right, type);
+            }
+            case UNSIGNED_RIGHT_SHIFT -> {
+                return wrapping(type, left.code, ">>", shiftCount(rightTree, right, type));
+            }
+            case DIVIDE, REMAINDER -> {
+                boolean divide = kind == Tree.Kind.DIVIDE;
+                String negated = "(" + cType(type) + ") -(" + unsignedType(type) + ") " + parenthesize(left.code);
+                if (isLiteral(rightTree)) {
+                    if (((Number) literalValue(rightTree)).longValue() != -1) {
+                        return null;
+                    }
+                    if (divide) {
+                        return negated;
+                    }
+                }
+                if (constant) {
+                    // Operands are side-effect free, and no call keeps this a valid static initializer
+                    String divisor = parenthesize(right.code);
+                    return "(" + divisor + " == -1 ? " + (divide ? negated : "0") + " : " + parenthesize(left.code)
+                            + (divide ? " / " : " % ") + divisor + ")";
+                }
+                String cTypeName = cType(type);
+                String function = (kind == Tree.Kind.DIVIDE ? "div" : "rem")
+                        + (type.equals(Type.LONG) ? "_long" : "_int");
+                String minusOne = kind == Tree.Kind.DIVIDE
+                        ? "(" + cTypeName + ") -(" + unsignedType(type) + ") a" : "0";
+                helpers.putIfAbsent(function, "static " + cTypeName + " " + function + "(" + cTypeName + " a, "
+                        + cTypeName + " b) {\n    return b == -1 ? " + minusOne + " : a "
+                        + (kind == Tree.Kind.DIVIDE ? "/" : "%") + " b;\n}\n");
+                return function + "(" + left.code + ", " + right.code + ")";
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private String wrapping(Type type, String left, String operator, String right) {
+        return "(" + cType(type) + ") ((" + unsignedType(type) + ") " + parenthesize(left) + " " + operator + " "
+                + right + ")";
+    }
+
+    private static String unsignedType(Type type) {
+        return type.equals(Type.LONG) ? "unsigned long long" : "unsigned";
+    }
+
+    // Java uses only the low 5 (int) or 6 (long) bits of a shift count
+    private static String shiftCount(ExpressionTree tree, Expr count, Type type) {
+        int mask = type.equals(Type.LONG) ? 63 : 31;
+        if (isLiteral(tree)) {
+            long value = ((Number) literalValue(tree)).longValue();
+            return value >= 0 && value <= mask ? count.code : Long.toString(value & mask);
+        }
+        return "(" + parenthesize(count.code) + " & " + mask + ")";
+    }
+
+    private static boolean isShift(Tree.Kind kind) {
+        return kind == Tree.Kind.LEFT_SHIFT || kind == Tree.Kind.RIGHT_SHIFT || kind == Tree.Kind.UNSIGNED_RIGHT_SHIFT;
+    }
+
+    private static boolean wraps(Type type) {
+        return type.equals(Type.INT) || type.equals(Type.LONG);
+    }
+
+    private static boolean isLiteral(ExpressionTree tree) {
+        return literalValue(tree) instanceof Number;
+    }
+
+    private static Object literalValue(ExpressionTree tree) {
+        while (tree instanceof ParenthesizedTree parenthesized) {
+            tree = parenthesized.getExpression();
+        }
+        return tree.getKind() == Tree.Kind.INT_LITERAL || tree.getKind() == Tree.Kind.LONG_LITERAL
+                ? ((LiteralTree) tree).getValue() : null;
+    }
+
+    /**
+     * Java evaluates operands and arguments left to right; C evaluates them in
+     * any order and leaves unsequenced writes undefined. Operands C may
+     * evaluate in either order are accepted only when at most one has side
+     * effects, no variable written in one is mentioned in another, and no
+     * operand reads state a call in another could change. With target, the
+     * first operand is an assignment target, of which only the location counts.
+     */
+    private void checkEvaluationOrder(List<? extends ExpressionTree> operands, boolean target) {
+        if (operands.size() < 2) {
+            return;
+        }
+        int effects = 0;
+        for (ExpressionTree operand : operands) {
+            if (hasSideEffects(operand)) {
+                effects++;
+            }
+        }
+        if (effects > 1) {
+            throw unsupported("several side effects in one expression, which C may evaluate in any order");
+        }
+        for (int i = 0; i < operands.size(); i++) {
+            Set<String> written = writtenVariables(operands.get(i));
+            boolean calls = callsMethods(operands.get(i));
+            for (int j = 0; j < operands.size(); j++) {
+                if (i == j) {
+                    continue;
+                }
+                ExpressionTree other = operands.get(j);
+                if (!written.isEmpty() && mentions(other, written)) {
+                    throw unsupported("a variable written and used elsewhere in the same expression");
+                }
+                if (calls && readsSharedState(other, target && j == 0)) {
+                    throw unsupported("a call alongside fields, array elements or globals it could change");
+                }
+            }
+        }
+    }
+
+    private static List<ExpressionTree> flatten(List<? extends ExpressionTree> items) {
+        List<ExpressionTree> flat = new ArrayList<>();
+        for (ExpressionTree item : items) {
+            if (item instanceof NewArrayTree row && row.getInitializers() != null) {
+                flat.addAll(row.getInitializers());
+            } else {
+                flat.add(item);
+            }
+        }
+        return flat;
+    }
+
+    private static boolean hasSideEffects(ExpressionTree tree) {
+        Boolean found = new TreeScanner<Boolean, Void>() {
+            @Override
+            public Boolean visitMethodInvocation(MethodInvocationTree node, Void unused) {
+                return !isMathCall(node) || Boolean.TRUE.equals(super.visitMethodInvocation(node, unused));
+            }
+
+            @Override
+            public Boolean visitAssignment(AssignmentTree node, Void unused) {
+                return true;
+            }
+
+            @Override
+            public Boolean visitCompoundAssignment(CompoundAssignmentTree node, Void unused) {
+                return true;
+            }
+
+            @Override
+            public Boolean visitUnary(UnaryTree node, Void unused) {
+                return isIncrement(node.getKind()) || Boolean.TRUE.equals(super.visitUnary(node, unused));
+            }
+
+            @Override
+            public Boolean reduce(Boolean a, Boolean b) {
+                return Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b);
+            }
+        }.scan(tree, null);
+        return Boolean.TRUE.equals(found);
+    }
+
+    private static boolean callsMethods(ExpressionTree tree) {
+        Boolean found = new TreeScanner<Boolean, Void>() {
+            @Override
+            public Boolean visitMethodInvocation(MethodInvocationTree node, Void unused) {
+                return !isMathCall(node) || Boolean.TRUE.equals(super.visitMethodInvocation(node, unused));
+            }
+
+            @Override
+            public Boolean reduce(Boolean a, Boolean b) {
+                return Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b);
+            }
+        }.scan(tree, null);
+        return Boolean.TRUE.equals(found);
+    }
+
+    private static boolean isMathCall(MethodInvocationTree call) {
+        return call.getMethodSelect() instanceof MemberSelectTree select
+                && select.getExpression() instanceof IdentifierTree owner && owner.getName().contentEquals("Math");
+    }
+
+    // Variables assigned, compound-assigned, incremented or decremented in the expression
+    private static Set<String> writtenVariables(ExpressionTree tree) {
+        Set<String> written = new HashSet<>();
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitAssignment(AssignmentTree node, Void unused) {
+                addRoot(node.getVariable());
+                return super.visitAssignment(node, unused);
+            }
+
+            @Override
+            public Void visitCompoundAssignment(CompoundAssignmentTree node, Void unused) {
+                addRoot(node.getVariable());
+                return super.visitCompoundAssignment(node, unused);
+            }
+
+            @Override
+            public Void visitUnary(UnaryTree node, Void unused) {
+                if (isIncrement(node.getKind())) {
+                    addRoot(node.getExpression());
+                }
+                return super.visitUnary(node, unused);
+            }
+
+            private void addRoot(ExpressionTree target) {
+                while (true) {
+                    if (target instanceof ArrayAccessTree access) {
+                        target = access.getExpression();
+                    } else if (target instanceof MemberSelectTree select) {
+                        target = select.getExpression();
+                    } else if (target instanceof ParenthesizedTree parenthesized) {
+                        target = parenthesized.getExpression();
+                    } else {
+                        break;
+                    }
+                }
+                if (target instanceof IdentifierTree identifier) {
+                    written.add(identifier.getName().toString());
+                }
+            }
+        }.scan(tree, null);
+        return written;
+    }
+
+    private static boolean mentions(ExpressionTree tree, Set<String> names) {
+        Boolean found = new TreeScanner<Boolean, Void>() {
+            @Override
+            public Boolean visitIdentifier(IdentifierTree node, Void unused) {
+                return names.contains(node.getName().toString());
+            }
+
+            @Override
+            public Boolean reduce(Boolean a, Boolean b) {
+                return Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b);
+            }
+        }.scan(tree, null);
+        return Boolean.TRUE.equals(found);
+    }
+
+    /**
+     * Whether the expression reads something a called function could change:
+     * a non-constant global, a field or an array element. For an assignment
+     * target only the expressions locating it are read.
+     */
+    private boolean readsSharedState(ExpressionTree tree, boolean target) {
+        if (target) {
+            if (tree instanceof ArrayAccessTree access) {
+                return readsSharedState(access.getExpression(), true) || readsSharedState(access.getIndex(), false);
+            }
+            if (tree instanceof MemberSelectTree select) {
+                return readsSharedState(select.getExpression(), true);
+            }
+            if (tree instanceof ParenthesizedTree parenthesized) {
+                return readsSharedState(parenthesized.getExpression(), true);
+            }
+            return false;
+        }
+        Boolean found = new TreeScanner<Boolean, Void>() {
+            @Override
+            public Boolean visitIdentifier(IdentifierTree node, Void unused) {
+                String name = node.getName().toString();
+                if (lookupLocal(name) != null) {
+                    return false;
+                }
+                if (currentStruct != null && currentStruct.fields.containsKey(name)) {
+                    return true;
+                }
+                Var global = globals.get(name);
+                return global != null && global.kind != VarKind.CONSTANT;
+            }
+
+            @Override
+            public Boolean visitArrayAccess(ArrayAccessTree node, Void unused) {
+                return true;
+            }
+
+            @Override
+            public Boolean visitMemberSelect(MemberSelectTree node, Void unused) {
+                // Array lengths cannot change
+                if (node.getIdentifier().contentEquals("length")) {
+                    return !(node.getExpression() instanceof IdentifierTree) && super.visitMemberSelect(node, unused);
+                }
+                // Integer.MAX_VALUE and the like are constants; anything else is a field
+                if (node.getExpression() instanceof IdentifierTree owner) {
+                    String name = owner.getName().toString();
+                    return lookupLocal(name) != null || globals.containsKey(name)
+                            || currentStruct != null && currentStruct.fields.containsKey(name);
+                }
+                return true;
+            }
+
+            @Override
+            public Boolean visitMethodInvocation(MethodInvocationTree node, Void unused) {
+                return scan(node.getArguments(), unused);
+            }
+
+            @Override
+            public Boolean reduce(Boolean a, Boolean b) {
+                return Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b);
+            }
+        }.scan(tree, null);
+        return Boolean.TRUE.equals(found);
+    }
+
+    // Whether evaluating the expression twice does the same as evaluating it once
+    private static boolean isPure(ExpressionTree tree) {
+        if (tree instanceof IdentifierTree || tree instanceof LiteralTree) {
+            return true;
+        }
+        if (tree instanceof ParenthesizedTree parenthesized) {
+            return isPure(parenthesized.getExpression());
+        }
+        if (tree instanceof MemberSelectTree select) {
+            return isPure(select.getExpression());
+        }
+        if (tree instanceof ArrayAccessTree access) {
+            return isPure(access.getExpression()) && isPure(access.getIndex());
+        }
+        if (tree instanceof BinaryTree binary) {
+            return isPure(binary.getLeftOperand()) && isPure(binary.getRightOperand());
+        }
+        if (tree instanceof UnaryTree unary) {
+            return !isIncrement(unary.getKind()) && isPure(unary.getExpression());
+        }
+        return false;
+    }
+
+    private static boolean isText(Expr expr) {
+        return expr.parts != null || expr.type.isString() && expr.type.dims == 0;
+    }
+
+    // Literals, other constants and operators over them; valid as a C static initializer
+    private boolean isConstant(ExpressionTree tree) {
+        if (tree instanceof LiteralTree) {
+            return tree.getKind() != Tree.Kind.NULL_LITERAL;
+        }
+        if (tree instanceof IdentifierTree identifier) {
+            Var var = globals.get(identifier.getName().toString());
+            return var != null && var.kind == VarKind.CONSTANT;
+        }
+        if (tree instanceof ParenthesizedTree parenthesized) {
+            return isConstant(parenthesized.getExpression());
+        }
+        if (tree instanceof UnaryTree unary) {
+            return isConstant(unary.getExpression()) && (tree.getKind() == Tree.Kind.UNARY_MINUS
+                    || tree.getKind() == Tree.Kind.UNARY_PLUS || tree.getKind() == Tree.Kind.BITWISE_COMPLEMENT
+                    || tree.getKind() == Tree.Kind.LOGICAL_COMPLEMENT);
+        }
+        if (tree instanceof BinaryTree binary) {
+            return isConstant(binary.getLeftOperand()) && isConstant(binary.getRightOperand());
+        }
+        if (tree instanceof TypeCastTree cast) {
+            return isConstant(cast.getExpression());
+        }
+        if (tree instanceof ConditionalExpressionTree conditional) {
+            return isConstant(conditional.getCondition()) && isConstant(conditional.getTrueExpression())
+                    && isConstant(conditional.getFalseExpression());
+        }
+        if (tree instanceof MemberSelectTree select && select.getExpression() instanceof IdentifierTree owner) {
+            String name = owner.getName().toString();
+            Var var = globals.get(select.getIdentifier().toString());
+            return name.equals("Math") || name.equals("Integer") || name.equals("Long")
+                    || name.equals(programClass) && var != null && var.kind == VarKind.CONSTANT;
+        }
+        return false;
+    }
+
+    // ----- types and names -----
+
+    private Type type(Tree tree) {
+        if (tree instanceof PrimitiveTypeTree primitive) {
+            return switch (primitive.getPrimitiveTypeKind()) {
+                case INT -> Type.INT;
+                case LONG -> Type.LONG;
+                case SHORT -> Type.SHORT;
+                case BYTE -> Type.BYTE;
+                case CHAR -> Type.CHAR;
+                case BOOLEAN -> Type.BOOLEAN;
+                case FLOAT -> Type.FLOAT;
+                case DOUBLE -> Type.DOUBLE;
+                case VOID -> Type.VOID;
+                default -> throw unsupported("type " + tree);
+            };
+        }
+        if (tree instanceof ArrayTypeTree array) {
+            return type(array.getType()).arrayOf();
+        }
+        if (tree instanceof IdentifierTree identifier) {
+            String name = identifier.getName().toString();
+            if (name.equals("String")) {
+                return Type.STRING;
+            }
+            if (structs.containsKey(name)) {
+                return Type.struct(name);
+            }
+        }
+        throw unsupported("type " + tree);
+    }
+
+    private String cType(Type type) {
+        if (type.isStruct()) {
+            return "struct " + type.base;
+        }
+        return switch (type.base) {
+            case "long" -> "long long";
+            case "byte" -> "signed char";
+            case "boolean" -> {
+                includes.add("stdbool.h");
+                yield "bool";
+            }
+            case "String" -> "const char *";
+            default -> type.base;
+        };
+    }
+
+    private String declarator(Type type, String name) {
+        String base = cType(type);
+        return base.endsWith("*") ? base + name : base + " " + name;
+    }
+
+    private void checkName(String name) {
+        if (C_RESERVED.contains(name) || name.indexOf('$') >= 0
+                || name.startsWith("_") && name.length() > 1 && (Character.isUpperCase(name.charAt(1)) || name.charAt(1) == '_')) {
+            throw unsupported("identifier " + name + ", which is reserved in C");
+        }
+    }
+
+    private String freshName(String base) {
+        String name = base;
+        for (int i = 2; usedNames.contains(name) || C_RESERVED.contains(name); i++) {
+            name = base + i;
+        }
+        usedNames.add(name);
+        return name;
+    }
+
+    // Generated locals only have to be unique within their function
+    private String freshLocalName(MethodInfo method, String base) {
+        String name = base;
+        for (int i = 2; usedNames.contains(name) || C_RESERVED.contains(name) || method.localNames.contains(name); i++) {
+            name = base + i;
+        }
+        method.localNames.add(name);
+        return name;
+    }
+
+    private Var lookupLocal(String name) {
+        for (Map<String, Var> scope : scopes) {
+            if (scope.containsKey(name)) {
+                return scope.get(name);
+            }
+        }
+        return null;
+    }
+
+    private String sourceText(Tree tree) {
+        long start = positions.getStartPosition(unit, tree);
+        long end = positions.getEndPosition(unit, tree);
+        return source.substring((int) start, (int) end);
+    }
+
+    private void line(String text) {
+        out.append("    ".repeat(indent)).append(text).append('\n');
+    }
+
+    private static void appendSection(StringBuilder result, StringBuilder section) {
+        if (section.length() > 0) {
+            result.append(section).append('\n');
+        }
+    }
+
+    private static String joinCodes(List<Expr> values) {
+        List<String> codes = new ArrayList<>();
+        for (Expr value : values) {
+            codes.add(value.code);
+        }
+        return String.join(", ", codes);
+    }
+
+    private static boolean isSimple(String code) {
+        return code.matches("[A-Za-z_][A-Za-z0-9_]*|[0-9][0-9A-Za-z.]*|'[^']*'|\"[^\"]*\"");
+    }
+
+    private static String parenthesize(String code) {
+        return isSimple(code) || isParenthesized(code) ? code : "(" + code + ")";
+    }
+
+    // Whether the opening parenthesis is closed by the last character, as in "(a + b)" but not "(a) + (b)"
+    private static boolean isParenthesized(String code) {
+        if (!code.startsWith("(")) {
+            return false;
+        }
+        int depth = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '"' || c == '\'') {
+                // Skip a literal so that parentheses inside it do not count
+                for (i++; i < code.length() && code.charAt(i) != c; i++) {
+                    if (code.charAt(i) == '\\') {
+                        i++;
+                    }
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i == code.length() - 1;
+            }
+        }
+        return false;
+    }
+
+    static String escape(String text, char quote) {
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\n' -> escaped.append("\\n");
+                case '\t' -> escaped.append("\\t");
+                case '\r' -> escaped.append("\\r");
+                case '\\' -> escaped.append("\\\\");
+                default -> {
+                    if (c == quote) {
+                        escaped.append('\\').append(c);
+                    } else if (c < 0x20 || c == 0x7F) {
+                        escaped.append(String.format("\\%03o", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static UnsupportedConstructException unsupported(String what) {
+        return new UnsupportedConstructException("Java to C: " + what);
+    }
+
+    // ----- model -----
+
+    private enum VarKind { LOCAL, PARAM, GLOBAL, CONSTANT }
+
+    private static final class Var {
+        final String name;
+        final Type type;
+        final VarKind kind;
+        String lengthName;
+
+        Var(String name, Type type, VarKind kind) {
+            this.name = name;
+            this.type = type;
+            this.kind = kind;
+        }
+    }
+
+    private static final class Expr {
+        final String code;
+        final Type type;
+        // Variable the expression names or indexes into, for lengths and pass-by-pointer
+        Var var;
+        // Pieces of a String concatenation, which only printing accepts
+        List<Expr> parts;
+        // Value of a String or char literal
+        String literal;
+
+        Expr(String code, Type type) {
+            this.code = code;
+            this.type = type;
+        }
+    }
+
+    private static class FunctionInfo {
+        String cName;
+        String signature;
+        Type returnType;
+        final List<Type> paramTypes = new ArrayList<>();
+        final List<String> paramNames = new ArrayList<>();
+        StructInfo struct;
+        int index;
+    }
+
+    private static final class MethodInfo extends FunctionInfo {
+        MethodTree tree;
+        boolean isMain;
+        final List<String> lengthNames = new ArrayList<>();
+        final Set<String> localNames = new HashSet<>();
+    }
+
+    private static final class StructInfo {
+        final String name;
+        final Map<String, Type> fields = new LinkedHashMap<>();
+        final Map<String, ExpressionTree> initializers = new LinkedHashMap<>();
+        MethodTree constructor;
+        FunctionInfo factory;
+
+        StructInfo(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Type {
+        static final Type INT = new Type("int", 0);
+        static final Type LONG = new Type("long", 0);
+        static final Type SHORT = new Type("short", 0);
+        static final Type BYTE = new Type("byte", 0);
+        static final Type CHAR = new Type("char", 0);
+        static final Type BOOLEAN = new Type("boolean", 0);
+        static final Type FLOAT = new Type("float", 0);
+        static final Type DOUBLE = new Type("double", 0);
+        static final Type VOID = new Type("void", 0);
+        static final Type STRING = new Type("String", 0);
+
+        private static final List<String> NUMERIC = List.of("byte", "short", "char", "int", "long", "float", "double");
+
+        final String base;
+        final int dims;
+
+        private Type(String base, int dims) {
+            this.base = base;
+            this.dims = dims;
+        }
+
+        static Type struct(String name) {
+            return new Type(name, 0);
+        }
+
+        Type arrayOf() {
+            return new Type(base, dims + 1);
+        }
+
+        Type element() {
+            return new Type(base, dims - 1);
+        }
+
+        boolean isPrimitive() {
+            return dims == 0 && (NUMERIC.contains(base) || base.equals("boolean"));
+        }
+
+        boolean isNumeric() {
+            return dims == 0 && NUMERIC.contains(base);
+        }
+
+        boolean isIntegral() {
+            return isNumeric() && !isFloating();
+        }
+
+        boolean isFloating() {
+            return dims == 0 && (base.equals("float") || base.equals("double"));
+        }
+
+        boolean isString() {
+            return base.equals("String");
+        }
+
+        boolean isVoid() {
+            return base.equals("void");
+        }
+
+        boolean isStruct() {
+            return !NUMERIC.contains(base) && !base.equals("boolean") && !isString() && !isVoid();
+        }
+
+        // Binary numeric promotion
+        static Type promote(Type a, Type b) {
+            if (a.equals(DOUBLE) || b.equals(DOUBLE)) {
+                return DOUBLE;
+            }
+            if (a.equals(FLOAT) || b.equals(FLOAT)) {
+                return FLOAT;
+            }
+            if (a.equals(LONG) || b.equals(LONG)) {
+                return LONG;
+            }
+            return INT;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Type type && type.base.equals(base) && type.dims == dims;
+        }
+
+        @Override
+        public int hashCode() {
+            return base.hashCode() * 31 + dims;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.drdo.Source.Code.Translator.rules;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deterministic Java/C translation for simple programs: primitive arithmetic,
+ * control flow, arrays, static methods / functions, stdio printing and
+ * field-only classes / structs. Translating from the syntax tree takes
+ * microseconds, so it runs before the model and returns null for anything it
+ * cannot map exactly.
+ */
+@Component
+public class RuleBasedTranslator {
+
+    private final boolean enabled;
+    private final Counter translated;
+    private final Counter fallback;
+
+    public RuleBasedTranslator(@Value("${translation.rules.enabled:true}") boolean enabled,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.translated = Counter.builder("translation.rules")
+                .tag("outcome", "translated")
+                .description("Sources offered to the rule-based translator, by outcome")
+                .register(meterRegistry);
+        this.fallback = Counter.builder("translation.rules")
+                .tag("outcome", "fallback")
+                .description("Sources offered to the rule-based translator, by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Translate with rules, or return null when the source uses a construct
+     * outside the supported subset.
+     */
+    public String translate(String sourceCode, String sourceLanguage, String targetLanguage) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            String translatedCode;
+            if ("java".equalsIgnoreCase(sourceLanguage) && "c".equalsIgnoreCase(targetLanguage)) {
+                translatedCode = JavaToCTranslator.translate(sourceCode);
+            } else if ("c".equalsIgnoreCase(sourceLanguage) && "java".equalsIgnoreCase(targetLanguage)) {
+                translatedCode = CToJavaTranslator.translate(sourceCode);
+            } else {
+                return null;
+            }
+            translated.increment();
+            return translatedCode;
+        } catch (UnsupportedConstructException e) {
+            System.out.println("Rule-based translation not applicable: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // A translator bug must never fail the request; the model still gets it
+            System.out.println("Rule-based translation error: " + e);
+        }
+        fallback.increment();
+        return null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
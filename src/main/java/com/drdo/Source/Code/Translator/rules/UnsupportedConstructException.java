@@ -0,0 +1,9 @@
+package com.drdo.Source.Code.Translator.rules;
+
+// The source uses something outside the rule-based subset; the caller falls back to the model
+class UnsupportedConstructException extends RuntimeException {
+
+    UnsupportedConstructException(String message) {
+        super(message);
+    }
+}
@@ -1,29 +1,66 @@
 package com.drdo.Source.Code.Translator.service;
 
-
+import com.drdo.Source.Code.Translator.client.ClientIdentity;
+import com.drdo.Source.Code.Translator.client.ClientQuotas;
+import com.drdo.Source.Code.Translator.dto.AnthropicMessageResponse;
+import com.drdo.Source.Code.Translator.dto.AnthropicStreamEvent;
+import com.drdo.Source.Code.Translator.exception.TruncatedOutputException;
+import com.drdo.Source.Code.Translator.exception.UpstreamUnavailableException;
+import com.drdo.Source.Code.Translator.ratelimit.AnthropicRateLimiter;
+import com.drdo.Source.Code.Translator.resilience.UpstreamResilience;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 public class AnthropicService {
 
+    // Bump whenever the prompts change so cached translations are not reused
+    public static final String PROMPT_VERSION = "2";
+
+    private static final Duration STREAM_EVENT_GAP = Duration.ofSeconds(30);
+    private static final String MAX_TOKENS_STOP_REASON = "max_tokens";
+    private static final String SYSTEM_PROMPT_RESOURCE = "/prompts/translation-system.txt";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<AnthropicStreamEvent>> SSE_EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final AnthropicRateLimiter rateLimiter;
+    private final UpstreamResilience resilience;
+    private final ClientQuotas clientQuotas;
+    private final String systemPrompt;
+    private final Counter inputTokens;
+    private final Counter outputTokens;
+    private final Counter cacheCreationTokens;
+    private final Counter cacheReadTokens;
 
     @Value("${anthropic.api.key}")
     private String apiKey;
@@ -43,47 +80,224 @@ public class AnthropicService {
     @Value("${app.mock-mode:false}")
     private boolean mockMode;
 
-    public AnthropicService(WebClient webClient, ObjectMapper objectMapper) {
+    @Value("${anthropic.prompt-cache.enabled:true}")
+    private boolean promptCacheEnabled;
+
+    public AnthropicService(WebClient webClient, ObjectMapper objectMapper, AnthropicRateLimiter rateLimiter,
+                            UpstreamResilience resilience, ClientQuotas clientQuotas, MeterRegistry meterRegistry) {
         this.webClient = webClient;
         this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.resilience = resilience;
+        this.clientQuotas = clientQuotas;
+        this.systemPrompt = loadSystemPrompt();
+        this.inputTokens = tokenCounter(meterRegistry, "input");
+        this.outputTokens = tokenCounter(meterRegistry, "output");
+        this.cacheCreationTokens = tokenCounter(meterRegistry, "cache_creation");
+        this.cacheReadTokens = tokenCounter(meterRegistry, "cache_read");
+    }
+
+    public Mono<String> translateCode(String sourceCode, String sourceLanguage, String targetLanguage) {
+        return translateCode(sourceCode, sourceLanguage, targetLanguage, model, maxTokens);
     }
 
-    public String translateCode(String sourceCode, String sourceLanguage, String targetLanguage) {
+    // Translate with the given model and output budget instead of the configured defaults
+    public Mono<String> translateCode(String sourceCode, String sourceLanguage, String targetLanguage,
+                                      String model, int maxTokens) {
         if (mockMode || isApiKeyInvalid()) {
-            return getMockTranslation(sourceCode, sourceLanguage, targetLanguage);
+            return Mono.fromCallable(() -> getMockTranslation(sourceCode, sourceLanguage, targetLanguage));
         }
 
-        try {
-            String prompt = buildTranslationPrompt(sourceCode, sourceLanguage, targetLanguage);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("max_tokens", maxTokens);
-            requestBody.put("messages", List.of(
-                    Map.of("role", "user", "content", prompt)
-            ));
-
-            String response = webClient.post()
-                    .uri(apiUrl)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .header("x-api-key", apiKey)
-                    .header("anthropic-version", apiVersion)
-                    .body(BodyInserters.fromValue(requestBody))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
-                            .filter(throwable -> throwable instanceof WebClientResponseException &&
-                                    ((WebClientResponseException) throwable).getStatusCode() == HttpStatus.TOO_MANY_REQUESTS))
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
-
-            return extractTranslatedCode(response);
-
-        } catch (WebClientResponseException e) {
-            throw handleAnthropicError(e);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to translate code using Anthropic Claude: " + e.getMessage(), e);
+        return sendPrompt(() -> buildTranslationPrompt(sourceCode, sourceLanguage, targetLanguage), model, maxTokens);
+    }
+
+    /**
+     * Translate one piece of a split source file. {@code context} holds the shared
+     * declarations of the whole file; for a header fragment, {@code unitSignatures}
+     * lists the units translated separately so the header can declare them.
+     */
+    public Mono<String> translateFragment(String fragment, String context, List<String> unitSignatures,
+                                          boolean header, String sourceLanguage, String targetLanguage) {
+        return translateFragment(fragment, context, unitSignatures, header, sourceLanguage, targetLanguage,
+                model, maxTokens);
+    }
+
+    // Translate a fragment with the given model and output budget instead of the configured defaults
+    public Mono<String> translateFragment(String fragment, String context, List<String> unitSignatures,
+                                          boolean header, String sourceLanguage, String targetLanguage,
+                                          String model, int maxTokens) {
+        if (mockMode || isApiKeyInvalid()) {
+            return Mono.fromCallable(() -> getMockFragment(fragment, header, targetLanguage));
+        }
+
+        return sendPrompt(() -> buildFragmentPrompt(fragment, context, unitSignatures, header,
+                sourceLanguage, targetLanguage), model, maxTokens);
+    }
+
+    private Mono<String> sendPrompt(Supplier<Prompt> promptSupplier, String model, int maxTokens) {
+        return Mono.deferContextual(context -> {
+            ClientIdentity client = ClientIdentity.from(context);
+            Prompt prompt = promptSupplier.get();
+            Map<String, Object> requestBody = buildRequestBody(prompt, false, model, maxTokens);
+
+            long sourceTokens = AnthropicRateLimiter.estimateTokens(prompt.getUser());
+            resilience.onRequest();
+
+            // Each attempt (including retries) waits for the client's quota (bulk work only) and its turn at the
+            // rate limiter, then runs under the breaker and bulkhead with a timeout derived from observed
+            // latency and the size of the source
+            return resilience.ensureAvailable()
+                    .then(awaitQuota(client))
+                    .then(rateLimiter.acquire(AnthropicRateLimiter.estimateTokens(prompt.getUncachedText()), client))
+                    .then(resilience.execute(sourceTokens, timeout -> webClient.post()
+                            .uri(apiUrl)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header("x-api-key", apiKey)
+                            .header("anthropic-version", apiVersion)
+                            .body(BodyInserters.fromValue(requestBody))
+                            .retrieve()
+                            // Decoded straight from the response buffers into the typed message; the body is
+                            // never materialized as a String or JsonNode tree
+                            .toEntity(AnthropicMessageResponse.class)
+                            .timeout(timeout)))
+                    .doOnNext(entity -> rateLimiter.onResponse(entity.getHeaders()))
+                    .doOnError(WebClientResponseException.class, this::recordRateLimitHeaders)
+                    .map(HttpEntity::getBody)
+                    .doOnNext(body -> clientQuotas.record(client, body.getUsage()))
+                    .retryWhen(resilience.retrySpec());
+        })
+                .map(this::extractTranslatedCode)
+                .onErrorMap(this::mapTranslationError);
+    }
+
+    /**
+     * Stream the translation as text deltas using the Messages API streaming mode.
+     * The deltas are raw model output; callers should run the concatenated text
+     * through {@link #cleanTranslatedCode(String)} once the stream completes.
+     */
+    public Flux<String> streamTranslation(String sourceCode, String sourceLanguage, String targetLanguage) {
+        return streamTranslation(sourceCode, sourceLanguage, targetLanguage, model, maxTokens);
+    }
+
+    public Flux<String> streamTranslation(String sourceCode, String sourceLanguage, String targetLanguage,
+                                          String model, int maxTokens) {
+        if (mockMode || isApiKeyInvalid()) {
+            return Mono.fromCallable(() -> getMockTranslation(sourceCode, sourceLanguage, targetLanguage))
+                    .flatMapIterable(this::splitIntoLines);
+        }
+
+        return Flux.deferContextual(context -> {
+            ClientIdentity client = ClientIdentity.from(context);
+            Prompt prompt = buildTranslationPrompt(sourceCode, sourceLanguage, targetLanguage);
+            Map<String, Object> requestBody = buildRequestBody(prompt, true, model, maxTokens);
+
+            long sourceTokens = AnthropicRateLimiter.estimateTokens(prompt.getUser());
+
+            return resilience.ensureAvailable()
+                    .then(awaitQuota(client))
+                    .then(rateLimiter.acquire(AnthropicRateLimiter.estimateTokens(prompt.getUncachedText()), client))
+                    .thenMany(resilience.executeMany(sourceTokens, false, firstEventTimeout -> webClient.post()
+                            .uri(apiUrl)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header("x-api-key", apiKey)
+                            .header("anthropic-version", apiVersion)
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .body(BodyInserters.fromValue(requestBody))
+                            .exchangeToFlux(response -> {
+                                rateLimiter.onResponse(response.headers().asHttpHeaders());
+                                if (response.statusCode().isError()) {
+                                    return response.<ServerSentEvent<AnthropicStreamEvent>>createError().flux();
+                                }
+                                return response.bodyToFlux(SSE_EVENT_TYPE);
+                            })
+                            // The first event gets the adaptive timeout, later ones a gap timeout, so long
+                            // outputs are not cut off
+                            .timeout(Mono.delay(firstEventTimeout), event -> Mono.delay(STREAM_EVENT_GAP))))
+                    .doOnError(WebClientResponseException.class, error -> {
+                        if (error.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                            rateLimiter.onThrottled(error.getHeaders());
+                        }
+                    })
+                    .concatMap(event -> Mono.justOrEmpty(extractStreamDelta(event, client)));
+        })
+                .onErrorMap(this::mapTranslationError);
+    }
+
+    // Interactive callers are admitted up front by ClientInterceptor; bulk work pauses until the quota resets
+    private Mono<Void> awaitQuota(ClientIdentity client) {
+        return client.getPriority() == ClientIdentity.Priority.BULK
+                ? clientQuotas.awaitAvailable(client.getClientId())
+                : Mono.empty();
+    }
+
+    private String extractStreamDelta(ServerSentEvent<AnthropicStreamEvent> event, ClientIdentity client) {
+        String type = event.event();
+        AnthropicStreamEvent data = event.data();
+        if ("error".equals(type)) {
+            String message = data != null && data.getError() != null ? data.getError().getMessage() : null;
+            throw new RuntimeException("Anthropic streaming error: " + message);
+        }
+        if (data == null) {
+            return null;
+        }
+
+        // Input and cache usage arrive with message_start, output usage with message_delta
+        if ("message_start".equals(type)) {
+            if (data.getMessage() != null) {
+                recordUsage(data.getMessage().getUsage(), true, false);
+                clientQuotas.record(client, data.getMessage().getUsage(), true, false);
+            }
+            return null;
+        }
+        if ("message_delta".equals(type)) {
+            recordUsage(data.getUsage(), false, true);
+            clientQuotas.record(client, data.getUsage(), false, true);
+            // Ends the stream with an error, so the partial output is never completed or cached
+            checkStopReason(data.getDelta() != null ? data.getDelta().getStopReason() : null);
+            return null;
+        }
+        if ("content_block_delta".equals(type) && data.getDelta() != null
+                && "text_delta".equals(data.getDelta().getType())) {
+            return data.getDelta().getText();
+        }
+        return null;
+    }
+
+    private List<String> splitIntoLines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines.add(text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            lines.add(text.substring(start));
         }
+        return lines;
+    }
+
+    private void recordRateLimitHeaders(WebClientResponseException e) {
+        if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+            rateLimiter.onThrottled(e.getHeaders());
+        } else {
+            rateLimiter.onResponse(e.getHeaders());
+        }
+    }
+
+    private Throwable mapTranslationError(Throwable e) {
+        Throwable cause = Exceptions.unwrap(e);
+        if (Exceptions.isRetryExhausted(e) && e.getCause() != null) {
+            cause = e.getCause();
+        }
+        if (cause instanceof UpstreamUnavailableException || cause instanceof TruncatedOutputException) {
+            return cause;
+        }
+        if (cause instanceof WebClientResponseException) {
+            return handleAnthropicError((WebClientResponseException) cause);
+        }
+        return new RuntimeException("Failed to translate code using Anthropic Claude: " + cause.getMessage(), cause);
     }
 
     private boolean isApiKeyInvalid() {
@@ -210,6 +424,15 @@ public class AnthropicService {
         return javaCode.toString();
     }
 
+    private String getMockFragment(String fragment, boolean header, String targetLanguage) {
+        if (header) {
+            return "c".equalsIgnoreCase(targetLanguage)
+                    ? "#include <stdio.h>\n#include <stdlib.h>\n#include <string.h>"
+                    : "// Mock translation of shared declarations";
+        }
+        return "/*\n * Mock translation of:\n * " + fragment.replace("*/", "* /").replace("\n", "\n * ") + "\n */";
+    }
+
     private String extractPrintMessage(String line) {
         int start = line.indexOf("\"");
         int end = line.lastIndexOf("\"");
@@ -230,54 +453,178 @@ public class AnthropicService {
         return "\"Hello World\"";
     }
 
-    private String buildTranslationPrompt(String sourceCode, String sourceLanguage, String targetLanguage) {
-        return String.format(
-                "You are an expert programmer specializing in code translation between Java and C. " +
-                        "Translate the following %s code to %s while maintaining the same functionality and logic. " +
-                        "Focus on:\n" +
-                        "1. Maintaining equivalent functionality\n" +
-                        "2. Using appropriate language-specific syntax and conventions\n" +
-                        "3. Handling data types and memory management correctly\n" +
-                        "4. Preserving the original algorithm and logic flow\n" +
-                        "5. Adding necessary includes/imports for the target language\n\n" +
-                        "Return only the translated code without any explanations or markdown formatting.\n\n" +
-                        "Source %s code:\n%s",
-                sourceLanguage.toUpperCase(),
-                targetLanguage.toUpperCase(),
-                sourceLanguage.toUpperCase(),
-                sourceCode
-        );
-    }
-
-    private String extractTranslatedCode(String response) {
-        try {
-            JsonNode jsonNode = objectMapper.readTree(response);
-            JsonNode content = jsonNode.get("content");
-
-            if (content != null && content.isArray() && content.size() > 0) {
-                JsonNode firstContent = content.get(0);
-                JsonNode text = firstContent.get("text");
-                if (text != null) {
-                    return cleanTranslatedCode(text.asText());
+    private Prompt buildTranslationPrompt(String sourceCode, String sourceLanguage, String targetLanguage) {
+        String instruction = String.format("Translate the %s code in the user message to %s.",
+                sourceLanguage.toUpperCase(), targetLanguage.toUpperCase());
+        return new Prompt(List.of(systemBlock(systemPrompt, true), systemBlock(instruction, false)), sourceCode);
+    }
+
+    private Prompt buildFragmentPrompt(String fragment, String context, List<String> unitSignatures,
+                                       boolean header, String sourceLanguage, String targetLanguage) {
+        String source = sourceLanguage.toUpperCase();
+        String target = targetLanguage.toUpperCase();
+        boolean toJava = "java".equalsIgnoreCase(targetLanguage);
+
+        StringBuilder instruction = new StringBuilder();
+        instruction.append(String.format("A large %s file is being translated to %s in pieces that are translated " +
+                "independently and concatenated in their original order.\n\n", source, target));
+
+        if (header) {
+            instruction.append(String.format("Translate the shared %s declarations in the user message to %s.\n",
+                    source, target));
+            if (toJava) {
+                instruction.append("Output import statements first, then static fields, constants and nested static " +
+                        "classes. Do not output an enclosing class declaration and do not output methods.\n");
+            } else {
+                instruction.append("Output #include lines, #define constants, struct/typedef definitions and global " +
+                        "variables. Do not output function bodies.\n");
+                if (!unitSignatures.isEmpty()) {
+                    instruction.append("Also declare a C prototype for the translation of each of these members:\n");
+                    unitSignatures.forEach(signature -> instruction.append("- ").append(signature).append("\n"));
+                }
+            }
+        } else {
+            instruction.append(String.format("Translate only the %s code in the user message to %s.\n", source, target));
+            if (toJava) {
+                instruction.append("Output only static Java methods (and nested static classes if needed), without " +
+                        "an enclosing class and without import statements.\n");
+            } else {
+                instruction.append("Output only the C function definitions, without #include lines or shared " +
+                        "declarations.\n");
+            }
+            instruction.append(String.format("\nShared declarations of the file, for reference only (they are " +
+                    "translated separately, do not repeat them):\n%s\n", context));
+        }
+
+        // Every unit of a file shares the same instructions and context, so they are cached as well
+        return new Prompt(List.of(systemBlock(systemPrompt, true), systemBlock(instruction.toString(), !header)),
+                fragment);
+    }
+
+    private Map<String, Object> systemBlock(String text, boolean cacheBreakpoint) {
+        Map<String, Object> block = new HashMap<>();
+        block.put("type", "text");
+        block.put("text", text);
+        if (cacheBreakpoint && promptCacheEnabled) {
+            block.put("cache_control", Map.of("type", "ephemeral"));
+        }
+        return block;
+    }
+
+    private Map<String, Object> buildRequestBody(Prompt prompt, boolean stream, String model, int maxTokens) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("max_tokens", maxTokens);
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        requestBody.put("system", prompt.getSystem());
+        requestBody.put("messages", List.of(
+                Map.of("role", "user", "content", prompt.getUser())
+        ));
+        return requestBody;
+    }
+
+    String extractTranslatedCode(AnthropicMessageResponse response) {
+        recordUsage(response.getUsage(), true, true);
+        checkStopReason(response.getStopReason());
+
+        List<AnthropicMessageResponse.ContentBlock> content = response.getContent();
+        if (content != null) {
+            for (AnthropicMessageResponse.ContentBlock block : content) {
+                if (block.getText() != null) {
+                    return cleanTranslatedCode(block.getText());
                 }
             }
+        }
+        throw new RuntimeException("Failed to parse Anthropic response: Invalid response format from Anthropic API" +
+                (response.getStopReason() != null ? " (stop_reason " + response.getStopReason() + ")" : ""));
+    }
 
-            throw new RuntimeException("Invalid response format from Anthropic API");
+    private static void checkStopReason(String stopReason) {
+        if (MAX_TOKENS_STOP_REASON.equals(stopReason)) {
+            throw new TruncatedOutputException("Translation was cut off at the output token limit "
+                    + "(stop_reason max_tokens); the source may be too long to translate in one request");
+        }
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse Anthropic response: " + e.getMessage(), e);
+    private void recordUsage(AnthropicMessageResponse.Usage usage, boolean input, boolean output) {
+        if (usage == null) {
+            return;
+        }
+        if (input) {
+            inputTokens.increment(usage.getInputTokens());
+            cacheCreationTokens.increment(usage.getCacheCreationInputTokens());
+            cacheReadTokens.increment(usage.getCacheReadInputTokens());
+        }
+        if (output) {
+            outputTokens.increment(usage.getOutputTokens());
         }
     }
 
-    private String cleanTranslatedCode(String code) {
-        // Remove markdown code blocks if present
-        code = code.replaceAll("```[a-zA-Z]*\\n?", "");
-        code = code.replaceAll("```", "");
+    private static Counter tokenCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("anthropic.tokens")
+                .description("Tokens reported in the usage block of Anthropic responses")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static String loadSystemPrompt() {
+        try (InputStream in = AnthropicService.class.getResourceAsStream(SYSTEM_PROMPT_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing system prompt resource " + SYSTEM_PROMPT_RESOURCE);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String cleanTranslatedCode(String code) {
+        int fence = code.indexOf("```");
+        if (fence < 0) {
+            return code.trim();
+        }
+
+        // Remove markdown fences (with an optional language tag and newline) in a single pass
+        StringBuilder cleaned = new StringBuilder(code.length());
+        int from = 0;
+        while (fence >= 0) {
+            cleaned.append(code, from, fence);
+            int end = fence + 3;
+            while (end < code.length() && isAsciiLetter(code.charAt(end))) {
+                end++;
+            }
+            if (end < code.length() && code.charAt(end) == '\n') {
+                end++;
+            }
+            from = end;
+            fence = code.indexOf("```", from);
+        }
+        cleaned.append(code, from, code.length());
 
         // Remove leading/trailing whitespace
-        code = code.trim();
+        int start = 0;
+        int end = cleaned.length();
+        while (start < end && cleaned.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && cleaned.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return cleaned.substring(start, end);
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
 
-        return code;
+    public String getModel() {
+        return model;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
     }
 
     public boolean isApiAvailable() {
@@ -293,4 +640,30 @@ public class AnthropicService {
             return "Anthropic API configured";
         }
     }
-}
\ No newline at end of file
+
+    // System blocks (the cached instruction prefix first) plus a user message that holds only source code
+    private final class Prompt {
+        private final List<Map<String, Object>> system;
+        private final String user;
+
+        Prompt(List<Map<String, Object>> system, String user) {
+            this.system = system;
+            this.user = user;
+        }
+
+        List<Map<String, Object>> getSystem() { return system; }
+
+        String getUser() { return user; }
+
+        // Cache reads do not count towards the input token rate limit, so only the rest is estimated
+        String getUncachedText() {
+            StringBuilder text = new StringBuilder(user);
+            for (Map<String, Object> block : system) {
+                if (!promptCacheEnabled || !block.containsKey("cache_control")) {
+                    text.append(block.get("text"));
+                }
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.dto.BatchTranslationItem;
+import com.drdo.Source.Code.Translator.dto.BatchTranslationResult;
+import com.drdo.Source.Code.Translator.dto.TranslationResponse;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Translates a batch of requests read incrementally from a JSON array or an
+ * NDJSON body. Items are translated concurrently (bounded by
+ * translation.batch.concurrency) and results are emitted in completion order,
+ * so a slow item never holds back the ones behind it.
+ */
+@Service
+public class BatchTranslationService {
+
+    private final TranslationService translationService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${translation.batch.concurrency:8}")
+    private int concurrency;
+
+    public BatchTranslationService(TranslationService translationService,
+                                   ObjectMapper objectMapper,
+                                   Validator validator) {
+        this.translationService = translationService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    public Flux<BatchTranslationResult> translate(InputStream body) {
+        // Items are only read as concurrency slots free up, so large bodies are never buffered whole
+        Flux<BatchTranslationItem> items = Flux.using(
+                        () -> objectMapper.readerFor(BatchTranslationItem.class)
+                                .<BatchTranslationItem>readValues(body),
+                        iterator -> Flux.fromIterable(() -> iterator),
+                        BatchTranslationService::closeQuietly)
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return items.index()
+                .map(indexed -> translateItem(
+                        indexed.getT2().getId() != null ? indexed.getT2().getId() : String.valueOf(indexed.getT1()),
+                        indexed.getT2()))
+                // Malformed input ends the batch with one error line; items already started still finish
+                .onErrorResume(e -> Flux.just(Mono.just(new BatchTranslationResult(null,
+                        failure(null, "Invalid batch input: " + e.getMessage())))))
+                .flatMap(Function.identity(), concurrency);
+    }
+
+    private Mono<BatchTranslationResult> translateItem(String id, BatchTranslationItem item) {
+        Set<ConstraintViolation<BatchTranslationItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+            return Mono.just(new BatchTranslationResult(id, failure(item, message)));
+        }
+
+        if (!translationService.isValidLanguage(item.getSourceLanguage()) ||
+                !translationService.isValidLanguage(item.getTargetLanguage())) {
+            return Mono.just(new BatchTranslationResult(id,
+                    failure(item, "Invalid language. Supported languages: java, c")));
+        }
+
+        return translationService.translateCode(item)
+                .map(response -> new BatchTranslationResult(id, response));
+    }
+
+    private static TranslationResponse failure(BatchTranslationItem item, String message) {
+        return new TranslationResponse(
+                item != null ? item.getSourceCode() : "",
+                "",
+                item != null ? item.getSourceLanguage() : null,
+                item != null ? item.getTargetLanguage() : null,
+                false,
+                message
+        );
+    }
+
+    private static void closeQuietly(MappingIterator<BatchTranslationItem> iterator) {
+        try {
+            iterator.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close batch input: " + e.getMessage());
+        }
+    }
+}
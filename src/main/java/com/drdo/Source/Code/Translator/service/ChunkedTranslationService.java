@@ -0,0 +1,166 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.chunking.SourceSplitter;
+import com.drdo.Source.Code.Translator.chunking.SourceUnit;
+import com.drdo.Source.Code.Translator.chunking.SplitSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates large sources by splitting them into units (Java members, C
+ * functions), translating the shared header and the units concurrently with
+ * bounded parallelism, and stitching the results back in source order.
+ */
+@Service
+public class ChunkedTranslationService {
+
+    static final String JAVA_CLASS_NAME = "TranslatedCode";
+
+    private final AnthropicService anthropicService;
+
+    @Value("${translation.split.enabled:true}")
+    private boolean enabled;
+
+    @Value("${translation.split.threshold-lines:200}")
+    private int thresholdLines;
+
+    @Value("${translation.split.target-unit-lines:150}")
+    private int targetUnitLines;
+
+    @Value("${translation.split.parallelism:4}")
+    private int parallelism;
+
+    public ChunkedTranslationService(AnthropicService anthropicService) {
+        this.anthropicService = anthropicService;
+    }
+
+    /**
+     * Return the split form of the source if it is large enough to benefit from
+     * parallel translation, or null to translate it with a single prompt.
+     */
+    public SplitSource splitIfLarge(String sourceCode, String sourceLanguage) {
+        if (!enabled || countLines(sourceCode) < thresholdLines) {
+            return null;
+        }
+        SplitSource split = SourceSplitter.split(sourceCode, sourceLanguage);
+        return split.getUnits().size() >= 2 ? split : null;
+    }
+
+    public Mono<String> translate(SplitSource split, String sourceLanguage, String targetLanguage) {
+        List<List<SourceUnit>> batches = batchUnits(split.getUnits());
+        List<String> signatures = split.getUnits().stream().map(SourceUnit::getSignature).toList();
+
+        Mono<String> header = anthropicService.translateFragment(
+                split.getHeader(), split.getHeader(), signatures, true, sourceLanguage, targetLanguage);
+
+        // flatMapSequential runs batches concurrently but emits them in source order
+        Mono<List<String>> bodies = Flux.fromIterable(batches)
+                .flatMapSequential(batch -> anthropicService.translateFragment(
+                        joinUnits(batch), split.getHeader(), List.of(), false,
+                        sourceLanguage, targetLanguage), parallelism)
+                .collectList();
+
+        return Mono.zip(header, bodies)
+                .map(result -> stitch(result.getT1(), result.getT2(), targetLanguage));
+    }
+
+    /**
+     * Group adjacent small units so a file of many tiny methods does not turn into
+     * one upstream call per method. Large units stay on their own.
+     */
+    List<List<SourceUnit>> batchUnits(List<SourceUnit> units) {
+        List<List<SourceUnit>> batches = new ArrayList<>();
+        List<SourceUnit> current = new ArrayList<>();
+        int currentLines = 0;
+
+        for (SourceUnit unit : units) {
+            if (!current.isEmpty() && currentLines + unit.getLineCount() > targetUnitLines) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentLines = 0;
+            }
+            current.add(unit);
+            currentLines += unit.getLineCount();
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    static String stitch(String header, List<String> bodies, String targetLanguage) {
+        if (!"java".equalsIgnoreCase(targetLanguage)) {
+            StringBuilder code = new StringBuilder(header.strip());
+            for (String body : bodies) {
+                code.append("\n\n").append(body.strip());
+            }
+            return code.append("\n").toString();
+        }
+
+        // Java needs an enclosing class: hoist imports, then wrap declarations and methods
+        StringBuilder imports = new StringBuilder();
+        StringBuilder members = new StringBuilder();
+        for (String line : header.strip().split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("import ") || trimmed.startsWith("package ")) {
+                if (trimmed.startsWith("import ")) {
+                    imports.append(trimmed).append("\n");
+                }
+            } else {
+                members.append(indent(line)).append("\n");
+            }
+        }
+        for (String body : bodies) {
+            members.append("\n");
+            for (String line : body.strip().split("\n")) {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("import ")) {
+                    if (imports.indexOf(trimmed) < 0) {
+                        imports.append(trimmed).append("\n");
+                    }
+                } else {
+                    members.append(indent(line)).append("\n");
+                }
+            }
+        }
+
+        StringBuilder code = new StringBuilder();
+        if (imports.length() > 0) {
+            code.append(imports).append("\n");
+        }
+        code.append("public class ").append(JAVA_CLASS_NAME).append(" {\n")
+                .append(members.toString().replaceAll("^\\s*\\n", ""))
+                .append("}\n");
+        return code.toString();
+    }
+
+    static String joinUnits(List<SourceUnit> batch) {
+        StringBuilder text = new StringBuilder();
+        for (SourceUnit unit : batch) {
+            if (text.length() > 0) {
+                text.append("\n\n");
+            }
+            text.append(unit.getText());
+        }
+        return text.toString();
+    }
+
+    private static String indent(String line) {
+        return line.isBlank() ? "" : "    " + line;
+    }
+
+    private static int countLines(String code) {
+        int lines = 1;
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,268 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.cache.DocumentMemory;
+import com.drdo.Source.Code.Translator.cache.DocumentTranslation;
+import com.drdo.Source.Code.Translator.cache.TranslationKey;
+import com.drdo.Source.Code.Translator.chunking.SourceSplitter;
+import com.drdo.Source.Code.Translator.chunking.SourceUnit;
+import com.drdo.Source.Code.Translator.chunking.SplitSource;
+import com.drdo.Source.Code.Translator.dto.TranslationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Diff-aware translation of documents that are resubmitted after edits. The
+ * source is split into a header and units (Java members, C functions); each
+ * piece is fingerprinted and only pieces whose fingerprint is not remembered
+ * for the document are sent upstream, packed into batches like a split
+ * translation and stitched the same way. A first submission, or one where
+ * most units changed, is translated whole in a single call; its output is
+ * split back into units to remember when the units line up one to one.
+ */
+@Service
+public class IncrementalTranslationService {
+
+    // Remembered translations covering several units are keyed by their unit fingerprints joined with this
+    private static final String KEY_SEPARATOR = ",";
+
+    private final RoutedTranslationService routedTranslationService;
+    private final ChunkedTranslationService chunkedTranslationService;
+    private final DocumentMemory documentMemory;
+    private final Counter reusedUnits;
+    private final Counter translatedUnits;
+
+    @Value("${translation.split.parallelism:4}")
+    private int parallelism;
+
+    public IncrementalTranslationService(RoutedTranslationService routedTranslationService,
+                                         ChunkedTranslationService chunkedTranslationService,
+                                         DocumentMemory documentMemory, MeterRegistry meterRegistry) {
+        this.routedTranslationService = routedTranslationService;
+        this.chunkedTranslationService = chunkedTranslationService;
+        this.documentMemory = documentMemory;
+        this.reusedUnits = Counter.builder("translation.incremental.units")
+                .description("Units of incremental translations, by whether they were reused or sent upstream")
+                .tag("result", "reused")
+                .register(meterRegistry);
+        this.translatedUnits = Counter.builder("translation.incremental.units")
+                .tag("result", "translated")
+                .register(meterRegistry);
+    }
+
+    public Mono<String> translate(TranslationRequest request) {
+        return Mono.defer(() -> {
+            String documentId = request.getDocumentId();
+            String sourceCode = request.getSourceCode();
+            String sourceLanguage = request.getSourceLanguage();
+            String targetLanguage = request.getTargetLanguage();
+
+            SplitSource split = SourceSplitter.split(sourceCode, sourceLanguage);
+            List<SourceUnit> units = split.getUnits();
+            if (units.isEmpty()) {
+                // Nothing to diff against
+                return routedTranslationService.translate(sourceCode, sourceLanguage, targetLanguage);
+            }
+
+            DocumentTranslation previous = documentMemory.get(documentId, sourceLanguage, targetLanguage);
+
+            // The header also declares the units (C prototypes), so it changes when their signatures do
+            List<String> signatures = units.stream().map(SourceUnit::getSignature).toList();
+            String headerFingerprint = fingerprint(split.getHeader() + "\n" + String.join("\n", signatures),
+                    sourceLanguage, targetLanguage);
+            boolean headerChanged = previous == null || !headerFingerprint.equals(previous.getHeaderFingerprint());
+
+            List<String> fingerprints = units.stream()
+                    .map(unit -> fingerprint(unit.getText(), sourceLanguage, targetLanguage))
+                    .toList();
+
+            // Remembered translations by the position of the first unit they cover
+            Map<Integer, String> reused = new TreeMap<>();
+            Map<String, String> remember = new HashMap<>();
+            boolean[] covered = new boolean[units.size()];
+            if (previous != null) {
+                for (Map.Entry<String, String> entry : previous.getTranslatedUnits().entrySet()) {
+                    List<Integer> positions = positions(entry.getKey(), fingerprints, covered);
+                    if (positions != null) {
+                        positions.forEach(i -> covered[i] = true);
+                        reused.put(positions.get(0), entry.getValue());
+                        remember.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            List<Integer> changed = new ArrayList<>();
+            for (int i = 0; i < units.size(); i++) {
+                if (!covered[i]) {
+                    changed.add(i);
+                }
+            }
+
+            System.out.println("Incremental translation of document " + documentId + ": " + changed.size() + " of " +
+                    units.size() + " units changed" + (headerChanged ? ", header changed" : ""));
+
+            if (previous == null || changed.size() * 2 > units.size()) {
+                translatedUnits.increment(units.size());
+                return routedTranslationService.translate(sourceCode, sourceLanguage, targetLanguage)
+                        .doOnNext(translatedCode -> rememberWhole(documentId, sourceLanguage, targetLanguage,
+                                headerFingerprint, translatedCode, units, fingerprints));
+            }
+            reusedUnits.increment(units.size() - changed.size());
+            translatedUnits.increment(changed.size());
+
+            Mono<String> header;
+            if (!headerChanged && previous.getTranslatedHeader() != null) {
+                header = Mono.just(previous.getTranslatedHeader());
+            } else if (split.getHeader().isBlank()) {
+                header = Mono.just("");
+            } else {
+                header = routedTranslationService.translateFragment(split.getHeader(), split.getHeader(), signatures,
+                        true, sourceLanguage, targetLanguage);
+            }
+
+            // Changed units are packed like a split translation; reused ones keep their place in between
+            List<SourceUnit> changedUnits = changed.stream().map(units::get).toList();
+            List<List<SourceUnit>> batches = chunkedTranslationService.batchUnits(changedUnits);
+            Mono<List<String>> translatedBatches = Flux.fromIterable(batches)
+                    .flatMapSequential(batch -> routedTranslationService.translateFragment(
+                            ChunkedTranslationService.joinUnits(batch), split.getHeader(), List.of(), false,
+                            sourceLanguage, targetLanguage), parallelism)
+                    .collectList();
+
+            return Mono.zip(header, translatedBatches).map(result -> {
+                Map<Integer, String> bodies = new TreeMap<>(reused);
+                int next = 0;
+                for (int b = 0; b < batches.size(); b++) {
+                    List<Integer> batchPositions = changed.subList(next, next + batches.get(b).size());
+                    next += batchPositions.size();
+                    String translated = result.getT2().get(b);
+                    List<String> pieces = batchPositions.size() == 1
+                            ? List.of(translated)
+                            : splitTranslation(translated, batches.get(b), targetLanguage, true);
+                    if (pieces != null) {
+                        for (int i = 0; i < pieces.size(); i++) {
+                            bodies.put(batchPositions.get(i), pieces.get(i));
+                            remember.put(fingerprints.get(batchPositions.get(i)), pieces.get(i));
+                        }
+                    } else {
+                        bodies.put(batchPositions.get(0), translated);
+                        remember.put(batchPositions.stream().map(fingerprints::get)
+                                .collect(Collectors.joining(KEY_SEPARATOR)), translated);
+                    }
+                }
+                documentMemory.put(documentId, sourceLanguage, targetLanguage,
+                        new DocumentTranslation(headerFingerprint, result.getT1(), remember));
+                return ChunkedTranslationService.stitch(result.getT1(), new ArrayList<>(bodies.values()),
+                        targetLanguage);
+            });
+        });
+    }
+
+    /**
+     * Positions of the units a remembered translation covers, or null when one of
+     * them is gone, changed or already covered by another remembered translation.
+     */
+    private static List<Integer> positions(String key, List<String> fingerprints, boolean[] covered) {
+        List<Integer> positions = new ArrayList<>();
+        for (String fingerprint : key.split(KEY_SEPARATOR)) {
+            int position = -1;
+            for (int i = 0; i < fingerprints.size(); i++) {
+                if (!covered[i] && !positions.contains(i) && fingerprints.get(i).equals(fingerprint)) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                return null;
+            }
+            positions.add(position);
+        }
+        positions.sort(null);
+        return positions;
+    }
+
+    // Remember a whole-document translation unit by unit, so the next edit can be sent on its own
+    private void rememberWhole(String documentId, String sourceLanguage, String targetLanguage,
+                               String headerFingerprint, String translatedCode,
+                               List<SourceUnit> units, List<String> fingerprints) {
+        Map<String, String> remember = new HashMap<>();
+        List<String> pieces = splitTranslation(translatedCode, units, targetLanguage, false);
+        if (pieces != null) {
+            for (int i = 0; i < pieces.size(); i++) {
+                remember.put(fingerprints.get(i), pieces.get(i));
+            }
+        }
+        // A translated Java header sits inside its class and cannot be stitched, so it is retranslated next time
+        String translatedHeader = pieces != null && !"java".equalsIgnoreCase(targetLanguage)
+                ? SourceSplitter.split(translatedCode, targetLanguage).getHeader()
+                : null;
+        documentMemory.put(documentId, sourceLanguage, targetLanguage,
+                new DocumentTranslation(translatedHeader != null ? headerFingerprint : null, translatedHeader,
+                        remember));
+    }
+
+    /**
+     * Cut a translation of several units back into one piece per unit, or return
+     * null when its units do not line up with the source units by count and name.
+     * Translated Java members come without their class, so {@code members} wraps
+     * them in one before splitting.
+     */
+    static List<String> splitTranslation(String translated, List<SourceUnit> units, String targetLanguage,
+                                         boolean members) {
+        boolean java = "java".equalsIgnoreCase(targetLanguage);
+        String code = java && members ? "class Members {\n" + translated + "\n}\n" : translated;
+        List<SourceUnit> translatedUnits = SourceSplitter.split(code, targetLanguage).getUnits();
+        if (translatedUnits.size() != units.size()) {
+            return null;
+        }
+
+        List<String> pieces = new ArrayList<>();
+        for (int i = 0; i < units.size(); i++) {
+            SourceUnit translatedUnit = translatedUnits.get(i);
+            if (!name(translatedUnit.getSignature()).equals(name(units.get(i).getSignature()))) {
+                return null;
+            }
+            pieces.add(java ? dedent(code, translatedUnit) : translatedUnit.getText());
+        }
+        return pieces;
+    }
+
+    // The declared name: the identifier before the parameter list, or the last word of a type declaration
+    private static String name(String signature) {
+        int paren = signature.indexOf('(');
+        String declaration = (paren >= 0 ? signature.substring(0, paren) : signature).trim();
+        String[] words = declaration.split("[\\s*]+");
+        return words.length > 0 ? words[words.length - 1] : "";
+    }
+
+    // Member text starts at its first character; remove the class indentation from the lines after it
+    private static String dedent(String code, SourceUnit unit) {
+        int start = code.indexOf(unit.getText());
+        int lineStart = code.lastIndexOf('\n', start - 1) + 1;
+        int indent = start - lineStart;
+        String[] lines = unit.getText().split("\n", -1);
+        StringBuilder text = new StringBuilder(lines[0]);
+        for (int i = 1; i < lines.length; i++) {
+            int strip = 0;
+            while (strip < indent && strip < lines[i].length() && lines[i].charAt(strip) == ' ') {
+                strip++;
+            }
+            text.append("\n").append(lines[i].substring(strip));
+        }
+        return text.toString();
+    }
+
+    private String fingerprint(String text, String sourceLanguage, String targetLanguage) {
+        return TranslationKey.of(text, sourceLanguage, targetLanguage,
+                routedTranslationService.getModelIdentity(), AnthropicService.PROMPT_VERSION);
+    }
+}
@@ -217,7 +217,7 @@ public class OCRService {
         }
     }
 
-    private String cleanExtractedText(String text) {
+    String cleanExtractedText(String text) {
         if (text == null) {
             return "";
         }
@@ -257,7 +257,7 @@ public class OCRService {
         return cleanedText.toString().trim();
     }
 
-    private double calculateConfidence(String extractedText) {
+    double calculateConfidence(String extractedText) {
         // Simple heuristic for confidence based on text characteristics
         if (extractedText == null || extractedText.trim().isEmpty()) {
             return 0.0;
@@ -0,0 +1,104 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.routing.ModelRoute;
+import com.drdo.Source.Code.Translator.routing.ModelRouter;
+import com.drdo.Source.Code.Translator.validation.ValidationLevel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * Whole-source translation through the {@link ModelRouter}: the router picks
+ * the model and output budget, and fast-model output that fails syntax
+ * validation is retranslated by the large model.
+ */
+@Service
+public class RoutedTranslationService {
+
+    private final AnthropicService anthropicService;
+    private final ModelRouter modelRouter;
+    private final SyntaxValidationService syntaxValidationService;
+    private final Scheduler validationScheduler;
+
+    public RoutedTranslationService(AnthropicService anthropicService,
+                                    ModelRouter modelRouter,
+                                    SyntaxValidationService syntaxValidationService,
+                                    @Qualifier("validationScheduler") Scheduler validationScheduler) {
+        this.anthropicService = anthropicService;
+        this.modelRouter = modelRouter;
+        this.syntaxValidationService = syntaxValidationService;
+        this.validationScheduler = validationScheduler;
+    }
+
+    public Mono<String> translate(String sourceCode, String sourceLanguage, String targetLanguage) {
+        return Mono.defer(() -> {
+            ModelRoute route = modelRouter.route(sourceCode, sourceLanguage, targetLanguage);
+            Mono<String> translation = translate(route, sourceCode, sourceLanguage, targetLanguage);
+            // Mock translations say nothing about the fast model
+            if (route.getTier() != ModelRoute.Tier.FAST || !anthropicService.isApiAvailable()) {
+                return translation;
+            }
+
+            return translation.flatMap(translatedCode -> Mono.fromCallable(
+                            () -> syntaxValidationService.validate(translatedCode, targetLanguage, ValidationLevel.PARSE))
+                    .subscribeOn(validationScheduler)
+                    .flatMap(validation -> {
+                        modelRouter.recordFastOutcome(sourceLanguage, targetLanguage, validation.isValid());
+                        if (validation.isValid()) {
+                            return Mono.just(translatedCode);
+                        }
+                        System.out.println("Fast model output failed validation (" + validation.getErrorMessage()
+                                + "), escalating to the large model");
+                        return translate(modelRouter.escalate(route), sourceCode, sourceLanguage, targetLanguage);
+                    }));
+        });
+    }
+
+    /**
+     * Translate one piece of a split source with the model the router picks for
+     * that piece. A fragment is not a complete program, so fast-model output
+     * cannot be syntax-checked here and is not escalated.
+     */
+    public Mono<String> translateFragment(String fragment, String context, List<String> unitSignatures,
+                                          boolean header, String sourceLanguage, String targetLanguage) {
+        return Mono.defer(() -> {
+            ModelRoute route = modelRouter.route(fragment, sourceLanguage, targetLanguage);
+            long start = System.nanoTime();
+            return anthropicService.translateFragment(fragment, context, unitSignatures, header,
+                            sourceLanguage, targetLanguage, route.getModel(), route.getMaxTokens())
+                    .doOnSuccess(translated -> modelRouter.recordLatency(route, System.nanoTime() - start));
+        });
+    }
+
+    // The models this service may translate with, for cache keys
+    public String getModelIdentity() {
+        return modelRouter.getIdentity();
+    }
+
+    /**
+     * Stream from the routed model. Deltas reach the caller as they arrive, so a
+     * streamed fast-model translation cannot be escalated afterwards.
+     */
+    public Flux<String> stream(String sourceCode, String sourceLanguage, String targetLanguage) {
+        return Flux.defer(() -> {
+            ModelRoute route = modelRouter.route(sourceCode, sourceLanguage, targetLanguage);
+            long start = System.nanoTime();
+            return anthropicService.streamTranslation(sourceCode, sourceLanguage, targetLanguage,
+                            route.getModel(), route.getMaxTokens())
+                    .doOnComplete(() -> modelRouter.recordLatency(route, System.nanoTime() - start));
+        });
+    }
+
+    private Mono<String> translate(ModelRoute route, String sourceCode, String sourceLanguage, String targetLanguage) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return anthropicService.translateCode(sourceCode, sourceLanguage, targetLanguage,
+                            route.getModel(), route.getMaxTokens())
+                    .doOnSuccess(translatedCode -> modelRouter.recordLatency(route, System.nanoTime() - start));
+        });
+    }
+}
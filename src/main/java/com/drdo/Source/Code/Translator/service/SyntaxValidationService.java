@@ -1,273 +1,86 @@
 package com.drdo.Source.Code.Translator.service;
 
+import com.drdo.Source.Code.Translator.cache.ValidationCache;
 import com.drdo.Source.Code.Translator.dto.SyntaxValidationResult;
+import com.drdo.Source.Code.Translator.validation.CParserValidator;
+import com.drdo.Source.Code.Translator.validation.CSyntaxValidator;
+import com.drdo.Source.Code.Translator.validation.JavaSyntaxValidator;
+import com.drdo.Source.Code.Translator.validation.ValidationLevel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.tools.*;
-import java.io.*;
-import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Collections;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 @Service
 public class SyntaxValidationService {
 
-    public SyntaxValidationResult validateJavaCode(String javaCode) {
-        try {
-            // Get Java compiler
-            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-            if (compiler == null) {
-                return new SyntaxValidationResult(false,
-                        "Java compiler not available. Make sure you're running with JDK, not JRE.");
-            }
-
-            // Extract class name from the code
-            String className = extractPublicClassName(javaCode);
-            if (className == null) {
-                // If no public class found, use a default name and make code non-public
-                className = "TempClass";
-                javaCode = makeClassNonPublic(javaCode);
-            }
-
-            // Create diagnostic collector
-            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-
-            // Get standard file manager
-            StandardJavaFileManager fileManager = compiler.getStandardFileManager(
-                    diagnostics, null, null);
-
-            // Create in-memory Java file object with correct class name
-            JavaFileObject javaFile = new InMemoryJavaFileObject(className, javaCode);
-            List<JavaFileObject> compilationUnits = Collections.singletonList(javaFile);
-
-            // Compile
-            JavaCompiler.CompilationTask task = compiler.getTask(
-                    null, fileManager, diagnostics, null, null, compilationUnits);
-
-            boolean success = task.call();
-
-            if (success) {
-                return new SyntaxValidationResult(true, "Java syntax is valid");
-            } else {
-                // Get first error
-                List<Diagnostic<? extends JavaFileObject>> diagnosticList = diagnostics.getDiagnostics();
-                if (!diagnosticList.isEmpty()) {
-                    Diagnostic<? extends JavaFileObject> firstError = diagnosticList.get(0);
-
-                    SyntaxValidationResult result = new SyntaxValidationResult(false,
-                            firstError.getMessage(null));
-                    result.setErrorLine((int) firstError.getLineNumber());
-                    result.setErrorColumn((int) firstError.getColumnNumber());
-                    return result;
-                }
-                return new SyntaxValidationResult(false, "Java syntax validation failed");
-            }
-
-        } catch (Exception e) {
-            return new SyntaxValidationResult(false,
-                    "Java syntax validation error: " + e.getMessage());
-        }
-    }
-
-    public SyntaxValidationResult validateCCode(String cCode) {
-        try {
-            // Create temporary file
-            Path tempDir = Files.createTempDirectory("c_syntax_check");
-            Path tempFile = tempDir.resolve("temp.c");
-
-            try {
-                // Write C code to temporary file
-                Files.write(tempFile, cCode.getBytes());
-
-                // Try to compile with gcc
-                ProcessBuilder pb = new ProcessBuilder("gcc", "-fsyntax-only",
-                        tempFile.toString());
-                pb.redirectErrorStream(true);
-
-                Process process = pb.start();
-
-                // Read output
-                StringBuilder output = new StringBuilder();
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(process.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        output.append(line).append("\n");
-                    }
-                }
-
-                int exitCode = process.waitFor();
-
-                if (exitCode == 0) {
-                    return new SyntaxValidationResult(true, "C syntax is valid");
-                } else {
-                    String errorOutput = output.toString();
-                    SyntaxValidationResult result = parseCCompilerError(errorOutput);
-                    return result;
-                }
-
-            } finally {
-                // Clean up temporary files
-                try {
-                    Files.deleteIfExists(tempFile);
-                    Files.deleteIfExists(tempDir);
-                } catch (IOException e) {
-                    // Ignore cleanup errors
-                }
-            }
-
-        } catch (IOException e) {
-            // GCC not available, try basic syntax checks
-            return performBasicCSyntaxCheck(cCode);
-        } catch (Exception e) {
-            return new SyntaxValidationResult(false,
-                    "C syntax validation error: " + e.getMessage());
+    private final JavaSyntaxValidator javaSyntaxValidator;
+    private final CSyntaxValidator cSyntaxValidator;
+    private final CParserValidator cParserValidator;
+    private final ValidationCache validationCache;
+    // "gcc" (in-process parser when gcc is missing) or "parser"
+    private final boolean cParserOnly;
+
+    public SyntaxValidationService(JavaSyntaxValidator javaSyntaxValidator, CSyntaxValidator cSyntaxValidator,
+                                   CParserValidator cParserValidator, ValidationCache validationCache,
+                                   @Value("${translation.validation.c.engine:gcc}") String cEngine) {
+        if (!cEngine.equals("gcc") && !cEngine.equals("parser")) {
+            throw new IllegalArgumentException(
+                    "translation.validation.c.engine must be 'gcc' or 'parser', not '" + cEngine + "'");
         }
+        this.javaSyntaxValidator = javaSyntaxValidator;
+        this.cSyntaxValidator = cSyntaxValidator;
+        this.cParserValidator = cParserValidator;
+        this.validationCache = validationCache;
+        this.cParserOnly = cEngine.equals("parser");
     }
 
     /**
-     * Extract the public class name from Java code
+     * Validate through the cache: the same code checked by the same validator
+     * gets the same verdict, so a repeat (a cached translation served again, a
+     * resubmitted source) runs no compiler.
      */
-    private String extractPublicClassName(String javaCode) {
-        // Pattern to match: public class ClassName
-        Pattern pattern = Pattern.compile("public\\s+class\\s+(\\w+)", Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(javaCode);
-
-        if (matcher.find()) {
-            return matcher.group(1);
+    public SyntaxValidationResult validate(String code, String language, ValidationLevel level) {
+        String validator = validator(language, level);
+        if (validator == null) {
+            return new SyntaxValidationResult(false, "Unsupported language for validation: " + language);
         }
 
-        // Also check for public interface, enum, etc.
-        Pattern interfacePattern = Pattern.compile("public\\s+interface\\s+(\\w+)", Pattern.MULTILINE);
-        Matcher interfaceMatcher = interfacePattern.matcher(javaCode);
-        if (interfaceMatcher.find()) {
-            return interfaceMatcher.group(1);
+        String key = ValidationCache.key(code, language, validator);
+        SyntaxValidationResult result = validationCache.get(key);
+        if (result != null) {
+            return result;
         }
-
-        Pattern enumPattern = Pattern.compile("public\\s+enum\\s+(\\w+)", Pattern.MULTILINE);
-        Matcher enumMatcher = enumPattern.matcher(javaCode);
-        if (enumMatcher.find()) {
-            return enumMatcher.group(1);
+        result = language.equalsIgnoreCase("java") ? validateJavaCode(code, level) : validateCCode(code);
+        // gcc may have turned out to be missing during this call, making it the parser's verdict
+        if (validator.equals(validator(language, level))) {
+            validationCache.put(key, result);
         }
-
-        return null; // No public class found
+        return result;
     }
 
-    /**
-     * Remove public modifier from class declarations to avoid filename issues
-     */
-    private String makeClassNonPublic(String javaCode) {
-        // Remove public from class declarations
-        javaCode = javaCode.replaceAll("public\\s+class\\s+", "class ");
-        javaCode = javaCode.replaceAll("public\\s+interface\\s+", "interface ");
-        javaCode = javaCode.replaceAll("public\\s+enum\\s+", "enum ");
-
-        return javaCode;
+    public SyntaxValidationResult validateJavaCode(String javaCode) {
+        return validateJavaCode(javaCode, ValidationLevel.ATTRIBUTE);
     }
 
-    private SyntaxValidationResult parseCCompilerError(String errorOutput) {
-        // Parse GCC error output to extract line number and error message
-        Pattern errorPattern = Pattern.compile("temp\\.c:(\\d+):(\\d+):\\s*error:\\s*(.+)");
-        Matcher matcher = errorPattern.matcher(errorOutput);
-
-        if (matcher.find()) {
-            int lineNumber = Integer.parseInt(matcher.group(1));
-            int columnNumber = Integer.parseInt(matcher.group(2));
-            String errorMessage = matcher.group(3);
-
-            SyntaxValidationResult result = new SyntaxValidationResult(false, errorMessage);
-            result.setErrorLine(lineNumber);
-            result.setErrorColumn(columnNumber);
-            return result;
-        }
-
-        // If we can't parse the specific error, return the full output
-        return new SyntaxValidationResult(false,
-                "C syntax errors found:\n" + errorOutput);
+    public SyntaxValidationResult validateJavaCode(String javaCode, ValidationLevel level) {
+        return javaSyntaxValidator.validate(javaCode, level);
     }
 
-    private SyntaxValidationResult performBasicCSyntaxCheck(String cCode) {
-        // Basic syntax checks when GCC is not available
-
-        // Check for balanced braces
-        int braceCount = 0;
-        int lineNumber = 1;
-
-        for (int i = 0; i < cCode.length(); i++) {
-            char c = cCode.charAt(i);
-
-            if (c == '\n') {
-                lineNumber++;
-            } else if (c == '{') {
-                braceCount++;
-            } else if (c == '}') {
-                braceCount--;
-                if (braceCount < 0) {
-                    SyntaxValidationResult result = new SyntaxValidationResult(false,
-                            "Unmatched closing brace");
-                    result.setErrorLine(lineNumber);
-                    return result;
-                }
-            }
-        }
-
-        if (braceCount != 0) {
-            return new SyntaxValidationResult(false,
-                    "Unmatched braces: " + Math.abs(braceCount) +
-                            (braceCount > 0 ? " opening" : " closing") + " brace(s)");
-        }
-
-        // Check for balanced parentheses
-        int parenCount = 0;
-        lineNumber = 1;
-
-        for (int i = 0; i < cCode.length(); i++) {
-            char c = cCode.charAt(i);
-
-            if (c == '\n') {
-                lineNumber++;
-            } else if (c == '(') {
-                parenCount++;
-            } else if (c == ')') {
-                parenCount--;
-                if (parenCount < 0) {
-                    SyntaxValidationResult result = new SyntaxValidationResult(false,
-                            "Unmatched closing parenthesis");
-                    result.setErrorLine(lineNumber);
-                    return result;
-                }
-            }
-        }
-
-        if (parenCount != 0) {
-            return new SyntaxValidationResult(false,
-                    "Unmatched parentheses: " + Math.abs(parenCount) +
-                            (parenCount > 0 ? " opening" : " closing") + " parenthesis(es)");
-        }
-
-        // If basic checks pass
-        return new SyntaxValidationResult(true,
-                "Basic C syntax checks passed (full validation requires GCC)");
+    public SyntaxValidationResult validateCCode(String cCode) {
+        SyntaxValidationResult result = cParserOnly ? null : cSyntaxValidator.validate(cCode);
+        // GCC not available (or not wanted), parse in process
+        return result != null ? result : cParserValidator.validate(cCode);
     }
 
-    // Inner class for in-memory Java file compilation
-    private static class InMemoryJavaFileObject extends SimpleJavaFileObject {
-        private final String code;
-
-        public InMemoryJavaFileObject(String className, String code) {
-            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension),
-                    Kind.SOURCE);
-            this.code = code;
-        }
-
-        @Override
-        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
-            return code;
+    // What checks this language at this level, or null if nothing does; gcc ignores the level
+    private String validator(String language, ValidationLevel level) {
+        switch (language.toLowerCase()) {
+            case "java":
+                return "javac " + Runtime.version() + " " + level.getName();
+            case "c":
+                String gccVersion = cParserOnly ? null : cSyntaxValidator.getVersion();
+                return gccVersion != null ? gccVersion : "parser " + CParserValidator.VERSION;
+            default:
+                return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,25 @@
 package com.drdo.Source.Code.Translator.service;
 
+import com.drdo.Source.Code.Translator.cache.InFlightTranslations;
+import com.drdo.Source.Code.Translator.cache.TranslationCache;
+import com.drdo.Source.Code.Translator.cache.TranslationKey;
+import com.drdo.Source.Code.Translator.chunking.SplitSource;
 import com.drdo.Source.Code.Translator.dto.*;
+import com.drdo.Source.Code.Translator.rules.RuleBasedTranslator;
+import com.drdo.Source.Code.Translator.validation.ValidationLevel;
+import com.drdo.Source.Code.Translator.store.TranslationStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class TranslationService {
@@ -11,163 +27,377 @@ public class TranslationService {
     private final AnthropicService anthropicService;
     private final OCRService ocrService;
     private final SyntaxValidationService syntaxValidationService;
+    private final Scheduler validationScheduler;
+    private final Scheduler ocrScheduler;
+    private final Scheduler storeScheduler;
+    private final TranslationCache translationCache;
+    private final TranslationStore translationStore;
+    private final InFlightTranslations inFlightTranslations;
+    private final ChunkedTranslationService chunkedTranslationService;
+    private final IncrementalTranslationService incrementalTranslationService;
+    private final RuleBasedTranslator ruleBasedTranslator;
+    private final RoutedTranslationService routedTranslationService;
 
     @Autowired
     public TranslationService(AnthropicService anthropicService,
                               OCRService ocrService,
-                              SyntaxValidationService syntaxValidationService) {
+                              SyntaxValidationService syntaxValidationService,
+                              TranslationCache translationCache,
+                              TranslationStore translationStore,
+                              InFlightTranslations inFlightTranslations,
+                              ChunkedTranslationService chunkedTranslationService,
+                              IncrementalTranslationService incrementalTranslationService,
+                              RuleBasedTranslator ruleBasedTranslator,
+                              RoutedTranslationService routedTranslationService,
+                              @Qualifier("validationScheduler") Scheduler validationScheduler,
+                              @Qualifier("ocrScheduler") Scheduler ocrScheduler,
+                              @Qualifier("storeScheduler") Scheduler storeScheduler) {
         this.anthropicService = anthropicService;
         this.ocrService = ocrService;
         this.syntaxValidationService = syntaxValidationService;
+        this.validationScheduler = validationScheduler;
+        this.ocrScheduler = ocrScheduler;
+        this.storeScheduler = storeScheduler;
+        this.translationCache = translationCache;
+        this.translationStore = translationStore;
+        this.inFlightTranslations = inFlightTranslations;
+        this.chunkedTranslationService = chunkedTranslationService;
+        this.incrementalTranslationService = incrementalTranslationService;
+        this.ruleBasedTranslator = ruleBasedTranslator;
+        this.routedTranslationService = routedTranslationService;
     }
 
-    public TranslationResponse translateCode(TranslationRequest request) {
-        try {
-            // Validate input
-            if (request.getSourceLanguage().equals(request.getTargetLanguage())) {
-                return new TranslationResponse(
-                        request.getSourceCode(),
+    public Mono<TranslationResponse> translateCode(TranslationRequest request) {
+        // Validate input
+        if (request.getSourceLanguage().equals(request.getTargetLanguage())) {
+            return Mono.just(new TranslationResponse(
+                    request.getSourceCode(),
+                    request.getSourceCode(),
+                    request.getSourceLanguage(),
+                    request.getTargetLanguage(),
+                    false,
+                    "Source and target languages cannot be the same"
+            ));
+        }
+
+        // Validate source code syntax if requested
+        Mono<SyntaxValidationResult> sourceCheck = request.isValidateSyntax()
+                ? validateSyntax(request.getSourceCode(), request.getSourceLanguage(), request)
+                : Mono.just(new SyntaxValidationResult(true, "Syntax validation skipped"));
+
+        return sourceCheck
+                .flatMap(sourceValidation -> {
+                    if (!sourceValidation.isValid()) {
+                        TranslationResponse response = new TranslationResponse(
+                                request.getSourceCode(),
+                                "",
+                                request.getSourceLanguage(),
+                                request.getTargetLanguage(),
+                                false,
+                                "Source code syntax validation failed: " + sourceValidation.getErrorMessage()
+                        );
+                        response.setSyntaxValidation(sourceValidation);
+                        return Mono.just(response);
+                    }
+
+                    // Simple programs are translated by rules; everything else goes to the model
+                    return translateWithRules(request)
+                            .flatMap(translatedCode -> buildSuccessResponse(request, translatedCode, false, "rules"))
+                            .switchIfEmpty(Mono.defer(() -> translateWithModel(request)));
+                })
+                .onErrorResume(e -> Mono.just(new TranslationResponse(
                         request.getSourceCode(),
+                        "",
                         request.getSourceLanguage(),
                         request.getTargetLanguage(),
                         false,
-                        "Source and target languages cannot be the same"
-                );
-            }
+                        "Translation failed: " + e.getMessage()
+                )));
+    }
+
+    private Mono<TranslationResponse> translateWithModel(TranslationRequest request) {
+        // Documents are diffed against their previous submission instead of using the whole-file cache
+        if (request.getDocumentId() != null && !request.getDocumentId().isBlank()) {
+            return inFlightTranslations.execute(request.getDocumentId() + ":" + translationKey(request),
+                            () -> incrementalTranslationService.translate(request))
+                    .flatMap(translatedCode -> buildSuccessResponse(request, translatedCode, false, "llm"));
+        }
+
+        // Serve repeat translations from the cache or the persistent store
+        String cacheKey = translationKey(request);
+        String cachedCode = lookupTranslation(cacheKey);
+        if (cachedCode != null) {
+            return buildSuccessResponse(request, cachedCode, true, "llm");
+        }
+
+        // Perform translation using Anthropic Claude; identical concurrent requests share one call
+        return inFlightTranslations.execute(cacheKey, () -> translateSource(request)
+                        .doOnNext(translatedCode -> cacheTranslation(cacheKey, translatedCode)))
+                .flatMap(translatedCode -> buildSuccessResponse(request, translatedCode, false, "llm"));
+    }
+
+    // Empty when the rules do not cover the source; the translation is cheap enough not to cache
+    private Mono<String> translateWithRules(TranslationRequest request) {
+        if (!ruleBasedTranslator.isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> ruleBasedTranslator.translate(
+                        request.getSourceCode(),
+                        request.getSourceLanguage(),
+                        request.getTargetLanguage()))
+                .subscribeOn(validationScheduler);
+    }
+
+    /**
+     * Stream a translation as Server-Sent Events: "delta" events carry raw code
+     * fragments as they arrive from the model, and a closing "result" event carries
+     * the final {@link TranslationResponse} including syntax validation.
+     */
+    public Flux<ServerSentEvent<Object>> streamTranslation(TranslationRequest request) {
+        if (request.getSourceLanguage().equals(request.getTargetLanguage())) {
+            return Flux.just(resultEvent(new TranslationResponse(
+                    request.getSourceCode(),
+                    request.getSourceCode(),
+                    request.getSourceLanguage(),
+                    request.getTargetLanguage(),
+                    false,
+                    "Source and target languages cannot be the same"
+            )));
+        }
 
-            // Validate source code syntax if requested
-            SyntaxValidationResult sourceValidation = null;
-            if (request.isValidateSyntax()) {
-                sourceValidation = validateSyntax(request.getSourceCode(), request.getSourceLanguage());
-                if (!sourceValidation.isValid()) {
+        // Source validation runs alongside the upstream stream so it does not delay the first delta
+        Mono<SyntaxValidationResult> sourceCheck = (request.isValidateSyntax()
+                ? validateSyntax(request.getSourceCode(), request.getSourceLanguage(), request)
+                : Mono.just(new SyntaxValidationResult(true, "Syntax validation skipped")))
+                .cache();
+
+        Flux<ServerSentEvent<Object>> rejection = sourceCheck
+                .filter(validation -> !validation.isValid())
+                .map(validation -> {
                     TranslationResponse response = new TranslationResponse(
                             request.getSourceCode(),
                             "",
                             request.getSourceLanguage(),
                             request.getTargetLanguage(),
                             false,
-                            "Source code syntax validation failed: " + sourceValidation.getErrorMessage()
+                            "Source code syntax validation failed: " + validation.getErrorMessage()
                     );
-                    response.setSyntaxValidation(sourceValidation);
-                    return response;
-                }
-            }
+                    response.setSyntaxValidation(validation);
+                    return resultEvent(response);
+                })
+                .flux();
 
-            // Perform translation using Anthropic Claude
-            String translatedCode = anthropicService.translateCode(
-                    request.getSourceCode(),
-                    request.getSourceLanguage(),
-                    request.getTargetLanguage()
-            );
+        String cacheKey = translationKey(request);
+        // A rule-based translation is complete at once and is sent as a single delta
+        Flux<ServerSentEvent<Object>> ruleTranslation = translateWithRules(request)
+                .flatMapMany(translatedCode -> {
+                    Mono<ServerSentEvent<Object>> completion = sourceCheck
+                            .filter(SyntaxValidationResult::isValid)
+                            .flatMap(validation -> buildSuccessResponse(request, translatedCode, false, "rules"))
+                            .map(response -> resultEvent(response));
+                    return Flux.merge(rejection, Flux.just(deltaEvent(translatedCode)).concatWith(completion))
+                            .takeUntil(event -> "result".equals(event.event()));
+                });
 
-            // Validate translated code syntax if requested
-            SyntaxValidationResult targetValidation = null;
-            if (request.isValidateSyntax()) {
-                targetValidation = validateSyntax(translatedCode, request.getTargetLanguage());
+        return ruleTranslation.switchIfEmpty(Flux.defer(() -> {
+            // A cached translation is replayed as a single delta
+            String cachedCode = lookupTranslation(cacheKey);
+            if (cachedCode != null) {
+                Mono<ServerSentEvent<Object>> completion = sourceCheck
+                        .filter(SyntaxValidationResult::isValid)
+                        .flatMap(validation -> buildSuccessResponse(request, cachedCode, true, "llm"))
+                        .map(this::resultEvent);
+                return Flux.merge(rejection, Flux.just(deltaEvent(cachedCode)).concatWith(completion))
+                        .takeUntil(event -> "result".equals(event.event()));
             }
 
-            // Create response
-            TranslationResponse response = new TranslationResponse(
-                    request.getSourceCode(),
-                    translatedCode,
-                    request.getSourceLanguage(),
-                    request.getTargetLanguage(),
-                    true,
-                    "Translation completed successfully"
-            );
-
-            // Set syntax validation results
-            if (targetValidation != null) {
-                response.setSyntaxValidation(targetValidation);
-                if (!targetValidation.isValid()) {
-                    response.setMessage("Translation completed but target code has syntax issues: " +
-                            targetValidation.getErrorMessage());
-                }
-            }
+            StringBuilder rawOutput = new StringBuilder();
+            Flux<ServerSentEvent<Object>> deltas = routedTranslationService.stream(
+                            request.getSourceCode(),
+                            request.getSourceLanguage(),
+                            request.getTargetLanguage())
+                    .doOnNext(rawOutput::append)
+                    .map(this::deltaEvent);
 
-            return response;
+            Mono<ServerSentEvent<Object>> completion = sourceCheck
+                    .filter(SyntaxValidationResult::isValid)
+                    .flatMap(validation -> {
+                        String translatedCode = anthropicService.cleanTranslatedCode(rawOutput.toString());
+                        cacheTranslation(cacheKey, translatedCode);
+                        return buildSuccessResponse(request, translatedCode, false, "llm");
+                    })
+                    .map(this::resultEvent);
 
-        } catch (Exception e) {
-            return new TranslationResponse(
-                    request.getSourceCode(),
-                    "",
-                    request.getSourceLanguage(),
-                    request.getTargetLanguage(),
-                    false,
-                    "Translation failed: " + e.getMessage()
-            );
+            return Flux.merge(rejection, deltas.concatWith(completion))
+                    .takeUntil(event -> "result".equals(event.event()));
+        }))
+                .onErrorResume(e -> Flux.just(resultEvent(new TranslationResponse(
+                        request.getSourceCode(),
+                        "",
+                        request.getSourceLanguage(),
+                        request.getTargetLanguage(),
+                        false,
+                        "Translation failed: " + e.getMessage()
+                ))));
+    }
+
+    private ServerSentEvent<Object> deltaEvent(String delta) {
+        return ServerSentEvent.<Object>builder(Map.of("text", delta)).event("delta").build();
+    }
+
+    private ServerSentEvent<Object> resultEvent(TranslationResponse response) {
+        return ServerSentEvent.<Object>builder(response).event("result").build();
+    }
+
+    private Mono<String> translateSource(TranslationRequest request) {
+        // Large files are split into units and translated in parallel
+        SplitSource split = chunkedTranslationService.splitIfLarge(
+                request.getSourceCode(), request.getSourceLanguage());
+        if (split != null) {
+            return chunkedTranslationService.translate(
+                    split, request.getSourceLanguage(), request.getTargetLanguage());
         }
+
+        // Small, simple sources go to the fast model
+        return routedTranslationService.translate(
+                request.getSourceCode(),
+                request.getSourceLanguage(),
+                request.getTargetLanguage());
     }
 
-    public TranslationResponse translateFromImage(MultipartFile imageFile,
-                                                  String sourceLanguage,
-                                                  String targetLanguage,
-                                                  boolean validateSyntax) {
-        try {
-            // Extract text from image using OCR
-            OCRResult ocrResult = ocrService.extractTextFromImage(imageFile);
+    private Mono<TranslationResponse> buildSuccessResponse(TranslationRequest request, String translatedCode,
+                                                           boolean fromCache, String engine) {
+        // Validate translated code syntax if requested
+        Mono<SyntaxValidationResult> targetCheck = request.isValidateSyntax()
+                ? validateSyntax(translatedCode, request.getTargetLanguage(), request)
+                : Mono.empty();
 
-            if (!ocrResult.isSuccess()) {
-                return new TranslationResponse(
-                        "",
-                        "",
-                        sourceLanguage,
-                        targetLanguage,
-                        false,
-                        "OCR failed: " + ocrResult.getErrorMessage()
-                );
-            }
+        return targetCheck
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(targetValidation -> {
+                    // Create response
+                    TranslationResponse response = new TranslationResponse(
+                            request.getSourceCode(),
+                            translatedCode,
+                            request.getSourceLanguage(),
+                            request.getTargetLanguage(),
+                            true,
+                            "Translation completed successfully"
+                    );
+                    response.setCached(fromCache);
+                    response.setEngine(engine);
+
+                    // Set syntax validation results
+                    targetValidation.ifPresent(validation -> {
+                        response.setSyntaxValidation(validation);
+                        if (!validation.isValid()) {
+                            response.setMessage("Translation completed but target code has syntax issues: " +
+                                    validation.getErrorMessage());
+                        }
+                    });
+
+                    return response;
+                });
+    }
+
+    public Mono<TranslationResponse> translateFromImage(MultipartFile imageFile,
+                                                        String sourceLanguage,
+                                                        String targetLanguage,
+                                                        boolean validateSyntax,
+                                                        String validationLevel) {
+        // Extract text from image using OCR (blocking Tesseract call, kept off request threads)
+        return Mono.fromCallable(() -> ocrService.extractTextFromImage(imageFile))
+                .subscribeOn(ocrScheduler)
+                .flatMap(ocrResult -> {
+                    if (!ocrResult.isSuccess()) {
+                        return Mono.just(new TranslationResponse(
+                                "",
+                                "",
+                                sourceLanguage,
+                                targetLanguage,
+                                false,
+                                "OCR failed: " + ocrResult.getErrorMessage()
+                        ));
+                    }
 
-            String extractedCode = ocrResult.getExtractedText();
-            if (extractedCode.trim().isEmpty()) {
-                return new TranslationResponse(
+                    String extractedCode = ocrResult.getExtractedText();
+                    if (extractedCode.trim().isEmpty()) {
+                        return Mono.just(new TranslationResponse(
+                                "",
+                                "",
+                                sourceLanguage,
+                                targetLanguage,
+                                false,
+                                "No text could be extracted from the image"
+                        ));
+                    }
+
+                    // Create translation request with extracted code
+                    TranslationRequest request = new TranslationRequest(extractedCode, sourceLanguage, targetLanguage);
+                    request.setValidateSyntax(validateSyntax);
+                    request.setValidationLevel(validationLevel);
+
+                    // Perform translation and add OCR confidence information to the response message
+                    return translateCode(request).map(response -> {
+                        if (response.isSuccess()) {
+                            response.setMessage(response.getMessage() +
+                                    " (OCR confidence: " + String.format("%.1f", ocrResult.getConfidence() * 100) + "%)");
+                        }
+                        return response;
+                    });
+                })
+                .onErrorResume(e -> Mono.just(new TranslationResponse(
                         "",
                         "",
                         sourceLanguage,
                         targetLanguage,
                         false,
-                        "No text could be extracted from the image"
-                );
-            }
-
-            // Create translation request with extracted code
-            TranslationRequest request = new TranslationRequest(extractedCode, sourceLanguage, targetLanguage);
-            request.setValidateSyntax(validateSyntax);
+                        "Image translation failed: " + e.getMessage()
+                )));
+    }
 
-            // Perform translation
-            TranslationResponse response = translateCode(request);
+    // Keyed on the router configuration, since fast-model output must not pass as the large model's
+    private String translationKey(TranslationRequest request) {
+        return TranslationKey.of(
+                request.getSourceCode(),
+                request.getSourceLanguage(),
+                request.getTargetLanguage(),
+                routedTranslationService.getModelIdentity(),
+                AnthropicService.PROMPT_VERSION
+        );
+    }
 
-            // Add OCR confidence information to the response message
-            if (response.isSuccess()) {
-                response.setMessage(response.getMessage() +
-                        " (OCR confidence: " + String.format("%.1f", ocrResult.getConfidence() * 100) + "%)");
+    private String lookupTranslation(String cacheKey) {
+        String cachedCode = translationCache.get(cacheKey);
+        if (cachedCode == null) {
+            cachedCode = translationStore.get(cacheKey);
+            if (cachedCode != null) {
+                translationCache.put(cacheKey, cachedCode);
             }
-
-            return response;
-
-        } catch (Exception e) {
-            return new TranslationResponse(
-                    "",
-                    "",
-                    sourceLanguage,
-                    targetLanguage,
-                    false,
-                    "Image translation failed: " + e.getMessage()
-            );
         }
+        return cachedCode;
     }
 
-    private SyntaxValidationResult validateSyntax(String code, String language) {
-        switch (language.toLowerCase()) {
-            case "java":
-                return syntaxValidationService.validateJavaCode(code);
-            case "c":
-                return syntaxValidationService.validateCCode(code);
-            default:
-                return new SyntaxValidationResult(false, "Unsupported language for validation: " + language);
+    private void cacheTranslation(String cacheKey, String translatedCode) {
+        // Mock translations must not be served once a real API key is configured
+        if (anthropicService.isApiAvailable() && translatedCode != null && !translatedCode.isEmpty()) {
+            translationCache.put(cacheKey, translatedCode);
+            // Called on the thread delivering the upstream response; the append is file I/O under a lock
+            try {
+                storeScheduler.schedule(() -> translationStore.put(cacheKey, translatedCode));
+            } catch (RejectedExecutionException e) {
+                System.err.println("Translation store write queue is full, not persisting " + cacheKey);
+            }
         }
     }
 
+    private Mono<SyntaxValidationResult> validateSyntax(String code, String language, TranslationRequest request) {
+        ValidationLevel level = ValidationLevel.of(request.getValidationLevel());
+        return Mono.fromCallable(() -> syntaxValidationService.validate(code, language, level))
+                .subscribeOn(validationScheduler);
+    }
+
     public boolean isValidLanguage(String language) {
         return "java".equalsIgnoreCase(language) || "c".equalsIgnoreCase(language);
     }
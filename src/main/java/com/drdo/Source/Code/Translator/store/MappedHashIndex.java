@@ -0,0 +1,224 @@
+package com.drdo.Source.Code.Translator.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open-addressing hash table stored in a memory-mapped file. Keys are 32-byte
+ * SHA-256 digests (already uniformly distributed, so the first eight bytes are
+ * used directly as the hash) and values are log locations. A lookup touches a
+ * single slot run, usually a single page.
+ *
+ * <p>Layout: a 64-byte header followed by {@code capacity} slots of
+ * 32 key bytes + 8 location bytes. A location of 0 marks an empty slot, so
+ * callers store {@code location + 1}. Not thread-safe; the store serializes access.
+ */
+class MappedHashIndex implements Closeable {
+
+    static final int KEY_SIZE = 32;
+
+    private static final int MAGIC = 0x54534958; // "TSIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = KEY_SIZE + Long.BYTES;
+    // Each mapping stays below the 2GB MappedByteBuffer limit and holds whole slots
+    private static final long SLOTS_PER_CHUNK = (1L << 30) / SLOT_SIZE;
+
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int TAIL_SEGMENT_OFFSET = 24;
+    private static final int TAIL_POSITION_OFFSET = 32;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private final long capacity;
+    private long count;
+
+    private MappedHashIndex(Path file, FileChannel channel, long capacity) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+        for (long firstSlot = 0; firstSlot < capacity; firstSlot += SLOTS_PER_CHUNK) {
+            long slots = Math.min(SLOTS_PER_CHUNK, capacity - firstSlot);
+            chunks.add(channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_SIZE + firstSlot * SLOT_SIZE, slots * SLOT_SIZE));
+        }
+    }
+
+    /**
+     * Create a new, empty index file, replacing any existing one.
+     */
+    static MappedHashIndex create(Path file, long capacity) throws IOException {
+        Files.deleteIfExists(file);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Extend the (sparse) file so every slot is zero-filled
+        channel.write(ByteBuffer.wrap(new byte[1]), HEADER_SIZE + capacity * SLOT_SIZE - 1);
+
+        MappedHashIndex index = new MappedHashIndex(file, channel, capacity);
+        index.header.putInt(0, MAGIC);
+        index.header.putInt(4, VERSION);
+        index.header.putLong(CAPACITY_OFFSET, capacity);
+        index.header.putLong(COUNT_OFFSET, 0);
+        index.setTail(0, 0);
+        return index;
+    }
+
+    /**
+     * Open an existing index file, or return null if it is missing or unreadable.
+     */
+    static MappedHashIndex open(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_SIZE) {
+            return null;
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer head = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(head, 0);
+        long capacity = head.getLong(CAPACITY_OFFSET);
+        if (head.getInt(0) != MAGIC || head.getInt(4) != VERSION || capacity <= 0 ||
+                channel.size() < HEADER_SIZE + capacity * SLOT_SIZE) {
+            channel.close();
+            return null;
+        }
+
+        MappedHashIndex index = new MappedHashIndex(file, channel, capacity);
+        index.count = head.getLong(COUNT_OFFSET);
+        return index;
+    }
+
+    /**
+     * Return the stored location for the key, or -1 if absent.
+     */
+    long get(byte[] key) {
+        long slot = firstSlot(key);
+        for (long probes = 0; probes < capacity; probes++) {
+            long location = locationAt(slot);
+            if (location == 0) {
+                return -1;
+            }
+            if (keyEquals(slot, key)) {
+                return location - 1;
+            }
+            slot = (slot + 1) % capacity;
+        }
+        return -1;
+    }
+
+    /**
+     * Insert or overwrite the location for the key.
+     */
+    void put(byte[] key, long location) {
+        long slot = firstSlot(key);
+        for (long probes = 0; probes < capacity; probes++) {
+            long stored = locationAt(slot);
+            if (stored == 0) {
+                writeKey(slot, key);
+                writeLocation(slot, location + 1);
+                count++;
+                header.putLong(COUNT_OFFSET, count);
+                return;
+            }
+            if (keyEquals(slot, key)) {
+                writeLocation(slot, location + 1);
+                return;
+            }
+            slot = (slot + 1) % capacity;
+        }
+        throw new IllegalStateException("Translation store index is full");
+    }
+
+    /**
+     * Copy every entry into another index (used when growing).
+     */
+    void copyTo(MappedHashIndex target) {
+        byte[] key = new byte[KEY_SIZE];
+        for (long slot = 0; slot < capacity; slot++) {
+            long location = locationAt(slot);
+            if (location != 0) {
+                chunk(slot).get(offset(slot), key);
+                target.put(key, location - 1);
+            }
+        }
+    }
+
+    long capacity() { return capacity; }
+
+    long count() { return count; }
+
+    int tailSegment() { return header.getInt(TAIL_SEGMENT_OFFSET); }
+
+    long tailPosition() { return header.getLong(TAIL_POSITION_OFFSET); }
+
+    /**
+     * Record how far the log has been indexed, so a restart only rescans the unindexed tail.
+     */
+    void setTail(int segment, long position) {
+        header.putInt(TAIL_SEGMENT_OFFSET, segment);
+        header.putLong(TAIL_POSITION_OFFSET, position);
+    }
+
+    Path file() { return file; }
+
+    void force() {
+        header.force();
+        chunks.forEach(MappedByteBuffer::force);
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private long firstSlot(byte[] key) {
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (key[i] & 0xFF);
+        }
+        return (hash & Long.MAX_VALUE) % capacity;
+    }
+
+    private MappedByteBuffer chunk(long slot) {
+        return chunks.get((int) (slot / SLOTS_PER_CHUNK));
+    }
+
+    private int offset(long slot) {
+        return (int) ((slot % SLOTS_PER_CHUNK) * SLOT_SIZE);
+    }
+
+    private long locationAt(long slot) {
+        return chunk(slot).getLong(offset(slot) + KEY_SIZE);
+    }
+
+    private boolean keyEquals(long slot, byte[] key) {
+        MappedByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+        for (int i = 0; i < KEY_SIZE; i++) {
+            if (buffer.get(base + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeKey(long slot, byte[] key) {
+        chunk(slot).put(offset(slot), key);
+    }
+
+    private void writeLocation(long slot, long location) {
+        chunk(slot).putLong(offset(slot) + KEY_SIZE, location);
+    }
+}
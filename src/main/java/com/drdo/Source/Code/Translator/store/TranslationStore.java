@@ -0,0 +1,478 @@
+package com.drdo.Source.Code.Translator.store;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Disk-backed store of completed translations that survives restarts.
+ *
+ * <p>Values are appended to numbered segment files; each record is
+ * {@code [magic][value length][32-byte key][UTF-8 value][CRC32]}. A
+ * {@link MappedHashIndex} maps keys to the latest record, so heap use does not
+ * grow with the number of entries. The index remembers how far the log has been
+ * indexed; on startup only the tail written after that point is rescanned, and
+ * a torn final record is truncated. The record format doubles as the
+ * export/import snapshot format.
+ */
+@Component
+public class TranslationStore {
+
+    private static final int RECORD_MAGIC = 0x54535243; // "TSRC"
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2 + MappedHashIndex.KEY_SIZE;
+    private static final int MAX_VALUE_SIZE = 64 * 1024 * 1024;
+    private static final String INDEX_FILE = "index.dat";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int POSITION_BITS = 40;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    @Value("${translation.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${translation.store.path:./data/translation-store}")
+    private String storePath;
+
+    @Value("${translation.store.segment-size-mb:256}")
+    private long segmentSizeMb;
+
+    @Value("${translation.store.initial-capacity:1048576}")
+    private long initialCapacity;
+
+    @Value("${translation.store.import.max-records:1000000}")
+    private long importMaxRecords;
+
+    @Value("${translation.store.import.max-mb:1024}")
+    private long importMaxMb;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<FileChannel> segments = new ArrayList<>();
+    private Path directory;
+    private MappedHashIndex index;
+    private boolean available = false;
+    private String initializationError = null;
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            directory = Paths.get(storePath);
+            Files.createDirectories(directory);
+            openSegments();
+
+            index = MappedHashIndex.open(directory.resolve(INDEX_FILE));
+            if (index == null || index.tailSegment() >= segments.size()) {
+                // Missing or stale index: rebuild it from the full log
+                if (index != null) {
+                    index.close();
+                }
+                index = MappedHashIndex.create(directory.resolve(INDEX_FILE), initialCapacity);
+            }
+            recoverTail();
+
+            available = true;
+            System.out.println("Translation store opened at " + directory.toAbsolutePath() +
+                    " with " + index.count() + " entries");
+        } catch (Exception e) {
+            available = false;
+            initializationError = "Failed to open translation store: " + e.getMessage();
+            System.err.println(initializationError);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            available = false;
+            if (index != null) {
+                index.close();
+            }
+            for (FileChannel segment : segments) {
+                segment.force(false);
+                segment.close();
+            }
+            segments.clear();
+        } catch (IOException e) {
+            System.err.println("Failed to close translation store: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return the stored translation for the key (a hex SHA-256 as produced by TranslationKey), or null.
+     */
+    public String get(String key) {
+        if (!available) {
+            return null;
+        }
+
+        byte[] keyBytes = HexFormat.of().parseHex(key);
+        lock.readLock().lock();
+        try {
+            long location = index.get(keyBytes);
+            if (location < 0) {
+                return null;
+            }
+            Record record = readRecord(segmentOf(location), positionOf(location));
+            return record != null ? record.value : null;
+        } catch (IOException e) {
+            System.err.println("Translation store read failed: " + e.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String key, String value) {
+        if (!available || value == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            append(HexFormat.of().parseHex(key), value.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Translation store write failed: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write a snapshot of every live entry in the record format. Segments are read
+     * sequentially and only records that the index still points at are emitted.
+     */
+    public long exportTo(OutputStream out) throws IOException {
+        if (!available) {
+            throw new IllegalStateException("Translation store is not available");
+        }
+
+        // Bound the snapshot to what exists now and only hold the lock per record, so writers are not stalled
+        long[] segmentSizes;
+        lock.readLock().lock();
+        try {
+            segmentSizes = new long[segments.size()];
+            for (int segment = 0; segment < segmentSizes.length; segment++) {
+                segmentSizes[segment] = segments.get(segment).size();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long exported = 0;
+        for (int segment = 0; segment < segmentSizes.length; segment++) {
+            long position = 0;
+            while (position < segmentSizes[segment]) {
+                Record record;
+                boolean live;
+                lock.readLock().lock();
+                try {
+                    record = readRecord(segment, position);
+                    live = record != null && index.get(record.key) == locationOf(segment, position);
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (record == null) {
+                    break;
+                }
+                if (live) {
+                    out.write(encode(record.key, record.value.getBytes(StandardCharsets.UTF_8)).array());
+                    exported++;
+                }
+                position += record.size;
+            }
+        }
+        out.flush();
+        return exported;
+    }
+
+    /**
+     * Bulk-load a snapshot produced by {@link #exportTo(OutputStream)}. At most
+     * import.max-records records and import.max-mb of snapshot are read; records
+     * before a limit or a bad record stay imported.
+     */
+    public long importFrom(InputStream in) throws IOException {
+        if (!available) {
+            throw new IllegalStateException("Translation store is not available");
+        }
+
+        DataInputStream data = new DataInputStream(in);
+        long imported = 0;
+        long importedBytes = 0;
+        while (true) {
+            int magic;
+            try {
+                magic = data.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            int valueLength = data.readInt();
+            if (magic != RECORD_MAGIC || valueLength < 0 || valueLength > MAX_VALUE_SIZE) {
+                throw new IllegalArgumentException("Invalid translation store snapshot at record " + imported);
+            }
+            importedBytes += RECORD_HEADER_SIZE + valueLength + Integer.BYTES;
+            if (imported >= importMaxRecords || importedBytes > importMaxMb * 1024 * 1024) {
+                throw new IllegalArgumentException("Snapshot exceeds translation.store.import.max-records or max-mb; "
+                        + imported + " records were imported");
+            }
+            byte[] key = new byte[MappedHashIndex.KEY_SIZE];
+            byte[] value = new byte[valueLength];
+            data.readFully(key);
+            data.readFully(value);
+            if (data.readInt() != checksum(key, value)) {
+                throw new IllegalArgumentException("Checksum mismatch in translation store snapshot at record " + imported);
+            }
+
+            lock.writeLock().lock();
+            try {
+                append(key, value);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            imported++;
+        }
+        return imported;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("available", available);
+        if (initializationError != null) {
+            stats.put("error", initializationError);
+        }
+        if (available) {
+            lock.readLock().lock();
+            try {
+                stats.put("path", directory.toAbsolutePath().toString());
+                stats.put("entries", index.count());
+                stats.put("indexCapacity", index.capacity());
+                stats.put("segments", segments.size());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return stats;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private void openSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            segments.add(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+        if (segments.isEmpty()) {
+            rollSegment();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+        segments.add(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+    }
+
+    private void recoverTail() throws IOException {
+        int segment = index.tailSegment();
+        long position = index.tailPosition();
+        long recovered = 0;
+
+        while (segment < segments.size()) {
+            FileChannel channel = segments.get(segment);
+            long size = channel.size();
+            while (position < size) {
+                Record record = readRecord(segment, position);
+                if (record == null) {
+                    // Torn write from an unclean shutdown: drop the partial record
+                    System.out.println("Truncating translation store segment " + segment + " at " + position);
+                    channel.truncate(position);
+                    break;
+                }
+                insert(record.key, locationOf(segment, position));
+                position += record.size;
+                recovered++;
+            }
+            index.setTail(segment, position);
+            if (segment == segments.size() - 1) {
+                break;
+            }
+            segment++;
+            position = 0;
+        }
+
+        if (recovered > 0) {
+            System.out.println("Indexed " + recovered + " translation store records written since the last shutdown");
+        }
+    }
+
+    private void append(byte[] key, byte[] value) throws IOException {
+        // A longer record would be written but then read back as corrupt, and truncated on recovery
+        if (value.length > MAX_VALUE_SIZE) {
+            throw new IOException("value of " + value.length + " bytes exceeds the " + MAX_VALUE_SIZE + " byte limit");
+        }
+        ByteBuffer record = encode(key, value);
+        int segment = segments.size() - 1;
+        FileChannel channel = segments.get(segment);
+        long position = channel.size();
+        if (position > 0 && position + record.limit() > segmentSizeMb * 1024 * 1024) {
+            rollSegment();
+            segment++;
+            channel = segments.get(segment);
+            position = 0;
+        }
+
+        while (record.hasRemaining()) {
+            channel.write(record, position + record.position());
+        }
+        insert(key, locationOf(segment, position));
+        index.setTail(segment, position + record.limit());
+    }
+
+    private void insert(byte[] key, long location) throws IOException {
+        if (index.count() + 1 > index.capacity() * MAX_LOAD_FACTOR) {
+            grow();
+        }
+        index.put(key, location);
+    }
+
+    private void grow() throws IOException {
+        Path next = directory.resolve(INDEX_FILE + ".resize");
+        MappedHashIndex larger = MappedHashIndex.create(next, index.capacity() * 2);
+        try {
+            index.copyTo(larger);
+            larger.setTail(index.tailSegment(), index.tailPosition());
+            larger.force();
+            // The mapping survives the rename, so the new index stays usable as is
+            Files.move(next, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // Keep serving from the current index
+            larger.close();
+            Files.deleteIfExists(next);
+            throw e;
+        }
+
+        MappedHashIndex previous = index;
+        index = larger;
+        previous.close();
+    }
+
+    private Record readRecord(int segment, long position) throws IOException {
+        FileChannel channel = segments.get(segment);
+        ByteBuffer head = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        if (readFully(channel, head, position) < RECORD_HEADER_SIZE) {
+            return null;
+        }
+        head.flip();
+        int magic = head.getInt();
+        int valueLength = head.getInt();
+        if (magic != RECORD_MAGIC || valueLength < 0 || valueLength > MAX_VALUE_SIZE) {
+            return null;
+        }
+        byte[] key = new byte[MappedHashIndex.KEY_SIZE];
+        head.get(key);
+
+        ByteBuffer body = ByteBuffer.allocate(valueLength + Integer.BYTES);
+        if (readFully(channel, body, position + RECORD_HEADER_SIZE) < body.capacity()) {
+            return null;
+        }
+        body.flip();
+        byte[] value = new byte[valueLength];
+        body.get(value);
+        if (body.getInt() != checksum(key, value)) {
+            return null;
+        }
+        return new Record(key, new String(value, StandardCharsets.UTF_8), RECORD_HEADER_SIZE + body.capacity());
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static ByteBuffer encode(byte[] key, byte[] value) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + value.length + Integer.BYTES);
+        record.putInt(RECORD_MAGIC);
+        record.putInt(value.length);
+        record.put(key);
+        record.put(value);
+        record.putInt(checksum(key, value));
+        record.flip();
+        return record;
+    }
+
+    private static int checksum(byte[] key, byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+
+    private static long locationOf(int segment, long position) {
+        return ((long) segment << POSITION_BITS) | position;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> POSITION_BITS);
+    }
+
+    private static long positionOf(long location) {
+        return location & ((1L << POSITION_BITS) - 1);
+    }
+
+    private static final class Record {
+        private final byte[] key;
+        private final String value;
+        private final int size;
+
+        private Record(byte[] key, String value, int size) {
+            this.key = key;
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.drdo.Source.Code.Translator.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Anthropic Messages API, for load tests and capacity
+ * planning without network access. Enabled with anthropic.stub.enabled=true and
+ * served at {@code /api/stub/v1/messages}; point anthropic.api.url at it (or at
+ * a separate instance started with the stub enabled).
+ *
+ * <p>It simulates time to first token from a configurable latency distribution
+ * plus output generation at a fixed token rate, supports streaming, enforces
+ * request and input-token buckets with 429s and anthropic-ratelimit-* headers,
+ * injects random and periodic-burst 5xx errors, and reports prompt cache usage
+ * for system blocks marked with cache_control.
+ */
+@RestController
+@RequestMapping("/stub/v1")
+@ConditionalOnProperty(name = "anthropic.stub.enabled", havingValue = "true")
+public class AnthropicStubController {
+
+    private static final Pattern TARGET_LANGUAGE = Pattern.compile("to (java|c)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Duration PROMPT_CACHE_TTL = Duration.ofMinutes(5);
+    private static final int STREAM_CHUNK_CHARS = 40;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, Long> promptCache = new ConcurrentHashMap<>();
+    private final long startedAt = System.currentTimeMillis();
+    private StubBucket requestBucket;
+    private StubBucket tokenBucket;
+
+    @Value("${anthropic.stub.latency.distribution:lognormal}")
+    private String latencyDistribution;
+
+    @Value("${anthropic.stub.latency.median-ms:800}")
+    private double latencyMedianMs;
+
+    @Value("${anthropic.stub.latency.spread:0.5}")
+    private double latencySpread;
+
+    @Value("${anthropic.stub.output-tokens-per-second:80}")
+    private double outputTokensPerSecond;
+
+    @Value("${anthropic.stub.rate-limit.requests-per-minute:50}")
+    private int requestsPerMinute;
+
+    @Value("${anthropic.stub.rate-limit.input-tokens-per-minute:40000}")
+    private int inputTokensPerMinute;
+
+    @Value("${anthropic.stub.errors.rate:0.0}")
+    private double errorRate;
+
+    @Value("${anthropic.stub.errors.status:529}")
+    private int errorStatus;
+
+    @Value("${anthropic.stub.errors.burst-interval-ms:0}")
+    private long burstIntervalMs;
+
+    @Value("${anthropic.stub.errors.burst-duration-ms:5000}")
+    private long burstDurationMs;
+
+    public AnthropicStubController(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping("/messages")
+    public ResponseEntity<ResponseBodyEmitter> messages(@RequestBody JsonNode request) throws IOException {
+        initBuckets();
+
+        String system = systemText(request.path("system"));
+        String user = userText(request.path("messages"));
+        int cacheableTokens = cacheableTokens(request.path("system"));
+        int inputTokens = estimateTokens(system) + estimateTokens(user);
+        boolean stream = request.path("stream").asBoolean(false);
+
+        // Cached prefix tokens do not count towards the input token limit
+        int countedTokens = inputTokens - (isCached(request.path("system")) ? cacheableTokens : 0);
+        boolean allowed = requestBucket.tryTake(1) && tokenBucket.tryTake(countedTokens);
+        HttpHeaders headers = rateLimitHeaders();
+        if (!allowed) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1,
+                    Math.max(requestBucket.secondsUntil(1), tokenBucket.secondsUntil(countedTokens)))));
+            return error(HttpStatus.TOO_MANY_REQUESTS.value(), "rate_limit_error",
+                    "Number of request tokens has exceeded your per-minute rate limit", headers);
+        }
+
+        long firstTokenMs = sampleLatencyMs();
+        if (shouldFail()) {
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter(-1L);
+            Mono.delay(Duration.ofMillis(firstTokenMs))
+                    .subscribe(tick -> send(emitter, errorBody(errorStatus == 529 ? "overloaded_error" : "api_error",
+                            "Injected upstream failure"), true));
+            return ResponseEntity.status(errorStatus).headers(headers).contentType(MediaType.APPLICATION_JSON).body(emitter);
+        }
+
+        String output = translate(user, system);
+        int outputTokens = estimateTokens(output);
+        Map<String, Object> usage = usage(request.path("system"), inputTokens, cacheableTokens, outputTokens);
+
+        if (stream) {
+            SseEmitter emitter = new SseEmitter(-1L);
+            streamMessage(emitter, output, usage, firstTokenMs);
+            return ResponseEntity.ok().headers(headers).contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(-1L);
+        long totalMs = firstTokenMs + (long) (outputTokens * 1000.0 / outputTokensPerSecond);
+        Mono.delay(Duration.ofMillis(totalMs))
+                .subscribe(tick -> send(emitter, message(output, usage, "end_turn"), true));
+        return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    private void streamMessage(SseEmitter emitter, String output, Map<String, Object> usage, long firstTokenMs) {
+        Map<String, Object> start = message("", Map.of(
+                "input_tokens", usage.get("input_tokens"),
+                "cache_creation_input_tokens", usage.get("cache_creation_input_tokens"),
+                "cache_read_input_tokens", usage.get("cache_read_input_tokens"),
+                "output_tokens", 1), null);
+        start.put("content", List.of());
+
+        List<String> chunks = chunk(output);
+        long chunkDelayMs = (long) (estimateTokens(output) * 1000.0 / outputTokensPerSecond / Math.max(1, chunks.size()));
+
+        Flux.concat(
+                        Mono.delay(Duration.ofMillis(firstTokenMs)).then(Mono.fromRunnable(() -> {
+                            sendEvent(emitter, "message_start", Map.of("type", "message_start", "message", start));
+                            sendEvent(emitter, "content_block_start", Map.of("type", "content_block_start", "index", 0,
+                                    "content_block", Map.of("type", "text", "text", "")));
+                        })),
+                        Flux.fromIterable(chunks).delayElements(Duration.ofMillis(chunkDelayMs))
+                                .doOnNext(text -> sendEvent(emitter, "content_block_delta", Map.of(
+                                        "type", "content_block_delta", "index", 0,
+                                        "delta", Map.of("type", "text_delta", "text", text))))
+                                .then(),
+                        Mono.fromRunnable(() -> {
+                            sendEvent(emitter, "content_block_stop", Map.of("type", "content_block_stop", "index", 0));
+                            sendEvent(emitter, "message_delta", Map.of("type", "message_delta",
+                                    "delta", Map.of("stop_reason", "end_turn"),
+                                    "usage", Map.of("output_tokens", usage.get("output_tokens"))));
+                            sendEvent(emitter, "message_stop", Map.of("type", "message_stop"));
+                            emitter.complete();
+                        }))
+                .doOnError(emitter::completeWithError)
+                .subscribe();
+    }
+
+    // Produce a syntactically plausible "translation" whose size tracks the input
+    private String translate(String source, String system) {
+        Matcher matcher = TARGET_LANGUAGE.matcher(system);
+        String target = "JAVA";
+        while (matcher.find()) {
+            target = matcher.group(1).toUpperCase();
+        }
+        String commented = source.replace("*/", "* /");
+        boolean fragment = system.contains("in pieces");
+
+        if ("C".equals(target)) {
+            return "/* Translated by the local Anthropic stand-in\n" + commented + "\n*/\n" +
+                    (fragment ? "" : "int main(void) {\n    return 0;\n}\n");
+        }
+        String comment = "/* Translated by the local Anthropic stand-in\n" + commented + "\n*/\n";
+        return fragment ? comment : comment + "public class TranslatedCode {\n" +
+                "    public static void main(String[] args) {\n    }\n}\n";
+    }
+
+    private Map<String, Object> usage(JsonNode system, int inputTokens, int cacheableTokens, int outputTokens) {
+        boolean cached = cacheableTokens > 0 && isCached(system);
+        if (cacheableTokens > 0) {
+            promptCache.put(system.get(0).path("text").asText().hashCode(), System.currentTimeMillis());
+        }
+
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("input_tokens", inputTokens - cacheableTokens);
+        usage.put("cache_creation_input_tokens", cached ? 0 : cacheableTokens);
+        usage.put("cache_read_input_tokens", cached ? cacheableTokens : 0);
+        usage.put("output_tokens", outputTokens);
+        return usage;
+    }
+
+    private boolean isCached(JsonNode system) {
+        if (!system.isArray() || system.isEmpty()) {
+            return false;
+        }
+        Long cachedAt = promptCache.get(system.get(0).path("text").asText().hashCode());
+        return cachedAt != null && System.currentTimeMillis() - cachedAt < PROMPT_CACHE_TTL.toMillis();
+    }
+
+    // Tokens of the system prefix up to and including the last cache_control breakpoint
+    private int cacheableTokens(JsonNode system) {
+        if (!system.isArray()) {
+            return 0;
+        }
+        int tokens = 0;
+        int cacheable = 0;
+        for (JsonNode block : system) {
+            tokens += estimateTokens(block.path("text").asText());
+            if (block.has("cache_control")) {
+                cacheable = tokens;
+            }
+        }
+        return cacheable;
+    }
+
+    private Map<String, Object> message(String text, Map<String, Object> usage, String stopReason) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", "msg_stub_" + UUID.randomUUID().toString().replace("-", ""));
+        message.put("type", "message");
+        message.put("role", "assistant");
+        message.put("model", "local-stub");
+        message.put("content", List.of(Map.of("type", "text", "text", text)));
+        message.put("stop_reason", stopReason);
+        message.put("usage", usage);
+        return message;
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> error(int status, String type, String message, HttpHeaders headers) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(-1L);
+        send(emitter, errorBody(type, message), true);
+        return ResponseEntity.status(status).headers(headers).contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    private static Map<String, Object> errorBody(String type, String message) {
+        return Map.of("type", "error", "error", Map.of("type", type, "message", message));
+    }
+
+    private HttpHeaders rateLimitHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("anthropic-ratelimit-requests-limit", String.valueOf(requestsPerMinute));
+        headers.set("anthropic-ratelimit-requests-remaining", String.valueOf((long) requestBucket.available()));
+        headers.set("anthropic-ratelimit-requests-reset", requestBucket.fullAt().toString());
+        headers.set("anthropic-ratelimit-input-tokens-limit", String.valueOf(inputTokensPerMinute));
+        headers.set("anthropic-ratelimit-input-tokens-remaining", String.valueOf((long) tokenBucket.available()));
+        headers.set("anthropic-ratelimit-input-tokens-reset", tokenBucket.fullAt().toString());
+        return headers;
+    }
+
+    private boolean shouldFail() {
+        if (burstIntervalMs > 0 && (System.currentTimeMillis() - startedAt) % burstIntervalMs < burstDurationMs) {
+            return true;
+        }
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private long sampleLatencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latency;
+        switch (latencyDistribution.toLowerCase()) {
+            case "fixed":
+                latency = latencyMedianMs;
+                break;
+            case "uniform":
+                latency = latencyMedianMs * (1 + latencySpread * (2 * random.nextDouble() - 1));
+                break;
+            default:
+                // Log-normal: long right tail like real model latency
+                latency = latencyMedianMs * Math.exp(latencySpread * random.nextGaussian());
+        }
+        return Math.max(0, (long) latency);
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(objectMapper.writeValueAsString(data)));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static void send(ResponseBodyEmitter emitter, Object body, boolean complete) {
+        try {
+            emitter.send(body, MediaType.APPLICATION_JSON);
+            if (complete) {
+                emitter.complete();
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static List<String> chunk(String text) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += STREAM_CHUNK_CHARS) {
+            chunks.add(text.substring(i, Math.min(text.length(), i + STREAM_CHUNK_CHARS)));
+        }
+        return chunks;
+    }
+
+    private static String systemText(JsonNode system) {
+        if (system.isTextual()) {
+            return system.asText();
+        }
+        StringBuilder text = new StringBuilder();
+        for (JsonNode block : system) {
+            text.append(block.path("text").asText()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String userText(JsonNode messages) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode message : messages) {
+            JsonNode content = message.path("content");
+            if (content.isTextual()) {
+                text.append(content.asText());
+            } else {
+                for (JsonNode block : content) {
+                    text.append(block.path("text").asText());
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static int estimateTokens(String text) {
+        return text.length() / 4 + 1;
+    }
+
+    private synchronized void initBuckets() {
+        if (requestBucket == null) {
+            requestBucket = new StubBucket(requestsPerMinute);
+            tokenBucket = new StubBucket(inputTokensPerMinute);
+        }
+    }
+
+    // Continuously refilled per-minute bucket
+    private static final class StubBucket {
+        private final double capacity;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        private StubBucket(double capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.available = this.capacity;
+        }
+
+        synchronized boolean tryTake(double amount) {
+            refill();
+            if (available < Math.min(amount, capacity)) {
+                return false;
+            }
+            available -= amount;
+            return true;
+        }
+
+        synchronized double available() {
+            refill();
+            return Math.max(0, available);
+        }
+
+        synchronized long secondsUntil(double amount) {
+            refill();
+            double missing = Math.min(amount, capacity) - available;
+            return missing <= 0 ? 0 : (long) Math.ceil(missing * 60 / capacity);
+        }
+
+        synchronized Instant fullAt() {
+            refill();
+            double missing = capacity - Math.max(0, available);
+            return Instant.now().plusMillis((long) (missing * 60000 / capacity));
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * capacity / 60_000_000_000.0);
+            lastRefill = now;
+        }
+    }
+}
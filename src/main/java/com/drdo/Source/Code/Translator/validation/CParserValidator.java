@@ -0,0 +1,43 @@
+package com.drdo.Source.Code.Translator.validation;
+
+import com.drdo.Source.Code.Translator.csource.CParser;
+import com.drdo.Source.Code.Translator.csource.CSyntaxException;
+import com.drdo.Source.Code.Translator.dto.SyntaxDiagnostic;
+import com.drdo.Source.Code.Translator.dto.SyntaxValidationResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks C sources in process with {@link CParser}: no compiler, no child
+ * process and no files, so it works the same in images without a toolchain.
+ * Only syntax is checked (PARSE level); names and types are not resolved, so
+ * e.g. an undeclared variable passes here but not under gcc.
+ */
+@Component
+public class CParserValidator {
+
+    // Bump when the parser's verdicts change, so stored results from an older one are not reused
+    public static final String VERSION = "1";
+
+    public SyntaxValidationResult validate(String code) {
+        List<SyntaxDiagnostic> diagnostics = new ArrayList<>();
+        for (CSyntaxException error : CParser.check(code)) {
+            diagnostics.add(new SyntaxDiagnostic("error", error.getMessage(), error.getLine(), error.getColumn()));
+        }
+
+        SyntaxValidationResult result;
+        if (diagnostics.isEmpty()) {
+            result = new SyntaxValidationResult(true, "C syntax is valid");
+        } else {
+            SyntaxDiagnostic first = diagnostics.get(0);
+            result = new SyntaxValidationResult(false, first.getMessage());
+            result.setErrorLine(first.getLine());
+            result.setErrorColumn(first.getColumn());
+        }
+        result.setLevel(ValidationLevel.PARSE.getName());
+        result.setDiagnostics(diagnostics);
+        return result;
+    }
+}
@@ -0,0 +1,353 @@
+package com.drdo.Source.Code.Translator.validation;
+
+import com.drdo.Source.Code.Translator.dto.SyntaxDiagnostic;
+import com.drdo.Source.Code.Translator.dto.SyntaxValidationResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks C sources with {@code gcc -fsyntax-only}, piping the source through
+ * stdin so nothing touches the filesystem. At most max-concurrent gcc processes
+ * run at once, and one that overruns its timeout is killed along with its cc1
+ * child.
+ *
+ * <p>Most translated files start with the same few libc includes, and parsing
+ * them is most of gcc's work. When a source begins with a block of common
+ * system includes (at least pch.min-headers of them) and nothing else, a
+ * precompiled header for exactly that set is force-included ({@code -include}); gcc skips the repeated includes through
+ * their guards. Sources that define macros before their includes, or include
+ * anything else up front, are compiled without one, so a header never changes
+ * the verdict.
+ */
+@Component
+public class CSyntaxValidator {
+
+    // Headers worth precompiling; a leading include block using any other header gets no PCH
+    private static final Set<String> COMMON_HEADERS = Set.of("assert.h", "ctype.h", "errno.h", "float.h",
+            "limits.h", "math.h", "stdbool.h", "stddef.h", "stdint.h", "stdio.h", "stdlib.h", "string.h", "time.h");
+
+    private static final Pattern SYSTEM_INCLUDE = Pattern.compile("\\s*#\\s*include\\s*<([\\w./]+)>\\s*");
+    private static final Pattern DIAGNOSTIC = Pattern.compile(
+            "^<stdin>:(\\d+):(\\d+):\\s*(fatal error|error|warning):\\s*(.*)$", Pattern.MULTILINE);
+
+    private static final long KILL_GRACE_MS = 1000;
+
+    private final Semaphore permits;
+    private final long timeoutMs;
+    private final boolean pchEnabled;
+    private final Path pchDir;
+    private final int pchMinHeaders;
+    private final int pchMaxEntries;
+    // Keyed by the sorted header list, e.g. "stdio.h,stdlib.h"
+    private final Map<String, PrecompiledHeader> precompiledHeaders = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gcc-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Cleared when gcc cannot be started; callers then fall back to the in-process parser
+    private volatile boolean available = true;
+    // First line of gcc --version, read once
+    private volatile String version;
+
+    public CSyntaxValidator(@Value("${translation.validation.c.max-concurrent:4}") int maxConcurrent,
+                            @Value("${translation.validation.c.timeout-ms:10000}") long timeoutMs,
+                            @Value("${translation.validation.c.pch.enabled:true}") boolean pchEnabled,
+                            @Value("${translation.validation.c.pch.path:${java.io.tmpdir}/translator-pch}") String pchPath,
+                            @Value("${translation.validation.c.pch.min-headers:2}") int pchMinHeaders,
+                            @Value("${translation.validation.c.pch.max-entries:32}") int pchMaxEntries) {
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.timeoutMs = timeoutMs;
+        this.pchEnabled = pchEnabled;
+        this.pchDir = Paths.get(pchPath);
+        this.pchMinHeaders = Math.max(1, pchMinHeaders);
+        this.pchMaxEntries = pchMaxEntries;
+    }
+
+    /**
+     * Check {@code code} and report every diagnostic gcc gives for it, or return
+     * null when gcc is not installed.
+     */
+    public SyntaxValidationResult validate(String code) {
+        if (!available) {
+            return null;
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SyntaxValidationResult(false, "C syntax validation interrupted");
+        }
+        try {
+            List<String> command = new ArrayList<>(List.of("gcc", "-fsyntax-only", "-fmax-errors=100",
+                    "-fno-diagnostics-color", "-fno-diagnostics-show-caret"));
+            Path header = precompiledHeader(code);
+            if (header != null) {
+                command.add("-include");
+                command.add(header.toString());
+            }
+            command.addAll(List.of("-x", "c", "-"));
+
+            GccRun run = runGcc(command, code);
+            if (run == null) {
+                return null;
+            }
+            if (run.timedOut) {
+                return new SyntaxValidationResult(false, "C syntax validation timed out after " + timeoutMs + " ms");
+            }
+            return toResult(run.exitCode, run.output);
+        } catch (IOException e) {
+            return new SyntaxValidationResult(false, "C syntax validation error: " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * The installed gcc, e.g. "gcc (Debian 12.2.0-14) 12.2.0", so results can be
+     * told apart across compiler upgrades; null when gcc is not installed.
+     */
+    public String getVersion() {
+        if (version == null && available) {
+            try {
+                GccRun run = runGcc(List.of("gcc", "--version"), "");
+                if (run != null && run.exitCode == 0) {
+                    version = run.output.lines().findFirst().orElse("").strip();
+                }
+            } catch (IOException e) {
+                System.out.println("Could not read the gcc version: " + e.getMessage());
+            }
+        }
+        if (!available) {
+            return null;
+        }
+        return version != null ? version : "unknown";
+    }
+
+    private GccRun runGcc(List<String> command, String input) throws IOException {
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            System.out.println("gcc not available, using the in-process C parser: " + e.getMessage());
+            available = false;
+            return null;
+        }
+
+        AtomicBoolean killed = new AtomicBoolean();
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> {
+            killed.set(true);
+            // cc1 holds the output pipe open; killing it first lets the driver reap it and exit
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            watchdog.schedule(process::destroyForcibly, KILL_GRACE_MS, TimeUnit.MILLISECONDS);
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+
+        try {
+            // gcc reads the whole source before it writes diagnostics, so writing then reading cannot deadlock
+            try (OutputStream stdin = process.getOutputStream()) {
+                stdin.write(input.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                if (!killed.get()) {
+                    throw e;
+                }
+            }
+            String output;
+            try (InputStream stdout = process.getInputStream()) {
+                output = new String(stdout.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            int exitCode = process.waitFor();
+            return new GccRun(exitCode, output, killed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            return new GccRun(-1, "", true);
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    private static SyntaxValidationResult toResult(int exitCode, String output) {
+        List<SyntaxDiagnostic> diagnostics = new ArrayList<>();
+        SyntaxDiagnostic firstError = null;
+        Matcher matcher = DIAGNOSTIC.matcher(output);
+        while (matcher.find()) {
+            boolean error = !"warning".equals(matcher.group(3));
+            SyntaxDiagnostic diagnostic = new SyntaxDiagnostic(error ? "error" : "warning", matcher.group(4).trim(),
+                    Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            diagnostics.add(diagnostic);
+            if (error && firstError == null) {
+                firstError = diagnostic;
+            }
+        }
+
+        SyntaxValidationResult result;
+        if (exitCode == 0) {
+            result = new SyntaxValidationResult(true, "C syntax is valid");
+        } else if (firstError != null) {
+            result = new SyntaxValidationResult(false, firstError.getMessage());
+            result.setErrorLine(firstError.getLine());
+            result.setErrorColumn(firstError.getColumn());
+        } else {
+            // Not about the source itself (bad option, driver failure, ...)
+            result = new SyntaxValidationResult(false, "C syntax errors found:\n" + output);
+        }
+        // gcc -fsyntax-only checks types as well, so its verdict is always at ATTRIBUTE level
+        result.setLevel(ValidationLevel.ATTRIBUTE.getName());
+        result.setDiagnostics(diagnostics);
+        return result;
+    }
+
+    // The header to force-include for this source, or null to compile it as is
+    private Path precompiledHeader(String code) {
+        if (!pchEnabled) {
+            return null;
+        }
+        Set<String> headers = leadingIncludes(code);
+        // Loading a header image costs more than parsing a single small libc header
+        if (headers == null || headers.size() < pchMinHeaders) {
+            return null;
+        }
+        String key = String.join(",", headers);
+        PrecompiledHeader header = precompiledHeaders.get(key);
+        if (header == null) {
+            if (precompiledHeaders.size() >= pchMaxEntries) {
+                return null;
+            }
+            header = precompiledHeaders.computeIfAbsent(key, k -> new PrecompiledHeader(headers));
+        }
+        return header.get();
+    }
+
+    /**
+     * The common headers included before anything else in the source, or null
+     * if that leading block also holds other directives or headers.
+     */
+    private static Set<String> leadingIncludes(String code) {
+        Set<String> headers = new TreeSet<>();
+        boolean inComment = false;
+        for (String line : code.split("\n", -1)) {
+            String text = line.strip();
+            if (inComment) {
+                int end = text.indexOf("*/");
+                if (end < 0) {
+                    continue;
+                }
+                text = text.substring(end + 2).strip();
+                inComment = false;
+            }
+            if (text.startsWith("/*")) {
+                int end = text.indexOf("*/", 2);
+                if (end < 0) {
+                    inComment = true;
+                    continue;
+                }
+                text = text.substring(end + 2).strip();
+            }
+            if (text.isEmpty() || text.startsWith("//")) {
+                continue;
+            }
+            Matcher include = SYSTEM_INCLUDE.matcher(text);
+            if (include.matches()) {
+                if (!COMMON_HEADERS.contains(include.group(1))) {
+                    return null;
+                }
+                headers.add(include.group(1));
+                continue;
+            }
+            // Any other directive could change what the headers declare
+            return text.startsWith("#") ? null : headers;
+        }
+        return headers;
+    }
+
+    @PreDestroy
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    private static final class GccRun {
+        final int exitCode;
+        final String output;
+        final boolean timedOut;
+
+        GccRun(int exitCode, String output, boolean timedOut) {
+            this.exitCode = exitCode;
+            this.output = output;
+            this.timedOut = timedOut;
+        }
+    }
+
+    // Built on first use; a header that fails to build is not retried
+    private final class PrecompiledHeader {
+
+        private final Set<String> headers;
+        private boolean built;
+        private Path path;
+
+        PrecompiledHeader(Set<String> headers) {
+            this.headers = headers;
+        }
+
+        synchronized Path get() {
+            if (!built) {
+                built = true;
+                path = build();
+            }
+            return path;
+        }
+
+        private Path build() {
+            String name = "pch-" + String.join("-", headers).replace(".h", "").replace('/', '_');
+            Path header = pchDir.resolve(name + ".h");
+            Path compiled = pchDir.resolve(name + ".h.gch");
+            // Other instances may share the directory; each builds privately and renames into place
+            Path building = pchDir.resolve(name + ".h.gch." + ProcessHandle.current().pid());
+            try {
+                Files.createDirectories(pchDir);
+                StringBuilder source = new StringBuilder();
+                for (String included : headers) {
+                    source.append("#include <").append(included).append(">\n");
+                }
+                Files.writeString(header, source.toString());
+                GccRun run = runGcc(List.of("gcc", "-x", "c-header", header.toString(), "-o", building.toString()), "");
+                if (run == null || run.timedOut || run.exitCode != 0) {
+                    System.out.println("Could not precompile " + headers + (run != null ? ": " + run.output : ""));
+                    Files.deleteIfExists(building);
+                    return null;
+                }
+                Files.move(building, compiled, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                System.out.println("Precompiled " + headers + " to " + compiled);
+                return header;
+            } catch (IOException e) {
+                System.out.println("Could not precompile " + headers + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.drdo.Source.Code.Translator.validation;
+
+import com.drdo.Source.Code.Translator.dto.SyntaxDiagnostic;
+import com.drdo.Source.Code.Translator.dto.SyntaxValidationResult;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.JavacTask;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.lang.model.element.Modifier;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Checks Java sources entirely in memory with the javac Tree API. The compiler
+ * is looked up once and file managers are pooled, so the platform classes
+ * (ct.sym / the jrt image) stay open and their package listings are cached
+ * across validations instead of being reloaded for each one. No class files are
+ * generated (anything written is discarded), and at most max-concurrent
+ * validations run at once.
+ */
+@Component
+public class JavaSyntaxValidator {
+
+    // No annotation processor discovery, no implicitly compiled sources, no debug info or lint
+    private static final List<String> OPTIONS = List.of("-proc:none", "-implicit:none", "-g:none", "-Xlint:none");
+
+    private final JavaCompiler compiler;
+    private final Semaphore permits;
+    // Idle file managers; the semaphore bounds how many exist
+    private final ConcurrentLinkedQueue<InMemoryFileManager> fileManagers = new ConcurrentLinkedQueue<>();
+
+    public JavaSyntaxValidator(@Value("${translation.validation.java.max-concurrent:4}") int maxConcurrent) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    /**
+     * Check {@code code} at the given level and report every diagnostic. The
+     * file name never has to match a class name: at ATTRIBUTE level the source
+     * takes the name of its first public top-level type.
+     */
+    public SyntaxValidationResult validate(String code, ValidationLevel level) {
+        if (compiler == null) {
+            return new SyntaxValidationResult(false,
+                    "Java compiler not available. Make sure you're running with JDK, not JRE.");
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SyntaxValidationResult(false, "Java syntax validation interrupted");
+        }
+        InMemoryFileManager fileManager = null;
+        try {
+            fileManager = fileManagers.poll();
+            if (fileManager == null) {
+                fileManager = new InMemoryFileManager(compiler.getStandardFileManager(null, null, null));
+            }
+
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            SourceFile source = new SourceFile(code);
+            JavacTask task = (JavacTask) compiler.getTask(null, fileManager, diagnostics, OPTIONS, null,
+                    Collections.singletonList(source));
+            Iterable<? extends CompilationUnitTree> units = task.parse();
+            if (level == ValidationLevel.ATTRIBUTE && !hasErrors(diagnostics)) {
+                source.publicType = publicTypeName(units);
+                // Attribution and flow analysis only; no code is generated
+                task.analyze();
+            }
+            return toResult(diagnostics, level);
+        } catch (IOException | RuntimeException e) {
+            // A compiler crash may leave the file manager in a bad state; let it go
+            closeQuietly(fileManager);
+            fileManager = null;
+            return new SyntaxValidationResult(false, "Java syntax validation error: " + e.getMessage());
+        } finally {
+            if (fileManager != null) {
+                fileManagers.offer(fileManager);
+            }
+            permits.release();
+        }
+    }
+
+    private static boolean hasErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String publicTypeName(Iterable<? extends CompilationUnitTree> units) {
+        for (CompilationUnitTree unit : units) {
+            for (Tree type : unit.getTypeDecls()) {
+                if (type instanceof ClassTree classTree
+                        && classTree.getModifiers().getFlags().contains(Modifier.PUBLIC)) {
+                    return classTree.getSimpleName().toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static SyntaxValidationResult toResult(DiagnosticCollector<JavaFileObject> diagnostics,
+                                                   ValidationLevel level) {
+        List<SyntaxDiagnostic> reported = new ArrayList<>();
+        SyntaxDiagnostic firstError = null;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            boolean error = diagnostic.getKind() == Diagnostic.Kind.ERROR;
+            if (!error && diagnostic.getKind() != Diagnostic.Kind.WARNING
+                    && diagnostic.getKind() != Diagnostic.Kind.MANDATORY_WARNING) {
+                continue;
+            }
+            SyntaxDiagnostic entry = new SyntaxDiagnostic(error ? "error" : "warning", diagnostic.getMessage(null),
+                    (int) Math.max(0, diagnostic.getLineNumber()), (int) Math.max(0, diagnostic.getColumnNumber()));
+            reported.add(entry);
+            if (error && firstError == null) {
+                firstError = entry;
+            }
+        }
+
+        SyntaxValidationResult result = firstError == null
+                ? new SyntaxValidationResult(true, "Java syntax is valid")
+                : new SyntaxValidationResult(false, firstError.getMessage());
+        if (firstError != null) {
+            result.setErrorLine(firstError.getLine());
+            result.setErrorColumn(firstError.getColumn());
+        }
+        result.setLevel(level.getName());
+        result.setDiagnostics(reported);
+        return result;
+    }
+
+    @PreDestroy
+    public void close() {
+        InMemoryFileManager fileManager;
+        while ((fileManager = fileManagers.poll()) != null) {
+            closeQuietly(fileManager);
+        }
+    }
+
+    private static void closeQuietly(JavaFileManager fileManager) {
+        if (fileManager == null) {
+            return;
+        }
+        try {
+            fileManager.close();
+        } catch (IOException e) {
+            // Nothing useful to do at this point
+        }
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String code;
+        // Set after parsing; javac checks that a public top-level type matches the file name
+        private String publicType;
+
+        SourceFile(String code) {
+            super(URI.create("string:///Source" + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+
+        @Override
+        public boolean isNameCompatible(String simpleName, Kind kind) {
+            return kind == Kind.SOURCE && (publicType == null || publicType.equals(simpleName));
+        }
+    }
+
+    // Accepts and drops everything the compiler writes
+    private static final class DiscardedOutput extends SimpleJavaFileObject {
+
+        DiscardedOutput(String path, Kind kind) {
+            super(URI.create("discard:///" + path), kind);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return OutputStream.nullOutputStream();
+        }
+    }
+
+    /**
+     * Used by one compilation at a time. Package listings of the platform and
+     * class path never change while the application runs, so they are cached;
+     * the file objects belong to the wrapped manager and stay valid with it.
+     */
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, List<JavaFileObject>> listings = new ConcurrentHashMap<>();
+
+        InMemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                                             boolean recurse) throws IOException {
+            if (location.isOutputLocation() || location == StandardLocation.SOURCE_PATH) {
+                return super.list(location, packageName, kinds, recurse);
+            }
+            String key = location.getName() + '|' + packageName + '|' + kinds + '|' + recurse;
+            List<JavaFileObject> listing = listings.get(key);
+            if (listing == null) {
+                listing = new ArrayList<>();
+                for (JavaFileObject file : super.list(location, packageName, kinds, recurse)) {
+                    listing.add(file);
+                }
+                listings.put(key, listing);
+            }
+            return listing;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new DiscardedOutput(className.replace('.', '/') + kind.extension, kind);
+        }
+
+        @Override
+        public FileObject getFileForOutput(Location location, String packageName, String relativeName,
+                                           FileObject sibling) {
+            return new DiscardedOutput(packageName.replace('.', '/') + '/' + relativeName, JavaFileObject.Kind.OTHER);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.drdo.Source.Code.Translator.validation;
+
+/**
+ * How far syntax validation goes. PARSE only builds the syntax tree, which takes
+ * well under a millisecond for a typical file and needs no symbol lookups.
+ * ATTRIBUTE also resolves names and checks types, as a compiler would.
+ */
+public enum ValidationLevel {
+    PARSE,
+    ATTRIBUTE;
+
+    // Request value ("parse" / "attribute"); missing means PARSE
+    public static ValidationLevel of(String value) {
+        if (value == null || value.isBlank()) {
+            return PARSE;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+
+    public String getName() {
+        return name().toLowerCase();
+    }
+}
@@ -143,10 +143,11 @@ async function handleTextTranslation() {
     setTranslationLoading(true);
 
     try {
-        const response = await fetch(`${CONFIG.API_BASE_URL}/translate/text`, {
+        const response = await fetch(`${CONFIG.API_BASE_URL}/translate/text/stream`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
+                'Accept': 'text/event-stream'
             },
             body: JSON.stringify({
                 sourceCode: sourceCode,
@@ -156,9 +157,23 @@ async function handleTextTranslation() {
             })
         });
 
-        const result = await response.json();
+        // Validation errors are answered with plain JSON rather than an event stream
+        const contentType = response.headers.get('Content-Type') || '';
+        let result;
+        if (!response.body || !contentType.includes('text/event-stream')) {
+            result = await response.json();
+        } else {
+            elements.translatedCode.textContent = '';
+            elements.translatedCode.classList.remove('placeholder');
+            result = await readTranslationStream(response.body, delta => {
+                elements.translatedCode.textContent += delta;
+            });
+        }
 
-        if (result.success) {
+        if (!result) {
+            showStatusMessage('Translation stream ended unexpectedly.', 'error');
+            displayTranslatedCode('');
+        } else if (result.success) {
             displayTranslatedCode(result.translatedCode);
 
             let message = 'Translation completed successfully!';
@@ -182,6 +197,51 @@ async function handleTextTranslation() {
     }
 }
 
+// Reads a Server-Sent Events body: "delta" events are passed to onDelta as they
+// arrive, and the payload of the closing "result" event is returned.
+async function readTranslationStream(body, onDelta) {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let result = null;
+
+    while (true) {
+        const { value, done } = await reader.read();
+        if (done) {
+            break;
+        }
+        buffer += decoder.decode(value, { stream: true });
+
+        let boundary;
+        while ((boundary = buffer.search(/\r?\n\r?\n/)) !== -1) {
+            const rawEvent = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary).replace(/^\r?\n\r?\n/, '');
+
+            let eventName = 'message';
+            const dataLines = [];
+            rawEvent.split(/\r?\n/).forEach(line => {
+                if (line.startsWith('event:')) {
+                    eventName = line.slice(6).trim();
+                } else if (line.startsWith('data:')) {
+                    dataLines.push(line.slice(5));
+                }
+            });
+            if (dataLines.length === 0) {
+                continue;
+            }
+
+            const payload = JSON.parse(dataLines.join('\n'));
+            if (eventName === 'delta') {
+                onDelta(payload.text);
+            } else if (eventName === 'result') {
+                result = payload;
+            }
+        }
+    }
+
+    return result;
+}
+
 function displayTranslatedCode(code) {
     if (code.trim()) {
         elements.translatedCode.textContent = code;
@@ -1,11 +1,26 @@
 package com.drdo.Source.Code.Translator;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
 
 @SpringBootTest
 class SourceCodeTranslatorApplicationTests {
 
+	@TempDir
+	static Path dataDirectory;
+
+	// Keep the persistent store and job files out of the working copy's ./data
+	@DynamicPropertySource
+	static void dataPaths(DynamicPropertyRegistry registry) {
+		registry.add("translation.store.path", () -> dataDirectory.resolve("translation-store").toString());
+		registry.add("translation.jobs.path", () -> dataDirectory.resolve("jobs").toString());
+	}
+
 	@Test
 	void contextLoads() {
 	}
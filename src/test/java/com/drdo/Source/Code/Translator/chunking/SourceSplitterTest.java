@@ -0,0 +1,38 @@
+package com.drdo.Source.Code.Translator.chunking;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceSplitterTest {
+
+    @Test
+    void annotationArraysDoNotStartMemberBodies() {
+        String code = """
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public class A {
+                    @SuppressWarnings({"a", "b"})
+                    void f() {
+                        run(() -> { g(); });
+                    }
+
+                    @Target({ElementType.METHOD}) int x = 1;
+
+                    int g() {
+                        return 0;
+                    }
+                }
+                """;
+
+        SplitSource split = SourceSplitter.split(code, "java");
+
+        assertThat(split.getUnits()).hasSize(2);
+        assertThat(split.getUnits().get(0).getText())
+                .startsWith("@SuppressWarnings({\"a\", \"b\"})")
+                .endsWith("run(() -> { g(); });\n    }");
+        assertThat(split.getUnits().get(1).getText()).startsWith("int g()");
+        assertThat(split.getHeader())
+                .contains("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\npublic class A {")
+                .contains("@Target({ElementType.METHOD}) int x = 1;");
+    }
+}
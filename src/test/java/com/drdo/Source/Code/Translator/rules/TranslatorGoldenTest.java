@@ -0,0 +1,113 @@
+package com.drdo.Source.Code.Translator.rules;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs each golden program as written and as translated, and checks both print
+ * the expected output. The C side is built with -Wall -Werror and
+ * -fsanitize=undefined so translations that rely on undefined behaviour fail
+ * even when they happen to print the right thing; it is skipped where gcc is
+ * not installed. Rejected programs are valid in their own language but would
+ * not behave the same after translation, so the translator must refuse them.
+ */
+class TranslatorGoldenTest {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"arithmetic", "longs", "constant-division", "evaluation-order"})
+    void javaToC(String name) throws Exception {
+        String java = resource("java-to-c/" + name + ".java");
+        String expected = resource("java-to-c/" + name + ".expected");
+
+        assertThat(runJava(java)).isEqualTo(expected);
+        assertThat(runC(JavaToCTranslator.translate(java))).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"chars", "char-arithmetic"})
+    void cToJava(String name) throws Exception {
+        String c = resource("c-to-java/" + name + ".c");
+        String expected = resource("c-to-java/" + name + ".expected");
+
+        assertThat(runJava(CToJavaTranslator.translate(c))).isEqualTo(expected);
+        assertThat(runC(c)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"argument-order", "concatenation-order", "array-initializer-order", "increments",
+            "indexed-write", "global-read-and-call", "compound-global"})
+    void javaToCRejects(String name) throws Exception {
+        String java = resource("java-to-c/rejected/" + name + ".java");
+
+        runJava(java);
+        assertThatThrownBy(() -> JavaToCTranslator.translate(java))
+                .isInstanceOf(UnsupportedConstructException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sizeof-cast", "sizeof-long-cast"})
+    void cToJavaRejects(String name) throws Exception {
+        String c = resource("c-to-java/rejected/" + name + ".c");
+
+        runC(c);
+        assertThatThrownBy(() -> CToJavaTranslator.translate(c))
+                .isInstanceOf(UnsupportedConstructException.class);
+    }
+
+    private String runJava(String source) throws Exception {
+        Path file = directory.resolve("Main.java");
+        Files.writeString(file, source);
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        return run(List.of(java.toString(), file.toString()));
+    }
+
+    private String runC(String source) throws Exception {
+        assumeTrue(hasGcc(), "gcc is not installed");
+        Path file = directory.resolve("main.c");
+        Path binary = directory.resolve("main");
+        Files.writeString(file, source);
+        run(List.of("gcc", "-std=c99", "-Wall", "-Werror", "-fsanitize=undefined", "-fno-sanitize-recover",
+                "-o", binary.toString(), file.toString()));
+        return run(List.of(binary.toString()));
+    }
+
+    private static String run(List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(process.waitFor(60, TimeUnit.SECONDS)).isTrue();
+        assertThat(process.exitValue()).as("%s exited with:%n%s", command.get(0), output).isZero();
+        return output;
+    }
+
+    private static boolean hasGcc() {
+        try {
+            return new ProcessBuilder("gcc", "--version").redirectErrorStream(true).start().waitFor() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = TranslatorGoldenTest.class.getResourceAsStream("/rules/" + name)) {
+            assertThat(in).as(name).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.drdo.Source.Code.Translator.service;
+
+import com.drdo.Source.Code.Translator.chunking.SourceSplitter;
+import com.drdo.Source.Code.Translator.chunking.SourceUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalTranslationServiceTest {
+
+    private static final String JAVA = """
+            public class Main {
+                static int add(int a, int b) {
+                    return a + b;
+                }
+
+                public static void main(String[] args) {
+                    System.out.println(add(1, 2));
+                }
+            }
+            """;
+
+    private static final String C = """
+            int add(int a, int b) {
+                return a + b;
+            }
+
+            int twice(int a) {
+                return add(a, a);
+            }
+            """;
+
+    @Test
+    void wholeTranslationIsSplitBackIntoUnits() {
+        List<SourceUnit> units = SourceSplitter.split(JAVA, "java").getUnits();
+        String c = """
+                #include <stdio.h>
+
+                int add(int a, int b);
+
+                int add(int a, int b) {
+                    return a + b;
+                }
+
+                int main(void) {
+                    printf("%d\\n", add(1, 2));
+                    return 0;
+                }
+                """;
+
+        List<String> pieces = IncrementalTranslationService.splitTranslation(c, units, "c", false);
+
+        assertThat(pieces).hasSize(2);
+        assertThat(pieces.get(0)).startsWith("int add(int a, int b) {").endsWith("}");
+        assertThat(pieces.get(1)).startsWith("int main(void) {");
+    }
+
+    @Test
+    void translatedMembersAreDedented() {
+        List<SourceUnit> units = SourceSplitter.split(C, "c").getUnits();
+        String members = """
+                static int add(int a, int b) {
+                    return a + b;
+                }
+
+                static int twice(int a) {
+                    return add(a, a);
+                }
+                """;
+
+        List<String> pieces = IncrementalTranslationService.splitTranslation(members, units, "java", true);
+
+        assertThat(pieces).containsExactly(
+                "static int add(int a, int b) {\n    return a + b;\n}",
+                "static int twice(int a) {\n    return add(a, a);\n}");
+    }
+
+    @Test
+    void unitsThatDoNotLineUpAreNotSplit() {
+        List<SourceUnit> units = SourceSplitter.split(JAVA, "java").getUnits();
+        String renamed = """
+                int add_int(int a, int b) {
+                    return a + b;
+                }
+
+                int main(void) {
+                    return 0;
+                }
+                """;
+
+        assertThat(IncrementalTranslationService.splitTranslation(renamed, units, "c", false)).isNull();
+        assertThat(IncrementalTranslationService.splitTranslation("int main(void) { return 0; }", units, "c", false))
+                .isNull();
+    }
+}
@@ -0,0 +1,163 @@
+package com.drdo.Source.Code.Translator.store;
+
+import com.drdo.Source.Code.Translator.cache.TranslationKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TranslationStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<TranslationStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() {
+        opened.forEach(TranslationStore::close);
+    }
+
+    @Test
+    void valuesSurviveReopening() {
+        TranslationStore store = open(directory, 1024);
+        store.put(key(1), "int main(void) { return 0; }");
+        store.put(key(2), "class A {}");
+        store.put(key(1), "int main(void) { return 1; }");
+        store.close();
+
+        TranslationStore reopened = open(directory, 1024);
+        assertThat(reopened.get(key(1))).isEqualTo("int main(void) { return 1; }");
+        assertThat(reopened.get(key(2))).isEqualTo("class A {}");
+        assertThat(reopened.get(key(3))).isNull();
+        assertThat(reopened.getStats()).containsEntry("entries", 2L);
+    }
+
+    @Test
+    void indexGrowsPastItsInitialCapacity() {
+        TranslationStore store = open(directory, 8);
+        for (int i = 0; i < 200; i++) {
+            store.put(key(i), "value " + i);
+        }
+        for (int i = 0; i < 200; i++) {
+            assertThat(store.get(key(i))).isEqualTo("value " + i);
+        }
+        store.close();
+
+        TranslationStore reopened = open(directory, 8);
+        assertThat(reopened.get(key(0))).isEqualTo("value 0");
+        assertThat(reopened.get(key(199))).isEqualTo("value 199");
+        assertThat((long) reopened.getStats().get("indexCapacity")).isGreaterThan(200L);
+    }
+
+    @Test
+    void tornTailIsTruncatedOnRecovery() throws Exception {
+        TranslationStore store = open(directory, 1024);
+        store.put(key(1), "first");
+        store.put(key(2), "second");
+        store.close();
+        Path segment = directory.resolve("segment-000000.log");
+        long intact = Files.size(segment);
+        // Half a record header, as left by a crash mid-append
+        Files.write(segment, new byte[]{0x54, 0x53, 0x52, 0x43, 0, 0}, StandardOpenOption.APPEND);
+
+        TranslationStore reopened = open(directory, 1024);
+        assertThat(Files.size(segment)).isEqualTo(intact);
+        assertThat(reopened.get(key(1))).isEqualTo("first");
+        assertThat(reopened.get(key(2))).isEqualTo("second");
+        reopened.put(key(3), "third");
+        assertThat(reopened.get(key(3))).isEqualTo("third");
+    }
+
+    @Test
+    void missingIndexIsRebuiltFromTheLog() throws Exception {
+        TranslationStore store = open(directory, 1024);
+        store.put(key(1), "first");
+        store.put(key(1), "replaced");
+        store.put(key(2), "second");
+        store.close();
+        Files.delete(directory.resolve("index.dat"));
+
+        TranslationStore reopened = open(directory, 1024);
+        assertThat(reopened.get(key(1))).isEqualTo("replaced");
+        assertThat(reopened.get(key(2))).isEqualTo("second");
+    }
+
+    @Test
+    void oversizedValueIsRejectedWithoutLosingLaterRecords() {
+        TranslationStore store = open(directory, 1024);
+        store.put(key(1), "x".repeat(64 * 1024 * 1024 + 1));
+        store.put(key(2), "after");
+        store.close();
+
+        TranslationStore reopened = open(directory, 1024);
+        assertThat(reopened.get(key(1))).isNull();
+        assertThat(reopened.get(key(2))).isEqualTo("after");
+    }
+
+    @Test
+    void snapshotRoundTripsLiveEntries() throws Exception {
+        TranslationStore source = open(directory.resolve("a"), 1024);
+        source.put(key(1), "old");
+        source.put(key(1), "new");
+        source.put(key(2), "two");
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        assertThat(source.exportTo(snapshot)).isEqualTo(2);
+
+        TranslationStore target = open(directory.resolve("b"), 1024);
+        assertThat(target.importFrom(new ByteArrayInputStream(snapshot.toByteArray()))).isEqualTo(2);
+        assertThat(target.get(key(1))).isEqualTo("new");
+        assertThat(target.get(key(2))).isEqualTo("two");
+    }
+
+    @Test
+    void importStopsAtTheRecordLimitAndOnCorruption() throws Exception {
+        TranslationStore source = open(directory.resolve("a"), 1024);
+        source.put(key(1), "one");
+        source.put(key(2), "two");
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        source.exportTo(snapshot);
+        byte[] bytes = snapshot.toByteArray();
+
+        TranslationStore limited = open(directory.resolve("b"), 1024);
+        ReflectionTestUtils.setField(limited, "importMaxRecords", 1L);
+        assertThatThrownBy(() -> limited.importFrom(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(limited.getStats()).containsEntry("entries", 1L);
+
+        bytes[bytes.length - 1] ^= 1;
+        TranslationStore corrupt = open(directory.resolve("c"), 1024);
+        assertThatThrownBy(() -> corrupt.importFrom(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Checksum");
+    }
+
+    private TranslationStore open(Path path, long initialCapacity) {
+        TranslationStore store = new TranslationStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "storePath", path.toString());
+        ReflectionTestUtils.setField(store, "segmentSizeMb", 256L);
+        ReflectionTestUtils.setField(store, "initialCapacity", initialCapacity);
+        ReflectionTestUtils.setField(store, "importMaxRecords", 1000L);
+        ReflectionTestUtils.setField(store, "importMaxMb", 64L);
+        store.open();
+        assertThat(store.isAvailable()).isTrue();
+        opened.add(store);
+        return store;
+    }
+
+    private static String key(int i) {
+        return TranslationKey.hash("test", Integer.toString(i));
+    }
+}
@@ -0,0 +1,40 @@
+#include <stdio.h>
+
+char next(char c) {
+    return c + 1;
+}
+
+int classify(char c) {
+    switch (c) {
+        case 'a':
+            return 1;
+        case -1:
+            return 2;
+        default:
+            return 0;
+    }
+}
+
+int main(void) {
+    char c = 120;
+    for (int i = 0; i < 15; i++) {
+        c = next(c);
+    }
+    printf("%d\n", c);
+    char low = -128;
+    low--;
+    printf("%d\n", low);
+    char high = 127;
+    high += 1;
+    printf("%d\n", high);
+    int base = 16;
+    char product = base * base + 3;
+    printf("%d\n", product);
+    char a = 'a';
+    char m = -1;
+    printf("%d %d %d\n", classify(a), classify(m), classify(c));
+    int widened = c * 1000;
+    printf("%d\n", widened);
+    printf("%c%c\n", a, a + 1);
+    return 0;
+}
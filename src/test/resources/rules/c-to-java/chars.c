@@ -0,0 +1,39 @@
+#include <stdio.h>
+
+struct Cell {
+    char tag;
+    int value;
+};
+
+char shift(char c, int by) {
+    return c + by;
+}
+
+int main(void) {
+    char c = 200;
+    printf("%d\n", c);
+    printf("%x %o\n", c, c);
+    char d = 'a';
+    d++;
+    printf("%c %d\n", d, d);
+    const char *word = "hello";
+    char e = word[1];
+    printf("%c%c\n", e, shift(e, 2));
+    char f = c + 100;
+    printf("%d\n", f);
+    signed char g = -1;
+    printf("%d %x\n", g, g);
+    short s = -1;
+    printf("%x\n", s);
+    struct Cell cell = {'z', 1};
+    cell.tag += 10;
+    printf("%d\n", cell.tag);
+    char sum = 0;
+    for (int i = 0; i < 20; i++) {
+        sum += 10;
+    }
+    printf("%d\n", sum);
+    putchar(d);
+    putchar('\n');
+    return 0;
+}
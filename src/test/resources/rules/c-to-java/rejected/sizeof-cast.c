@@ -0,0 +1,6 @@
+#include <stdio.h>
+
+int main(void) {
+    printf("%d\n", (int)sizeof(int));
+    return 0;
+}
@@ -0,0 +1,8 @@
+#include <stdio.h>
+
+int main(void) {
+    int x = 1;
+    long size = (long)sizeof(x);
+    printf("%ld\n", size);
+    return 0;
+}
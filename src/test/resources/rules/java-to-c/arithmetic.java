@@ -0,0 +1,39 @@
+public class Main {
+    static final int BIG = 2147483647;
+    static final int NEXT = BIG + 1;
+
+    static int hash(int[] values) {
+        int h = 17;
+        for (int i = 0; i < values.length; i++) {
+            h = h * 31 + values[i];
+        }
+        return h;
+    }
+
+    public static void main(String[] args) {
+        int x = BIG;
+        x++;
+        System.out.println(x);
+        int n = 33;
+        System.out.println(1 << n);
+        System.out.println(1 << 33);
+        long big = Long.MAX_VALUE;
+        big += 1;
+        System.out.println(big);
+        int m = Integer.MIN_VALUE;
+        int d = -1;
+        System.out.println(m / d);
+        System.out.println(m % d);
+        System.out.println(-m);
+        System.out.println(-8 >>> 28);
+        System.out.println(-8 >> n);
+        int[] values = {100000, 200000, 300000};
+        System.out.println(hash(values));
+        int y = BIG;
+        int z = y++ + 1;
+        System.out.println(z + " " + y);
+        y <<= 40;
+        System.out.println(y + " " + NEXT);
+        System.out.println(m / 2 + " " + 7 % 3);
+    }
+}
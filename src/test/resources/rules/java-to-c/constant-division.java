@@ -0,0 +1,18 @@
+public class Main {
+    static final int MIN = Integer.MIN_VALUE;
+    static final int NEG = -1;
+    static final int QUOTIENT = MIN / NEG;
+    static final int REMAINDER = MIN % NEG;
+    static final long LONG_QUOTIENT = Long.MIN_VALUE / -1L;
+
+    public static void main(String[] args) {
+        System.out.println(Integer.MIN_VALUE / -1);
+        System.out.println(Integer.MIN_VALUE % -1);
+        System.out.println(QUOTIENT + " " + REMAINDER);
+        System.out.println(LONG_QUOTIENT);
+        System.out.println(MIN / 7 + " " + MIN % 7);
+        int m = MIN;
+        System.out.println(m / -1 + " " + m % -1);
+        System.out.println(m / NEG + " " + m % NEG);
+    }
+}
@@ -0,0 +1,38 @@
+public class Main {
+    static int calls = 0;
+
+    static int f(int x) {
+        System.out.println("f" + x);
+        return x;
+    }
+
+    static int sub(int a, int b) {
+        return a - b;
+    }
+
+    static int next() {
+        calls++;
+        return calls;
+    }
+
+    public static void main(String[] args) {
+        System.out.println(sub(f(1), 2));
+        int a = f(3);
+        int b = f(4);
+        System.out.println(sub(a, b));
+        int i = 0;
+        i++;
+        int j = i++ * 2;
+        System.out.println(i + " " + j);
+        boolean both = f(5) > 0 && f(6) > 0;
+        System.out.println(both);
+        int[] values = {1, 2, 3};
+        int k = 0;
+        values[k] = values[k + 1] + 10;
+        System.out.println(values[0]);
+        int c = next();
+        System.out.println(c + next());
+        int x = f(7) > 0 ? f(8) : f(9);
+        System.out.println(x);
+    }
+}
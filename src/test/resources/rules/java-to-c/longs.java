@@ -0,0 +1,29 @@
+public class Main {
+    public static void main(String[] args) {
+        long big = Long.MAX_VALUE;
+        long n = 65;
+        System.out.println(big * 3);
+        System.out.println(1L << n);
+        System.out.println(1L << 65);
+        System.out.println(-1L >>> 60);
+        System.out.println(-big - 2);
+        long m = Long.MIN_VALUE;
+        long d = -1;
+        System.out.println(m / d + " " + m % d);
+        int shift = 70;
+        System.out.println(-16L >> shift);
+        long acc = 1;
+        for (int i = 0; i < 70; i++) {
+            acc *= 3;
+        }
+        System.out.println(acc);
+        int x = Integer.MAX_VALUE;
+        long widened = x + 1;
+        System.out.println(widened);
+        long sum = x + 1L;
+        System.out.println(sum);
+        long counter = Long.MAX_VALUE;
+        counter++;
+        System.out.println(counter);
+    }
+}
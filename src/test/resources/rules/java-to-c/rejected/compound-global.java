@@ -0,0 +1,23 @@
+public class Main {
+    static int calls = 0;
+
+    static int f(int x) {
+        System.out.println("f" + x);
+        return x;
+    }
+
+    static int sub(int a, int b) {
+        return a - b;
+    }
+
+    static int next() {
+        calls++;
+        return calls;
+    }
+
+    public static void main(String[] args) {
+        int i = 0;
+        int[] values = {1, 2, 3};
+        calls += next();
+    }
+}